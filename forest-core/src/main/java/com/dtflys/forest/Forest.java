@@ -2,6 +2,10 @@ package com.dtflys.forest;
 
 import com.dtflys.forest.config.ForestConfiguration;
 import com.dtflys.forest.http.ForestRequest;
+import com.dtflys.forest.http.ForestRequestGroup;
+
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
 
 /**
  * Forest 快捷接口
@@ -165,4 +169,46 @@ public abstract class Forest {
         return config().trace(url);
     }
 
+    /**
+     * 创建请求组，将多个请求作为一组异步并行执行
+     *
+     * @param requests 请求列表
+     * @return {@link ForestRequestGroup} 对象
+     * @since 1.5.19
+     */
+    public static ForestRequestGroup all(ForestRequest<?>... requests) {
+        ForestRequestGroup group = new ForestRequestGroup();
+        for (ForestRequest<?> request : requests) {
+            group.add(request);
+        }
+        return group;
+    }
+
+    /**
+     * 创建请求组，将多个请求作为一组异步并行执行
+     *
+     * @param requests 请求列表
+     * @return {@link ForestRequestGroup} 对象
+     * @since 1.5.19
+     */
+    public static ForestRequestGroup all(Iterable<? extends ForestRequest<?>> requests) {
+        return new ForestRequestGroup().addAll(requests);
+    }
+
+    /**
+     * 创建请求组，将多个异步调用（如返回 {@link java.util.concurrent.CompletionStage} 的接口方法调用）作为一组并行执行
+     *
+     * @param calls 异步调用列表
+     * @return {@link ForestRequestGroup} 对象
+     * @since 1.5.19
+     */
+    @SafeVarargs
+    public static ForestRequestGroup all(Supplier<? extends CompletionStage<?>>... calls) {
+        ForestRequestGroup group = new ForestRequestGroup();
+        for (Supplier<? extends CompletionStage<?>> call : calls) {
+            group.add(call);
+        }
+        return group;
+    }
+
 }
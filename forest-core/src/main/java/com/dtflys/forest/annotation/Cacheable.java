@@ -0,0 +1,77 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Jun Gong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dtflys.forest.annotation;
+
+import com.dtflys.forest.lifecycles.method.CacheableLifeCycle;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * HTTP响应缓存注解
+ * <p>为被修饰的方法启用（或关闭）HTTP响应缓存，不受全局配置 {@code responseCacheEnabled} 的影响；
+ * 只有 GET 请求的响应会被缓存，缓存时间默认以响应头中的 {@code Cache-Control}、{@code Expires} 为准，
+ * 时间类属性大于等于 {@code 0} 时覆盖响应头中对应的值
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ * @see com.dtflys.forest.cache.ForestResponseCache
+ */
+@Documented
+@MethodLifeCycle(CacheableLifeCycle.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+public @interface Cacheable {
+
+    /**
+     * 是否启用响应缓存
+     *
+     * @return {@code true}: 启用, {@code false}: 关闭
+     */
+    boolean enabled() default true;
+
+    /**
+     * 响应的新鲜时间（秒），为 {@code -1} 时以响应头为准
+     *
+     * @return 新鲜时间
+     */
+    long maxAge() default -1;
+
+    /**
+     * 过期后允许先返回旧响应、同时在后台重新验证的时间（秒），为 {@code -1} 时以响应头为准
+     *
+     * @return 时间窗口
+     */
+    long staleWhileRevalidate() default -1;
+
+    /**
+     * 重新验证失败时允许返回旧响应的时间（秒），为 {@code -1} 时以响应头为准
+     *
+     * @return 时间窗口
+     */
+    long staleIfError() default -1;
+}
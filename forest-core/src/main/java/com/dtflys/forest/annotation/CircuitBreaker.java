@@ -0,0 +1,100 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Jun Gong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.dtflys.forest.annotation;
+
+import com.dtflys.forest.lifecycles.method.CircuitBreakerLifeCycle;
+import com.dtflys.forest.limiter.LimitScope;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 熔断器注解
+ * <p>以滑动窗口统计失败率和慢调用率，达到阈值后熔断器打开，请求不经过网络直接失败，
+ * 失败会交给 {@code onError} 回调函数和拦截器处理，没有 {@code onError} 时抛出
+ * {@link com.dtflys.forest.exceptions.ForestCircuitBreakerOpenException}
+ * <p>网络异常和 5xx 状态码的响应视为失败
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+@Documented
+@MethodLifeCycle(CircuitBreakerLifeCycle.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE, ElementType.ANNOTATION_TYPE})
+public @interface CircuitBreaker {
+
+    /**
+     * 失败率阈值（百分比）
+     * @return 失败率阈值
+     */
+    float failureRateThreshold() default 50;
+
+    /**
+     * 慢调用率阈值（百分比）
+     * @return 慢调用率阈值
+     */
+    float slowCallRateThreshold() default 100;
+
+    /**
+     * 慢调用的响应时间阈值（毫秒）
+     * @return 慢调用的响应时间阈值
+     */
+    long slowCallDuration() default 60000;
+
+    /**
+     * 滑动窗口大小（最近的调用次数）
+     * @return 滑动窗口大小
+     */
+    int windowSize() default 100;
+
+    /**
+     * 计算失败率所需的最小调用次数
+     * @return 最小调用次数
+     */
+    int minimumCalls() default 10;
+
+    /**
+     * 熔断器打开状态的持续时间（毫秒），之后进入半开状态
+     * @return 打开状态的持续时间
+     */
+    long waitDurationInOpenState() default 60000;
+
+    /**
+     * 半开状态下允许通过的探测请求数
+     * @return 探测请求数
+     */
+    int permittedCallsInHalfOpenState() default 10;
+
+    /**
+     * 熔断器的作用范围
+     * @return 作用范围
+     */
+    LimitScope scope() default LimitScope.METHOD;
+
+}
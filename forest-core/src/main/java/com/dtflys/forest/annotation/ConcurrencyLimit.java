@@ -0,0 +1,98 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Jun Gong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.dtflys.forest.annotation;
+
+import com.dtflys.forest.limiter.LimitScope;
+import com.dtflys.forest.limiter.LimitStrategy;
+import com.dtflys.forest.lifecycles.method.ConcurrencyLimitLifeCycle;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 并发限制（舱壁）注解
+ * <p>限制同一作用范围内同时执行的请求数，超出限制的请求在 {@link #maxWait()} 时间内排队等待，
+ * 等待超时或 {@link #maxWait()} 为 0 时不发送请求，以 {@link com.dtflys.forest.exceptions.ForestConcurrencyLimitException}
+ * 走失败流程（执行 onError 回调，没有 onError 回调时抛出该异常，异步方法返回以该异常结束的 Future）
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+@Documented
+@MethodLifeCycle(ConcurrencyLimitLifeCycle.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE, ElementType.ANNOTATION_TYPE})
+public @interface ConcurrencyLimit {
+
+    /**
+     * 并发限制数
+     * <p>固定策略下为并发数上限，自适应策略下为初始并发数
+     * @return 并发限制数
+     */
+    int value() default 10;
+
+    /**
+     * 自适应策略下的最小并发限制数
+     * @return 最小并发限制数
+     */
+    int minLimit() default 1;
+
+    /**
+     * 自适应策略下的最大并发限制数
+     * @return 最大并发限制数
+     */
+    int maxLimit() default 200;
+
+    /**
+     * 并发限制策略
+     * @return 并发限制策略
+     */
+    LimitStrategy strategy() default LimitStrategy.FIXED;
+
+    /**
+     * 并发限制的作用范围
+     * @return 作用范围
+     */
+    LimitScope scope() default LimitScope.INTERFACE;
+
+    /**
+     * 获取执行许可的最大等待时间（毫秒）
+     * <p>为 0 时不等待，超出并发限制立即失败
+     * <p>等待发生在发起请求的线程中，异步请求同样会阻塞调用者，异步场景建议设为 0 或较小的值
+     * @return 最大等待时间
+     */
+    long maxWait() default 0;
+
+    /**
+     * AIMD策略下的响应时间阈值（毫秒）
+     * <p>响应时间超过该值时视为下游过载，并发限制数将被缩减；为 0 时只在超时和网络异常时缩减
+     * @return 响应时间阈值
+     */
+    long latencyThreshold() default 0;
+
+}
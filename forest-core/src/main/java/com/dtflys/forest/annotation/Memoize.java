@@ -0,0 +1,97 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Jun Gong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.dtflys.forest.annotation;
+
+import com.dtflys.forest.lifecycles.method.MemoizeLifeCycle;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 方法结果缓存注解
+ * <p>与HTTP响应缓存无关，直接缓存方法返回的Java对象: 调用方法时先按缓存键查找，命中时不渲染模板、不构建请求、
+ * 不发送请求也不解析响应，直接返回缓存的对象（回调函数和拦截器的 {@code onInvokeMethod} 也不会被调用）
+ * <ul>
+ *     <li>缓存键默认为方法的全部参数值，设置了 {@link #key()} 时为渲染后的模板字符串</li>
+ *     <li>每个缓存最多保存 {@link #maxSize()} 个条目，超过时淘汰最久未访问的条目 (LRU)</li>
+ *     <li>返回 {@code null}、抛出异常，或返回失败的 {@link com.dtflys.forest.http.ForestResponse}（HTTP错误或网络错误）时不缓存，
+ *     提前刷新得到这样的结果时保留原条目</li>
+ * </ul>
+ * 返回类型不能为 {@code void}、{@link com.dtflys.forest.http.ForestRequest}、{@link java.util.concurrent.Future}、
+ * {@link java.util.concurrent.CompletionStage}、迭代器、流或响应式类型
+ * <p>通过 {@link com.dtflys.forest.config.ForestConfiguration#getMemoizeCache(String)} 获取缓存后可在代码中使其失效
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ * @see com.dtflys.forest.memoize.ForestMemoizeCache
+ */
+@Documented
+@MethodLifeCycle(MemoizeLifeCycle.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+public @interface Memoize {
+
+    /**
+     * 缓存名称
+     * <p>默认为 {@code 接口全名#方法名}，名称相同的方法共享同一个缓存，缓存容量以最先初始化的注解为准
+     *
+     * @return 缓存名称
+     */
+    String name() default "";
+
+    /**
+     * 缓存键模板，如 {@code "{0}:{1}"}、<code>"${id}"</code>
+     * <p>默认为空，表示以方法的全部参数值为缓存键；参数中有回调函数等不可比较的对象时应设置该模板
+     *
+     * @return 缓存键模板
+     */
+    String key() default "";
+
+    /**
+     * 缓存条目的存活时间（毫秒）
+     *
+     * @return 存活时间
+     */
+    long ttl() default 60000;
+
+    /**
+     * 缓存的最大条目数量
+     *
+     * @return 最大条目数量
+     */
+    int maxSize() default 1000;
+
+    /**
+     * 提前刷新时间（毫秒）
+     * <p>大于 {@code 0} 时，命中的条目距离过期不足该时间便在后台重新调用方法刷新，当前调用仍直接返回缓存的对象；
+     * 默认为 {@code 0}，即不提前刷新
+     *
+     * @return 提前刷新时间
+     */
+    long refreshAhead() default 0;
+}
@@ -0,0 +1,105 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Jun Gong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.dtflys.forest.annotation;
+
+import com.dtflys.forest.lifecycles.method.PaginatedLifeCycle;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 分页请求注解
+ * <p>被修饰的方法返回类型可以是 {@link java.util.Iterator}、{@link Iterable} 或 {@link java.util.stream.Stream}，
+ * 调用方法时不会立即发送请求，而是在消费者遍历到下一页时才请求下一页数据
+ * <p>支持两种分页方式:
+ * <ul>
+ *     <li>页码分页: 未设置 {@link #cursor()} 时，每页将 {@link #param()} 所指定的Query参数加一</li>
+ *     <li>游标分页: 设置了 {@link #cursor()} 时，从上一页响应中取出下一页的游标，作为 {@link #param()} 所指定的Query参数值</li>
+ * </ul>
+ * <p>{@link #items()}、{@link #cursor()}、{@link #hasMore()} 均为响应数据中的JSON路径，
+ * 如 {@code $.data.items}、{@code data.list[0].next}，开头的 {@code $.} 可以省略
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+@Documented
+@MethodLifeCycle(PaginatedLifeCycle.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+public @interface Paginated {
+
+    /**
+     * 页码或游标的Query参数名
+     * @return Query参数名
+     */
+    String param() default "page";
+
+    /**
+     * 起始页码，仅在页码分页时有效
+     * <p>请求中已有 {@link #param()} 所指定的Query参数时，以该参数值为起始页码
+     * @return 起始页码
+     */
+    int start() default 1;
+
+    /**
+     * 每页数据列表在响应数据中的JSON路径
+     * <p>默认为空，表示响应数据本身就是数据列表
+     * @return JSON路径
+     */
+    String items() default "";
+
+    /**
+     * 下一页游标在响应数据中的JSON路径
+     * <p>默认为空，表示使用页码分页; 游标为空时表示已无下一页
+     * @return JSON路径
+     */
+    String cursor() default "";
+
+    /**
+     * 是否还有下一页的标志在响应数据中的JSON路径
+     * <p>默认为空，表示当页数据列表为空（页码分页）或游标为空（游标分页）时结束
+     * @return JSON路径
+     */
+    String hasMore() default "";
+
+    /**
+     * 预取页数
+     * <p>大于0时，在消费当前页的同时异步请求之后的页，内存中最多同时保留 {@code prefetch + 1} 页数据；
+     * 默认为0，即不预取，遍历到下一页时才同步请求
+     * @return 预取页数
+     */
+    int prefetch() default 0;
+
+    /**
+     * 最多请求的页数
+     * <p>默认为0，表示不限制
+     * @return 最多请求的页数
+     */
+    int maxPages() default 0;
+
+}
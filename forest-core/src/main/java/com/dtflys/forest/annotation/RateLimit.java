@@ -0,0 +1,92 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Jun Gong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.dtflys.forest.annotation;
+
+import com.dtflys.forest.lifecycles.method.RateLimitLifeCycle;
+import com.dtflys.forest.limiter.LimitScope;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 请求限流注解
+ * <p>每个周期 {@link #period()} 内最多发送 {@link #permits()} 个请求。
+ * 同步请求在当前线程等待许可；异步请求不占用线程，而是延迟到许可可用时再提交到异步线程池。
+ * 需要等待的时间超过 {@link #maxWait()} 时请求不发送直接失败，失败会交给 {@code onError} 回调函数和拦截器处理，
+ * 没有 {@code onError} 时抛出 {@link com.dtflys.forest.exceptions.ForestRateLimitException}。
+ * <p>每次重试同样消耗一个许可，在执行重试的线程上等待；等待时间超过 {@link #maxWait()} 时不再重试，
+ * 直接以 {@link com.dtflys.forest.exceptions.ForestRateLimitException} 失败
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+@Documented
+@MethodLifeCycle(RateLimitLifeCycle.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE, ElementType.ANNOTATION_TYPE})
+public @interface RateLimit {
+
+    /**
+     * 每个周期内允许的请求数
+     * @return 请求数
+     */
+    int permits();
+
+    /**
+     * 限流周期（毫秒）
+     * @return 限流周期
+     */
+    long period() default 1000;
+
+    /**
+     * 限流的作用范围
+     * <p>设置了 {@link #key()} 时以 {@link #key()} 为准
+     * @return 作用范围
+     */
+    LimitScope scope() default LimitScope.METHOD;
+
+    /**
+     * 自定义限流器的键，键相同的请求共享同一个限流器
+     * <p>支持模板表达式，如: {@code "partner-${0}"}
+     * @return 限流器的键
+     */
+    String key() default "";
+
+    /**
+     * 等待许可的最大时间（毫秒）
+     * @return 最大等待时间
+     */
+    long maxWait() default 1000;
+
+    /**
+     * 是否根据响应头 {@code Retry-After} 和 {@code X-RateLimit-Remaining}、{@code X-RateLimit-Reset} 自动调整
+     * @return {@code true}: 自动调整, {@code false}: 不调整
+     */
+    boolean adaptive() default true;
+
+}
@@ -0,0 +1,60 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Jun Gong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.dtflys.forest.annotation;
+
+import com.dtflys.forest.lifecycles.method.StoreAndForwardLifeCycle;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 存储转发注解
+ * <p>被修饰的方法返回类型必须为 {@code void}，调用时只将渲染好的请求追加写入本地的内存映射日志便立即返回，
+ * 由后台线程批量发送，失败时按指数退避重试，进程重启后继续发送未完成的记录，保证每个请求至少被成功发送一次
+ * <p>写入日志前会先执行拦截器的 {@code beforeExecute}，{@code @BasicAuth}、{@code @OAuth2} 等添加的请求头，
+ * 以及超时、重试、后端、SSL、代理等请求配置都会随请求一起写入日志，由后台线程发送时不再执行方法上的拦截器
+ * <p>网络故障不会导致方法调用失败，也不会占用堆内存；服务端返回除 408、429 以外的 4xx 状态码时，记录会被丢弃
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ * @see com.dtflys.forest.journal.ForestJournal
+ */
+@Documented
+@MethodLifeCycle(StoreAndForwardLifeCycle.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+public @interface StoreAndForward {
+
+    /**
+     * 日志名称
+     * <p>同名的方法共享同一个日志和发送线程
+     * @return 日志名称
+     */
+    String value() default "default";
+
+}
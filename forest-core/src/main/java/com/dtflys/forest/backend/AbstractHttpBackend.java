@@ -1,10 +1,16 @@
 package com.dtflys.forest.backend;
 
 
+import com.dtflys.forest.cache.ForestCacheLifeCycleHandler;
+import com.dtflys.forest.cache.ForestCachingExecutor;
+import com.dtflys.forest.cache.ForestResponseCache;
 import com.dtflys.forest.config.ForestConfiguration;
+import com.dtflys.forest.handler.CallbackDispatchLifeCycleHandler;
 import com.dtflys.forest.handler.LifeCycleHandler;
 import com.dtflys.forest.http.ForestRequest;
 
+import java.util.concurrent.Executor;
+
 
 /**
  * @author gongjun[jun.gong@thebeastshop.com]
@@ -16,7 +22,7 @@ public abstract class AbstractHttpBackend implements HttpBackend {
      * 同步HTTP执行器构造器
      */
     private HttpExecutorCreator SYNC_EXECUTOR_CREATOR = (connectionManager, request, lifeCycleHandler) ->
-            createSyncExecutor(connectionManager, request, lifeCycleHandler);
+            createCacheableSyncExecutor(connectionManager, request, lifeCycleHandler);
 
     /**
      * 异步HTTP执行器构造器
@@ -51,8 +57,41 @@ public abstract class AbstractHttpBackend implements HttpBackend {
 
     public abstract HttpExecutor createSyncExecutor(ForestConnectionManager connectionManager, ForestRequest request, LifeCycleHandler lifeCycleHandler);
 
+    /**
+     * 创建同步HTTP执行器，请求需要经过响应缓存时，在后端执行器外包装一层缓存执行器
+     *
+     * @since 1.5.19
+     */
+    protected HttpExecutor createCacheableSyncExecutor(ForestConnectionManager connectionManager, ForestRequest request, LifeCycleHandler lifeCycleHandler) {
+        ForestResponseCache cache = lifeCycleHandler != null ? ForestResponseCache.of(request) : null;
+        if (cache == null) {
+            return createSyncExecutor(connectionManager, request, lifeCycleHandler);
+        }
+        return cache.createExecutor(request, lifeCycleHandler,
+                (req, handler) -> createSyncExecutor(connectionManager, req, handler));
+    }
+
     public AsyncHttpExecutor createAsyncExecutor(ForestConnectionManager connectionManager, ForestRequest request, LifeCycleHandler lifeCycleHandler) {
+        ForestResponseCache cache = lifeCycleHandler != null ? ForestResponseCache.of(request) : null;
+        ForestCacheLifeCycleHandler cacheHandler = null;
+        if (cache != null) {
+            // 缓存处理器位于回调分发处理器之内，使缓存的读写也在回调执行器中进行
+            cacheHandler = new ForestCacheLifeCycleHandler(cache, lifeCycleHandler);
+            lifeCycleHandler = cacheHandler;
+        }
+        Executor callbackExecutor = request.getCallbackExecutor();
+        if (callbackExecutor == null) {
+            callbackExecutor = request.getConfiguration().getCallbackExecutor();
+        }
+        if (callbackExecutor != null && lifeCycleHandler != null && !request.isFireAndForget()) {
+            // 响应解析和回调交给回调执行器，网络线程只负责读取原始响应体
+            lifeCycleHandler = new CallbackDispatchLifeCycleHandler(lifeCycleHandler, callbackExecutor);
+        }
         HttpExecutor syncHttpExecutor = createSyncExecutor(connectionManager, request, lifeCycleHandler);
+        if (cacheHandler != null) {
+            syncHttpExecutor = new ForestCachingExecutor(cache, syncHttpExecutor, cacheHandler,
+                    (req, handler) -> createSyncExecutor(connectionManager, req, handler));
+        }
         AsyncHttpExecutor asyncHttpExecutor = new AsyncHttpExecutor(request.getConfiguration(), syncHttpExecutor, syncHttpExecutor.getResponseHandler());
         return asyncHttpExecutor;
     }
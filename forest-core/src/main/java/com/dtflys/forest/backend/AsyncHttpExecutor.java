@@ -1,15 +1,32 @@
 package com.dtflys.forest.backend;
 
 import com.dtflys.forest.config.ForestConfiguration;
+import com.dtflys.forest.handler.CallbackDispatchLifeCycleHandler;
 import com.dtflys.forest.handler.LifeCycleHandler;
+import com.dtflys.forest.exceptions.ForestCanceledException;
+import com.dtflys.forest.http.ForestFuture;
+import com.dtflys.forest.http.ForestLocalResponse;
 import com.dtflys.forest.http.ForestRequest;
+import com.dtflys.forest.http.ForestResponse;
 import com.dtflys.forest.reflection.MethodLifeCycleHandler;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Forest异步请求执行器
@@ -19,8 +36,23 @@ import java.util.concurrent.atomic.AtomicInteger;
  */
 public class AsyncHttpExecutor implements HttpExecutor {
 
+    private final static Logger log = LoggerFactory.getLogger(AsyncHttpExecutor.class);
+
     public final static Integer DEFAULT_MAX_THREAD_SIZE = 100;
 
+    public final static Integer DEFAULT_MAX_QUEUE_SIZE = 100;
+
+    /**
+     * 拒绝策略为 {@link AsyncRejectionPolicy#BLOCK} 时默认的最长阻塞等待时间（毫秒）
+     */
+    public final static long DEFAULT_BLOCK_TIMEOUT = 3000;
+
+    /**
+     * 优先级老化间隔（毫秒）
+     * <p>异步请求在队列中每等待一个间隔，相当于提升一级优先级，以避免低优先级请求被饿死
+     */
+    public final static long PRIORITY_AGING_INTERVAL = 1000;
+
     protected final ForestConfiguration configuration;
 
     /**
@@ -34,49 +66,179 @@ public class AsyncHttpExecutor implements HttpExecutor {
     protected final ResponseHandler responseHandler;
 
     /**
-     * 异步线程计数
+     * 异步线程池计数，用于区分不同配置的异步线程名称
      */
-    private final static AtomicInteger threadCount = new AtomicInteger(0);
+    private final static AtomicInteger poolCount = new AtomicInteger(0);
 
     /**
-     * 异步请求的执行线程池
+     * 异步任务入队序号，用于同一排序值的任务之间保持先进先出
      */
-    protected static ThreadPoolExecutor pool;
+    private final static AtomicLong taskSequence = new AtomicLong(0);
 
     /**
-     * 异步线程池是否已初始化
+     * 延迟提交异步请求的调度器
      */
-    protected static volatile boolean initialized = false;
+    private static volatile ScheduledExecutorService scheduler;
 
     /**
-     * 初始化异步请求线程池
+     * 当前线程是否为调度器线程
+     */
+    private final static ThreadLocal<Boolean> IN_SCHEDULER = new ThreadLocal<>();
+
+    /**
+     * 延迟请求被拒绝、需要由提交者执行或阻塞等待时，代替调度器线程重新提交请求的线程池
+     */
+    private static volatile ExecutorService delayedSubmitter;
+
+    /**
+     * 虚拟线程执行器，所有配置共享
+     */
+    private static volatile ExecutorService virtualThreadExecutor;
+
+    /**
+     * 当前JDK是否支持虚拟线程，为 {@code null} 时表示还未检测
+     */
+    private static volatile Boolean virtualThreadSupported;
+
+    /**
+     * 初始化默认配置的异步请求线程池
      *
      * @param maxAsyncThreadSize 最大异步线程数
+     * @deprecated 异步线程池已按配置隔离，请使用 {@link ForestConfiguration#setMaxAsyncThreadSize(Integer)}
      */
+    @Deprecated
     public static synchronized void initAsyncThreads(Integer maxAsyncThreadSize) {
-        maxAsyncThreadSize = maxAsyncThreadSize != null ? maxAsyncThreadSize : DEFAULT_MAX_THREAD_SIZE;
-        int coreSize = maxAsyncThreadSize > 10 ? 10 : maxAsyncThreadSize;
-        pool = new ThreadPoolExecutor(
-                coreSize, maxAsyncThreadSize != null ? maxAsyncThreadSize : DEFAULT_MAX_THREAD_SIZE,
+        ForestConfiguration.configuration().setMaxAsyncThreadSize(maxAsyncThreadSize);
+    }
+
+    /**
+     * 根据Forest配置创建异步请求线程池
+     * <p>线程都在忙时，异步请求进入多租户公平等待队列：租户之间按权重轮流出队，租户内按优先级出队，
+     * 队列满后按配置的 {@link AsyncRejectionPolicy} 处理
+     *
+     * @param configuration Forest配置对象
+     * @return 新创建的线程池
+     * @since 1.5.19
+     */
+    public static ThreadPoolExecutor createAsyncThreadPool(ForestConfiguration configuration) {
+        final Integer maxAsyncThreadSize = configuration.getMaxAsyncThreadSize();
+        final Integer maxAsyncQueueSize = configuration.getMaxAsyncQueueSize();
+        final Integer maxAsyncQueueSizePerTenant = configuration.getMaxAsyncQueueSizePerTenant();
+        final Map<String, Integer> tenantWeights = configuration.getAsyncTenantWeights();
+        final Long blockTimeout = configuration.getAsyncBlockTimeout();
+        final int threadSize = maxAsyncThreadSize != null ? maxAsyncThreadSize : DEFAULT_MAX_THREAD_SIZE;
+        final int queueSize = maxAsyncQueueSize != null ? maxAsyncQueueSize : DEFAULT_MAX_QUEUE_SIZE;
+        final BlockingQueue<Runnable> queue;
+        if (queueSize > 0) {
+            AsyncTaskFairQueue fairQueue = new AsyncTaskFairQueue(
+                    queueSize, maxAsyncQueueSizePerTenant != null ? maxAsyncQueueSizePerTenant : 0);
+            if (tenantWeights != null) {
+                for (Map.Entry<String, Integer> entry : tenantWeights.entrySet()) {
+                    fairQueue.setTenantWeight(entry.getKey(), entry.getValue());
+                }
+            }
+            queue = fairQueue;
+        } else {
+            queue = new SynchronousQueue<>();
+        }
+        final String poolName = "forest-async-" + poolCount.getAndIncrement() + "-";
+        final AtomicInteger threadCount = new AtomicInteger(0);
+        // 使用有界等待队列时，线程池只会创建核心线程，所以核心线程数和最大线程数保持一致，并允许核心线程空闲超时
+        final ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                threadSize, threadSize,
                 3, TimeUnit.MINUTES,
-                new SynchronousQueue<>(),
+                queue,
                 tf -> {
-                    Thread thread = new Thread(tf, "forest-async-" + threadCount.getAndIncrement());
+                    Thread thread = new Thread(tf, poolName + threadCount.getAndIncrement());
                     thread.setDaemon(true);
                     return thread;
-                }, new AsyncAbortPolicy());
+                }, new AsyncRejectionHandler(
+                        configuration.getAsyncRejectionPolicy(),
+                        blockTimeout != null ? blockTimeout : DEFAULT_BLOCK_TIMEOUT));
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * 获取虚拟线程执行器
+     * <p>通过反射调用 JDK 21 的虚拟线程API，以保持对低版本JDK的兼容
+     *
+     * @return 虚拟线程执行器，当前JDK不支持虚拟线程时返回 {@code null}
+     * @since 1.5.19
+     */
+    public static ExecutorService getVirtualThreadExecutor() {
+        if (virtualThreadExecutor == null && !Boolean.FALSE.equals(virtualThreadSupported)) {
+            synchronized (AsyncHttpExecutor.class) {
+                if (virtualThreadExecutor == null && !Boolean.FALSE.equals(virtualThreadSupported)) {
+                    virtualThreadExecutor = createVirtualThreadExecutor();
+                    virtualThreadSupported = virtualThreadExecutor != null;
+                    if (virtualThreadExecutor == null) {
+                        log.warn("[Forest] Virtual threads are not supported by the current JDK (require JDK 21+), " +
+                                "async requests will run on platform threads");
+                    }
+                }
+            }
+        }
+        return virtualThreadExecutor;
+    }
+
+    private static ExecutorService createVirtualThreadExecutor() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class)
+                    .invoke(builder, "forest-virtual-", 0L);
+            ThreadFactory factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class
+                    .getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, factory);
+        } catch (Throwable th) {
+            return null;
+        }
     }
 
     /**
+     * 获取默认配置的异步请求多租户公平等待队列
      *
-     * @return
+     * @return {@link AsyncTaskFairQueue}实例，异步线程池未初始化或不排队时返回 {@code null}
+     * @since 1.5.19
+     */
+    public static AsyncTaskFairQueue getAsyncTaskQueue() {
+        return getAsyncTaskQueue(ForestConfiguration.configuration());
+    }
+
+    /**
+     * 获取异步请求的多租户公平等待队列
+     * <p>可用于调整租户权重和获取各租户的排队、拒绝统计
+     *
+     * @param configuration Forest配置对象
+     * @return {@link AsyncTaskFairQueue}实例，异步线程池未初始化或不排队时返回 {@code null}
+     * @since 1.5.19
+     */
+    public static AsyncTaskFairQueue getAsyncTaskQueue(ForestConfiguration configuration) {
+        ThreadPoolExecutor current = configuration.getAsyncThreadPool(false);
+        if (current != null && current.getQueue() instanceof AsyncTaskFairQueue) {
+            return (AsyncTaskFairQueue) current.getQueue();
+        }
+        return null;
+    }
+
+    /**
+     * 获取默认配置的最大异步线程数
+     *
+     * @return 最大异步线程数
      */
     public static int getMaxAsyncThreadSize() {
-        return pool.getMaximumPoolSize();
+        return ForestConfiguration.configuration().getAsyncThreadPool(true).getMaximumPoolSize();
     }
 
+    /**
+     * 获取默认配置的当前异步线程数
+     *
+     * @return 当前异步线程数
+     */
     public static int getAsyncThreadSize() {
-        return pool.getPoolSize();
+        return ForestConfiguration.configuration().getAsyncThreadPool(true).getPoolSize();
     }
 
     public AsyncHttpExecutor(ForestConfiguration configuration, HttpExecutor syncExecutor, ResponseHandler responseHandler) {
@@ -95,12 +257,42 @@ public class AsyncHttpExecutor implements HttpExecutor {
 
         private String threadName;
 
+        /**
+         * 任务在等待队列中的排序值，值越小越先执行
+         */
+        private volatile long rank;
+
+        private volatile long sequence;
+
         public AsyncTask(CompletableFuture future, HttpExecutor executor, LifeCycleHandler lifeCycleHandler) {
             this.future = future;
             this.executor = executor;
             this.lifeCycleHandler = lifeCycleHandler;
         }
 
+        /**
+         * 在提交到线程池前计算任务的排序值
+         * <p>优先级每高一级，相当于提前 {@link AsyncHttpExecutor#PRIORITY_AGING_INTERVAL} 毫秒入队，
+         * 所以低优先级任务等待足够长时间后会排到新入队的高优先级任务之前
+         */
+        void markEnqueued() {
+            int priority = executor.getRequest() != null ? executor.getRequest().getPriority() : 0;
+            this.rank = System.nanoTime() - priority * TimeUnit.MILLISECONDS.toNanos(PRIORITY_AGING_INTERVAL);
+            this.sequence = taskSequence.getAndIncrement();
+        }
+
+        long getRank() {
+            return rank;
+        }
+
+        long getSequence() {
+            return sequence;
+        }
+
+        String getTenant() {
+            return executor.getRequest() != null ? executor.getRequest().getTenant() : null;
+        }
+
         public HttpExecutor getExecutor() {
             return executor;
         }
@@ -113,11 +305,45 @@ public class AsyncHttpExecutor implements HttpExecutor {
             return lifeCycleHandler;
         }
 
+        /**
+         * 任务被线程池拒绝，没有执行就结束
+         * <p>执行 afterExecute，使拦截器和生命周期释放在 beforeExecute 中获取的资源，如并发许可、熔断器的探测许可
+         *
+         * @param ex 拒绝异常
+         */
+        void reject(RejectedExecutionException ex) {
+            final ForestRequest request = executor.getRequest();
+            try {
+                if (request != null) {
+                    request.getInterceptorChain().afterExecute(request, new ForestLocalResponse(request, ex));
+                }
+            } finally {
+                future.completeExceptionally(ex);
+            }
+        }
+
         @Override
         public void run() {
             try {
                 this.threadName = Thread.currentThread().getName();
+                final ForestRequest request = executor.getRequest();
+                if (request.isCanceled()) {
+                    // 请求在排队期间已被取消，不再发送
+                    final ForestCanceledException ex = new ForestCanceledException(request);
+                    final ForestResponse response = new ForestLocalResponse(request, ex);
+                    try {
+                        lifeCycleHandler.handleCanceled(request, response);
+                    } finally {
+                        request.getInterceptorChain().afterExecute(request, response);
+                    }
+                    future.completeExceptionally(ex);
+                    return;
+                }
                 executor.execute(lifeCycleHandler);
+                if (lifeCycleHandler instanceof CallbackDispatchLifeCycleHandler
+                        && ((CallbackDispatchLifeCycleHandler) lifeCycleHandler).isDispatched()) {
+                    return;
+                }
                 if (lifeCycleHandler instanceof MethodLifeCycleHandler) {
                     Object result = ((MethodLifeCycleHandler<?>) lifeCycleHandler).getResultData();
                     future.complete(result);
@@ -136,20 +362,137 @@ public class AsyncHttpExecutor implements HttpExecutor {
         return syncExecutor.getRequest();
     }
 
+    /**
+     * 获取执行异步请求的线程池
+     * <p>优先使用请求上设置的执行器，其次为配置中用户自定义的执行器，
+     * 再次为虚拟线程模式下的虚拟线程执行器，最后为配置自带的异步线程池
+     *
+     * @return 执行器
+     */
+    protected Executor getAsyncExecutor() {
+        Executor executor = getRequest().getAsyncExecutor();
+        if (executor == null) {
+            executor = configuration.getAsyncExecutor();
+        }
+        if (executor == null && configuration.getAsyncMode() == AsyncMode.VIRTUAL) {
+            executor = getVirtualThreadExecutor();
+        }
+        if (executor == null) {
+            executor = configuration.getAsyncThreadPool(true);
+        }
+        return executor;
+    }
+
     @Override
     public void execute(LifeCycleHandler lifeCycleHandler) {
-        if (pool == null) {
-            synchronized (this) {
-                if (pool == null) {
-                    initAsyncThreads(configuration.getMaxAsyncThreadSize());
-                }
+        final Executor executor = getAsyncExecutor();
+        final CompletableFuture future = new ForestFuture(getRequest());
+        LifeCycleHandler handler = lifeCycleHandler;
+        if (responseHandler != null
+                && responseHandler.getLifeCycleHandler() instanceof CallbackDispatchLifeCycleHandler) {
+            // 配置了回调执行器时，Future由回调执行器在解析完响应后完成
+            CallbackDispatchLifeCycleHandler dispatchHandler =
+                    (CallbackDispatchLifeCycleHandler) responseHandler.getLifeCycleHandler();
+            dispatchHandler.setFuture(future);
+            handler = dispatchHandler;
+        }
+        final AsyncTask task = new AsyncTask(future, syncExecutor, handler);
+        final long delay = getRequest().getAsyncDelay();
+        if (delay > 0) {
+            // 延迟等待期间不占用异步线程，到时间后再提交到线程池
+            getScheduler().schedule(() -> submitDelayed(executor, task), delay, TimeUnit.MILLISECONDS);
+        } else {
+            task.markEnqueued();
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                task.reject(e);
+                throw e;
             }
         }
-        final CompletableFuture future = new CompletableFuture();
-        pool.submit(new AsyncTask(future, syncExecutor, lifeCycleHandler));
         responseHandler.handleFuture(future);
     }
 
+    /**
+     * 在调度器线程上提交延迟到期的异步请求
+     * <p>线程池已满、拒绝策略需要由提交者执行请求或阻塞等待时，转交给提交线程池重新提交，不占用调度器线程
+     *
+     * @param executor 执行异步请求的线程池
+     * @param task 异步任务
+     */
+    private static void submitDelayed(Executor executor, AsyncTask task) {
+        task.markEnqueued();
+        try {
+            executor.execute(task);
+        } catch (AsyncRejectionHandler.DeferredRejectionException e) {
+            getDelayedSubmitter().execute(() -> {
+                try {
+                    executor.execute(task);
+                } catch (RejectedExecutionException ex) {
+                    task.reject(ex);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            task.reject(e);
+        }
+    }
+
+    /**
+     * 当前线程是否为Forest内部共享的调度器线程
+     *
+     * @return {@code true}: 是调度器线程, {@code false}: 不是
+     * @since 1.5.19
+     */
+    static boolean isSchedulerThread() {
+        return Boolean.TRUE.equals(IN_SCHEDULER.get());
+    }
+
+    private static ExecutorService getDelayedSubmitter() {
+        if (delayedSubmitter == null) {
+            synchronized (AsyncHttpExecutor.class) {
+                if (delayedSubmitter == null) {
+                    final AtomicInteger threadCount = new AtomicInteger(0);
+                    // 只有线程池满时才会用到，空闲线程一分钟后回收
+                    delayedSubmitter = new ThreadPoolExecutor(
+                            0, Integer.MAX_VALUE,
+                            1, TimeUnit.MINUTES,
+                            new SynchronousQueue<>(),
+                            tf -> {
+                                Thread thread = new Thread(tf, "forest-async-submitter-" + threadCount.getAndIncrement());
+                                thread.setDaemon(true);
+                                return thread;
+                            });
+                }
+            }
+        }
+        return delayedSubmitter;
+    }
+
+    /**
+     * 获取Forest内部共享的调度器
+     * <p>用于延迟提交异步请求等短小的定时任务，任务中不应执行耗时操作
+     *
+     * @return 调度器
+     * @since 1.5.19
+     */
+    public static ScheduledExecutorService getScheduler() {
+        if (scheduler == null) {
+            synchronized (AsyncHttpExecutor.class) {
+                if (scheduler == null) {
+                    scheduler = Executors.newSingleThreadScheduledExecutor(tf -> {
+                        Thread thread = new Thread(() -> {
+                            IN_SCHEDULER.set(Boolean.TRUE);
+                            tf.run();
+                        }, "forest-async-scheduler");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                }
+            }
+        }
+        return scheduler;
+    }
+
     @Override
     public ResponseHandler getResponseHandler() {
         return responseHandler;
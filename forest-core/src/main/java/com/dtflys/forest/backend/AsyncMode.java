@@ -0,0 +1,21 @@
+package com.dtflys.forest.backend;
+
+/**
+ * 异步请求的执行模式
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public enum AsyncMode {
+
+    /**
+     * 平台线程模式: 异步请求在配置自带的异步线程池中执行
+     */
+    PLATFORM,
+
+    /**
+     * 虚拟线程模式: 每个异步请求在一个新的虚拟线程中执行
+     * <p>仅在 JDK 21 及以上版本可用，低版本JDK下自动退回到平台线程模式
+     */
+    VIRTUAL
+}
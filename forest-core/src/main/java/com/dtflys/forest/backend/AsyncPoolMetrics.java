@@ -0,0 +1,173 @@
+package com.dtflys.forest.backend;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 异步线程池的运行指标快照
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class AsyncPoolMetrics {
+
+    private final int poolSize;
+
+    private final int maxPoolSize;
+
+    private final int activeCount;
+
+    private final int largestPoolSize;
+
+    private final int queueSize;
+
+    private final int queueRemainingCapacity;
+
+    private final long taskCount;
+
+    private final long completedTaskCount;
+
+    private final long rejectedCount;
+
+    private final long callerRunsCount;
+
+    private final long blockedCount;
+
+    public AsyncPoolMetrics(ThreadPoolExecutor pool) {
+        this.poolSize = pool.getPoolSize();
+        this.maxPoolSize = pool.getMaximumPoolSize();
+        this.activeCount = pool.getActiveCount();
+        this.largestPoolSize = pool.getLargestPoolSize();
+        this.queueSize = pool.getQueue().size();
+        this.queueRemainingCapacity = pool.getQueue().remainingCapacity();
+        this.taskCount = pool.getTaskCount();
+        this.completedTaskCount = pool.getCompletedTaskCount();
+        RejectedExecutionHandler handler = pool.getRejectedExecutionHandler();
+        if (handler instanceof AsyncRejectionHandler) {
+            AsyncRejectionHandler rejectionHandler = (AsyncRejectionHandler) handler;
+            this.rejectedCount = rejectionHandler.getRejectedCount();
+            this.callerRunsCount = rejectionHandler.getCallerRunsCount();
+            this.blockedCount = rejectionHandler.getBlockedCount();
+        } else {
+            this.rejectedCount = 0;
+            this.callerRunsCount = 0;
+            this.blockedCount = 0;
+        }
+    }
+
+    /**
+     * 获取当前线程数
+     *
+     * @return 当前线程数
+     */
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * 获取最大线程数
+     *
+     * @return 最大线程数
+     */
+    public int getMaxPoolSize() {
+        return maxPoolSize;
+    }
+
+    /**
+     * 获取正在执行请求的线程数
+     *
+     * @return 正在执行请求的线程数
+     */
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    /**
+     * 获取历史最大线程数
+     *
+     * @return 历史最大线程数
+     */
+    public int getLargestPoolSize() {
+        return largestPoolSize;
+    }
+
+    /**
+     * 获取正在排队的请求数
+     *
+     * @return 正在排队的请求数
+     */
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    /**
+     * 获取等待队列的剩余容量
+     *
+     * @return 等待队列的剩余容量
+     */
+    public int getQueueRemainingCapacity() {
+        return queueRemainingCapacity;
+    }
+
+    /**
+     * 获取已提交的请求总数
+     *
+     * @return 已提交的请求总数
+     */
+    public long getTaskCount() {
+        return taskCount;
+    }
+
+    /**
+     * 获取已完成的请求数
+     *
+     * @return 已完成的请求数
+     */
+    public long getCompletedTaskCount() {
+        return completedTaskCount;
+    }
+
+    /**
+     * 获取被拒绝的请求数
+     *
+     * @return 被拒绝的请求数
+     */
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    /**
+     * 获取线程池满时由调用者线程执行的请求数
+     *
+     * @return 由调用者线程执行的请求数
+     */
+    public long getCallerRunsCount() {
+        return callerRunsCount;
+    }
+
+    /**
+     * 获取线程池满时阻塞等待后成功入队的请求数
+     *
+     * @return 阻塞等待后成功入队的请求数
+     */
+    public long getBlockedCount() {
+        return blockedCount;
+    }
+
+    @Override
+    public String toString() {
+        return "AsyncPoolMetrics{" +
+                "poolSize=" + poolSize +
+                ", maxPoolSize=" + maxPoolSize +
+                ", activeCount=" + activeCount +
+                ", largestPoolSize=" + largestPoolSize +
+                ", queueSize=" + queueSize +
+                ", queueRemainingCapacity=" + queueRemainingCapacity +
+                ", taskCount=" + taskCount +
+                ", completedTaskCount=" + completedTaskCount +
+                ", rejectedCount=" + rejectedCount +
+                ", callerRunsCount=" + callerRunsCount +
+                ", blockedCount=" + blockedCount +
+                '}';
+    }
+}
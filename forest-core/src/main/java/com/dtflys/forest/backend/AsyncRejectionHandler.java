@@ -0,0 +1,117 @@
+package com.dtflys.forest.backend;
+
+import java.text.MessageFormat;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 异步线程池的拒绝处理器
+ * <p>按 {@link AsyncRejectionPolicy} 处理线程池满时提交的异步请求，并统计各种处理方式的次数
+ * <p>延迟请求由所有配置共享的调度线程提交，该线程上不执行请求也不阻塞等待，
+ * 需要由提交者执行或阻塞等待时抛出 {@link DeferredRejectionException}，由 {@link AsyncHttpExecutor} 转交给其它线程重新提交
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class AsyncRejectionHandler implements RejectedExecutionHandler {
+
+    private final AsyncRejectionPolicy policy;
+
+    /**
+     * 阻塞等待的最长时间（毫秒）
+     */
+    private final long blockTimeout;
+
+    private final AsyncAbortPolicy abortPolicy = new AsyncAbortPolicy();
+
+    /**
+     * 被拒绝的请求数
+     */
+    private final AtomicLong rejectedCount = new AtomicLong(0);
+
+    /**
+     * 由调用者线程执行的请求数
+     */
+    private final AtomicLong callerRunsCount = new AtomicLong(0);
+
+    /**
+     * 阻塞等待后成功入队的请求数
+     */
+    private final AtomicLong blockedCount = new AtomicLong(0);
+
+    public AsyncRejectionHandler(AsyncRejectionPolicy policy, long blockTimeout) {
+        this.policy = policy != null ? policy : AsyncRejectionPolicy.ABORT;
+        this.blockTimeout = blockTimeout;
+    }
+
+    @Override
+    public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+        if (executor.isShutdown()) {
+            rejectedCount.incrementAndGet();
+            throw new RejectedExecutionException("[Forest] Asynchronous thread pool has been shut down");
+        }
+        if (policy != AsyncRejectionPolicy.ABORT && AsyncHttpExecutor.isSchedulerThread()) {
+            throw new DeferredRejectionException();
+        }
+        switch (policy) {
+            case CALLER_RUNS:
+                callerRunsCount.incrementAndGet();
+                r.run();
+                return;
+            case BLOCK:
+                boolean offered;
+                try {
+                    offered = executor.getQueue().offer(r, blockTimeout, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    offered = false;
+                }
+                if (offered) {
+                    blockedCount.incrementAndGet();
+                    return;
+                }
+                rejectedCount.incrementAndGet();
+                String msg = "[Forest] Asynchronous thread pool is still full after waiting {0}ms!\n\t" +
+                        "Thread name: {1}, Max pool size: {2}, Active pool size: {3}, Queue size: {4}";
+                throw new RejectedExecutionException(MessageFormat.format(
+                        msg, blockTimeout, Thread.currentThread().getName(),
+                        executor.getMaximumPoolSize(), executor.getActiveCount(), executor.getQueue().size()));
+            default:
+                rejectedCount.incrementAndGet();
+                abortPolicy.rejectedExecution(r, executor);
+        }
+    }
+
+    public AsyncRejectionPolicy getPolicy() {
+        return policy;
+    }
+
+    public long getBlockTimeout() {
+        return blockTimeout;
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    public long getCallerRunsCount() {
+        return callerRunsCount.get();
+    }
+
+    public long getBlockedCount() {
+        return blockedCount.get();
+    }
+
+    /**
+     * 调度线程上提交的请求需要由提交者执行或阻塞等待时抛出，表示应换一个线程重新提交
+     */
+    static class DeferredRejectionException extends RejectedExecutionException {
+
+        DeferredRejectionException() {
+            super("[Forest] Asynchronous thread pool is full, submission deferred from the scheduler thread");
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.dtflys.forest.backend;
+
+/**
+ * 异步线程池的拒绝策略
+ * <p>异步线程和等待队列都已满时，按该策略处理新提交的异步请求
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public enum AsyncRejectionPolicy {
+
+    /**
+     * 快速失败: 直接拒绝并抛出异常
+     */
+    ABORT,
+
+    /**
+     * 调用者执行: 由提交请求的线程直接执行该请求，使调用方自然减速
+     */
+    CALLER_RUNS,
+
+    /**
+     * 阻塞等待: 提交请求的线程阻塞等待队列空出位置，超过等待时间后拒绝并抛出异常
+     */
+    BLOCK
+}
@@ -0,0 +1,668 @@
+package com.dtflys.forest.backend;
+
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 异步请求的多租户公平等待队列
+ * <p>每个租户拥有独立的优先级队列，租户内按 {@link AsyncHttpExecutor.AsyncTask} 的排序值（优先级与入队时间共同决定）出队，
+ * 租户之间按权重以赤字轮询（Deficit Round Robin）的方式轮流出队，某个租户的突发请求不会占满所有执行线程
+ * <p>入队同样按租户公平处理: 队列总大小已满时，如果新任务所属租户的积压（按权重折算）少于积压最多的租户，
+ * 会从积压最多的租户中挤出排序最靠后的任务为新任务腾出位置，被挤出的任务以 {@link RejectedExecutionException} 结束，
+ * 因此单个租户的突发请求无法占满整个队列而把其它租户挡在外面
+ * <p>还可以为每个租户的队列大小单独设置上限；无法入队时 {@link #offer(Runnable)} 返回 {@code false}，
+ * 由线程池的拒绝策略处理；{@link #offer(Runnable, long, TimeUnit)} 和 {@link #put(Runnable)} 则等待队列腾出空间。
+ * 被拒绝和被挤出的任务都计入所属租户的拒绝次数
+ * <p>租户的队列被取空后即从队列中移除；各租户的统计数据单独保存，最多保留最近活跃的 {@value #MAX_TRACKED_TENANTS} 个租户
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class AsyncTaskFairQueue extends AbstractQueue<Runnable> implements BlockingQueue<Runnable> {
+
+    /**
+     * 未设置租户的请求所属的默认租户
+     */
+    public final static String DEFAULT_TENANT = "";
+
+    /**
+     * 最多保留统计数据的租户数量
+     */
+    public final static int MAX_TRACKED_TENANTS = 1024;
+
+    private final static Comparator<Runnable> TASK_COMPARATOR = (r1, r2) -> {
+        boolean isTask1 = r1 instanceof AsyncHttpExecutor.AsyncTask;
+        boolean isTask2 = r2 instanceof AsyncHttpExecutor.AsyncTask;
+        if (!isTask1 || !isTask2) {
+            // 非Forest异步任务排在最后
+            return Boolean.compare(!isTask1, !isTask2);
+        }
+        AsyncHttpExecutor.AsyncTask t1 = (AsyncHttpExecutor.AsyncTask) r1;
+        AsyncHttpExecutor.AsyncTask t2 = (AsyncHttpExecutor.AsyncTask) r2;
+        // 排序值基于 System.nanoTime()，需要用差值比较
+        long diff = t1.getRank() - t2.getRank();
+        if (diff != 0) {
+            return diff < 0 ? -1 : 1;
+        }
+        return Long.compare(t1.getSequence(), t2.getSequence());
+    };
+
+    /**
+     * 队列总容量
+     */
+    private final int capacity;
+
+    /**
+     * 每个租户的队列容量，为 0 时不单独限制
+     */
+    private volatile int tenantCapacity;
+
+    /**
+     * 租户权重配置，未配置的租户权重为 1
+     */
+    private final Map<String, Integer> weights = new ConcurrentHashMap<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition notEmpty = lock.newCondition();
+
+    private final Condition notFull = lock.newCondition();
+
+    /**
+     * 正在排队的租户，由 {@link #lock} 保护
+     */
+    private final Map<String, TenantQueue> tenants = new HashMap<>();
+
+    /**
+     * 有任务在排队的租户，按轮询顺序排列
+     */
+    private final ArrayDeque<TenantQueue> activeTenants = new ArrayDeque<>();
+
+    /**
+     * 各租户的统计数据，与租户是否正在排队无关，按最近活跃顺序淘汰，由 {@link #lock} 保护
+     */
+    private final LinkedHashMap<String, TenantCounter> counters =
+            new LinkedHashMap<String, TenantCounter>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, TenantCounter> eldest) {
+                    return size() > MAX_TRACKED_TENANTS;
+                }
+            };
+
+    private int count = 0;
+
+    /**
+     * 进入过队列的任务总数
+     */
+    private final AtomicLong acceptedCount = new AtomicLong(0);
+
+    /**
+     * 因队列已满而被拒绝或被挤出的任务总数
+     */
+    private final AtomicLong rejectedCount = new AtomicLong(0);
+
+    /**
+     * 创建多租户公平等待队列
+     *
+     * @param capacity 队列总容量
+     * @param tenantCapacity 每个租户的队列容量，小于等于 0 时不单独限制
+     */
+    public AsyncTaskFairQueue(int capacity, int tenantCapacity) {
+        this.capacity = capacity;
+        setTenantCapacity(tenantCapacity);
+    }
+
+    /**
+     * 设置租户权重
+     * <p>权重越大，每轮可出队的任务越多
+     *
+     * @param tenant 租户
+     * @param weight 权重，必须大于 0
+     */
+    public void setTenantWeight(String tenant, int weight) {
+        if (weight <= 0) {
+            throw new IllegalArgumentException("Tenant weight must be greater than 0");
+        }
+        weights.put(tenantKey(tenant), weight);
+    }
+
+    /**
+     * 设置每个租户的队列容量
+     *
+     * @param tenantCapacity 每个租户的队列容量，小于等于 0 时不单独限制
+     */
+    public void setTenantCapacity(int tenantCapacity) {
+        this.tenantCapacity = Math.max(tenantCapacity, 0);
+    }
+
+    /**
+     * 获取队列总容量
+     *
+     * @return 队列总容量
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * 获取各租户的统计信息
+     * <p>包括最近活跃的 {@value #MAX_TRACKED_TENANTS} 个租户，租户的队列被取空后统计数据仍然保留
+     *
+     * @return 租户统计信息列表
+     */
+    public List<TenantStats> getTenantStats() {
+        lock.lock();
+        try {
+            List<TenantStats> stats = new ArrayList<>(counters.size());
+            for (TenantCounter counter : counters.values()) {
+                TenantQueue tenantQueue = tenants.get(counter.tenant);
+                stats.add(new TenantStats(
+                        counter.tenant,
+                        weightOf(counter.tenant),
+                        tenantQueue == null ? 0 : tenantQueue.size,
+                        counter.acceptedCount,
+                        counter.rejectedCount));
+            }
+            return stats;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 获取进入过队列的任务总数
+     *
+     * @return 进入过队列的任务总数
+     */
+    public long getAcceptedCount() {
+        return acceptedCount.get();
+    }
+
+    /**
+     * 获取因队列已满而被拒绝或被挤出的任务总数
+     *
+     * @return 被拒绝的任务总数
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    private static String tenantKey(String tenant) {
+        return tenant == null ? DEFAULT_TENANT : tenant;
+    }
+
+    private static String tenantOf(Runnable task) {
+        if (task instanceof AsyncHttpExecutor.AsyncTask) {
+            return tenantKey(((AsyncHttpExecutor.AsyncTask) task).getTenant());
+        }
+        return DEFAULT_TENANT;
+    }
+
+    private int weightOf(String tenant) {
+        Integer weight = weights.get(tenant);
+        return weight != null ? weight : 1;
+    }
+
+    @Override
+    public boolean offer(Runnable task) {
+        if (task == null) {
+            throw new NullPointerException();
+        }
+        String tenant = tenantOf(task);
+        AsyncHttpExecutor.AsyncTask evicted = null;
+        lock.lock();
+        try {
+            if (!hasRoom(tenant)) {
+                evicted = evictFor(tenant);
+                if (evicted == null) {
+                    reject(tenant);
+                    return false;
+                }
+            }
+            enqueue(tenant, task);
+            return true;
+        } finally {
+            lock.unlock();
+            finishEvicted(evicted, tenant);
+        }
+    }
+
+    @Override
+    public boolean offer(Runnable task, long timeout, TimeUnit unit) throws InterruptedException {
+        if (task == null) {
+            throw new NullPointerException();
+        }
+        String tenant = tenantOf(task);
+        long nanos = unit.toNanos(timeout);
+        AsyncHttpExecutor.AsyncTask evicted = null;
+        lock.lockInterruptibly();
+        try {
+            while (!hasRoom(tenant)) {
+                evicted = evictFor(tenant);
+                if (evicted != null) {
+                    break;
+                }
+                if (nanos <= 0) {
+                    reject(tenant);
+                    return false;
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            enqueue(tenant, task);
+            return true;
+        } finally {
+            lock.unlock();
+            finishEvicted(evicted, tenant);
+        }
+    }
+
+    @Override
+    public void put(Runnable task) throws InterruptedException {
+        if (task == null) {
+            throw new NullPointerException();
+        }
+        String tenant = tenantOf(task);
+        AsyncHttpExecutor.AsyncTask evicted = null;
+        lock.lockInterruptibly();
+        try {
+            while (!hasRoom(tenant)) {
+                evicted = evictFor(tenant);
+                if (evicted != null) {
+                    break;
+                }
+                notFull.await();
+            }
+            enqueue(tenant, task);
+        } finally {
+            lock.unlock();
+            finishEvicted(evicted, tenant);
+        }
+    }
+
+    private int sizeOf(String tenant) {
+        TenantQueue tenantQueue = tenants.get(tenant);
+        return tenantQueue == null ? 0 : tenantQueue.size;
+    }
+
+    /**
+     * 该租户的队列大小是否已达单独设置的上限，调用前必须持有锁
+     */
+    private boolean isTenantFull(String tenant) {
+        int limit = tenantCapacity;
+        return limit > 0 && sizeOf(tenant) >= limit;
+    }
+
+    /**
+     * 队列总大小和该租户的队列大小是否都未达上限，调用前必须持有锁
+     */
+    private boolean hasRoom(String tenant) {
+        return count < capacity && !isTenantFull(tenant);
+    }
+
+    /**
+     * 队列总大小已满时，为积压较少的租户从积压最多的租户中挤出一个任务，调用前必须持有锁
+     * <p>积压按权重折算，只有新任务入队后该租户的积压仍少于积压最多的租户时才会挤出，避免租户之间来回挤占
+     *
+     * @param tenant 新任务所属的租户
+     * @return 被挤出的任务，无法挤出时返回 {@code null}
+     */
+    private AsyncHttpExecutor.AsyncTask evictFor(String tenant) {
+        if (count < capacity || isTenantFull(tenant)) {
+            return null;
+        }
+        long size = sizeOf(tenant) + 1;
+        long weight = weightOf(tenant);
+        TenantQueue largest = null;
+        long largestWeight = 1;
+        for (TenantQueue tenantQueue : activeTenants) {
+            long w = weightOf(tenantQueue.tenant);
+            if (largest == null || (long) tenantQueue.size * largestWeight > (long) largest.size * w) {
+                largest = tenantQueue;
+                largestWeight = w;
+            }
+        }
+        if (largest == null || largest.tenant.equals(tenant) || size * largestWeight >= largest.size * weight) {
+            return null;
+        }
+        // 挤出该租户中排序最靠后的任务，非Forest异步任务无法通知其结束，不会被挤出
+        Runnable last = null;
+        for (Runnable task : largest.tasks) {
+            if (last == null || TASK_COMPARATOR.compare(task, last) > 0) {
+                last = task;
+            }
+        }
+        if (!(last instanceof AsyncHttpExecutor.AsyncTask)) {
+            return null;
+        }
+        largest.tasks.remove(last);
+        largest.size--;
+        count--;
+        reject(largest.tenant);
+        return (AsyncHttpExecutor.AsyncTask) last;
+    }
+
+    /**
+     * 结束被挤出的任务，在释放锁之后调用
+     */
+    private static void finishEvicted(AsyncHttpExecutor.AsyncTask evicted, String tenant) {
+        if (evicted != null) {
+            evicted.reject(new RejectedExecutionException(
+                    "[Forest] Asynchronous task of tenant '" + tenantKey(evicted.getTenant())
+                            + "' was evicted from the full queue by tenant '" + tenant + "'"));
+        }
+    }
+
+    private TenantCounter counterOf(String tenant) {
+        TenantCounter counter = counters.get(tenant);
+        if (counter == null) {
+            counter = new TenantCounter(tenant);
+            counters.put(tenant, counter);
+        }
+        return counter;
+    }
+
+    /**
+     * 记录租户的一次拒绝，调用前必须持有锁
+     */
+    private void reject(String tenant) {
+        rejectedCount.incrementAndGet();
+        counterOf(tenant).rejectedCount++;
+    }
+
+    /**
+     * 将任务加入租户的队列，调用前必须持有锁且队列未满
+     */
+    private void enqueue(String tenant, Runnable task) {
+        TenantQueue tenantQueue = tenants.get(tenant);
+        if (tenantQueue == null) {
+            tenantQueue = new TenantQueue(tenant);
+            tenants.put(tenant, tenantQueue);
+            activeTenants.addLast(tenantQueue);
+        }
+        tenantQueue.tasks.offer(task);
+        tenantQueue.size++;
+        counterOf(tenant).acceptedCount++;
+        acceptedCount.incrementAndGet();
+        count++;
+        notEmpty.signal();
+    }
+
+    /**
+     * 租户的队列被取空后将其移除，调用前必须持有锁
+     */
+    private void removeTenant(TenantQueue tenantQueue) {
+        tenants.remove(tenantQueue.tenant);
+        activeTenants.remove(tenantQueue);
+    }
+
+    /**
+     * 按赤字轮询取出下一个任务，调用前必须持有锁且队列不为空
+     *
+     * @return 下一个任务
+     */
+    private Runnable dequeue() {
+        TenantQueue tenantQueue = activeTenants.peekFirst();
+        if (tenantQueue.deficit < 1) {
+            // 轮到该租户时，按权重发放本轮的出队额度
+            tenantQueue.deficit += weightOf(tenantQueue.tenant);
+        }
+        Runnable task = tenantQueue.tasks.poll();
+        tenantQueue.size--;
+        tenantQueue.deficit--;
+        count--;
+        notFull.signalAll();
+        if (tenantQueue.size == 0) {
+            activeTenants.pollFirst();
+            tenants.remove(tenantQueue.tenant);
+        } else if (tenantQueue.deficit < 1) {
+            activeTenants.pollFirst();
+            activeTenants.addLast(tenantQueue);
+        }
+        return task;
+    }
+
+    @Override
+    public Runnable poll() {
+        lock.lock();
+        try {
+            return count == 0 ? null : dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                notEmpty.await();
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable peek() {
+        lock.lock();
+        try {
+            TenantQueue tenantQueue = activeTenants.peekFirst();
+            return tenantQueue == null ? null : tenantQueue.tasks.peek();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (!(o instanceof Runnable)) {
+            return false;
+        }
+        lock.lock();
+        try {
+            TenantQueue tenantQueue = tenants.get(tenantOf((Runnable) o));
+            if (tenantQueue == null || !tenantQueue.tasks.remove(o)) {
+                return false;
+            }
+            tenantQueue.size--;
+            count--;
+            notFull.signalAll();
+            if (tenantQueue.size == 0) {
+                removeTenant(tenantQueue);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return Math.max(0, capacity - size());
+    }
+
+    @Override
+    public int drainTo(Collection<? super Runnable> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super Runnable> c, int maxElements) {
+        if (c == this) {
+            throw new IllegalArgumentException();
+        }
+        lock.lock();
+        try {
+            int n = 0;
+            while (n < maxElements && count > 0) {
+                c.add(dequeue());
+                n++;
+            }
+            return n;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 返回当前队列中所有任务的快照
+     *
+     * @return 任务快照的迭代器
+     */
+    @Override
+    public Iterator<Runnable> iterator() {
+        lock.lock();
+        try {
+            List<Runnable> snapshot = new ArrayList<>(count);
+            for (TenantQueue tenantQueue : activeTenants) {
+                snapshot.addAll(tenantQueue.tasks);
+            }
+            return Collections.unmodifiableList(snapshot).iterator();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static class TenantQueue {
+
+        private final String tenant;
+
+        private final PriorityQueue<Runnable> tasks = new PriorityQueue<>(TASK_COMPARATOR);
+
+        private int size = 0;
+
+        private int deficit = 0;
+
+        private TenantQueue(String tenant) {
+            this.tenant = tenant;
+        }
+    }
+
+    private static class TenantCounter {
+
+        private final String tenant;
+
+        private long acceptedCount = 0;
+
+        private long rejectedCount = 0;
+
+        private TenantCounter(String tenant) {
+            this.tenant = tenant;
+        }
+    }
+
+    /**
+     * 租户统计信息
+     */
+    public static class TenantStats {
+
+        private final String tenant;
+
+        private final int weight;
+
+        private final int queueSize;
+
+        private final long acceptedCount;
+
+        private final long rejectedCount;
+
+        public TenantStats(String tenant, int weight, int queueSize, long acceptedCount, long rejectedCount) {
+            this.tenant = tenant;
+            this.weight = weight;
+            this.queueSize = queueSize;
+            this.acceptedCount = acceptedCount;
+            this.rejectedCount = rejectedCount;
+        }
+
+        /**
+         * 获取租户
+         *
+         * @return 租户
+         */
+        public String getTenant() {
+            return tenant;
+        }
+
+        /**
+         * 获取租户权重
+         *
+         * @return 租户权重
+         */
+        public int getWeight() {
+            return weight;
+        }
+
+        /**
+         * 获取租户当前在队列中等待的任务数
+         *
+         * @return 等待的任务数
+         */
+        public int getQueueSize() {
+            return queueSize;
+        }
+
+        /**
+         * 获取租户进入过队列的任务总数
+         *
+         * @return 进入过队列的任务总数
+         */
+        public long getAcceptedCount() {
+            return acceptedCount;
+        }
+
+        /**
+         * 获取租户因队列已满而被拒绝或被挤出的任务总数
+         *
+         * @return 被拒绝的任务总数
+         */
+        public long getRejectedCount() {
+            return rejectedCount;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.dtflys.forest.backend;
 
 
+import com.dtflys.forest.cache.ForestRedirectCache;
 import com.dtflys.forest.http.ForestRequest;
 import com.dtflys.forest.http.ForestResponse;
 import com.dtflys.forest.http.ForestResponseFactory;
@@ -30,10 +31,35 @@ public abstract class ResponseHandler<R> {
     }
 
 
+    public LifeCycleHandler getLifeCycleHandler() {
+        return lifeCycleHandler;
+    }
+
+    /**
+     * 获取重定向请求，并将重定向记录到重定向缓存
+     *
+     * @param response Forest响应对象
+     * @return 重定向请求，不需要重定向时返回 {@code null}
+     */
+    protected ForestRequest redirectionRequest(ForestResponse response) {
+        if (!request.isAutoRedirection() || !response.isRedirection()) {
+            return null;
+        }
+        // 没有 Location 的响应（如 304）不重定向
+        ForestRequest redirectionRequest = response.redirectionRequest();
+        if (redirectionRequest != null) {
+            ForestRedirectCache redirectCache = request.getConfiguration().getRedirectCache();
+            if (redirectCache != null) {
+                redirectCache.put(request, response);
+            }
+        }
+        return redirectionRequest;
+    }
+
     public Object handleSync(ForestResponse response, int statusCode, String msg) {
-        if (request.isAutoRedirection() && response.isRedirection()) {
-            // 进行重定向
-            ForestRequest redirectionRequest = response.redirectionRequest();
+        // 进行重定向
+        ForestRequest redirectionRequest = redirectionRequest(response);
+        if (redirectionRequest != null) {
             return redirectionRequest.execute();
         }
         Object result = lifeCycleHandler.handleSync(request, response);
@@ -45,9 +71,9 @@ public abstract class ResponseHandler<R> {
 
 
     public Object handleSuccess(ForestResponse response) {
-        if (request.isAutoRedirection() && response.isRedirection()) {
-            // 进行重定向
-            ForestRequest redirectionRequest = response.redirectionRequest();
+        // 进行重定向
+        ForestRequest redirectionRequest = redirectionRequest(response);
+        if (redirectionRequest != null) {
             return redirectionRequest.execute();
         }
         Type onSuccessGenericType = lifeCycleHandler.getOnSuccessClassGenericType();
@@ -8,6 +8,7 @@ import com.dtflys.forest.backend.httpclient.entity.HttpclientRequestWithBodyEnti
 import com.dtflys.forest.backend.url.QueryableURLBuilder;
 import com.dtflys.forest.backend.url.URLBuilder;
 import com.dtflys.forest.http.ForestCookie;
+import com.dtflys.forest.http.ForestCookieStore;
 import com.dtflys.forest.http.ForestCookies;
 import com.dtflys.forest.http.ForestHeader;
 import com.dtflys.forest.http.ForestRequest;
@@ -28,6 +29,7 @@ import org.apache.http.impl.client.BasicCookieStore;
 import org.apache.http.impl.cookie.BasicClientCookie;
 
 import java.io.IOException;
+import java.net.URI;
 import java.util.Date;
 import java.util.List;
 
@@ -102,6 +104,11 @@ public class HttpclientExecutor extends AbstractHttpExecutor {
     public void prepareCookies(LifeCycleHandler lifeCycleHandler) {
         cookieStore = new BasicCookieStore();
         ForestCookies cookies = new ForestCookies();
+        ForestCookieStore forestCookieStore = request.getConfiguration().getCookieStore();
+        if (forestCookieStore != null) {
+            URI uri = httpRequest.getURI();
+            forestCookieStore.loadCookies(uri.getHost(), uri.getRawPath(), "https".equalsIgnoreCase(uri.getScheme()), cookies);
+        }
         lifeCycleHandler.handleLoadCookie(request, cookies);
         for (ForestCookie cookie : cookies) {
             BasicClientCookie httpCookie = new BasicClientCookie(
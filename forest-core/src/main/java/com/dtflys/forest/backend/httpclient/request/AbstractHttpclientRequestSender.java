@@ -3,6 +3,7 @@ package com.dtflys.forest.backend.httpclient.request;
 import com.dtflys.forest.backend.httpclient.conn.HttpclientConnectionManager;
 import com.dtflys.forest.backend.httpclient.logging.HttpclientLogBodyMessage;
 import com.dtflys.forest.http.ForestCookie;
+import com.dtflys.forest.http.ForestCookieStore;
 import com.dtflys.forest.http.ForestCookies;
 import com.dtflys.forest.http.ForestProxy;
 import com.dtflys.forest.http.ForestRequest;
@@ -14,9 +15,11 @@ import com.dtflys.forest.logging.RequestLogMessage;
 import com.dtflys.forest.logging.RequestProxyLogMessage;
 import org.apache.http.Header;
 import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
 import org.apache.http.client.CookieStore;
 import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
 import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.cookie.Cookie;
 
 import java.net.URI;
@@ -102,4 +105,36 @@ public abstract class AbstractHttpclientRequestSender implements HttpclientReque
         return cookies;
     }
 
+    /**
+     * 将响应中的Cookie保存到Cookie存储
+     * <p>直接解析响应头中的 {@code Set-Cookie}，而不是转换整个 {@link CookieStore}，
+     * 以免请求携带的Cookie被重复保存，并保留Cookie的域名、过期时间等属性
+     *
+     * @param httpRequest httpclient请求对象
+     * @param httpResponse httpclient响应对象
+     */
+    protected void saveCookiesToStore(HttpUriRequest httpRequest, HttpResponse httpResponse) {
+        ForestCookieStore forestCookieStore = request.getConfiguration().getCookieStore();
+        if (forestCookieStore == null || httpResponse == null) {
+            return;
+        }
+        Header[] setCookies = httpResponse.getHeaders("Set-Cookie");
+        if (setCookies == null || setCookies.length == 0) {
+            return;
+        }
+        okhttp3.HttpUrl url = okhttp3.HttpUrl.get(httpRequest.getURI());
+        if (url == null) {
+            return;
+        }
+        long currentTime = System.currentTimeMillis();
+        ForestCookies cookies = new ForestCookies();
+        for (Header setCookie : setCookies) {
+            okhttp3.Cookie okCookie = okhttp3.Cookie.parse(url, setCookie.getValue());
+            if (okCookie != null) {
+                cookies.addCookie(ForestCookie.createFromOkHttpCookie(currentTime, okCookie));
+            }
+        }
+        forestCookieStore.saveCookies(cookies);
+    }
+
 }
@@ -87,6 +87,7 @@ public class SyncHttpclientRequestSender extends AbstractHttpclientRequestSender
         ForestResponseFactory forestResponseFactory = new HttpclientForestResponseFactory();
         try {
             logRequest(request.getCurrentRetryCount(), (HttpRequestBase) httpRequest);
+            request.setCancelHook(httpRequest::abort);
             httpResponse = client.execute(httpRequest, httpClientContext);
         } catch (Throwable e) {
             httpRequest.abort();
@@ -137,6 +138,7 @@ public class SyncHttpclientRequestSender extends AbstractHttpclientRequestSender
 
         try {
             lifeCycleHandler.handleSaveCookie(request, getCookiesFromHttpCookieStore(cookieStore));
+            saveCookiesToStore(httpRequest, httpResponse);
             responseHandler.handleSync(httpResponse, response);
         } catch (Exception ex) {
             if (ex instanceof ForestRuntimeException) {
@@ -49,7 +49,9 @@ public class HttpclientForestResponse extends ForestResponse {
                 setupResponseCharset();
                 //是否将Response数据按GZIP来解压
                 setupGzip();
-                setupContent();
+                if (!request.isFireAndForget()) {
+                    setupContent();
+                }
                 this.contentLength = entity.getContentLength();
             } else {
                 this.bytes = new byte[0];
@@ -164,6 +166,14 @@ public class HttpclientForestResponse extends ForestResponse {
         return new ByteArrayInputStream(getByteArray());
     }
 
+    @Override
+    public void discardContent() {
+        if (bytes == null && entity != null) {
+            // 读完剩余的响应内容，使连接可以被复用
+            EntityUtils.consumeQuietly(entity);
+        }
+    }
+
     @Override
     public byte[] getByteArray() throws IOException {
         if (bytes == null) {
@@ -6,6 +6,7 @@ import com.dtflys.forest.config.ForestConfiguration;
 import com.dtflys.forest.exceptions.ForestRuntimeException;
 import com.dtflys.forest.handler.LifeCycleHandler;
 import com.dtflys.forest.http.ForestCookie;
+import com.dtflys.forest.http.ForestCookieStore;
 import com.dtflys.forest.http.ForestCookies;
 import com.dtflys.forest.http.ForestProtocol;
 import com.dtflys.forest.http.ForestProxy;
@@ -140,11 +141,20 @@ public class OkHttp3ConnectionManager implements ForestConnectionManager {
                             cookies.addCookie(cookie);
                         }
                         lifeCycleHandler.handleSaveCookie(request, cookies);
+                        ForestCookieStore cookieStore = request.getConfiguration().getCookieStore();
+                        if (cookieStore != null) {
+                            cookieStore.saveCookies(cookies);
+                        }
                     }
 
                     @Override
                     public List<Cookie> loadForRequest(HttpUrl url) {
                         ForestCookies cookies = new ForestCookies();
+                        // 只取出Cookie存储中与该URL匹配的Cookie，不转换整个存储
+                        ForestCookieStore cookieStore = request.getConfiguration().getCookieStore();
+                        if (cookieStore != null) {
+                            cookieStore.loadCookies(url.host(), url.encodedPath(), url.isHttps(), cookies);
+                        }
                         lifeCycleHandler.handleLoadCookie(request, cookies);
                         List<ForestCookie> forestCookies = cookies.allCookies();
                         List<Cookie> okCookies = new ArrayList<>(forestCookies.size());
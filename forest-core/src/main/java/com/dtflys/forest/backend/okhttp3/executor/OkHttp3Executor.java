@@ -189,6 +189,7 @@ public class OkHttp3Executor implements HttpExecutor {
 
         final Request okRequest = builder.build();
         Call call = okHttpClient.newCall(okRequest);
+        request.setCancelHook(call::cancel);
         final OkHttp3ForestResponseFactory factory = new OkHttp3ForestResponseFactory();
         logRequest(retryCount, okRequest, okHttpClient);
         Date startDate = new Date();
@@ -54,7 +54,9 @@ public class OkHttp3ForestResponse extends ForestResponse {
             return;
         }
         setupContentTypeAndCharset();
-        setupContent();
+        if (!request.isFireAndForget()) {
+            setupContent();
+        }
     }
 
     /**
@@ -187,6 +189,14 @@ public class OkHttp3ForestResponse extends ForestResponse {
         return body != null;
     }
 
+    @Override
+    public void discardContent() {
+        if (body != null) {
+            // 关闭响应体时 OkHttp 会丢弃剩余数据，并将连接归还连接池
+            body.close();
+        }
+    }
+
     @Override
     public byte[] getByteArray() throws Exception {
         if (bytes == null) {
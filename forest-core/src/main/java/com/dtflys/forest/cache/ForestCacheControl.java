@@ -0,0 +1,145 @@
+package com.dtflys.forest.cache;
+
+import com.dtflys.forest.utils.StringUtils;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Cache-Control 头的解析结果
+ * <p>只解析私有缓存关心的指令: {@code no-store}、{@code no-cache}、{@code max-age}、
+ * {@code must-revalidate}、{@code stale-while-revalidate} 和 {@code stale-if-error}，
+ * 时间类指令的值以秒为单位，未出现时为 {@code -1}
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class ForestCacheControl {
+
+    public final static ForestCacheControl EMPTY = new ForestCacheControl();
+
+    private boolean noStore = false;
+
+    private boolean noCache = false;
+
+    private boolean mustRevalidate = false;
+
+    private long maxAge = -1;
+
+    private long staleWhileRevalidate = -1;
+
+    private long staleIfError = -1;
+
+    private ForestCacheControl() {
+    }
+
+    /**
+     * 解析一个或多个 Cache-Control 头的值
+     *
+     * @param values Cache-Control 头的值列表
+     * @return {@link ForestCacheControl}实例
+     */
+    public static ForestCacheControl parse(List<String> values) {
+        if (values == null || values.isEmpty()) {
+            return EMPTY;
+        }
+        ForestCacheControl control = new ForestCacheControl();
+        for (String value : values) {
+            if (StringUtils.isBlank(value)) {
+                continue;
+            }
+            for (String directive : value.split(",")) {
+                String name = directive.trim();
+                String argument = null;
+                int eq = name.indexOf('=');
+                if (eq > 0) {
+                    argument = name.substring(eq + 1).trim();
+                    name = name.substring(0, eq).trim();
+                }
+                name = name.toLowerCase();
+                switch (name) {
+                    case "no-store":
+                        control.noStore = true;
+                        break;
+                    case "no-cache":
+                        control.noCache = true;
+                        break;
+                    case "must-revalidate":
+                    case "proxy-revalidate":
+                        control.mustRevalidate = true;
+                        break;
+                    case "max-age":
+                        control.maxAge = parseSeconds(argument);
+                        break;
+                    case "stale-while-revalidate":
+                        control.staleWhileRevalidate = parseSeconds(argument);
+                        break;
+                    case "stale-if-error":
+                        control.staleIfError = parseSeconds(argument);
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+        return control;
+    }
+
+    private static long parseSeconds(String argument) {
+        if (StringUtils.isBlank(argument)) {
+            return -1;
+        }
+        if (argument.length() > 1 && argument.charAt(0) == '"') {
+            argument = argument.substring(1, argument.length() - 1);
+        }
+        try {
+            return Math.max(0, Long.parseLong(argument));
+        } catch (NumberFormatException e) {
+            // 超过 long 范围的值按无限大处理，其余非法值忽略
+            return argument.chars().allMatch(Character::isDigit) ? Long.MAX_VALUE / 1000 : -1;
+        }
+    }
+
+    /**
+     * 解析 HTTP 日期（RFC 1123 格式）
+     *
+     * @param value 日期字符串
+     * @return 毫秒时间戳，无法解析时返回 {@code -1}
+     */
+    public static long parseHttpDate(String value) {
+        if (StringUtils.isBlank(value)) {
+            return -1;
+        }
+        try {
+            return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME)
+                    .toInstant().toEpochMilli();
+        } catch (Throwable th) {
+            return -1;
+        }
+    }
+
+    public boolean isNoStore() {
+        return noStore;
+    }
+
+    public boolean isNoCache() {
+        return noCache;
+    }
+
+    public boolean isMustRevalidate() {
+        return mustRevalidate;
+    }
+
+    public long getMaxAge() {
+        return maxAge;
+    }
+
+    public long getStaleWhileRevalidate() {
+        return staleWhileRevalidate;
+    }
+
+    public long getStaleIfError() {
+        return staleIfError;
+    }
+}
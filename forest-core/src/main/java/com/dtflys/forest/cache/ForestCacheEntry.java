@@ -0,0 +1,451 @@
+package com.dtflys.forest.cache;
+
+import com.dtflys.forest.exceptions.ForestRuntimeException;
+import com.dtflys.forest.http.ForestRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 响应缓存条目
+ * <p>保存响应的状态码、响应头和原始响应体，以及存入时按 RFC 7234 计算好的新鲜时间和初始年龄；
+ * 条目创建后不可修改，重新验证后会以新的条目替换旧条目。时间均以毫秒为单位
+ * <p>响应体可以是堆内的字节数组，也可以是磁盘缓存映射区域的只读视图，后者读取时不需要先复制到堆内
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class ForestCacheEntry {
+
+    /**
+     * 序列化格式版本
+     */
+    private final static int VERSION = 1;
+
+    private final int statusCode;
+
+    private final String reasonPhrase;
+
+    /**
+     * 响应头，按 [名称, 值, 名称, 值...] 交替存放
+     */
+    private final String[] headers;
+
+    private final byte[] body;
+
+    /**
+     * 磁盘缓存中的响应体视图，不为空时 {@code body} 为空
+     */
+    private final ByteBuffer bodyBuffer;
+
+    private final long requestTime;
+
+    private final long responseTime;
+
+    /**
+     * Vary 响应头所列请求头在存入时的值，按 [名称, 值...] 交替存放
+     */
+    private final String[] varyHeaders;
+
+    private final long freshnessLifetime;
+
+    private final long initialAge;
+
+    private final long staleWhileRevalidate;
+
+    private final long staleIfError;
+
+    private final boolean noCache;
+
+    private final boolean mustRevalidate;
+
+    public ForestCacheEntry(int statusCode, String reasonPhrase, String[] headers, byte[] body,
+                            long requestTime, long responseTime, String[] varyHeaders,
+                            long freshnessLifetime, long initialAge,
+                            long staleWhileRevalidate, long staleIfError,
+                            boolean noCache, boolean mustRevalidate) {
+        this(statusCode, reasonPhrase, headers, body, null, requestTime, responseTime, varyHeaders,
+                freshnessLifetime, initialAge, staleWhileRevalidate, staleIfError, noCache, mustRevalidate);
+    }
+
+    private ForestCacheEntry(int statusCode, String reasonPhrase, String[] headers,
+                             byte[] body, ByteBuffer bodyBuffer,
+                             long requestTime, long responseTime, String[] varyHeaders,
+                             long freshnessLifetime, long initialAge,
+                             long staleWhileRevalidate, long staleIfError,
+                             boolean noCache, boolean mustRevalidate) {
+        this.statusCode = statusCode;
+        this.reasonPhrase = reasonPhrase;
+        this.headers = headers;
+        this.body = body;
+        this.bodyBuffer = bodyBuffer;
+        this.requestTime = requestTime;
+        this.responseTime = responseTime;
+        this.varyHeaders = varyHeaders;
+        this.freshnessLifetime = freshnessLifetime;
+        this.initialAge = initialAge;
+        this.staleWhileRevalidate = staleWhileRevalidate;
+        this.staleIfError = staleIfError;
+        this.noCache = noCache;
+        this.mustRevalidate = mustRevalidate;
+    }
+
+    /**
+     * 获取条目在指定时刻的年龄
+     *
+     * @param now 当前时间
+     * @return 年龄
+     */
+    public long getAge(long now) {
+        return initialAge + Math.max(0, now - responseTime);
+    }
+
+    /**
+     * 条目在指定时刻是否新鲜，新鲜的条目可以不经验证直接返回
+     *
+     * @param now 当前时间
+     * @return {@code true}: 新鲜, {@code false}: 已过期或必须验证
+     */
+    public boolean isFresh(long now) {
+        return !noCache && getAge(now) < freshnessLifetime;
+    }
+
+    /**
+     * 过期后是否仍在 {@code stale-while-revalidate} 时间窗口内
+     *
+     * @param now 当前时间
+     * @return {@code true}: 可以先返回旧响应，同时在后台重新验证
+     */
+    public boolean isStaleWhileRevalidate(long now) {
+        return !noCache && !mustRevalidate && staleWhileRevalidate >= 0
+                && getAge(now) - freshnessLifetime <= staleWhileRevalidate;
+    }
+
+    /**
+     * 过期后是否仍在 {@code stale-if-error} 时间窗口内
+     *
+     * @param now 当前时间
+     * @return {@code true}: 重新验证失败时可以返回旧响应
+     */
+    public boolean isStaleIfError(long now) {
+        return !mustRevalidate && staleIfError >= 0
+                && getAge(now) - freshnessLifetime <= staleIfError;
+    }
+
+    /**
+     * 是否带有可用于条件请求的验证器 (ETag 或 Last-Modified)
+     *
+     * @return {@code true}: 有验证器, {@code false}: 没有
+     */
+    public boolean hasValidators() {
+        return getHeaderValue("ETag") != null || getHeaderValue("Last-Modified") != null;
+    }
+
+    /**
+     * 请求中被 Vary 响应头指定的请求头是否和存入时一致
+     *
+     * @param request Forest请求对象
+     * @return {@code true}: 一致，条目可用于该请求
+     */
+    public boolean matchesVary(ForestRequest request) {
+        if (varyHeaders == null) {
+            return true;
+        }
+        for (int i = 0; i < varyHeaders.length; i += 2) {
+            if (!Objects.equals(varyHeaders[i + 1], request.getHeaderValue(varyHeaders[i]))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 根据名称获取第一个响应头的值（忽略大小写）
+     *
+     * @param name 响应头名称
+     * @return 响应头的值，不存在时返回 {@code null}
+     */
+    public String getHeaderValue(String name) {
+        for (int i = 0; i < headers.length; i += 2) {
+            if (headers[i].equalsIgnoreCase(name)) {
+                return headers[i + 1];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 根据名称获取全部响应头的值（忽略大小写）
+     *
+     * @param name 响应头名称
+     * @return 响应头值列表
+     */
+    public List<String> getHeaderValues(String name) {
+        List<String> values = new ArrayList<>(1);
+        for (int i = 0; i < headers.length; i += 2) {
+            if (headers[i].equalsIgnoreCase(name)) {
+                values.add(headers[i + 1]);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * 估算条目占用的内存大小，用于按容量淘汰
+     *
+     * @return 字节数
+     */
+    public long weight() {
+        long weight = 96 + getBodyLength();
+        for (String header : headers) {
+            weight += 40 + 2L * header.length();
+        }
+        if (varyHeaders != null) {
+            for (String header : varyHeaders) {
+                weight += 40 + (header == null ? 0 : 2L * header.length());
+            }
+        }
+        return weight;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public String getReasonPhrase() {
+        return reasonPhrase;
+    }
+
+    public String[] getHeaders() {
+        return headers;
+    }
+
+    /**
+     * 获取响应体字节数组
+     * <p>响应体来自磁盘缓存时，每次调用都会复制出新的字节数组
+     *
+     * @return 响应体，没有响应体时返回 {@code null}
+     */
+    public byte[] getBody() {
+        if (bodyBuffer != null) {
+            ByteBuffer buffer = bodyBuffer.duplicate();
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            return bytes;
+        }
+        return body;
+    }
+
+    /**
+     * 是否有响应体
+     *
+     * @return {@code true}: 有, {@code false}: 没有
+     */
+    public boolean hasBody() {
+        return body != null || bodyBuffer != null;
+    }
+
+    /**
+     * 获取响应体长度
+     *
+     * @return 字节数，没有响应体时为 {@code 0}
+     */
+    public int getBodyLength() {
+        if (bodyBuffer != null) {
+            return bodyBuffer.remaining();
+        }
+        return body == null ? 0 : body.length;
+    }
+
+    /**
+     * 以输入流读取响应体，响应体来自磁盘缓存时直接读取映射区域，不复制整个响应体
+     *
+     * @return 输入流
+     */
+    public InputStream openBody() {
+        if (bodyBuffer != null) {
+            ByteBuffer buffer = bodyBuffer.duplicate();
+            return new InputStream() {
+                @Override
+                public int read() {
+                    return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    if (!buffer.hasRemaining()) {
+                        return -1;
+                    }
+                    int n = Math.min(len, buffer.remaining());
+                    buffer.get(b, off, n);
+                    return n;
+                }
+
+                @Override
+                public int available() {
+                    return buffer.remaining();
+                }
+            };
+        }
+        return new ByteArrayInputStream(body == null ? new byte[0] : body);
+    }
+
+    public long getRequestTime() {
+        return requestTime;
+    }
+
+    public long getResponseTime() {
+        return responseTime;
+    }
+
+    public String[] getVaryHeaders() {
+        return varyHeaders;
+    }
+
+    public long getFreshnessLifetime() {
+        return freshnessLifetime;
+    }
+
+    public long getInitialAge() {
+        return initialAge;
+    }
+
+    public long getStaleWhileRevalidate() {
+        return staleWhileRevalidate;
+    }
+
+    public long getStaleIfError() {
+        return staleIfError;
+    }
+
+    public boolean isNoCache() {
+        return noCache;
+    }
+
+    public boolean isMustRevalidate() {
+        return mustRevalidate;
+    }
+
+    /**
+     * 将条目序列化为字节数组，响应体位于末尾
+     *
+     * @return 字节数组
+     */
+    public byte[] toBytes() {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(getBodyLength() + 256);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(VERSION);
+            out.writeInt(statusCode);
+            writeString(out, reasonPhrase);
+            writeStrings(out, headers);
+            writeStrings(out, varyHeaders);
+            out.writeLong(requestTime);
+            out.writeLong(responseTime);
+            out.writeLong(freshnessLifetime);
+            out.writeLong(initialAge);
+            out.writeLong(staleWhileRevalidate);
+            out.writeLong(staleIfError);
+            out.writeBoolean(noCache);
+            out.writeBoolean(mustRevalidate);
+            if (!hasBody()) {
+                out.writeInt(-1);
+            } else {
+                out.writeInt(getBodyLength());
+                out.write(getBody());
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new ForestRuntimeException(e);
+        }
+    }
+
+    /**
+     * 从 {@link #toBytes()} 的结果中读取条目
+     * <p>响应体不会被复制，条目直接引用 {@code buffer} 中对应的区域，因此调用方不能再修改该区域
+     *
+     * @param buffer 从当前位置开始存放序列化数据的缓冲区
+     * @return 缓存条目
+     */
+    public static ForestCacheEntry fromBytes(ByteBuffer buffer) {
+        ByteBuffer in = buffer.duplicate();
+        int version = in.getInt();
+        if (version != VERSION) {
+            throw new ForestRuntimeException("[Forest] unsupported cache entry version: " + version);
+        }
+        int statusCode = in.getInt();
+        String reasonPhrase = readString(in);
+        String[] headers = readStrings(in);
+        String[] varyHeaders = readStrings(in);
+        long requestTime = in.getLong();
+        long responseTime = in.getLong();
+        long freshnessLifetime = in.getLong();
+        long initialAge = in.getLong();
+        long staleWhileRevalidate = in.getLong();
+        long staleIfError = in.getLong();
+        boolean noCache = in.get() != 0;
+        boolean mustRevalidate = in.get() != 0;
+        int bodyLength = in.getInt();
+        ByteBuffer bodyBuffer = null;
+        if (bodyLength >= 0) {
+            bodyBuffer = in.slice();
+            bodyBuffer.limit(bodyLength);
+            bodyBuffer = bodyBuffer.asReadOnlyBuffer();
+        }
+        return new ForestCacheEntry(statusCode, reasonPhrase, headers == null ? new String[0] : headers,
+                null, bodyBuffer, requestTime, responseTime, varyHeaders,
+                freshnessLifetime, initialAge, staleWhileRevalidate, staleIfError, noCache, mustRevalidate);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static void writeStrings(DataOutputStream out, String[] values) throws IOException {
+        if (values == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(values.length);
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String[] readStrings(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String[] values = new String[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = readString(in);
+        }
+        return values;
+    }
+}
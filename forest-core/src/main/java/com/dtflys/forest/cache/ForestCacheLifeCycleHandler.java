@@ -0,0 +1,174 @@
+package com.dtflys.forest.cache;
+
+import com.dtflys.forest.handler.LifeCycleHandler;
+import com.dtflys.forest.http.ForestCookies;
+import com.dtflys.forest.http.ForestRequest;
+import com.dtflys.forest.http.ForestResponse;
+import com.dtflys.forest.reflection.ForestMethod;
+import com.dtflys.forest.utils.ForestProgress;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.Future;
+
+/**
+ * 响应缓存生命周期处理器
+ * <p>在原生命周期处理器之前处理服务端响应: 保存可缓存的响应，将 304 响应替换为缓存的响应，
+ * 以及在 {@code stale-if-error} 时间窗口内用旧响应代替错误响应，其余处理全部交给原处理器
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class ForestCacheLifeCycleHandler implements LifeCycleHandler {
+
+    private final ForestResponseCache cache;
+
+    private final LifeCycleHandler delegate;
+
+    /**
+     * 请求处理完成后的回调，用于后台重新验证请求结束时释放缓存键
+     */
+    private final Runnable onComplete;
+
+    private volatile ForestCacheEntry entry;
+
+    private volatile boolean cacheable = false;
+
+    private volatile long requestTime;
+
+    public ForestCacheLifeCycleHandler(ForestResponseCache cache, LifeCycleHandler delegate) {
+        this(cache, delegate, null);
+    }
+
+    public ForestCacheLifeCycleHandler(ForestResponseCache cache, LifeCycleHandler delegate, Runnable onComplete) {
+        this.cache = cache;
+        this.delegate = delegate;
+        this.onComplete = onComplete;
+    }
+
+    /**
+     * 发送请求前记录已有的缓存条目，条目带有验证器时将请求改为条件请求
+     *
+     * @param request Forest请求对象
+     * @param entry 已有的缓存条目，没有时为 {@code null}
+     * @param cacheable 请求是否可缓存
+     * @param requestTime 请求发送时间
+     */
+    void prepare(ForestRequest request, ForestCacheEntry entry, boolean cacheable, long requestTime) {
+        this.entry = entry;
+        this.cacheable = cacheable;
+        this.requestTime = requestTime;
+        if (entry != null && entry.hasValidators()) {
+            cache.addConditionalHeaders(request, entry);
+        }
+    }
+
+    public LifeCycleHandler getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public Object handleSync(ForestRequest request, ForestResponse response) {
+        try {
+            if (response instanceof ForestCachedResponse) {
+                return delegate.handleSync(request, response);
+            }
+            return delegate.handleSync(request,
+                    cache.handleResponse(request, response, entry, cacheable, requestTime));
+        } finally {
+            complete();
+        }
+    }
+
+    @Override
+    public Object handleSyncWithException(ForestRequest request, ForestResponse response, Throwable ex) {
+        try {
+            ForestResponse stale = cacheable ? cache.handleException(request, entry) : null;
+            if (stale != null) {
+                return delegate.handleSync(request, stale);
+            }
+            return delegate.handleSyncWithException(request, response, ex);
+        } finally {
+            complete();
+        }
+    }
+
+    private void complete() {
+        if (onComplete != null) {
+            onComplete.run();
+        }
+    }
+
+    @Override
+    public Object handleResultType(ForestRequest request, ForestResponse response) {
+        return delegate.handleResultType(request, response);
+    }
+
+    @Override
+    public Object handleResultType(ForestRequest request, ForestResponse response, Type resultType, Class resultClass) {
+        return delegate.handleResultType(request, response, resultType, resultClass);
+    }
+
+    @Override
+    public Object handleSuccess(Object resultData, ForestRequest request, ForestResponse response) {
+        return delegate.handleSuccess(resultData, request, response);
+    }
+
+    @Override
+    public void handleInvokeMethod(ForestRequest request, ForestMethod method, Object[] args) {
+        delegate.handleInvokeMethod(request, method, args);
+    }
+
+    @Override
+    public Object handleError(ForestRequest request, ForestResponse response) {
+        return delegate.handleError(request, response);
+    }
+
+    @Override
+    public Object handleError(ForestRequest request, ForestResponse response, Throwable ex) {
+        return delegate.handleError(request, response, ex);
+    }
+
+    @Override
+    public void handleCanceled(ForestRequest request, ForestResponse response) {
+        try {
+            delegate.handleCanceled(request, response);
+        } finally {
+            complete();
+        }
+    }
+
+    @Override
+    public void handleProgress(ForestRequest request, ForestProgress progress) {
+        delegate.handleProgress(request, progress);
+    }
+
+    @Override
+    public void handleLoadCookie(ForestRequest request, ForestCookies cookies) {
+        delegate.handleLoadCookie(request, cookies);
+    }
+
+    @Override
+    public void handleSaveCookie(ForestRequest request, ForestCookies cookies) {
+        delegate.handleSaveCookie(request, cookies);
+    }
+
+    @Override
+    public Object handleResult(Object resultData) {
+        return delegate.handleResult(resultData);
+    }
+
+    @Override
+    public Object handleFuture(Future resultData) {
+        return delegate.handleFuture(resultData);
+    }
+
+    @Override
+    public Type getOnSuccessClassGenericType() {
+        return delegate.getOnSuccessClassGenericType();
+    }
+
+    @Override
+    public Type getResultType() {
+        return delegate.getResultType();
+    }
+}
@@ -0,0 +1,68 @@
+package com.dtflys.forest.cache;
+
+/**
+ * 请求级别的响应缓存选项
+ * <p>设置在请求上时会覆盖全局的响应缓存开关；时间类选项以秒为单位，
+ * 大于等于 {@code 0} 时覆盖响应头中对应的 Cache-Control 指令，为 {@code -1} 时以响应头为准
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class ForestCacheOptions {
+
+    /**
+     * 是否启用响应缓存
+     */
+    private boolean enabled = true;
+
+    /**
+     * 响应的新鲜时间（秒）
+     */
+    private long maxAge = -1;
+
+    /**
+     * 过期后允许先返回旧响应、同时在后台重新验证的时间（秒）
+     */
+    private long staleWhileRevalidate = -1;
+
+    /**
+     * 重新验证失败时允许返回旧响应的时间（秒）
+     */
+    private long staleIfError = -1;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public ForestCacheOptions setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        return this;
+    }
+
+    public long getMaxAge() {
+        return maxAge;
+    }
+
+    public ForestCacheOptions setMaxAge(long maxAge) {
+        this.maxAge = maxAge;
+        return this;
+    }
+
+    public long getStaleWhileRevalidate() {
+        return staleWhileRevalidate;
+    }
+
+    public ForestCacheOptions setStaleWhileRevalidate(long staleWhileRevalidate) {
+        this.staleWhileRevalidate = staleWhileRevalidate;
+        return this;
+    }
+
+    public long getStaleIfError() {
+        return staleIfError;
+    }
+
+    public ForestCacheOptions setStaleIfError(long staleIfError) {
+        this.staleIfError = staleIfError;
+        return this;
+    }
+}
@@ -0,0 +1,56 @@
+package com.dtflys.forest.cache;
+
+/**
+ * 响应缓存存储
+ * <p>负责按缓存键保存和读取 {@link ForestCacheEntry}，新鲜度判断和重新验证由 {@link ForestResponseCache} 完成，
+ * 实现类只需保证线程安全以及在超过容量时自行淘汰条目
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public interface ForestCacheStore {
+
+    /**
+     * 根据缓存键获取缓存条目
+     *
+     * @param key 缓存键
+     * @return 缓存条目，不存在时返回 {@code null}
+     */
+    ForestCacheEntry get(String key);
+
+    /**
+     * 保存缓存条目，已存在时替换
+     *
+     * @param key 缓存键
+     * @param entry 缓存条目
+     */
+    void put(String key, ForestCacheEntry entry);
+
+    /**
+     * 删除缓存条目
+     *
+     * @param key 缓存键
+     */
+    void remove(String key);
+
+    /**
+     * 清空全部缓存条目
+     */
+    void clear();
+
+    /**
+     * 获取缓存条目数量
+     *
+     * @return 条目数量
+     */
+    int size();
+
+    /**
+     * 获取因超过容量而被淘汰的条目数量
+     *
+     * @return 淘汰数量
+     */
+    default long getEvictionCount() {
+        return 0;
+    }
+}
@@ -0,0 +1,107 @@
+package com.dtflys.forest.cache;
+
+import com.dtflys.forest.backend.ContentType;
+import com.dtflys.forest.http.ForestHeader;
+import com.dtflys.forest.http.ForestRequest;
+import com.dtflys.forest.http.ForestResponse;
+import com.dtflys.forest.utils.GzipUtils;
+import com.dtflys.forest.utils.StringUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Date;
+
+/**
+ * 由响应缓存返回的Forest响应对象
+ * <p>状态码、响应头和响应体都来自缓存条目，并附带表示缓存年龄的 {@code Age} 响应头
+ *
+ * @param <T> 响应结果类型
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class ForestCachedResponse<T> extends ForestResponse<T> {
+
+    private final ForestCacheEntry entry;
+
+    /**
+     * 是否为过期后未经验证直接返回的旧响应
+     */
+    private final boolean stale;
+
+    /**
+     * 已读取的响应体字节数组
+     */
+    private volatile byte[] bytes;
+
+    public ForestCachedResponse(ForestRequest request, ForestCacheEntry entry, long now, boolean stale) {
+        super(request, new Date(now), new Date(now));
+        this.entry = entry;
+        this.stale = stale;
+        this.statusCode = entry.getStatusCode();
+        this.reasonPhrase = entry.getReasonPhrase();
+        String[] hs = entry.getHeaders();
+        for (int i = 0; i < hs.length; i += 2) {
+            if (!"Age".equalsIgnoreCase(hs[i])) {
+                headers.addHeader(hs[i], hs[i + 1]);
+            }
+        }
+        headers.addHeader("Age", String.valueOf(entry.getAge(now) / 1000));
+        this.contentLength = entry.getBodyLength();
+        this.contentEncoding = entry.getHeaderValue(ForestHeader.CONTENT_ENCODING);
+        if (contentEncoding != null && !request.isDecompressResponseGzipEnabled()) {
+            isGzip = GzipUtils.isGzip(contentEncoding);
+        } else {
+            isGzip = true;
+        }
+        String contentTypeValue = entry.getHeaderValue(ForestHeader.CONTENT_TYPE);
+        if (StringUtils.isNotBlank(contentTypeValue)) {
+            this.contentType = new ContentType(contentTypeValue);
+        }
+        if (StringUtils.isNotBlank(request.getResponseEncode())) {
+            this.charset = request.getResponseEncode();
+        } else if (contentType != null) {
+            this.charset = contentType.getCharset();
+        }
+    }
+
+    /**
+     * 获取该响应对应的缓存条目
+     *
+     * @return 缓存条目
+     */
+    public ForestCacheEntry getCacheEntry() {
+        return entry;
+    }
+
+    /**
+     * 是否为过期后未经验证直接返回的旧响应
+     * <p>在 {@code stale-while-revalidate} 或 {@code stale-if-error} 时间窗口内返回的响应为旧响应
+     *
+     * @return {@code true}: 旧响应, {@code false}: 新鲜或已验证的响应
+     */
+    public boolean isStale() {
+        return stale;
+    }
+
+    @Override
+    public boolean isReceivedResponseData() {
+        return entry.hasBody();
+    }
+
+    @Override
+    public byte[] getByteArray() throws Exception {
+        if (bytes == null && entry.hasBody()) {
+            bytes = entry.getBody();
+        }
+        return bytes;
+    }
+
+    @Override
+    public InputStream getInputStream() throws Exception {
+        if (bytes != null) {
+            return new ByteArrayInputStream(bytes);
+        }
+        // 直接读取缓存条目的响应体，来自磁盘缓存时不会复制整个响应体
+        return entry.openBody();
+    }
+}
@@ -0,0 +1,80 @@
+package com.dtflys.forest.cache;
+
+import com.dtflys.forest.backend.HttpExecutor;
+import com.dtflys.forest.backend.ResponseHandler;
+import com.dtflys.forest.handler.LifeCycleHandler;
+import com.dtflys.forest.http.ForestRequest;
+
+import java.util.function.BiFunction;
+
+/**
+ * 经过响应缓存的HTTP执行器
+ * <p>发送请求前先查找缓存: 新鲜的条目直接作为响应返回，不发送请求；
+ * 在 {@code stale-while-revalidate} 时间窗口内返回旧响应并在后台重新验证；
+ * 其余情况交给后端执行器发送请求（有验证器时为条件请求）
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class ForestCachingExecutor implements HttpExecutor {
+
+    private final ForestResponseCache cache;
+
+    private final HttpExecutor executor;
+
+    private final ForestCacheLifeCycleHandler cacheHandler;
+
+    private final BiFunction<ForestRequest, LifeCycleHandler, HttpExecutor> executorCreator;
+
+    public ForestCachingExecutor(ForestResponseCache cache, HttpExecutor executor,
+                                 ForestCacheLifeCycleHandler cacheHandler,
+                                 BiFunction<ForestRequest, LifeCycleHandler, HttpExecutor> executorCreator) {
+        this.cache = cache;
+        this.executor = executor;
+        this.cacheHandler = cacheHandler;
+        this.executorCreator = executorCreator;
+    }
+
+    @Override
+    public ForestRequest getRequest() {
+        return executor.getRequest();
+    }
+
+    @Override
+    public void execute(LifeCycleHandler lifeCycleHandler) {
+        // 传入原处理器时换成缓存处理器；传入的是包装了缓存处理器的回调分发处理器时保持不变
+        LifeCycleHandler handler = lifeCycleHandler == cacheHandler.getDelegate() ? cacheHandler : lifeCycleHandler;
+        ForestRequest request = getRequest();
+        long now = System.currentTimeMillis();
+        boolean cacheable = cache.isCacheableRequest(request);
+        ForestCacheEntry entry = cacheable ? cache.lookup(request) : null;
+        if (entry != null && !cache.isRevalidationRequired(request)) {
+            if (entry.isFresh(now)) {
+                cache.recordHit();
+                handler.handleSync(request, new ForestCachedResponse(request, entry, now, false));
+                return;
+            }
+            if (entry.isStaleWhileRevalidate(now)) {
+                cache.recordStaleWhileRevalidate();
+                cache.revalidateInBackground(request, entry, executorCreator);
+                handler.handleSync(request, new ForestCachedResponse(request, entry, now, true));
+                return;
+            }
+        }
+        if (cacheable) {
+            cache.recordMiss();
+        }
+        cacheHandler.prepare(request, entry, cacheable, now);
+        executor.execute(handler);
+    }
+
+    @Override
+    public ResponseHandler getResponseHandler() {
+        return executor.getResponseHandler();
+    }
+
+    @Override
+    public void close() {
+        executor.close();
+    }
+}
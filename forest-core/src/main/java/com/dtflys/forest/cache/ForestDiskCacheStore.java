@@ -0,0 +1,563 @@
+package com.dtflys.forest.cache;
+
+import com.dtflys.forest.exceptions.ForestRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * 基于内存映射文件的磁盘响应缓存存储
+ * <p>缓存条目以追加方式写入目录下固定大小的段文件，每个段文件整体映射到内存:
+ * <ul>
+ *     <li>{@code segment-<序号>.cache}: 每条记录的格式为 [长度][CRC32][缓存键长度][缓存键][条目]，条目为空时表示删除</li>
+ * </ul>
+ * 缓存键到记录位置的索引保存在堆外的哈希表中，打开时通过扫描段文件重建，因此进程重启后缓存仍然可用；
+ * 读取时条目的响应体直接引用映射区域，不会复制到堆内
+ * <p>被覆盖或删除的记录会在后台压缩时清理: 有效数据不足一半的旧段文件，其有效记录被重新追加到当前段文件后删除；
+ * 磁盘总占用超过最大容量时，从最旧的段文件开始整段淘汰
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class ForestDiskCacheStore implements ForestCacheStore, Closeable {
+
+    private final static Logger log = LoggerFactory.getLogger(ForestDiskCacheStore.class);
+
+    private final static String SEGMENT_PREFIX = "segment-";
+
+    private final static String SEGMENT_SUFFIX = ".cache";
+
+    /**
+     * 记录头: [长度][CRC32]
+     */
+    private final static int RECORD_HEADER_SIZE = 8;
+
+    /**
+     * 段文件结束标记，写在最后一条记录之后
+     */
+    private final static int SEGMENT_END = -1;
+
+    /**
+     * 后台压缩的间隔时间（秒）
+     */
+    private final static long COMPACT_INTERVAL_SECONDS = 30;
+
+    private final File dir;
+
+    private final int segmentSize;
+
+    private final long maxSize;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+
+    private final OffHeapCacheIndex index = new OffHeapCacheIndex(1024);
+
+    private final ScheduledExecutorService compactor;
+
+    private Segment active;
+
+    private long evictionCount = 0;
+
+    private volatile boolean closed = false;
+
+    /**
+     * @param dir 缓存目录
+     * @param segmentSize 段文件大小（字节）
+     * @param maxSize 磁盘最大占用（字节）
+     */
+    public ForestDiskCacheStore(File dir, int segmentSize, long maxSize) {
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+        this.maxSize = maxSize;
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new ForestRuntimeException("[Forest] cannot create response cache directory: " + dir);
+        }
+        try {
+            recover();
+        } catch (IOException e) {
+            throw new ForestRuntimeException(e);
+        }
+        this.compactor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "forest-cache-compactor-" + dir.getName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        compactor.scheduleWithFixedDelay(this::compact,
+                COMPACT_INTERVAL_SECONDS, COMPACT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 段文件
+     */
+    private final static class Segment {
+
+        final long id;
+
+        final File file;
+
+        final MappedByteBuffer buffer;
+
+        /**
+         * 下一条记录的写入位置
+         */
+        int writePosition = 0;
+
+        /**
+         * 仍被索引引用的记录字节数
+         */
+        long liveBytes = 0;
+
+        /**
+         * 是否已写满，不再写入
+         */
+        boolean sealed = false;
+
+        Segment(long id, File file, MappedByteBuffer buffer) {
+            this.id = id;
+            this.file = file;
+            this.buffer = buffer;
+        }
+    }
+
+    private File segmentFile(long id) {
+        return new File(dir, String.format("%s%020d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+    }
+
+    private Segment openSegment(long id) throws IOException {
+        File file = segmentFile(id);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw");
+             FileChannel channel = raf.getChannel()) {
+            long size = Math.max(channel.size(), segmentSize);
+            return new Segment(id, file, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        }
+    }
+
+    private static long location(long segmentId, int offset) {
+        return (segmentId << 32) | (offset & 0xFFFFFFFFL);
+    }
+
+    private static long segmentId(long location) {
+        return location >>> 32;
+    }
+
+    private static int offset(long location) {
+        return (int) location;
+    }
+
+    /**
+     * 扫描全部段文件重建索引，最后一个段文件校验CRC并截断不完整的记录
+     */
+    private void recover() throws IOException {
+        File[] files = dir.listFiles((d, name) -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX));
+        List<Long> ids = new ArrayList<>();
+        if (files != null) {
+            for (File file : files) {
+                String name = file.getName();
+                try {
+                    ids.add(Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+                } catch (NumberFormatException ignored) {
+                }
+            }
+        }
+        ids.sort(Long::compare);
+        for (int i = 0; i < ids.size(); i++) {
+            Segment segment = openSegment(ids.get(i));
+            segments.put(segment.id, segment);
+            scan(segment, i == ids.size() - 1);
+        }
+        if (segments.isEmpty()) {
+            active = openSegment(0);
+            segments.put(active.id, active);
+        } else {
+            active = segments.lastEntry().getValue();
+            if (active.sealed) {
+                roll();
+            }
+        }
+    }
+
+    private void scan(Segment segment, boolean verify) {
+        ByteBuffer buffer = segment.buffer;
+        int limit = buffer.capacity();
+        int position = 0;
+        while (position + RECORD_HEADER_SIZE <= limit) {
+            int length = buffer.getInt(position);
+            if (length == SEGMENT_END) {
+                segment.sealed = true;
+                break;
+            }
+            if (length <= 0 || position + RECORD_HEADER_SIZE + length > limit) {
+                break;
+            }
+            if (verify && crc(buffer, position + RECORD_HEADER_SIZE, length) != buffer.getInt(position + 4)) {
+                // 进程在写入过程中退出，丢弃不完整的记录
+                buffer.putInt(position, 0);
+                break;
+            }
+            String key = readKey(buffer, position);
+            long hash = OffHeapCacheIndex.hash(key);
+            long old;
+            if (isTombstone(buffer, position)) {
+                old = index.remove(hash);
+            } else {
+                old = index.put(hash, location(segment.id, position));
+                segment.liveBytes += RECORD_HEADER_SIZE + length;
+            }
+            release(old);
+            position += RECORD_HEADER_SIZE + length;
+        }
+        segment.writePosition = position;
+    }
+
+    private static int crc(ByteBuffer buffer, int position, int length) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(position);
+        view.limit(position + length);
+        CRC32 crc = new CRC32();
+        crc.update(view);
+        return (int) crc.getValue();
+    }
+
+    private static String readKey(ByteBuffer buffer, int position) {
+        int keyLength = buffer.getInt(position + RECORD_HEADER_SIZE);
+        byte[] bytes = new byte[keyLength];
+        ByteBuffer view = buffer.duplicate();
+        view.position(position + RECORD_HEADER_SIZE + 4);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static boolean isTombstone(ByteBuffer buffer, int position) {
+        return buffer.getInt(position) == 4 + buffer.getInt(position + RECORD_HEADER_SIZE);
+    }
+
+    /**
+     * 旧记录不再被索引引用，减少其所在段文件的有效字节数
+     */
+    private void release(long location) {
+        if (location < 0) {
+            return;
+        }
+        Segment segment = segments.get(segmentId(location));
+        if (segment != null) {
+            segment.liveBytes -= RECORD_HEADER_SIZE + segment.buffer.getInt(offset(location));
+        }
+    }
+
+    @Override
+    public ForestCacheEntry get(String key) {
+        long hash = OffHeapCacheIndex.hash(key);
+        lock.readLock().lock();
+        try {
+            long location = index.get(hash);
+            if (location < 0) {
+                return null;
+            }
+            Segment segment = segments.get(segmentId(location));
+            if (segment == null) {
+                return null;
+            }
+            int position = offset(location);
+            if (!key.equals(readKey(segment.buffer, position))) {
+                // 64位哈希冲突
+                return null;
+            }
+            int keyLength = segment.buffer.getInt(position + RECORD_HEADER_SIZE);
+            ByteBuffer view = segment.buffer.duplicate();
+            view.position(position + RECORD_HEADER_SIZE + 4 + keyLength);
+            view.limit(position + RECORD_HEADER_SIZE + segment.buffer.getInt(position));
+            // 段文件被删除后映射区域在没有引用时才会释放，已返回的条目仍可安全读取
+            return ForestCacheEntry.fromBytes(view.slice());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void put(String key, ForestCacheEntry entry) {
+        write(key, entry.toBytes());
+    }
+
+    @Override
+    public void remove(String key) {
+        long hash = OffHeapCacheIndex.hash(key);
+        lock.writeLock().lock();
+        try {
+            if (index.get(hash) >= 0) {
+                write(key, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 追加一条记录并更新索引
+     *
+     * @param key 缓存键
+     * @param entry 序列化后的条目，为 {@code null} 时写入删除记录
+     */
+    private void write(String key, byte[] entry) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int length = 4 + keyBytes.length + (entry == null ? 0 : entry.length);
+        long hash = OffHeapCacheIndex.hash(key);
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            if (RECORD_HEADER_SIZE + length + 4 > segmentSize || (entry != null && index.isFull())) {
+                // 超过段文件大小的条目不保存，同时删除旧条目
+                if (entry != null && index.get(hash) >= 0) {
+                    write(key, null);
+                }
+                return;
+            }
+            if (active.writePosition + RECORD_HEADER_SIZE + length + 4 > active.buffer.capacity()) {
+                roll();
+            }
+            int position = append(active, keyBytes, entry, length);
+            long old;
+            if (entry == null) {
+                old = index.remove(hash);
+            } else {
+                old = index.put(hash, location(active.id, position));
+                active.liveBytes += RECORD_HEADER_SIZE + length;
+            }
+            release(old);
+            evictIfNecessary();
+        } catch (IOException e) {
+            throw new ForestRuntimeException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int append(Segment segment, byte[] keyBytes, byte[] entry, int length) {
+        MappedByteBuffer buffer = segment.buffer;
+        int position = segment.writePosition;
+        ByteBuffer view = buffer.duplicate();
+        view.position(position + RECORD_HEADER_SIZE);
+        view.putInt(keyBytes.length);
+        view.put(keyBytes);
+        if (entry != null) {
+            view.put(entry);
+        }
+        buffer.putInt(position + 4, crc(buffer, position + RECORD_HEADER_SIZE, length));
+        // 先写下一条记录位置的结束标记 0，最后写入长度，使记录对恢复过程可见
+        buffer.putInt(position + RECORD_HEADER_SIZE + length, 0);
+        buffer.putInt(position, length);
+        segment.writePosition = position + RECORD_HEADER_SIZE + length;
+        return position;
+    }
+
+    /**
+     * 封存当前段文件并创建新的段文件
+     */
+    private void roll() throws IOException {
+        if (active.writePosition + 4 <= active.buffer.capacity()) {
+            active.buffer.putInt(active.writePosition, SEGMENT_END);
+        }
+        active.sealed = true;
+        active = openSegment(active.id + 1);
+        segments.put(active.id, active);
+    }
+
+    /**
+     * 磁盘占用超过最大容量时，从最旧的段文件开始整段淘汰
+     */
+    private void evictIfNecessary() {
+        while ((long) segments.size() * segmentSize > maxSize && segments.size() > 1) {
+            Segment eldest = segments.firstEntry().getValue();
+            int position = 0;
+            while (position < eldest.writePosition) {
+                int length = eldest.buffer.getInt(position);
+                long hash = OffHeapCacheIndex.hash(readKey(eldest.buffer, position));
+                if (index.get(hash) == location(eldest.id, position)) {
+                    index.remove(hash);
+                    evictionCount++;
+                }
+                position += RECORD_HEADER_SIZE + length;
+            }
+            deleteSegment(eldest);
+        }
+    }
+
+    private void deleteSegment(Segment segment) {
+        segments.remove(segment.id);
+        if (!segment.file.delete()) {
+            log.warn("[Forest] failed to delete response cache segment: {}", segment.file);
+        }
+    }
+
+    /**
+     * 压缩有效数据不足一半的已封存段文件
+     * <p>逐条复制有效记录，复制每条记录时才持有写锁，不会长时间阻塞读取；
+     * 最旧的段文件中的删除记录不再需要保留，其余段文件中的删除记录会被一并复制
+     */
+    void compact() {
+        List<Segment> candidates = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Segment segment : segments.values()) {
+                if (segment.sealed && segment.liveBytes * 2 < segment.writePosition) {
+                    candidates.add(segment);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        for (Segment segment : candidates) {
+            try {
+                compact(segment);
+            } catch (Throwable th) {
+                log.warn("[Forest] failed to compact response cache segment: {}", segment.file, th);
+            }
+        }
+    }
+
+    private void compact(Segment segment) {
+        int position = 0;
+        while (true) {
+            lock.writeLock().lock();
+            try {
+                if (closed || segments.get(segment.id) != segment) {
+                    return;
+                }
+                if (position >= segment.writePosition) {
+                    deleteSegment(segment);
+                    return;
+                }
+                int length = segment.buffer.getInt(position);
+                String key = readKey(segment.buffer, position);
+                long hash = OffHeapCacheIndex.hash(key);
+                boolean tombstone = isTombstone(segment.buffer, position);
+                boolean live = !tombstone && index.get(hash) == location(segment.id, position);
+                boolean keepTombstone = tombstone && index.get(hash) < 0
+                        && segments.firstKey() != segment.id;
+                if (live || keepTombstone) {
+                    byte[] record = new byte[length - 4 - key.getBytes(StandardCharsets.UTF_8).length];
+                    ByteBuffer view = segment.buffer.duplicate();
+                    view.position(position + RECORD_HEADER_SIZE + length - record.length);
+                    view.get(record);
+                    write(key, tombstone ? null : record);
+                }
+                position += RECORD_HEADER_SIZE + length;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            for (Segment segment : new ArrayList<>(segments.values())) {
+                deleteSegment(segment);
+            }
+            index.clear();
+            active = openSegment(active.id + 1);
+            segments.put(active.id, active);
+        } catch (IOException e) {
+            throw new ForestRuntimeException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long getEvictionCount() {
+        lock.readLock().lock();
+        try {
+            return evictionCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 获取段文件数量
+     *
+     * @return 段文件数量
+     */
+    public int getSegmentCount() {
+        lock.readLock().lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 获取仍被索引引用的记录总字节数
+     *
+     * @return 有效字节数
+     */
+    public long getLiveBytes() {
+        lock.readLock().lock();
+        try {
+            long liveBytes = 0;
+            for (Map.Entry<Long, Segment> entry : segments.entrySet()) {
+                liveBytes += entry.getValue().liveBytes;
+            }
+            return liveBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public File getDir() {
+        return dir;
+    }
+
+    /**
+     * 关闭缓存存储，停止后台压缩并将映射区域刷入磁盘
+     */
+    @Override
+    public void close() {
+        compactor.shutdownNow();
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (Segment segment : segments.values()) {
+                segment.buffer.force();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.dtflys.forest.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 基于内存的响应缓存存储
+ * <p>按条目估算的内存大小限制总容量，超过容量时淘汰最久未访问的条目 (LRU)；
+ * 单个条目超过总容量的一半时不保存
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class ForestMemoryCacheStore implements ForestCacheStore {
+
+    private final long maxSize;
+
+    private final LinkedHashMap<String, ForestCacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private long currentSize = 0;
+
+    private long evictionCount = 0;
+
+    /**
+     * @param maxSize 最大容量（字节）
+     */
+    public ForestMemoryCacheStore(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public ForestCacheEntry get(String key) {
+        lock.lock();
+        try {
+            return entries.get(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void put(String key, ForestCacheEntry entry) {
+        long weight = entry.weight();
+        lock.lock();
+        try {
+            if (weight > maxSize / 2) {
+                removeEntry(key);
+                return;
+            }
+            ForestCacheEntry old = entries.put(key, entry);
+            if (old != null) {
+                currentSize -= old.weight();
+            }
+            currentSize += weight;
+            Iterator<Map.Entry<String, ForestCacheEntry>> iterator = entries.entrySet().iterator();
+            while (currentSize > maxSize && iterator.hasNext()) {
+                Map.Entry<String, ForestCacheEntry> eldest = iterator.next();
+                currentSize -= eldest.getValue().weight();
+                iterator.remove();
+                evictionCount++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void remove(String key) {
+        lock.lock();
+        try {
+            removeEntry(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void removeEntry(String key) {
+        ForestCacheEntry old = entries.remove(key);
+        if (old != null) {
+            currentSize -= old.weight();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+            currentSize = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 获取当前已使用的容量
+     *
+     * @return 已使用容量（字节）
+     */
+    public long getCurrentSize() {
+        lock.lock();
+        try {
+            return currentSize;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public long getEvictionCount() {
+        lock.lock();
+        try {
+            return evictionCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,380 @@
+package com.dtflys.forest.cache;
+
+import com.dtflys.forest.backend.url.URLBuilder;
+import com.dtflys.forest.http.ForestRequest;
+import com.dtflys.forest.http.ForestResponse;
+import com.dtflys.forest.http.HttpStatus;
+import com.dtflys.forest.utils.StringUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 重定向缓存
+ * <p>记录服务端返回的永久重定向（301、308），以及在设置了有效期时的临时重定向（302、307），
+ * 之后相同请求方法和URL的请求在发送前直接改写为重定向后的地址，省去每次请求多出的一次往返:
+ * <ul>
+ *     <li>缓存键为请求方法 + 带Query参数的完整URL，条目数量超过上限时淘汰最久未使用的条目</li>
+ *     <li>重定向链上的每一跳都会被记录，改写时连续跳过所有已知的跳转</li>
+ *     <li>改写后的请求失败（发生异常或响应状态码为错误状态码）时删除对应的条目，之后的请求重新从原地址开始</li>
+ * </ul>
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class ForestRedirectCache {
+
+    /**
+     * 一次改写最多跳过的重定向次数，防止重定向循环
+     */
+    private final static int MAX_HOPS = 10;
+
+    private final int maxSize;
+
+    /**
+     * 临时重定向的缓存有效期（毫秒），小于等于 {@code 0} 时不缓存临时重定向
+     */
+    private final long temporaryTtl;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final LinkedHashMap<String, ForestRedirectCache.Entry> entries;
+
+    private final AtomicLong hitCount = new AtomicLong(0);
+
+    private final AtomicLong missCount = new AtomicLong(0);
+
+    private final AtomicLong storeCount = new AtomicLong(0);
+
+    private final AtomicLong invalidationCount = new AtomicLong(0);
+
+    private final AtomicLong evictionCount = new AtomicLong(0);
+
+    /**
+     * @param maxSize 最大条目数量
+     * @param temporaryTtl 临时重定向的缓存有效期（毫秒），小于等于 {@code 0} 时只缓存永久重定向
+     */
+    public ForestRedirectCache(int maxSize, long temporaryTtl) {
+        this.maxSize = Math.max(1, maxSize);
+        this.temporaryTtl = temporaryTtl;
+        this.entries = new LinkedHashMap<String, ForestRedirectCache.Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ForestRedirectCache.Entry> eldest) {
+                if (size() > ForestRedirectCache.this.maxSize) {
+                    evictionCount.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * 获取请求的缓存键: 请求方法 + 带Query参数的完整URL
+     *
+     * @param request Forest请求对象
+     * @return 缓存键
+     */
+    public String getCacheKey(ForestRequest request) {
+        return request.getType().getName() + " " + URLBuilder.getQueryableURLBuilder().buildUrl(request);
+    }
+
+    /**
+     * 重定向响应是否可以缓存
+     *
+     * @param response 重定向响应
+     * @return {@code true}: 可以缓存, {@code false}: 不可以
+     */
+    public boolean isCacheable(ForestResponse response) {
+        int statusCode = response.getStatusCode();
+        if (statusCode == HttpStatus.MOVED_PERMANENTLY || statusCode == HttpStatus.PERMANENT_REDIRECT) {
+            return true;
+        }
+        return temporaryTtl > 0
+                && (statusCode == HttpStatus.MOVED_TEMPORARILY || statusCode == HttpStatus.TEMPORARY_REDIRECT);
+    }
+
+    /**
+     * 记录重定向响应
+     * <p>不可缓存的重定向响应会删除该请求已有的条目
+     *
+     * @param request 收到重定向响应的请求
+     * @param response 重定向响应
+     */
+    public void put(ForestRequest request, ForestResponse response) {
+        String location = response.getRedirectionLocation();
+        if (StringUtils.isBlank(location)) {
+            return;
+        }
+        String key = getCacheKey(request);
+        if (!isCacheable(response)) {
+            remove(key);
+            return;
+        }
+        int statusCode = response.getStatusCode();
+        boolean permanent = statusCode == HttpStatus.MOVED_PERMANENTLY || statusCode == HttpStatus.PERMANENT_REDIRECT;
+        long expireAt = permanent ? Long.MAX_VALUE : System.currentTimeMillis() + temporaryTtl;
+        Entry entry = new Entry(location, statusCode, expireAt);
+        lock.lock();
+        try {
+            entries.put(key, entry);
+        } finally {
+            lock.unlock();
+        }
+        storeCount.incrementAndGet();
+    }
+
+    /**
+     * 获取缓存键对应的重定向条目
+     *
+     * @param key 缓存键
+     * @return 重定向条目，不存在或已过期时返回 {@code null}
+     */
+    public Entry get(String key) {
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expireAt <= System.currentTimeMillis()) {
+                entries.remove(key);
+                return null;
+            }
+            return entry;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 按缓存的重定向改写请求地址
+     * <p>连续跳过所有已知的跳转，改写方式和跟随重定向时相同：清除Query参数后将 {@code Location} 设置为请求URL
+     *
+     * @param request Forest请求对象
+     * @return 改写记录，未命中时返回 {@code null}
+     */
+    public Rewrite rewrite(ForestRequest request) {
+        String key = getCacheKey(request);
+        List<String> keys = null;
+        Entry first = null;
+        Entry last = null;
+        for (int hop = 0; hop < MAX_HOPS; hop++) {
+            Entry entry = get(key);
+            if (entry == null || (keys != null && keys.contains(key))) {
+                break;
+            }
+            if (first == null) {
+                first = entry;
+                keys = new ArrayList<>(2);
+            }
+            keys.add(key);
+            last = entry;
+            request.clearQueries();
+            request.setUrl(entry.location);
+            key = getCacheKey(request);
+        }
+        if (first == null) {
+            missCount.incrementAndGet();
+            return null;
+        }
+        hitCount.incrementAndGet();
+        return new Rewrite(keys, first.statusCode, last.location);
+    }
+
+    /**
+     * 删除改写时经过的所有条目
+     * <p>改写后的请求失败时调用，之后的请求重新从原地址开始跟随重定向
+     *
+     * @param rewrite 改写记录
+     */
+    public void invalidate(Rewrite rewrite) {
+        boolean removed = false;
+        lock.lock();
+        try {
+            for (String key : rewrite.keys) {
+                removed = entries.remove(key) != null || removed;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (removed) {
+            invalidationCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * 删除缓存键对应的条目
+     *
+     * @param key 缓存键
+     */
+    public void remove(String key) {
+        lock.lock();
+        try {
+            entries.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getTemporaryTtl() {
+        return temporaryTtl;
+    }
+
+    /**
+     * 获取命中次数，即发送前被改写的请求数量
+     *
+     * @return 命中次数
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * 获取未命中次数
+     *
+     * @return 未命中次数
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * 获取命中率
+     *
+     * @return 命中率，没有任何请求时为 {@code 0}
+     */
+    public double getHitRate() {
+        long hits = hitCount.get();
+        long total = hits + missCount.get();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * 获取重定向存入缓存的次数
+     *
+     * @return 存入次数
+     */
+    public long getStoreCount() {
+        return storeCount.get();
+    }
+
+    /**
+     * 获取因改写后的请求失败而删除条目的次数
+     *
+     * @return 删除次数
+     */
+    public long getInvalidationCount() {
+        return invalidationCount.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /**
+     * 重定向条目
+     */
+    public static class Entry {
+
+        private final String location;
+
+        private final int statusCode;
+
+        private final long expireAt;
+
+        Entry(String location, int statusCode, long expireAt) {
+            this.location = location;
+            this.statusCode = statusCode;
+            this.expireAt = expireAt;
+        }
+
+        public String getLocation() {
+            return location;
+        }
+
+        public int getStatusCode() {
+            return statusCode;
+        }
+
+        /**
+         * 是否为永久重定向
+         *
+         * @return {@code true}: 永久重定向, {@code false}: 临时重定向
+         */
+        public boolean isPermanent() {
+            return expireAt == Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * 一次请求地址改写的记录
+     */
+    public static class Rewrite {
+
+        /**
+         * 改写时经过的各跳的缓存键
+         */
+        private final List<String> keys;
+
+        private final int statusCode;
+
+        private final String location;
+
+        Rewrite(List<String> keys, int statusCode, String location) {
+            this.keys = keys;
+            this.statusCode = statusCode;
+            this.location = location;
+        }
+
+        /**
+         * 获取改写前的缓存键
+         *
+         * @return 请求方法 + 原URL
+         */
+        public String getOriginKey() {
+            return keys.get(0);
+        }
+
+        /**
+         * 获取第一跳的重定向状态码
+         *
+         * @return 状态码
+         */
+        public int getStatusCode() {
+            return statusCode;
+        }
+
+        /**
+         * 获取改写后的地址
+         *
+         * @return 最后一跳的 {@code Location}
+         */
+        public String getLocation() {
+            return location;
+        }
+    }
+}
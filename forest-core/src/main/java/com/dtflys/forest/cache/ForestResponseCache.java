@@ -0,0 +1,531 @@
+package com.dtflys.forest.cache;
+
+import com.dtflys.forest.backend.AsyncHttpExecutor;
+import com.dtflys.forest.backend.HttpExecutor;
+import com.dtflys.forest.backend.url.URLBuilder;
+import com.dtflys.forest.config.ForestConfiguration;
+import com.dtflys.forest.handler.LifeCycleHandler;
+import com.dtflys.forest.http.ForestHeader;
+import com.dtflys.forest.http.ForestRequest;
+import com.dtflys.forest.http.ForestRequestType;
+import com.dtflys.forest.http.ForestResponse;
+import com.dtflys.forest.reflection.NoneLifeCycleHandler;
+import com.dtflys.forest.utils.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+/**
+ * HTTP响应缓存
+ * <p>按 RFC 7234 实现的私有缓存，只缓存 GET 请求的响应:
+ * <ul>
+ *     <li>新鲜度由 {@code Cache-Control: max-age}、{@code Expires} 或 {@code Last-Modified} 启发式规则（10%）计算</li>
+ *     <li>过期后通过 {@code ETag}/{@code Last-Modified} 发送条件请求，服务端返回 304 时直接使用缓存的响应体</li>
+ *     <li>支持 RFC 5861 的 {@code stale-while-revalidate} 和 {@code stale-if-error}</li>
+ *     <li>非安全方法（POST、PUT、PATCH、DELETE）请求成功后，删除同一URL的缓存条目</li>
+ * </ul>
+ * 每个 {@link ForestConfiguration} 拥有独立的响应缓存，条目的保存和淘汰由 {@link ForestCacheStore} 负责
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class ForestResponseCache {
+
+    private final static Logger log = LoggerFactory.getLogger(ForestResponseCache.class);
+
+    /**
+     * 可按启发式规则缓存的状态码 (RFC 7231 6.1)
+     */
+    private final static Set<Integer> CACHEABLE_STATUS_CODES = new HashSet<>(
+            Arrays.asList(200, 203, 204, 300, 301, 308, 404, 405, 410, 414, 501));
+
+    /**
+     * 不保存到缓存中的响应头
+     */
+    private final static Set<String> EXCLUDED_HEADERS = new HashSet<>(
+            Arrays.asList("connection", "keep-alive", "proxy-authenticate", "proxy-connection",
+                    "te", "trailer", "transfer-encoding", "upgrade", "set-cookie"));
+
+    private final ForestConfiguration configuration;
+
+    private final ForestCacheStore store;
+
+    /**
+     * 正在后台重新验证的缓存键，同一缓存键同时只发送一个重新验证请求
+     */
+    private final Set<String> revalidatingKeys = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong hitCount = new AtomicLong(0);
+
+    private final AtomicLong missCount = new AtomicLong(0);
+
+    private final AtomicLong notModifiedCount = new AtomicLong(0);
+
+    private final AtomicLong staleWhileRevalidateCount = new AtomicLong(0);
+
+    private final AtomicLong staleIfErrorCount = new AtomicLong(0);
+
+    private final AtomicLong storeCount = new AtomicLong(0);
+
+    public ForestResponseCache(ForestConfiguration configuration, ForestCacheStore store) {
+        this.configuration = configuration;
+        this.store = store;
+    }
+
+    /**
+     * 获取请求所使用的响应缓存
+     * <p>请求上设置了 {@link ForestCacheOptions} 时以其开关为准，否则以全局配置为准；
+     * 未启用缓存的非安全方法请求，在缓存已创建时也会返回缓存，用于请求成功后删除旧条目
+     *
+     * @param request Forest请求对象
+     * @return 响应缓存，不需要经过缓存时返回 {@code null}
+     */
+    public static ForestResponseCache of(ForestRequest request) {
+        if (request.isFireAndForget()) {
+            return null;
+        }
+        ForestConfiguration configuration = request.getConfiguration();
+        ForestCacheOptions options = request.getCacheOptions();
+        boolean enabled = options != null ? options.isEnabled() : configuration.isResponseCacheEnabled();
+        if (enabled) {
+            return configuration.getResponseCache(true);
+        }
+        if (isUnsafeMethod(request)) {
+            return configuration.getResponseCache(false);
+        }
+        return null;
+    }
+
+    /**
+     * 创建经过缓存的HTTP执行器
+     *
+     * @param request Forest请求对象
+     * @param lifeCycleHandler 生命周期处理器
+     * @param executorCreator 后端同步执行器的构造函数，用于发送实际的请求和后台重新验证请求
+     * @return {@link ForestCachingExecutor}实例
+     */
+    public ForestCachingExecutor createExecutor(
+            ForestRequest request, LifeCycleHandler lifeCycleHandler,
+            BiFunction<ForestRequest, LifeCycleHandler, HttpExecutor> executorCreator) {
+        ForestCacheLifeCycleHandler cacheHandler = new ForestCacheLifeCycleHandler(this, lifeCycleHandler);
+        HttpExecutor executor = executorCreator.apply(request, cacheHandler);
+        return new ForestCachingExecutor(this, executor, cacheHandler, executorCreator);
+    }
+
+    /**
+     * 获取请求的缓存键: 请求方法 + 带Query参数的完整URL
+     *
+     * @param request Forest请求对象
+     * @return 缓存键
+     */
+    public String getCacheKey(ForestRequest request) {
+        return request.getType().getName() + " " + URLBuilder.getQueryableURLBuilder().buildUrl(request);
+    }
+
+    /**
+     * 请求是否可以从缓存读取以及将响应存入缓存
+     * <p>只有 GET 请求可以缓存；带有 {@code Range}、用户自己的条件请求头或 {@code Cache-Control: no-store} 的请求不经过缓存
+     *
+     * @param request Forest请求对象
+     * @return {@code true}: 可以缓存, {@code false}: 不可以
+     */
+    public boolean isCacheableRequest(ForestRequest request) {
+        if (request.getType() != ForestRequestType.GET || request.isDownloadFile()) {
+            return false;
+        }
+        if (request.getHeaderValue(ForestHeader.RANGE) != null
+                || request.getHeaderValue(ForestHeader.IF_NONE_MATCH) != null
+                || request.getHeaderValue(ForestHeader.IF_MODIFIED_SINCE) != null) {
+            return false;
+        }
+        return !requestCacheControl(request).isNoStore();
+    }
+
+    /**
+     * 请求是否要求必须先向服务端验证缓存 ({@code Cache-Control: no-cache} 或 {@code Pragma: no-cache})
+     *
+     * @param request Forest请求对象
+     * @return {@code true}: 必须验证
+     */
+    public boolean isRevalidationRequired(ForestRequest request) {
+        if (requestCacheControl(request).isNoCache()) {
+            return true;
+        }
+        String pragma = request.getHeaderValue(ForestHeader.PRAGMA);
+        return pragma != null && pragma.toLowerCase().contains("no-cache");
+    }
+
+    private ForestCacheControl requestCacheControl(ForestRequest request) {
+        return ForestCacheControl.parse(request.getHeaders().getValues("Cache-Control"));
+    }
+
+    private static boolean isUnsafeMethod(ForestRequest request) {
+        ForestRequestType type = request.getType();
+        return type == ForestRequestType.POST || type == ForestRequestType.PUT
+                || type == ForestRequestType.PATCH || type == ForestRequestType.DELETE;
+    }
+
+    /**
+     * 查找请求对应的缓存条目
+     *
+     * @param request Forest请求对象
+     * @return 缓存条目，不存在或 Vary 指定的请求头不一致时返回 {@code null}
+     */
+    public ForestCacheEntry lookup(ForestRequest request) {
+        if (!isCacheableRequest(request)) {
+            return null;
+        }
+        ForestCacheEntry entry = store.get(getCacheKey(request));
+        if (entry != null && !entry.matchesVary(request)) {
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * 处理从服务端接收到的响应
+     * <p>304 响应会更新缓存条目并返回缓存的响应；5xx 响应在 {@code stale-if-error} 时间窗口内返回旧响应；
+     * 其余可缓存的响应存入缓存后原样返回
+     *
+     * @param request Forest请求对象
+     * @param response 服务端响应
+     * @param entry 发送请求前已有的缓存条目，没有时为 {@code null}
+     * @param cacheable 请求是否可缓存
+     * @param requestTime 请求发送时间
+     * @return 交给生命周期处理器的响应
+     */
+    ForestResponse handleResponse(ForestRequest request, ForestResponse response,
+                                  ForestCacheEntry entry, boolean cacheable, long requestTime) {
+        long now = System.currentTimeMillis();
+        if (isUnsafeMethod(request)) {
+            if (response.getStatusCode() >= 200 && response.getStatusCode() < 400) {
+                invalidate(request);
+            }
+            return response;
+        }
+        if (!cacheable) {
+            return response;
+        }
+        int statusCode = response.getStatusCode();
+        if (entry != null && statusCode == 304) {
+            notModifiedCount.incrementAndGet();
+            ForestCacheEntry updated = revalidate(request, entry, response, requestTime, now);
+            return new ForestCachedResponse(request, updated, now, false);
+        }
+        if (entry != null && statusCode >= 500 && entry.isStaleIfError(now)) {
+            staleIfErrorCount.incrementAndGet();
+            return new ForestCachedResponse(request, entry, now, true);
+        }
+        store(request, response, requestTime, now);
+        return response;
+    }
+
+    /**
+     * 请求发生网络异常时获取可以代替的旧响应
+     *
+     * @param request Forest请求对象
+     * @param entry 发送请求前已有的缓存条目
+     * @return {@code stale-if-error} 时间窗口内的旧响应，没有时返回 {@code null}
+     */
+    ForestResponse handleException(ForestRequest request, ForestCacheEntry entry) {
+        long now = System.currentTimeMillis();
+        if (entry != null && entry.isStaleIfError(now)) {
+            staleIfErrorCount.incrementAndGet();
+            return new ForestCachedResponse(request, entry, now, true);
+        }
+        return null;
+    }
+
+    /**
+     * 发送条件请求: 根据缓存条目的验证器添加 {@code If-None-Match} 和 {@code If-Modified-Since} 请求头
+     *
+     * @param request Forest请求对象
+     * @param entry 缓存条目
+     */
+    void addConditionalHeaders(ForestRequest request, ForestCacheEntry entry) {
+        String etag = entry.getHeaderValue("ETag");
+        if (etag != null) {
+            request.addHeader(ForestHeader.IF_NONE_MATCH, etag);
+        }
+        String lastModified = entry.getHeaderValue("Last-Modified");
+        if (lastModified != null) {
+            request.addHeader(ForestHeader.IF_MODIFIED_SINCE, lastModified);
+        }
+    }
+
+    /**
+     * 在后台重新验证缓存条目，同一缓存键同时只会有一个重新验证请求
+     *
+     * @param request 原请求
+     * @param entry 缓存条目
+     * @param executorCreator 后端同步执行器的构造函数
+     */
+    void revalidateInBackground(ForestRequest request, ForestCacheEntry entry,
+                                BiFunction<ForestRequest, LifeCycleHandler, HttpExecutor> executorCreator) {
+        String key = getCacheKey(request);
+        if (!revalidatingKeys.add(key)) {
+            return;
+        }
+        try {
+            ForestRequest background = request.clone();
+            ForestCacheLifeCycleHandler handler = new ForestCacheLifeCycleHandler(
+                    this, new NoneLifeCycleHandler(), () -> revalidatingKeys.remove(key));
+            handler.prepare(background, entry, true, System.currentTimeMillis());
+            HttpExecutor syncExecutor = executorCreator.apply(background, handler);
+            new AsyncHttpExecutor(configuration, syncExecutor, syncExecutor.getResponseHandler())
+                    .execute(handler);
+        } catch (Throwable th) {
+            revalidatingKeys.remove(key);
+            log.warn("[Forest] failed to revalidate cached response: {}", key, th);
+        }
+    }
+
+    /**
+     * 删除请求URL对应的缓存条目
+     *
+     * @param request Forest请求对象
+     */
+    public void invalidate(ForestRequest request) {
+        store.remove(ForestRequestType.GET.getName() + " " + URLBuilder.getQueryableURLBuilder().buildUrl(request));
+    }
+
+    /**
+     * 清空全部缓存条目
+     */
+    public void clear() {
+        store.clear();
+    }
+
+    private void store(ForestRequest request, ForestResponse response, long requestTime, long responseTime) {
+        byte[] body;
+        try {
+            body = response.getByteArray();
+        } catch (Throwable th) {
+            return;
+        }
+        ForestCacheEntry entry = createEntry(request, response.getStatusCode(), response.getReasonPhrase(),
+                toHeaderArray(response), body, requestTime, responseTime, false);
+        if (entry != null) {
+            store.put(getCacheKey(request), entry);
+            storeCount.incrementAndGet();
+        }
+    }
+
+    private ForestCacheEntry revalidate(ForestRequest request, ForestCacheEntry entry,
+                                        ForestResponse notModified, long requestTime, long responseTime) {
+        // 304 响应中的响应头替换缓存中的同名响应头
+        String[] updates = toHeaderArray(notModified);
+        Set<String> updatedNames = new HashSet<>();
+        for (int i = 0; i < updates.length; i += 2) {
+            updatedNames.add(updates[i].toLowerCase());
+        }
+        updatedNames.remove("content-length");
+        List<String> merged = new ArrayList<>(entry.getHeaders().length + updates.length);
+        String[] headers = entry.getHeaders();
+        for (int i = 0; i < headers.length; i += 2) {
+            if (!updatedNames.contains(headers[i].toLowerCase())) {
+                merged.add(headers[i]);
+                merged.add(headers[i + 1]);
+            }
+        }
+        for (int i = 0; i < updates.length; i += 2) {
+            if (updatedNames.contains(updates[i].toLowerCase())) {
+                merged.add(updates[i]);
+                merged.add(updates[i + 1]);
+            }
+        }
+        String key = getCacheKey(request);
+        ForestCacheEntry storable = createEntry(request, entry.getStatusCode(), entry.getReasonPhrase(),
+                merged.toArray(new String[0]), entry.getBody(), requestTime, responseTime, false);
+        if (storable == null) {
+            store.remove(key);
+            return createEntry(request, entry.getStatusCode(), entry.getReasonPhrase(),
+                    merged.toArray(new String[0]), entry.getBody(), requestTime, responseTime, true);
+        }
+        store.put(key, storable);
+        return storable;
+    }
+
+    private String[] toHeaderArray(ForestResponse response) {
+        List<String> list = new ArrayList<>();
+        Iterator<ForestHeader> iterator = response.getHeaders().headerIterator();
+        while (iterator.hasNext()) {
+            ForestHeader header = iterator.next();
+            if (header.getName() != null && header.getValue() != null
+                    && !EXCLUDED_HEADERS.contains(header.getName().toLowerCase())) {
+                list.add(header.getName());
+                list.add(header.getValue());
+            }
+        }
+        return list.toArray(new String[0]);
+    }
+
+    /**
+     * 根据响应头计算新鲜时间和初始年龄 (RFC 7234 4.2)，创建缓存条目
+     *
+     * @param force 为 {@code true} 时即使响应不可缓存也创建条目
+     * @return 缓存条目，响应不可缓存时返回 {@code null}
+     */
+    private ForestCacheEntry createEntry(ForestRequest request, int statusCode, String reasonPhrase,
+                                         String[] headers, byte[] body,
+                                         long requestTime, long responseTime, boolean force) {
+        ForestCacheEntry probe = new ForestCacheEntry(statusCode, reasonPhrase, headers, body,
+                requestTime, responseTime, null, 0, 0, -1, -1, false, false);
+        ForestCacheControl control = ForestCacheControl.parse(probe.getHeaderValues("Cache-Control"));
+        if (!force && (control.isNoStore() || !CACHEABLE_STATUS_CODES.contains(statusCode))) {
+            return null;
+        }
+        String[] varyHeaders = null;
+        List<String> varyValues = probe.getHeaderValues("Vary");
+        if (!varyValues.isEmpty()) {
+            List<String> vary = new ArrayList<>();
+            for (String value : varyValues) {
+                for (String name : value.split(",")) {
+                    name = name.trim();
+                    if ("*".equals(name)) {
+                        if (!force) {
+                            return null;
+                        }
+                        continue;
+                    }
+                    if (!name.isEmpty()) {
+                        vary.add(name);
+                        vary.add(request.getHeaderValue(name));
+                    }
+                }
+            }
+            varyHeaders = vary.toArray(new String[0]);
+        }
+
+        long date = ForestCacheControl.parseHttpDate(probe.getHeaderValue("Date"));
+        if (date < 0) {
+            date = responseTime;
+        }
+        long apparentAge = Math.max(0, responseTime - date);
+        long ageValue = 0;
+        String age = probe.getHeaderValue("Age");
+        if (StringUtils.isNotBlank(age)) {
+            try {
+                ageValue = Math.max(0, Long.parseLong(age.trim())) * 1000;
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        long initialAge = Math.max(apparentAge, ageValue + Math.max(0, responseTime - requestTime));
+
+        ForestCacheOptions options = request.getCacheOptions();
+        long freshnessLifetime = 0;
+        if (options != null && options.getMaxAge() >= 0) {
+            freshnessLifetime = options.getMaxAge() * 1000;
+        } else if (control.getMaxAge() >= 0) {
+            freshnessLifetime = control.getMaxAge() * 1000;
+        } else if (probe.getHeaderValue("Expires") != null) {
+            long expires = ForestCacheControl.parseHttpDate(probe.getHeaderValue("Expires"));
+            freshnessLifetime = expires < 0 ? 0 : Math.max(0, expires - date);
+        } else {
+            long lastModified = ForestCacheControl.parseHttpDate(probe.getHeaderValue("Last-Modified"));
+            if (lastModified >= 0) {
+                // 启发式新鲜时间: 距上次修改时间的 10%
+                freshnessLifetime = Math.max(0, (date - lastModified) / 10);
+            }
+        }
+        long staleWhileRevalidate = options != null && options.getStaleWhileRevalidate() >= 0 ?
+                options.getStaleWhileRevalidate() : control.getStaleWhileRevalidate();
+        long staleIfError = options != null && options.getStaleIfError() >= 0 ?
+                options.getStaleIfError() : control.getStaleIfError();
+        if (!force && freshnessLifetime <= 0 && !probe.hasValidators()
+                && staleWhileRevalidate <= 0 && staleIfError <= 0) {
+            // 既不新鲜、也无法验证、也不能作为旧响应使用的响应没有缓存的意义
+            return null;
+        }
+        return new ForestCacheEntry(statusCode, reasonPhrase, headers, body,
+                requestTime, responseTime, varyHeaders, freshnessLifetime, initialAge,
+                staleWhileRevalidate < 0 ? -1 : staleWhileRevalidate * 1000,
+                staleIfError < 0 ? -1 : staleIfError * 1000,
+                control.isNoCache(), control.isMustRevalidate());
+    }
+
+    void recordHit() {
+        hitCount.incrementAndGet();
+    }
+
+    void recordMiss() {
+        missCount.incrementAndGet();
+    }
+
+    void recordStaleWhileRevalidate() {
+        hitCount.incrementAndGet();
+        staleWhileRevalidateCount.incrementAndGet();
+    }
+
+    public ForestCacheStore getStore() {
+        return store;
+    }
+
+    /**
+     * 获取命中次数，包括 {@code stale-while-revalidate} 时间窗口内返回旧响应的次数
+     *
+     * @return 命中次数
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * 获取未命中次数，即需要向服务端发送请求的次数（包括条件请求）
+     *
+     * @return 未命中次数
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * 获取命中率
+     *
+     * @return 命中率，没有任何请求时为 {@code 0}
+     */
+    public double getHitRate() {
+        long hits = hitCount.get();
+        long total = hits + missCount.get();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * 获取条件请求返回 304、直接使用缓存响应体的次数
+     *
+     * @return 304 次数
+     */
+    public long getNotModifiedCount() {
+        return notModifiedCount.get();
+    }
+
+    public long getStaleWhileRevalidateCount() {
+        return staleWhileRevalidateCount.get();
+    }
+
+    public long getStaleIfErrorCount() {
+        return staleIfErrorCount.get();
+    }
+
+    /**
+     * 获取响应存入缓存的次数
+     *
+     * @return 存入次数
+     */
+    public long getStoreCount() {
+        return storeCount.get();
+    }
+
+    public long getEvictionCount() {
+        return store.getEvictionCount();
+    }
+}
@@ -0,0 +1,367 @@
+package com.dtflys.forest.cache;
+
+import com.dtflys.forest.exceptions.ForestRuntimeException;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * 同一主机上多个进程共享的响应缓存存储
+ * <p>所有进程映射同一个固定大小的文件，文件被划分为若干组，每组有 {@value #WAYS} 个固定大小的槽位，
+ * 缓存键按哈希值映射到组，组内相同缓存键复用槽位，否则使用空槽位或写入时间最早的槽位:
+ * <ul>
+ *     <li>槽位格式: [版本号][缓存键哈希][写入时间][长度][CRC32][缓存键长度][缓存键][条目]</li>
+ *     <li>写入时先对组加锁（进程内为 {@link ReentrantLock}，进程间为文件区域锁），将版本号改为奇数后写入数据，
+ *     写完再将版本号改为偶数</li>
+ *     <li>读取不加锁: 读取前后版本号相同且为偶数、并且数据的CRC32校验通过才视为读到完整的条目，否则视为未命中</li>
+ * </ul>
+ * 一个进程拿到的响应，其它进程随后即可直接命中；超过槽位大小的条目不会被保存。
+ * 同一进程中每个文件只应创建一个实例
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class ForestSharedCacheStore implements ForestCacheStore, Closeable {
+
+    private final static int MAGIC = 0x46534331;
+
+    private final static int VERSION = 1;
+
+    /**
+     * 文件头大小，槽位从文件头之后开始
+     */
+    private final static int FILE_HEADER_SIZE = 4096;
+
+    /**
+     * 槽位头: [版本号 8][缓存键哈希 8][写入时间 8][长度 4][CRC32 4]
+     */
+    private final static int SLOT_HEADER_SIZE = 32;
+
+    /**
+     * 每组的槽位数量
+     */
+    private final static int WAYS = 4;
+
+    /**
+     * 读取时遇到正在写入的槽位的最大重试次数
+     */
+    private final static int MAX_READ_ATTEMPTS = 4;
+
+    /**
+     * 进程内写锁的分段数量
+     */
+    private final static int LOCK_STRIPES = 256;
+
+    private final File file;
+
+    private final int slotSize;
+
+    private final int setCount;
+
+    private final RandomAccessFile raf;
+
+    private final FileChannel channel;
+
+    private final MappedByteBuffer buffer;
+
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    private final AtomicLong evictionCount = new AtomicLong(0);
+
+    /**
+     * @param file 共享缓存文件，不存在时创建
+     * @param size 文件大小（字节），不能超过 2GB
+     * @param slotSize 槽位大小（字节），决定单个条目的最大大小
+     */
+    public ForestSharedCacheStore(File file, long size, int slotSize) {
+        if (slotSize <= SLOT_HEADER_SIZE) {
+            throw new ForestRuntimeException("[Forest] shared cache slot size is too small: " + slotSize);
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new ForestRuntimeException("[Forest] shared cache file cannot be larger than 2GB: " + size);
+        }
+        this.file = file;
+        this.slotSize = slotSize;
+        this.setCount = (int) Math.max(1, (size - FILE_HEADER_SIZE) / ((long) slotSize * WAYS));
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        long fileSize = FILE_HEADER_SIZE + (long) setCount * WAYS * slotSize;
+        try {
+            File parent = file.getAbsoluteFile().getParentFile();
+            if (parent != null && !parent.exists() && !parent.mkdirs()) {
+                throw new ForestRuntimeException("[Forest] cannot create shared cache directory: " + parent);
+            }
+            this.raf = new RandomAccessFile(file, "rw");
+            this.channel = raf.getChannel();
+            // 多个进程同时打开时，由文件头锁保证只有一个进程初始化文件
+            try (FileLock ignored = channel.lock(0, FILE_HEADER_SIZE, false)) {
+                if (channel.size() == 0) {
+                    raf.setLength(fileSize);
+                    ByteBuffer header = ByteBuffer.allocate(16);
+                    header.putInt(MAGIC).putInt(VERSION).putInt(slotSize).putInt(setCount);
+                    header.flip();
+                    channel.write(header, 0);
+                } else {
+                    validateHeader();
+                }
+            }
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+        } catch (IOException e) {
+            throw new ForestRuntimeException(e);
+        }
+    }
+
+    private void validateHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(16);
+        channel.read(header, 0);
+        header.flip();
+        int magic = header.getInt();
+        int version = header.getInt();
+        int fileSlotSize = header.getInt();
+        int fileSetCount = header.getInt();
+        if (magic != MAGIC || version != VERSION) {
+            throw new ForestRuntimeException("[Forest] not a shared cache file: " + file);
+        }
+        if (fileSlotSize != slotSize || fileSetCount != setCount) {
+            throw new ForestRuntimeException("[Forest] shared cache file " + file
+                    + " was created with a different size or slot size");
+        }
+    }
+
+    private int setIndex(long hash) {
+        return (int) ((hash & Long.MAX_VALUE) % setCount);
+    }
+
+    private int slotOffset(int set, int way) {
+        return FILE_HEADER_SIZE + (set * WAYS + way) * slotSize;
+    }
+
+    @Override
+    public ForestCacheEntry get(String key) {
+        long hash = OffHeapCacheIndex.hash(key);
+        int set = setIndex(hash);
+        for (int way = 0; way < WAYS; way++) {
+            int offset = slotOffset(set, way);
+            if (buffer.getLong(offset + 8) != hash) {
+                continue;
+            }
+            byte[] payload = read(offset, hash);
+            if (payload == null) {
+                return null;
+            }
+            ByteBuffer in = ByteBuffer.wrap(payload);
+            int keyLength = in.getInt();
+            if (keyLength < 0 || keyLength > payload.length - 4) {
+                return null;
+            }
+            String storedKey = new String(payload, 4, keyLength, StandardCharsets.UTF_8);
+            if (!key.equals(storedKey)) {
+                // 64位哈希冲突
+                return null;
+            }
+            in.position(4 + keyLength);
+            return ForestCacheEntry.fromBytes(in.slice());
+        }
+        return null;
+    }
+
+    /**
+     * 不加锁读取槽位中的数据
+     *
+     * @return 完整的数据，槽位正在被写入或已被其它缓存键占用时返回 {@code null}
+     */
+    private byte[] read(int offset, long hash) {
+        for (int attempt = 0; attempt < MAX_READ_ATTEMPTS; attempt++) {
+            long version = buffer.getLong(offset);
+            if ((version & 1) != 0) {
+                Thread.yield();
+                continue;
+            }
+            if (buffer.getLong(offset + 8) != hash) {
+                return null;
+            }
+            int length = buffer.getInt(offset + 24);
+            int crc = buffer.getInt(offset + 28);
+            if (length <= 4 || length > slotSize - SLOT_HEADER_SIZE) {
+                continue;
+            }
+            byte[] payload = new byte[length];
+            ByteBuffer view = buffer.duplicate();
+            view.position(offset + SLOT_HEADER_SIZE);
+            view.get(payload);
+            if (buffer.getLong(offset) != version) {
+                continue;
+            }
+            // 进程间没有内存屏障，版本号不变时仍以CRC32确认读到的数据完整
+            CRC32 checksum = new CRC32();
+            checksum.update(payload, 0, length);
+            if ((int) checksum.getValue() == crc) {
+                return payload;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void put(String key, ForestCacheEntry entry) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] entryBytes = entry.toBytes();
+        int length = 4 + keyBytes.length + entryBytes.length;
+        long hash = OffHeapCacheIndex.hash(key);
+        if (SLOT_HEADER_SIZE + length > slotSize) {
+            // 超过槽位大小的条目不保存，同时删除旧条目
+            remove(key);
+            return;
+        }
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        payload.putInt(keyBytes.length).put(keyBytes).put(entryBytes);
+        CRC32 checksum = new CRC32();
+        checksum.update(payload.array(), 0, length);
+        int crc = (int) checksum.getValue();
+        int set = setIndex(hash);
+        lockSet(set, () -> {
+            int target = -1;
+            int empty = -1;
+            int oldest = 0;
+            long oldestTime = Long.MAX_VALUE;
+            for (int way = 0; way < WAYS; way++) {
+                int offset = slotOffset(set, way);
+                long slotHash = buffer.getLong(offset + 8);
+                if (slotHash == hash) {
+                    target = way;
+                    break;
+                }
+                if (slotHash == 0) {
+                    if (empty < 0) {
+                        empty = way;
+                    }
+                    continue;
+                }
+                long writeTime = buffer.getLong(offset + 16);
+                if (writeTime < oldestTime) {
+                    oldestTime = writeTime;
+                    oldest = way;
+                }
+            }
+            if (target < 0) {
+                target = empty >= 0 ? empty : oldest;
+                if (empty < 0) {
+                    evictionCount.incrementAndGet();
+                }
+            }
+            int offset = slotOffset(set, target);
+            long version = buffer.getLong(offset) | 1;
+            buffer.putLong(offset, version);
+            buffer.putLong(offset + 8, hash);
+            buffer.putLong(offset + 16, System.currentTimeMillis());
+            buffer.putInt(offset + 24, length);
+            buffer.putInt(offset + 28, crc);
+            ByteBuffer view = buffer.duplicate();
+            view.position(offset + SLOT_HEADER_SIZE);
+            view.put(payload.array(), 0, length);
+            buffer.putLong(offset, version + 1);
+        });
+    }
+
+    @Override
+    public void remove(String key) {
+        long hash = OffHeapCacheIndex.hash(key);
+        int set = setIndex(hash);
+        lockSet(set, () -> {
+            for (int way = 0; way < WAYS; way++) {
+                int offset = slotOffset(set, way);
+                if (buffer.getLong(offset + 8) == hash) {
+                    clearSlot(offset);
+                }
+            }
+        });
+    }
+
+    private void clearSlot(int offset) {
+        long version = buffer.getLong(offset) | 1;
+        buffer.putLong(offset, version);
+        buffer.putLong(offset + 8, 0);
+        buffer.putInt(offset + 24, 0);
+        buffer.putLong(offset, version + 1);
+    }
+
+    /**
+     * 对组加锁后执行写操作: 先获取进程内的分段锁，再获取该组所在文件区域的锁
+     */
+    private void lockSet(int set, Runnable action) {
+        ReentrantLock lock = locks[set % LOCK_STRIPES];
+        lock.lock();
+        try (FileLock ignored = channel.lock(slotOffset(set, 0), (long) WAYS * slotSize, false)) {
+            action.run();
+        } catch (IOException e) {
+            throw new ForestRuntimeException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        for (int set = 0; set < setCount; set++) {
+            final int s = set;
+            lockSet(set, () -> {
+                for (int way = 0; way < WAYS; way++) {
+                    int offset = slotOffset(s, way);
+                    if (buffer.getLong(offset + 8) != 0) {
+                        clearSlot(offset);
+                    }
+                }
+            });
+        }
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (int slot = 0; slot < setCount * WAYS; slot++) {
+            if (buffer.getLong(FILE_HEADER_SIZE + slot * slotSize + 8) != 0) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /**
+     * 获取可以保存的最大条目数量
+     *
+     * @return 槽位总数
+     */
+    public int getCapacity() {
+        return setCount * WAYS;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+            raf.close();
+        } catch (IOException e) {
+            throw new ForestRuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.dtflys.forest.cache;
+
+/**
+ * 两级响应缓存存储
+ * <p>第一级通常为容量较小的内存存储，第二级为容量较大的磁盘存储:
+ * 读取时先查第一级，未命中再查第二级并提升到第一级；写入和删除同时作用于两级，
+ * 因此第一级被淘汰的条目仍能从第二级读取，进程重启后第二级中的条目也仍然可用
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class ForestTieredCacheStore implements ForestCacheStore {
+
+    private final ForestCacheStore first;
+
+    private final ForestCacheStore second;
+
+    public ForestTieredCacheStore(ForestCacheStore first, ForestCacheStore second) {
+        this.first = first;
+        this.second = second;
+    }
+
+    @Override
+    public ForestCacheEntry get(String key) {
+        ForestCacheEntry entry = first.get(key);
+        if (entry == null) {
+            entry = second.get(key);
+            if (entry != null) {
+                first.put(key, entry);
+            }
+        }
+        return entry;
+    }
+
+    @Override
+    public void put(String key, ForestCacheEntry entry) {
+        first.put(key, entry);
+        second.put(key, entry);
+    }
+
+    @Override
+    public void remove(String key) {
+        first.remove(key);
+        second.remove(key);
+    }
+
+    @Override
+    public void clear() {
+        first.clear();
+        second.clear();
+    }
+
+    /**
+     * 获取缓存条目数量，第二级包含全部条目，因此以第二级为准
+     *
+     * @return 条目数量
+     */
+    @Override
+    public int size() {
+        return second.size();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return second.getEvictionCount();
+    }
+
+    public ForestCacheStore getFirst() {
+        return first;
+    }
+
+    public ForestCacheStore getSecond() {
+        return second;
+    }
+}
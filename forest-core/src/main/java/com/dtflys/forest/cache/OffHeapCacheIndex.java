@@ -0,0 +1,198 @@
+package com.dtflys.forest.cache;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 堆外的缓存索引
+ * <p>以开放寻址（线性探测）哈希表保存 [缓存键的64位哈希, 记录位置]，每个槽位16字节，
+ * 整张表位于直接内存中，大量条目不会增加GC负担；哈希冲突由调用方读取记录后比较缓存键处理
+ * <p>非线程安全，由调用方加锁
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+class OffHeapCacheIndex {
+
+    /**
+     * 空槽位
+     */
+    private final static long EMPTY = 0;
+
+    /**
+     * 已删除的槽位
+     */
+    private final static long DELETED = 1;
+
+    private final static int SLOT_SIZE = 16;
+
+    /**
+     * 最大槽位数量，整张表最多占用 1GB 直接内存
+     */
+    private final static int MAX_CAPACITY = 1 << 26;
+
+    private ByteBuffer table;
+
+    private int capacity;
+
+    /**
+     * 有效条目数量
+     */
+    private int size = 0;
+
+    /**
+     * 有效条目和已删除槽位的数量
+     */
+    private int used = 0;
+
+    OffHeapCacheIndex(int initialCapacity) {
+        int capacity = 16;
+        while (capacity < initialCapacity) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        this.capacity = capacity;
+        this.table = ByteBuffer.allocateDirect(capacity * SLOT_SIZE);
+    }
+
+    /**
+     * 计算缓存键的64位哈希 (FNV-1a)，结果不会与空槽位和已删除槽位的标记相同
+     *
+     * @param key 缓存键
+     * @return 哈希值
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h == EMPTY || h == DELETED ? h + 2 : h;
+    }
+
+    private int slot(long hash) {
+        return (int) (hash ^ (hash >>> 32)) & (capacity - 1);
+    }
+
+    /**
+     * 获取哈希对应的记录位置
+     *
+     * @param hash 缓存键哈希
+     * @return 记录位置，不存在时返回 {@code -1}
+     */
+    long get(long hash) {
+        int i = slot(hash);
+        while (true) {
+            long h = table.getLong(i * SLOT_SIZE);
+            if (h == EMPTY) {
+                return -1;
+            }
+            if (h == hash) {
+                return table.getLong(i * SLOT_SIZE + 8);
+            }
+            i = (i + 1) & (capacity - 1);
+        }
+    }
+
+    /**
+     * 设置哈希对应的记录位置
+     *
+     * @param hash 缓存键哈希
+     * @param location 记录位置
+     * @return 原来的记录位置，不存在时返回 {@code -1}
+     */
+    long put(long hash, long location) {
+        if ((used + 1) * 10L > capacity * 7L) {
+            // 已删除槽位较多时原容量重建即可，否则扩容
+            rehash(size * 2 > capacity * 0.7 ? Math.min(capacity << 1, MAX_CAPACITY) : capacity);
+        }
+        int i = slot(hash);
+        int firstDeleted = -1;
+        while (true) {
+            long h = table.getLong(i * SLOT_SIZE);
+            if (h == EMPTY) {
+                break;
+            }
+            if (h == hash) {
+                long old = table.getLong(i * SLOT_SIZE + 8);
+                table.putLong(i * SLOT_SIZE + 8, location);
+                return old;
+            }
+            if (h == DELETED && firstDeleted < 0) {
+                firstDeleted = i;
+            }
+            i = (i + 1) & (capacity - 1);
+        }
+        if (firstDeleted >= 0) {
+            i = firstDeleted;
+        } else {
+            used++;
+        }
+        table.putLong(i * SLOT_SIZE, hash);
+        table.putLong(i * SLOT_SIZE + 8, location);
+        size++;
+        return -1;
+    }
+
+    /**
+     * 删除哈希对应的记录位置
+     *
+     * @param hash 缓存键哈希
+     * @return 原来的记录位置，不存在时返回 {@code -1}
+     */
+    long remove(long hash) {
+        int i = slot(hash);
+        while (true) {
+            long h = table.getLong(i * SLOT_SIZE);
+            if (h == EMPTY) {
+                return -1;
+            }
+            if (h == hash) {
+                long old = table.getLong(i * SLOT_SIZE + 8);
+                table.putLong(i * SLOT_SIZE, DELETED);
+                table.putLong(i * SLOT_SIZE + 8, 0);
+                size--;
+                return old;
+            }
+            i = (i + 1) & (capacity - 1);
+        }
+    }
+
+    /**
+     * 索引是否已满，已满时不能再添加新的缓存键
+     *
+     * @return {@code true}: 已满
+     */
+    boolean isFull() {
+        return capacity == MAX_CAPACITY && (size + 1) * 10L > capacity * 7L;
+    }
+
+    void clear() {
+        allocate(16);
+        size = 0;
+        used = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void rehash(int newCapacity) {
+        ByteBuffer oldTable = table;
+        int oldCapacity = capacity;
+        allocate(newCapacity);
+        size = 0;
+        used = 0;
+        for (int i = 0; i < oldCapacity; i++) {
+            long h = oldTable.getLong(i * SLOT_SIZE);
+            if (h != EMPTY && h != DELETED) {
+                put(h, oldTable.getLong(i * SLOT_SIZE + 8));
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.dtflys.forest.callback;
+
+import com.dtflys.forest.http.ForestRequest;
+import com.dtflys.forest.http.ForestResponse;
+
+/**
+ * 回调函数: 请求被取消时调用
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+@FunctionalInterface
+public interface OnCancel {
+
+    /**
+     * 请求被取消后调用该方法
+     *
+     * @param req Forest请求对象
+     * @param res Forest响应对象
+     */
+    void onCancel(ForestRequest req, ForestResponse res);
+}
@@ -0,0 +1,20 @@
+package com.dtflys.forest.circuitbreaker;
+
+/**
+ * 熔断器状态变化监听器
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+@FunctionalInterface
+public interface CircuitBreakerListener {
+
+    /**
+     * 回调函数: 熔断器状态发生变化时调用
+     *
+     * @param circuitBreaker 熔断器
+     * @param from 变化前的状态
+     * @param to 变化后的状态
+     */
+    void onStateTransition(ForestCircuitBreaker circuitBreaker, CircuitBreakerState from, CircuitBreakerState to);
+}
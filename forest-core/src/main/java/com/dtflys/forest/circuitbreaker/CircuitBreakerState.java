@@ -0,0 +1,25 @@
+package com.dtflys.forest.circuitbreaker;
+
+/**
+ * 熔断器状态
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public enum CircuitBreakerState {
+
+    /**
+     * 关闭状态：请求正常通过，并统计失败率和慢调用率
+     */
+    CLOSED,
+
+    /**
+     * 打开状态：请求不经过网络直接失败
+     */
+    OPEN,
+
+    /**
+     * 半开状态：只允许有限数量的探测请求通过，根据探测结果决定关闭或重新打开
+     */
+    HALF_OPEN
+}
@@ -0,0 +1,298 @@
+package com.dtflys.forest.circuitbreaker;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Forest熔断器
+ * <p>在关闭状态下，以最近 {@code windowSize} 次调用为滑动窗口统计失败率和慢调用率，
+ * 任意一项达到阈值后熔断器打开；打开状态持续 {@code waitDurationInOpenState} 后进入半开状态，
+ * 放行 {@code permittedCallsInHalfOpenState} 个探测请求，探测结果达标则关闭，否则重新打开
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class ForestCircuitBreaker {
+
+    private final static byte OUTCOME_FAILURE = 1;
+
+    private final static byte OUTCOME_SLOW = 2;
+
+    private final String name;
+
+    private final float failureRateThreshold;
+
+    private final float slowCallRateThreshold;
+
+    private final long slowCallDurationNanos;
+
+    private final int minimumCalls;
+
+    private final long waitDurationInOpenStateNanos;
+
+    private final int permittedCallsInHalfOpenState;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile CircuitBreakerState state = CircuitBreakerState.CLOSED;
+
+    /**
+     * 进入当前状态的时间（纳秒）
+     */
+    private long stateTime = System.nanoTime();
+
+    /**
+     * 关闭状态下的滑动窗口，以环形缓冲区记录每次调用的结果
+     */
+    private final byte[] window;
+
+    private int windowIndex;
+
+    private int windowCalls;
+
+    private int windowFailures;
+
+    private int windowSlowCalls;
+
+    private int halfOpenPermits;
+
+    private int halfOpenCalls;
+
+    private int halfOpenFailures;
+
+    private int halfOpenSlowCalls;
+
+    /**
+     * 创建Forest熔断器
+     *
+     * @param name 熔断器名称
+     * @param failureRateThreshold 失败率阈值（百分比）
+     * @param slowCallRateThreshold 慢调用率阈值（百分比）
+     * @param slowCallDurationNanos 慢调用的响应时间阈值（纳秒）
+     * @param windowSize 滑动窗口大小（调用次数）
+     * @param minimumCalls 计算失败率所需的最小调用次数
+     * @param waitDurationInOpenStateNanos 打开状态的持续时间（纳秒）
+     * @param permittedCallsInHalfOpenState 半开状态下允许通过的探测请求数
+     */
+    public ForestCircuitBreaker(String name,
+                                float failureRateThreshold,
+                                float slowCallRateThreshold,
+                                long slowCallDurationNanos,
+                                int windowSize,
+                                int minimumCalls,
+                                long waitDurationInOpenStateNanos,
+                                int permittedCallsInHalfOpenState) {
+        this.name = name;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallDurationNanos = slowCallDurationNanos;
+        this.window = new byte[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.waitDurationInOpenStateNanos = waitDurationInOpenStateNanos;
+        this.permittedCallsInHalfOpenState = permittedCallsInHalfOpenState;
+    }
+
+    /**
+     * 获取熔断器名称
+     *
+     * @return 熔断器名称
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 获取熔断器当前状态
+     *
+     * @return 熔断器状态, {@link CircuitBreakerState}枚举
+     */
+    public CircuitBreakerState getState() {
+        return state;
+    }
+
+    /**
+     * 尝试获取调用许可
+     * <p>关闭状态下总是允许；打开状态下等待时间结束前总是拒绝；半开状态下只允许有限数量的探测请求
+     *
+     * @param listener 状态变化监听器
+     * @return {@code true}: 允许调用, {@code false}: 拒绝调用
+     */
+    public boolean tryAcquirePermission(CircuitBreakerListener listener) {
+        if (state == CircuitBreakerState.CLOSED) {
+            return true;
+        }
+        CircuitBreakerState from = null;
+        boolean permitted = false;
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            switch (state) {
+                case CLOSED:
+                    return true;
+                case OPEN:
+                    if (now - stateTime < waitDurationInOpenStateNanos) {
+                        return false;
+                    }
+                    from = transitionTo(CircuitBreakerState.HALF_OPEN, now);
+                    break;
+                case HALF_OPEN:
+                    // 探测请求迟迟没有结果时（如请求被拦截器中止），重新发放探测许可，避免一直停留在半开状态
+                    if (halfOpenPermits == 0 && now - stateTime >= waitDurationInOpenStateNanos) {
+                        resetHalfOpen(now);
+                    }
+                    break;
+            }
+            if (halfOpenPermits > 0) {
+                halfOpenPermits--;
+                permitted = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (from != null && listener != null) {
+            listener.onStateTransition(this, from, CircuitBreakerState.HALF_OPEN);
+        }
+        return permitted;
+    }
+
+    /**
+     * 归还没有使用的调用许可
+     * <p>获取许可后请求最终没有发送（如被取消、被线程池拒绝）时调用，半开状态下归还探测许可，不记录调用结果
+     */
+    public void releasePermission() {
+        lock.lock();
+        try {
+            if (state == CircuitBreakerState.HALF_OPEN
+                    && halfOpenPermits + halfOpenCalls < permittedCallsInHalfOpenState) {
+                halfOpenPermits++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 记录一次调用的结果
+     *
+     * @param durationNanos 调用耗时（纳秒）
+     * @param failure 调用是否失败
+     * @param listener 状态变化监听器
+     */
+    public void onResult(long durationNanos, boolean failure, CircuitBreakerListener listener) {
+        byte outcome = 0;
+        if (failure) {
+            outcome |= OUTCOME_FAILURE;
+        }
+        if (durationNanos >= slowCallDurationNanos) {
+            outcome |= OUTCOME_SLOW;
+        }
+        CircuitBreakerState from = null;
+        CircuitBreakerState to = null;
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            if (state == CircuitBreakerState.CLOSED) {
+                record(outcome);
+                if (windowCalls >= minimumCalls && exceedsThreshold(windowCalls, windowFailures, windowSlowCalls)) {
+                    to = CircuitBreakerState.OPEN;
+                    from = transitionTo(to, now);
+                }
+            } else if (state == CircuitBreakerState.HALF_OPEN) {
+                halfOpenCalls++;
+                if ((outcome & OUTCOME_FAILURE) != 0) {
+                    halfOpenFailures++;
+                }
+                if ((outcome & OUTCOME_SLOW) != 0) {
+                    halfOpenSlowCalls++;
+                }
+                if (halfOpenCalls >= permittedCallsInHalfOpenState) {
+                    to = exceedsThreshold(halfOpenCalls, halfOpenFailures, halfOpenSlowCalls) ?
+                            CircuitBreakerState.OPEN : CircuitBreakerState.CLOSED;
+                    from = transitionTo(to, now);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (from != null && listener != null) {
+            listener.onStateTransition(this, from, to);
+        }
+    }
+
+    /**
+     * 获取滑动窗口内的失败率（百分比）
+     *
+     * @return 失败率，调用次数不足时返回 {@code -1}
+     */
+    public float getFailureRate() {
+        lock.lock();
+        try {
+            return windowCalls < minimumCalls ? -1 : windowFailures * 100f / windowCalls;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 获取滑动窗口内的慢调用率（百分比）
+     *
+     * @return 慢调用率，调用次数不足时返回 {@code -1}
+     */
+    public float getSlowCallRate() {
+        lock.lock();
+        try {
+            return windowCalls < minimumCalls ? -1 : windowSlowCalls * 100f / windowCalls;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean exceedsThreshold(int calls, int failures, int slowCalls) {
+        return failures * 100f / calls >= failureRateThreshold
+                || slowCalls * 100f / calls >= slowCallRateThreshold;
+    }
+
+    private void record(byte outcome) {
+        if (windowCalls == window.length) {
+            byte evicted = window[windowIndex];
+            if ((evicted & OUTCOME_FAILURE) != 0) {
+                windowFailures--;
+            }
+            if ((evicted & OUTCOME_SLOW) != 0) {
+                windowSlowCalls--;
+            }
+        } else {
+            windowCalls++;
+        }
+        window[windowIndex] = outcome;
+        if ((outcome & OUTCOME_FAILURE) != 0) {
+            windowFailures++;
+        }
+        if ((outcome & OUTCOME_SLOW) != 0) {
+            windowSlowCalls++;
+        }
+        windowIndex = (windowIndex + 1) % window.length;
+    }
+
+    private CircuitBreakerState transitionTo(CircuitBreakerState newState, long now) {
+        CircuitBreakerState from = state;
+        if (newState == CircuitBreakerState.CLOSED) {
+            windowIndex = 0;
+            windowCalls = 0;
+            windowFailures = 0;
+            windowSlowCalls = 0;
+        } else if (newState == CircuitBreakerState.HALF_OPEN) {
+            resetHalfOpen(now);
+        }
+        stateTime = now;
+        state = newState;
+        return from;
+    }
+
+    private void resetHalfOpen(long now) {
+        halfOpenPermits = permittedCallsInHalfOpenState;
+        halfOpenCalls = 0;
+        halfOpenFailures = 0;
+        halfOpenSlowCalls = 0;
+        stateTime = now;
+    }
+}
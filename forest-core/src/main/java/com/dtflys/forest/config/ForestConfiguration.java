@@ -26,8 +26,19 @@ package com.dtflys.forest.config;
 
 
 import com.dtflys.forest.backend.AsyncHttpExecutor;
+import com.dtflys.forest.backend.AsyncMode;
+import com.dtflys.forest.backend.AsyncPoolMetrics;
+import com.dtflys.forest.backend.AsyncRejectionPolicy;
+import com.dtflys.forest.backend.AsyncTaskFairQueue;
 import com.dtflys.forest.backend.HttpBackend;
 import com.dtflys.forest.backend.HttpBackendSelector;
+import com.dtflys.forest.cache.ForestCacheStore;
+import com.dtflys.forest.cache.ForestDiskCacheStore;
+import com.dtflys.forest.cache.ForestMemoryCacheStore;
+import com.dtflys.forest.cache.ForestResponseCache;
+import com.dtflys.forest.cache.ForestRedirectCache;
+import com.dtflys.forest.cache.ForestSharedCacheStore;
+import com.dtflys.forest.cache.ForestTieredCacheStore;
 import com.dtflys.forest.callback.AddressSource;
 import com.dtflys.forest.callback.RetryWhen;
 import com.dtflys.forest.callback.SuccessWhen;
@@ -48,11 +59,16 @@ import com.dtflys.forest.filter.Filter;
 import com.dtflys.forest.filter.JSONFilter;
 import com.dtflys.forest.filter.XmlFilter;
 import com.dtflys.forest.http.ForestAddress;
+import com.dtflys.forest.http.ForestCookieStore;
 import com.dtflys.forest.http.ForestRequest;
 import com.dtflys.forest.http.ForestRequestType;
 import com.dtflys.forest.interceptor.DefaultInterceptorFactory;
 import com.dtflys.forest.interceptor.Interceptor;
 import com.dtflys.forest.interceptor.InterceptorFactory;
+import com.dtflys.forest.journal.ForestJournal;
+import com.dtflys.forest.lifecycles.authorization.OAuth2FileTokenStore;
+import com.dtflys.forest.lifecycles.authorization.OAuth2TokenStore;
+import com.dtflys.forest.memoize.ForestMemoizeCache;
 import com.dtflys.forest.logging.DefaultLogHandler;
 import com.dtflys.forest.logging.ForestLogHandler;
 import com.dtflys.forest.proxy.ProxyFactory;
@@ -65,10 +81,12 @@ import com.dtflys.forest.retryer.BackOffRetryer;
 import com.dtflys.forest.ssl.SSLKeyStore;
 import com.dtflys.forest.utils.ForestDataType;
 import com.dtflys.forest.utils.RequestNameValue;
+import com.dtflys.forest.utils.StringUtils;
 import com.dtflys.forest.utils.TimeUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.io.Serializable;
 import java.time.Duration;
 import java.util.ArrayList;
@@ -78,6 +96,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -120,6 +140,176 @@ public class ForestConfiguration implements Serializable {
      */
     private Integer maxAsyncThreadSize;
 
+    /**
+     * 最大异步请求等待队列大小
+     */
+    private Integer maxAsyncQueueSize;
+
+    /**
+     * 每个租户的最大异步请求等待队列大小
+     */
+    private Integer maxAsyncQueueSizePerTenant;
+
+    /**
+     * 异步请求的租户权重
+     */
+    private Map<String, Integer> asyncTenantWeights;
+
+    /**
+     * 异步请求的执行模式
+     */
+    private AsyncMode asyncMode = AsyncMode.PLATFORM;
+
+    /**
+     * 异步线程池满时的拒绝策略
+     */
+    private AsyncRejectionPolicy asyncRejectionPolicy = AsyncRejectionPolicy.ABORT;
+
+    /**
+     * 拒绝策略为 {@link AsyncRejectionPolicy#BLOCK} 时的最长阻塞等待时间（毫秒）
+     */
+    private Long asyncBlockTimeout;
+
+    /**
+     * 用户自定义的异步请求执行器
+     */
+    private transient Executor asyncExecutor;
+
+    /**
+     * 异步请求的回调执行器，用于执行响应解析和回调函数
+     */
+    private transient Executor callbackExecutor;
+
+    /**
+     * 已注册的命名回调执行器
+     */
+    private transient Map<String, Executor> callbackExecutors = new ConcurrentHashMap<>();
+
+    /**
+     * 当前配置独享的异步请求线程池
+     */
+    private transient volatile ThreadPoolExecutor asyncThreadPool;
+
+    /**
+     * 存储转发日志的根目录
+     */
+    private String journalDir = "forest-journal";
+
+    /**
+     * 存储转发日志的段文件大小（字节）
+     */
+    private int journalSegmentSize = 16 * 1024 * 1024;
+
+    /**
+     * 存储转发日志每批发送的记录数
+     */
+    private int journalBatchSize = 32;
+
+    /**
+     * 已打开的存储转发日志
+     */
+    private transient Map<String, ForestJournal> journals = new ConcurrentHashMap<>();
+
+    /**
+     * 方法结果缓存
+     */
+    private transient Map<String, ForestMemoizeCache> memoizeCaches = new ConcurrentHashMap<>();
+
+    /**
+     * 是否启用HTTP响应缓存
+     */
+    private boolean responseCacheEnabled = false;
+
+    /**
+     * 内存响应缓存的最大容量（字节）
+     */
+    private long responseCacheMaxSize = 10 * 1024 * 1024;
+
+    /**
+     * 磁盘响应缓存目录，为空时不启用磁盘缓存
+     */
+    private String responseCacheDir;
+
+    /**
+     * 磁盘响应缓存的最大占用（字节）
+     */
+    private long responseCacheDiskMaxSize = 1024L * 1024 * 1024;
+
+    /**
+     * 磁盘响应缓存的段文件大小（字节）
+     */
+    private int responseCacheSegmentSize = 64 * 1024 * 1024;
+
+    /**
+     * 多进程共享的响应缓存文件，为空时不启用共享缓存
+     */
+    private String responseCacheSharedFile;
+
+    /**
+     * 多进程共享的响应缓存文件大小（字节）
+     */
+    private long responseCacheSharedSize = 256 * 1024 * 1024;
+
+    /**
+     * 多进程共享的响应缓存的槽位大小（字节）
+     */
+    private int responseCacheSharedSlotSize = 64 * 1024;
+
+    /**
+     * 用户自定义的响应缓存存储，为空时使用内存存储
+     */
+    private transient ForestCacheStore responseCacheStore;
+
+    /**
+     * 当前配置的HTTP响应缓存
+     */
+    private transient volatile ForestResponseCache responseCache;
+
+    /**
+     * 是否启用内置的Cookie存储
+     */
+    private boolean cookieStoreEnabled = false;
+
+    /**
+     * 内置Cookie存储的持久化文件，为空时只保存在内存中
+     */
+    private String cookieStoreFile;
+
+    /**
+     * Cookie存储
+     */
+    private transient volatile ForestCookieStore cookieStore;
+
+    /**
+     * 是否启用重定向缓存
+     */
+    private boolean redirectCacheEnabled = false;
+
+    /**
+     * 重定向缓存的最大条目数量
+     */
+    private int redirectCacheMaxSize = 1000;
+
+    /**
+     * 临时重定向（302、307）的缓存有效期（毫秒），为 {@code 0} 时只缓存永久重定向（301、308）
+     */
+    private long redirectCacheTemporaryTtl = 0;
+
+    /**
+     * 重定向缓存
+     */
+    private transient volatile ForestRedirectCache redirectCache;
+
+    /**
+     * OAuth2 Token 持久化文件，为空时Token只保存在内存中
+     */
+    private String oauth2TokenStoreFile;
+
+    /**
+     * OAuth2 Token 持久化存储
+     */
+    private transient volatile OAuth2TokenStore oauth2TokenStore;
+
     /**
      * 是否自动重定向开关
      */
@@ -207,6 +397,11 @@ public class ForestConfiguration implements Serializable {
      */
     private boolean cacheEnabled = true;
 
+    /**
+     * 是否将字符串模板编译后再渲染
+     */
+    private boolean templateCompileEnabled = false;
+
     /**
      * HTTP后端
      */
@@ -634,298 +829,1199 @@ public class ForestConfiguration implements Serializable {
      * @return 当前ForestConfiguration实例
      */
     public ForestConfiguration setMaxAsyncThreadSize(Integer maxAsyncThreadSize) {
-        if (maxAsyncThreadSize != null && maxAsyncThreadSize != this.maxAsyncThreadSize) {
-            AsyncHttpExecutor.initAsyncThreads(maxAsyncThreadSize);
-        }
+        boolean changed = maxAsyncThreadSize != null && !maxAsyncThreadSize.equals(this.maxAsyncThreadSize);
         this.maxAsyncThreadSize = maxAsyncThreadSize;
+        if (changed) {
+            resetAsyncThreadPool();
+        }
         return this;
     }
 
     /**
-     * 是否自动重定向开关
+     * 获取最大异步请求等待队列大小
      *
-     * @return {@code true}: 打开, {@code false}: 禁止
+     * @return 最大异步请求等待队列大小
+     * @since 1.5.19
      */
-    public boolean isAutoRedirection() {
-        return autoRedirection;
+    public Integer getMaxAsyncQueueSize() {
+        return maxAsyncQueueSize;
     }
 
     /**
-     * /**
-     * 设置是否打开自动重定向
+     * 设置最大异步请求等待队列大小
+     * <p>异步线程都在忙时，异步请求会按优先级在队列中等待，队列满后才会被拒绝；为 0 时不排队，直接拒绝
      *
-     * @param autoRedirection {@code true}: 打开, {@code false}: 禁止
-     * @return {@link ForestRequest}类实例
+     * @param maxAsyncQueueSize 最大异步请求等待队列大小
+     * @return 当前ForestConfiguration实例
+     * @since 1.5.19
      */
-    public ForestConfiguration setAutoRedirection(boolean autoRedirection) {
-        this.autoRedirection = autoRedirection;
+    public ForestConfiguration setMaxAsyncQueueSize(Integer maxAsyncQueueSize) {
+        boolean changed = maxAsyncQueueSize != null && !maxAsyncQueueSize.equals(this.maxAsyncQueueSize);
+        this.maxAsyncQueueSize = maxAsyncQueueSize;
+        if (changed) {
+            resetAsyncThreadPool();
+        }
         return this;
     }
 
     /**
-     * 获取全局的请求超时时间，单位为毫秒
+     * 获取每个租户的最大异步请求等待队列大小
      *
-     * @return 请求超时时间，单位为毫秒
+     * @return 每个租户的最大异步请求等待队列大小
+     * @since 1.5.19
      */
-    @Deprecated
-    public Integer getTimeout() {
-        return timeout;
+    public Integer getMaxAsyncQueueSizePerTenant() {
+        return maxAsyncQueueSizePerTenant;
     }
 
     /**
-     * 设置全局的请求超时时间，单位为毫秒
+     * 设置每个租户的最大异步请求等待队列大小
+     * <p>单个租户排队的异步请求达到该数量后，该租户的新请求会被拒绝，不会影响其它租户
+     * <p>不设置时也不会由单个租户占满等待队列: 队列已满时，积压较少的租户会挤出积压最多的租户中排序最靠后的请求
      *
-     * @param timeout 请求超时时间，单位为毫秒
+     * @param maxAsyncQueueSizePerTenant 每个租户的最大异步请求等待队列大小，为空时不单独限制
      * @return 当前ForestConfiguration实例
+     * @since 1.5.19
      */
-    @Deprecated
-    public ForestConfiguration setTimeout(Integer timeout) {
-        this.timeout = timeout;
+    public ForestConfiguration setMaxAsyncQueueSizePerTenant(Integer maxAsyncQueueSizePerTenant) {
+        this.maxAsyncQueueSizePerTenant = maxAsyncQueueSizePerTenant;
+        AsyncTaskFairQueue queue = AsyncHttpExecutor.getAsyncTaskQueue(this);
+        if (queue != null) {
+            queue.setTenantCapacity(maxAsyncQueueSizePerTenant != null ? maxAsyncQueueSizePerTenant : 0);
+        }
         return this;
     }
 
     /**
-     * 获取全局的请求数据字符集
+     * 获取异步请求的租户权重
      *
-     * @return 字符集名称
+     * @return 租户权重表，Key为租户，Value为权重
+     * @since 1.5.19
      */
-    public String getCharset() {
-        return charset;
+    public Map<String, Integer> getAsyncTenantWeights() {
+        return asyncTenantWeights;
     }
 
     /**
-     * 设置全局的请求数据字符集
+     * 设置异步请求的租户权重
+     * <p>异步线程池繁忙时，各租户按权重比例轮流执行排队的请求，未设置权重的租户权重为 1
      *
-     * @param charset 字符集名称
+     * @param asyncTenantWeights 租户权重表，Key为租户，Value为权重
      * @return 当前ForestConfiguration实例
-     */
-    public ForestConfiguration setCharset(String charset) {
-        this.charset = charset;
+     * @since 1.5.19
+     */
+    public ForestConfiguration setAsyncTenantWeights(Map<String, Integer> asyncTenantWeights) {
+        this.asyncTenantWeights = asyncTenantWeights;
+        AsyncTaskFairQueue queue = AsyncHttpExecutor.getAsyncTaskQueue(this);
+        if (queue != null && asyncTenantWeights != null) {
+            for (Map.Entry<String, Integer> entry : asyncTenantWeights.entrySet()) {
+                queue.setTenantWeight(entry.getKey(), entry.getValue());
+            }
+        }
         return this;
     }
 
     /**
-     * 获取全局的请求连接超时时间，单位为毫秒
+     * 获取异步请求的执行模式
      *
-     * @return 连接超时时间，单位为毫秒
+     * @return 异步请求的执行模式
+     * @since 1.5.19
      */
-    public Integer getConnectTimeout() {
-        return connectTimeout;
+    public AsyncMode getAsyncMode() {
+        return asyncMode;
     }
 
     /**
-     * 设置全局的请求连接超时时间，单位为毫秒
+     * 设置异步请求的执行模式
+     * <ul>
+     *     <li>{@link AsyncMode#PLATFORM}: 在配置自带的异步线程池中执行（默认）</li>
+     *     <li>{@link AsyncMode#VIRTUAL}: 每个异步请求在一个新的虚拟线程中执行，不受线程数、等待队列和拒绝策略的限制，
+     *     需要 JDK 21 及以上版本，低版本JDK下自动退回到平台线程模式</li>
+     * </ul>
+     * <p>设置了自定义异步执行器 {@link #setAsyncExecutor(Executor)} 时，该选项不生效
      *
-     * @param connectTimeout 连接超时时间，单位为毫秒
+     * @param asyncMode 异步请求的执行模式
      * @return 当前ForestConfiguration实例
+     * @since 1.5.19
      */
-    public ForestConfiguration setConnectTimeout(Integer connectTimeout) {
-        this.connectTimeout = connectTimeout;
+    public ForestConfiguration setAsyncMode(AsyncMode asyncMode) {
+        this.asyncMode = asyncMode != null ? asyncMode : AsyncMode.PLATFORM;
         return this;
     }
 
     /**
-     * 设置全局的请求连接超时时间
+     * 获取异步线程池满时的拒绝策略
      *
-     * @param connectTimeout 连接超时时间, 整数
-     * @param timeUnit 时间单位
-     * @return 当前ForestConfiguration实例
-     * @since 1.5.6
+     * @return 拒绝策略
+     * @since 1.5.19
      */
-    public ForestConfiguration setConnectTimeout(int connectTimeout, TimeUnit timeUnit) {
-        this.connectTimeout = TimeUtils.toMillis("global connect timeout", connectTimeout, timeUnit);
-        return this;
+    public AsyncRejectionPolicy getAsyncRejectionPolicy() {
+        return asyncRejectionPolicy;
     }
 
     /**
-     * 设置全局的请求连接超时时间
+     * 设置异步线程池满时的拒绝策略
+     * <ul>
+     *     <li>{@link AsyncRejectionPolicy#ABORT}: 快速失败，直接抛出异常（默认）</li>
+     *     <li>{@link AsyncRejectionPolicy#CALLER_RUNS}: 由提交请求的线程直接执行</li>
+     *     <li>{@link AsyncRejectionPolicy#BLOCK}: 阻塞等待队列空出位置，超时后抛出异常</li>
+     * </ul>
      *
-     * @param connectTimeout 连接超时时间, {@link Duration}对象
+     * @param asyncRejectionPolicy 拒绝策略
      * @return 当前ForestConfiguration实例
-     * @since 1.5.6
+     * @since 1.5.19
      */
-    public ForestConfiguration setConnectTimeout(Duration connectTimeout) {
-        this.connectTimeout = TimeUtils.toMillis("global connect timeout", connectTimeout);
+    public ForestConfiguration setAsyncRejectionPolicy(AsyncRejectionPolicy asyncRejectionPolicy) {
+        boolean changed = asyncRejectionPolicy != null && asyncRejectionPolicy != this.asyncRejectionPolicy;
+        this.asyncRejectionPolicy = asyncRejectionPolicy;
+        if (changed) {
+            resetAsyncThreadPool();
+        }
         return this;
     }
 
-
     /**
-     * 获取全局的请求读取超时时间，单位为毫秒
+     * 获取拒绝策略为 {@link AsyncRejectionPolicy#BLOCK} 时的最长阻塞等待时间
      *
-     * @return 读取超时时间
-     * @since 1.5.6
+     * @return 最长阻塞等待时间（毫秒）
+     * @since 1.5.19
      */
-    public Integer getReadTimeout() {
-        return readTimeout;
+    public Long getAsyncBlockTimeout() {
+        return asyncBlockTimeout;
     }
 
     /**
-     * 设置全局的请求读取超时时间，单位为毫秒
+     * 设置拒绝策略为 {@link AsyncRejectionPolicy#BLOCK} 时的最长阻塞等待时间
      *
-     * @param readTimeout 读取超时时间，单位为毫秒
+     * @param asyncBlockTimeout 最长阻塞等待时间（毫秒）
      * @return 当前ForestConfiguration实例
-     * @since 1.5.6
+     * @since 1.5.19
      */
-    public ForestConfiguration setReadTimeout(Integer readTimeout) {
-        this.readTimeout = readTimeout;
+    public ForestConfiguration setAsyncBlockTimeout(Long asyncBlockTimeout) {
+        boolean changed = asyncBlockTimeout != null && !asyncBlockTimeout.equals(this.asyncBlockTimeout);
+        this.asyncBlockTimeout = asyncBlockTimeout;
+        if (changed) {
+            resetAsyncThreadPool();
+        }
         return this;
     }
 
     /**
-     * 设置全局的请求读取超时时间
+     * 获取用户自定义的异步请求执行器
      *
-     * @param readTimeout 读取超时时间
-     * @param timeUnit 时间单位
-     * @return 当前ForestConfiguration实例
-     * @since 1.5.6
+     * @return 异步请求执行器
+     * @since 1.5.19
      */
-    public ForestConfiguration setReadTimeout(int readTimeout, TimeUnit timeUnit) {
-        this.readTimeout = TimeUtils.toMillis("global read timeout", readTimeout, timeUnit);
-        return this;
+    public Executor getAsyncExecutor() {
+        return asyncExecutor;
     }
 
     /**
-     * 设置全局的请求读取超时时间
+     * 设置用户自定义的异步请求执行器
+     * <p>设置后，该配置下的异步请求都交由该执行器执行，线程数、队列和拒绝策略等由执行器自身决定
      *
-     * @param readTimeout 读取超时时间, {@link Duration}
+     * @param asyncExecutor 异步请求执行器
      * @return 当前ForestConfiguration实例
-     * @since 1.5.6
+     * @since 1.5.19
      */
-    public ForestConfiguration setReadTimeout(Duration readTimeout) {
-        this.readTimeout = TimeUtils.toMillis("global read timeout", readTimeout);
+    public ForestConfiguration setAsyncExecutor(Executor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
         return this;
     }
 
-
     /**
-     * 获取全局的请求失败重试策略类
+     * 获取异步请求的回调执行器
      *
-     * @return 重试策略类
+     * @return 回调执行器，为空时响应解析和回调函数在执行请求的线程中进行
+     * @since 1.5.19
      */
-    public Class getRetryer() {
-        return retryer;
+    public Executor getCallbackExecutor() {
+        return callbackExecutor;
     }
 
     /**
-     * 设置全局的请求失败重试策略类
+     * 设置异步请求的回调执行器
+     * <p>设置后，异步请求在网络线程中只读取原始响应体，响应解析和 onSuccess、onError、onProgress 等回调函数
+     * 都交给该执行器执行，异步请求的Future也在该执行器中完成；同步请求不受影响
      *
-     * @param retryer 重试策略类
+     * @param callbackExecutor 回调执行器
      * @return 当前ForestConfiguration实例
+     * @since 1.5.19
      */
-    public ForestConfiguration setRetryer(Class retryer) {
-        this.retryer = retryer;
+    public ForestConfiguration setCallbackExecutor(Executor callbackExecutor) {
+        this.callbackExecutor = callbackExecutor;
         return this;
     }
 
     /**
-     * 获取全局的最大请求失败重试次数
+     * 注册命名回调执行器
+     * <p>注册后可在接口或方法上通过 {@link com.dtflys.forest.annotation.CallbackExecutor} 注解指定使用
      *
-     * @return 重试次数
+     * @param name 回调执行器名称
+     * @param executor 回调执行器
+     * @return 当前ForestConfiguration实例
+     * @since 1.5.19
      */
-    @Deprecated
-    public Integer getRetryCount() {
-        return maxRetryCount;
+    public ForestConfiguration registerCallbackExecutor(String name, Executor executor) {
+        callbackExecutors.put(name, executor);
+        return this;
     }
 
     /**
-     * 设置全局的最大请求失败重试次数
+     * 根据名称获取已注册的回调执行器
      *
-     * @param retryCount 重试次数
-     * @return 当前ForestConfiguration实例
+     * @param name 回调执行器名称
+     * @return 回调执行器，未注册时返回 {@code null}
+     * @since 1.5.19
      */
-    @Deprecated
-    public ForestConfiguration setRetryCount(Integer retryCount) {
-        this.maxRetryCount = retryCount;
-        return this;
+    public Executor getCallbackExecutor(String name) {
+        return callbackExecutors.get(name);
     }
 
     /**
-     * 获取全局的最大请求失败重试次数
+     * 获取存储转发日志的根目录
      *
-     * @return 重试次数
+     * @return 日志根目录
+     * @since 1.5.19
      */
-    public Integer getMaxRetryCount() {
-        return maxRetryCount;
+    public String getJournalDir() {
+        return journalDir;
     }
 
-
     /**
-     * 设置全局的最大请求失败重试次数
+     * 设置存储转发日志的根目录
+     * <p>每个日志在根目录下拥有以日志名称命名的子目录
      *
-     * @param maxRetryCount 最大重试次数
+     * @param journalDir 日志根目录
      * @return 当前ForestConfiguration实例
+     * @since 1.5.19
      */
-    public ForestConfiguration setMaxRetryCount(Integer maxRetryCount) {
-        this.maxRetryCount = maxRetryCount;
+    public ForestConfiguration setJournalDir(String journalDir) {
+        this.journalDir = journalDir;
         return this;
     }
 
-
     /**
-     * 获取全局的最大请求重试之间的时间间隔，单位为毫秒
+     * 获取存储转发日志的段文件大小
      *
-     * @return 最大请求重试之间的时间间隔
+     * @return 段文件大小（字节）
+     * @since 1.5.19
      */
-    public long getMaxRetryInterval() {
-        return maxRetryInterval;
+    public int getJournalSegmentSize() {
+        return journalSegmentSize;
     }
 
     /**
-     * 设置全局的最大请求重试之间的时间间隔，单位为毫秒
+     * 设置存储转发日志的段文件大小
+     * <p>单条记录不能超过段文件大小，只对之后打开的日志生效
      *
-     * @param maxRetryInterval 最大请求重试之间的时间间隔
+     * @param journalSegmentSize 段文件大小（字节）
      * @return 当前ForestConfiguration实例
+     * @since 1.5.19
      */
-    public ForestConfiguration setMaxRetryInterval(long maxRetryInterval) {
-        this.maxRetryInterval = maxRetryInterval;
+    public ForestConfiguration setJournalSegmentSize(int journalSegmentSize) {
+        this.journalSegmentSize = journalSegmentSize;
         return this;
     }
 
     /**
-     * 获取全局默认地址(主机名/域名/ip地址 + 端口号)
+     * 获取存储转发日志每批发送的记录数
      *
-     * @return 全局默认地址 {@link ForestAddress}对象
+     * @return 每批发送的记录数
+     * @since 1.5.19
      */
-    public ForestAddress getBaseAddress() {
-        return baseAddress;
+    public int getJournalBatchSize() {
+        return journalBatchSize;
     }
 
     /**
-     * 设置全局默认地址(主机名/域名/ip地址 + 端口号)
+     * 设置存储转发日志每批发送的记录数
+     * <p>同一批记录并发发送，全部完成后才写入检查点
      *
-     * @param baseAddress 全局默认地址 {@link ForestAddress}对象
+     * @param journalBatchSize 每批发送的记录数
      * @return 当前ForestConfiguration实例
+     * @since 1.5.19
      */
-    public ForestConfiguration setBaseAddress(ForestAddress baseAddress) {
-        this.baseAddress = baseAddress;
+    public ForestConfiguration setJournalBatchSize(int journalBatchSize) {
+        this.journalBatchSize = journalBatchSize;
         return this;
     }
 
     /**
-     * 设置全局地址的HTTP协议头
+     * 根据名称获取存储转发日志，不存在时打开或创建
+     * <p>打开日志时会启动后台发送线程，继续发送上次未发送完成的记录
      *
-     * @param scheme HTTP 协议头
-     * @return 当前ForestConfiguration实例
+     * @param name 日志名称
+     * @return {@link ForestJournal}实例
+     * @since 1.5.19
      */
-    public ForestConfiguration setBaseAddressScheme(String scheme) {
-        if (baseAddress == null) {
-            baseAddress = new ForestAddress(scheme, null, null);
-        } else {
-            baseAddress = new ForestAddress(scheme, baseAddress.getHost(), baseAddress.getPort());
-        }
-        return this;
+    public ForestJournal getJournal(String name) {
+        return journals.computeIfAbsent(name, key -> new ForestJournal(this, key));
     }
 
+    /**
+     * 根据名称获取方法结果缓存
+     * <p>缓存名称默认为 {@code 接口全名#方法名}，可通过 {@link com.dtflys.forest.annotation.Memoize#name()} 指定
+     *
+     * @param name 缓存名称
+     * @return {@link ForestMemoizeCache}实例，还没有方法使用该缓存时返回 {@code null}
+     * @since 1.5.19
+     */
+    public ForestMemoizeCache getMemoizeCache(String name) {
+        return memoizeCaches.get(name);
+    }
 
     /**
-     * 设置全局地址的 host
+     * 根据名称获取方法结果缓存，不存在时创建
      *
-     * @param host 全局地址的主机名/ip地址
-     * @return 当前ForestConfiguration实例
+     * @param name 缓存名称
+     * @param maxSize 创建缓存时的最大条目数量
+     * @return {@link ForestMemoizeCache}实例
+     * @since 1.5.19
      */
-    public ForestConfiguration setBaseAddressHost(String host) {
-        if (baseAddress == null) {
+    public ForestMemoizeCache getMemoizeCache(String name, int maxSize) {
+        return memoizeCaches.computeIfAbsent(name, key -> new ForestMemoizeCache(key, maxSize));
+    }
+
+    /**
+     * 是否启用HTTP响应缓存
+     *
+     * @return {@code true}: 启用, {@code false}: 不启用
+     * @since 1.5.19
+     */
+    public boolean isResponseCacheEnabled() {
+        return responseCacheEnabled;
+    }
+
+    /**
+     * 设置是否启用HTTP响应缓存
+     * <p>启用后，GET 请求的响应按 {@code Cache-Control}、{@code Expires} 等响应头缓存；
+     * 也可以通过 {@code @Cacheable} 注解只为部分方法启用
+     *
+     * @param responseCacheEnabled {@code true}: 启用, {@code false}: 不启用
+     * @return 当前ForestConfiguration实例
+     * @since 1.5.19
+     */
+    public ForestConfiguration setResponseCacheEnabled(boolean responseCacheEnabled) {
+        this.responseCacheEnabled = responseCacheEnabled;
+        return this;
+    }
+
+    /**
+     * 获取内存响应缓存的最大容量
+     *
+     * @return 最大容量（字节）
+     * @since 1.5.19
+     */
+    public long getResponseCacheMaxSize() {
+        return responseCacheMaxSize;
+    }
+
+    /**
+     * 设置内存响应缓存的最大容量
+     * <p>超过容量时淘汰最久未访问的条目，只对之后创建的响应缓存生效
+     *
+     * @param responseCacheMaxSize 最大容量（字节）
+     * @return 当前ForestConfiguration实例
+     * @since 1.5.19
+     */
+    public ForestConfiguration setResponseCacheMaxSize(long responseCacheMaxSize) {
+        this.responseCacheMaxSize = responseCacheMaxSize;
+        return this;
+    }
+
+    /**
+     * 获取磁盘响应缓存目录
+     *
+     * @return 缓存目录，未设置时返回 {@code null}
+     * @since 1.5.19
+     */
+    public String getResponseCacheDir() {
+        return responseCacheDir;
+    }
+
+    /**
+     * 设置磁盘响应缓存目录
+     * <p>设置后响应缓存分为两级: 内存缓存之下为基于内存映射文件的磁盘缓存，进程重启后磁盘缓存仍然可用；
+     * 只对之后创建的响应缓存生效
+     *
+     * @param responseCacheDir 缓存目录
+     * @return 当前ForestConfiguration实例
+     * @since 1.5.19
+     */
+    public ForestConfiguration setResponseCacheDir(String responseCacheDir) {
+        this.responseCacheDir = responseCacheDir;
+        return this;
+    }
+
+    /**
+     * 获取磁盘响应缓存的最大占用
+     *
+     * @return 最大占用（字节）
+     * @since 1.5.19
+     */
+    public long getResponseCacheDiskMaxSize() {
+        return responseCacheDiskMaxSize;
+    }
+
+    /**
+     * 设置磁盘响应缓存的最大占用
+     * <p>超过时从最旧的段文件开始整段淘汰
+     *
+     * @param responseCacheDiskMaxSize 最大占用（字节）
+     * @return 当前ForestConfiguration实例
+     * @since 1.5.19
+     */
+    public ForestConfiguration setResponseCacheDiskMaxSize(long responseCacheDiskMaxSize) {
+        this.responseCacheDiskMaxSize = responseCacheDiskMaxSize;
+        return this;
+    }
+
+    /**
+     * 获取磁盘响应缓存的段文件大小
+     *
+     * @return 段文件大小（字节）
+     * @since 1.5.19
+     */
+    public int getResponseCacheSegmentSize() {
+        return responseCacheSegmentSize;
+    }
+
+    /**
+     * 设置磁盘响应缓存的段文件大小
+     * <p>单个条目不能超过段文件大小
+     *
+     * @param responseCacheSegmentSize 段文件大小（字节）
+     * @return 当前ForestConfiguration实例
+     * @since 1.5.19
+     */
+    public ForestConfiguration setResponseCacheSegmentSize(int responseCacheSegmentSize) {
+        this.responseCacheSegmentSize = responseCacheSegmentSize;
+        return this;
+    }
+
+    /**
+     * 获取多进程共享的响应缓存文件
+     *
+     * @return 共享缓存文件路径，未设置时返回 {@code null}
+     * @since 1.5.19
+     */
+    public String getResponseCacheSharedFile() {
+        return responseCacheSharedFile;
+    }
+
+    /**
+     * 设置多进程共享的响应缓存文件
+     * <p>设置后内存缓存之下为同一主机上多个进程共享的内存映射文件，一个进程拿到的响应其它进程可以直接命中；
+     * 同时设置了磁盘缓存目录时以共享缓存为准，只对之后创建的响应缓存生效
+     *
+     * @param responseCacheSharedFile 共享缓存文件路径
+     * @return 当前ForestConfiguration实例
+     * @since 1.5.19
+     */
+    public ForestConfiguration setResponseCacheSharedFile(String responseCacheSharedFile) {
+        this.responseCacheSharedFile = responseCacheSharedFile;
+        return this;
+    }
+
+    /**
+     * 获取多进程共享的响应缓存文件大小
+     *
+     * @return 文件大小（字节）
+     * @since 1.5.19
+     */
+    public long getResponseCacheSharedSize() {
+        return responseCacheSharedSize;
+    }
+
+    /**
+     * 设置多进程共享的响应缓存文件大小
+     * <p>共享同一文件的进程必须使用相同的文件大小和槽位大小，文件不能超过 2GB
+     *
+     * @param responseCacheSharedSize 文件大小（字节）
+     * @return 当前ForestConfiguration实例
+     * @since 1.5.19
+     */
+    public ForestConfiguration setResponseCacheSharedSize(long responseCacheSharedSize) {
+        this.responseCacheSharedSize = responseCacheSharedSize;
+        return this;
+    }
+
+    /**
+     * 获取多进程共享的响应缓存的槽位大小
+     *
+     * @return 槽位大小（字节）
+     * @since 1.5.19
+     */
+    public int getResponseCacheSharedSlotSize() {
+        return responseCacheSharedSlotSize;
+    }
+
+    /**
+     * 设置多进程共享的响应缓存的槽位大小
+     * <p>每个条目占用一个槽位，超过槽位大小的条目不会被共享
+     *
+     * @param responseCacheSharedSlotSize 槽位大小（字节）
+     * @return 当前ForestConfiguration实例
+     * @since 1.5.19
+     */
+    public ForestConfiguration setResponseCacheSharedSlotSize(int responseCacheSharedSlotSize) {
+        this.responseCacheSharedSlotSize = responseCacheSharedSlotSize;
+        return this;
+    }
+
+    /**
+     * 获取用户自定义的响应缓存存储
+     *
+     * @return 响应缓存存储，未设置时返回 {@code null}
+     * @since 1.5.19
+     */
+    public ForestCacheStore getResponseCacheStore() {
+        return responseCacheStore;
+    }
+
+    /**
+     * 设置自定义的响应缓存存储
+     * <p>只对之后创建的响应缓存生效
+     *
+     * @param responseCacheStore 响应缓存存储
+     * @return 当前ForestConfiguration实例
+     * @since 1.5.19
+     */
+    public ForestConfiguration setResponseCacheStore(ForestCacheStore responseCacheStore) {
+        this.responseCacheStore = responseCacheStore;
+        return this;
+    }
+
+    /**
+     * 获取当前配置的HTTP响应缓存，不存在时创建
+     *
+     * @return {@link ForestResponseCache}实例
+     * @since 1.5.19
+     */
+    public ForestResponseCache getResponseCache() {
+        return getResponseCache(true);
+    }
+
+    /**
+     * 获取当前配置的HTTP响应缓存
+     *
+     * @param create 响应缓存不存在时是否创建
+     * @return 响应缓存，{@code create} 为 {@code false} 且响应缓存未创建时返回 {@code null}
+     * @since 1.5.19
+     */
+    public ForestResponseCache getResponseCache(boolean create) {
+        ForestResponseCache cache = responseCache;
+        if (cache == null && create) {
+            synchronized (this) {
+                cache = responseCache;
+                if (cache == null) {
+                    ForestCacheStore store = responseCacheStore;
+                    if (store == null) {
+                        store = new ForestMemoryCacheStore(responseCacheMaxSize);
+                        if (StringUtils.isNotBlank(responseCacheSharedFile)) {
+                            store = new ForestTieredCacheStore(store, new ForestSharedCacheStore(
+                                    new File(responseCacheSharedFile), responseCacheSharedSize, responseCacheSharedSlotSize));
+                        } else if (StringUtils.isNotBlank(responseCacheDir)) {
+                            store = new ForestTieredCacheStore(store, new ForestDiskCacheStore(
+                                    new File(responseCacheDir), responseCacheSegmentSize, responseCacheDiskMaxSize));
+                        }
+                    }
+                    cache = new ForestResponseCache(this, store);
+                    responseCache = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * 是否启用内置的Cookie存储
+     *
+     * @return {@code true}: 启用, {@code false}: 不启用
+     * @since 1.5.19
+     */
+    public boolean isCookieStoreEnabled() {
+        return cookieStoreEnabled;
+    }
+
+    /**
+     * 设置是否启用内置的Cookie存储
+     * <p>启用后响应中的Cookie自动保存，之后的请求自动携带匹配的Cookie，不再需要通过
+     * {@code OnSaveCookie}、{@code OnLoadCookie} 回调函数自行保存和加载
+     *
+     * @param cookieStoreEnabled {@code true}: 启用, {@code false}: 不启用
+     * @return 当前ForestConfiguration实例
+     * @since 1.5.19
+     */
+    public ForestConfiguration setCookieStoreEnabled(boolean cookieStoreEnabled) {
+        this.cookieStoreEnabled = cookieStoreEnabled;
+        return this;
+    }
+
+    /**
+     * 获取内置Cookie存储的持久化文件
+     *
+     * @return 持久化文件路径，未设置时返回 {@code null}
+     * @since 1.5.19
+     */
+    public String getCookieStoreFile() {
+        return cookieStoreFile;
+    }
+
+    /**
+     * 设置内置Cookie存储的持久化文件
+     * <p>只对之后创建的Cookie存储生效
+     *
+     * @param cookieStoreFile 持久化文件路径
+     * @return 当前ForestConfiguration实例
+     * @since 1.5.19
+     */
+    public ForestConfiguration setCookieStoreFile(String cookieStoreFile) {
+        this.cookieStoreFile = cookieStoreFile;
+        return this;
+    }
+
+    /**
+     * 设置Cookie存储
+     * <p>设置后即启用Cookie存储
+     *
+     * @param cookieStore Cookie存储
+     * @return 当前ForestConfiguration实例
+     * @since 1.5.19
+     */
+    public ForestConfiguration setCookieStore(ForestCookieStore cookieStore) {
+        this.cookieStore = cookieStore;
+        this.cookieStoreEnabled = cookieStore != null;
+        return this;
+    }
+
+    /**
+     * 获取Cookie存储
+     *
+     * @return {@link ForestCookieStore}实例，未启用时返回 {@code null}
+     * @since 1.5.19
+     */
+    public ForestCookieStore getCookieStore() {
+        if (!cookieStoreEnabled) {
+            return null;
+        }
+        ForestCookieStore store = cookieStore;
+        if (store == null) {
+            synchronized (this) {
+                store = cookieStore;
+                if (store == null) {
+                    store = new ForestCookieStore(StringUtils.isNotBlank(cookieStoreFile) ? new File(cookieStoreFile) : null);
+                    cookieStore = store;
+                }
+            }
+        }
+        return store;
+    }
+
+    /**
+     * 是否启用重定向缓存
+     *
+     * @return {@code true}: 启用, {@code false}: 不启用
+     * @since 1.5.19
+     */
+    public boolean isRedirectCacheEnabled() {
+        return redirectCacheEnabled;
+    }
+
+    /**
+     * 设置是否启用重定向缓存
+     * <p>启用后自动重定向时会记录永久重定向，之后相同请求方法和URL的请求在发送前直接改写为重定向后的地址
+     *
+     * @param redirectCacheEnabled {@code true}: 启用, {@code false}: 不启用
+     * @return 当前ForestConfiguration实例
+     * @since 1.5.19
+     */
+    public ForestConfiguration setRedirectCacheEnabled(boolean redirectCacheEnabled) {
+        this.redirectCacheEnabled = redirectCacheEnabled;
+        return this;
+    }
+
+    /**
+     * 获取重定向缓存的最大条目数量
+     *
+     * @return 最大条目数量
+     * @since 1.5.19
+     */
+    public int getRedirectCacheMaxSize() {
+        return redirectCacheMaxSize;
+    }
+
+    /**
+     * 设置重定向缓存的最大条目数量
+     * <p>只对之后创建的重定向缓存生效
+     *
+     * @param redirectCacheMaxSize 最大条目数量
+     * @return 当前ForestConfiguration实例
+     * @since 1.5.19
+     */
+    public ForestConfiguration setRedirectCacheMaxSize(int redirectCacheMaxSize) {
+        this.redirectCacheMaxSize = redirectCacheMaxSize;
+        return this;
+    }
+
+    /**
+     * 获取临时重定向的缓存有效期
+     *
+     * @return 有效期（毫秒）
+     * @since 1.5.19
+     */
+    public long getRedirectCacheTemporaryTtl() {
+        return redirectCacheTemporaryTtl;
+    }
+
+    /**
+     * 设置临时重定向（302、307）的缓存有效期
+     * <p>为 {@code 0} 时只缓存永久重定向（301、308）；只对之后创建的重定向缓存生效
+     *
+     * @param redirectCacheTemporaryTtl 有效期（毫秒）
+     * @return 当前ForestConfiguration实例
+     * @since 1.5.19
+     */
+    public ForestConfiguration setRedirectCacheTemporaryTtl(long redirectCacheTemporaryTtl) {
+        this.redirectCacheTemporaryTtl = redirectCacheTemporaryTtl;
+        return this;
+    }
+
+    /**
+     * 设置重定向缓存
+     * <p>设置后即启用重定向缓存
+     *
+     * @param redirectCache 重定向缓存
+     * @return 当前ForestConfiguration实例
+     * @since 1.5.19
+     */
+    public ForestConfiguration setRedirectCache(ForestRedirectCache redirectCache) {
+        this.redirectCache = redirectCache;
+        this.redirectCacheEnabled = redirectCache != null;
+        return this;
+    }
+
+    /**
+     * 获取重定向缓存
+     * <p>可通过其命中次数、存入次数、失效次数等指标观察重定向缓存的效果
+     *
+     * @return {@link ForestRedirectCache}实例，未启用时返回 {@code null}
+     * @since 1.5.19
+     */
+    public ForestRedirectCache getRedirectCache() {
+        if (!redirectCacheEnabled) {
+            return null;
+        }
+        ForestRedirectCache cache = redirectCache;
+        if (cache == null) {
+            synchronized (this) {
+                cache = redirectCache;
+                if (cache == null) {
+                    cache = new ForestRedirectCache(redirectCacheMaxSize, redirectCacheTemporaryTtl);
+                    redirectCache = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * 获取 OAuth2 Token 持久化文件
+     *
+     * @return 持久化文件路径，未设置时返回 {@code null}
+     * @since 1.5.19
+     */
+    public String getOauth2TokenStoreFile() {
+        return oauth2TokenStoreFile;
+    }
+
+    /**
+     * 设置 OAuth2 Token 持久化文件
+     * <p>设置后获取到的Token会写入该文件，进程重启后可以继续使用未过期的Token；文件中包含Token明文，应限制其访问权限
+     *
+     * @param oauth2TokenStoreFile 持久化文件路径
+     * @return 当前ForestConfiguration实例
+     * @since 1.5.19
+     */
+    public ForestConfiguration setOauth2TokenStoreFile(String oauth2TokenStoreFile) {
+        this.oauth2TokenStoreFile = oauth2TokenStoreFile;
+        return this;
+    }
+
+    /**
+     * 获取 OAuth2 Token 持久化存储
+     *
+     * @return {@link OAuth2TokenStore}实例，未设置存储和持久化文件时返回 {@code null}
+     * @since 1.5.19
+     */
+    public OAuth2TokenStore getOauth2TokenStore() {
+        OAuth2TokenStore store = oauth2TokenStore;
+        if (store == null && StringUtils.isNotBlank(oauth2TokenStoreFile)) {
+            synchronized (this) {
+                store = oauth2TokenStore;
+                if (store == null) {
+                    store = new OAuth2FileTokenStore(new File(oauth2TokenStoreFile));
+                    oauth2TokenStore = store;
+                }
+            }
+        }
+        return store;
+    }
+
+    /**
+     * 设置 OAuth2 Token 持久化存储
+     *
+     * @param oauth2TokenStore {@link OAuth2TokenStore}实例
+     * @return 当前ForestConfiguration实例
+     * @since 1.5.19
+     */
+    public ForestConfiguration setOauth2TokenStore(OAuth2TokenStore oauth2TokenStore) {
+        this.oauth2TokenStore = oauth2TokenStore;
+        return this;
+    }
+
+    /**
+     * 获取当前配置的异步请求线程池
+     * <p>每个配置拥有独立的异步线程池，不同配置之间的异步请求互不影响
+     *
+     * @param create 线程池不存在时是否创建
+     * @return 异步请求线程池，{@code create} 为 {@code false} 且线程池未创建时返回 {@code null}
+     * @since 1.5.19
+     */
+    public ThreadPoolExecutor getAsyncThreadPool(boolean create) {
+        ThreadPoolExecutor pool = asyncThreadPool;
+        if (pool == null && create) {
+            synchronized (this) {
+                pool = asyncThreadPool;
+                if (pool == null) {
+                    pool = AsyncHttpExecutor.createAsyncThreadPool(this);
+                    asyncThreadPool = pool;
+                }
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * 获取异步请求执行器的运行指标
+     * <p>使用自定义执行器时，仅当其为 {@link ThreadPoolExecutor} 时可获取指标
+     *
+     * @return 运行指标快照，无法获取时返回 {@code null}
+     * @since 1.5.19
+     */
+    public AsyncPoolMetrics getAsyncMetrics() {
+        if (asyncExecutor != null) {
+            if (asyncExecutor instanceof ThreadPoolExecutor) {
+                return new AsyncPoolMetrics((ThreadPoolExecutor) asyncExecutor);
+            }
+            return null;
+        }
+        ThreadPoolExecutor pool = getAsyncThreadPool(false);
+        return pool != null ? new AsyncPoolMetrics(pool) : null;
+    }
+
+    /**
+     * 异步线程池参数变化后重建线程池
+     * <p>线程池还未创建时什么都不做，旧线程池会执行完已提交的请求后关闭
+     */
+    private void resetAsyncThreadPool() {
+        ThreadPoolExecutor oldPool;
+        synchronized (this) {
+            oldPool = asyncThreadPool;
+            if (oldPool == null) {
+                return;
+            }
+            asyncThreadPool = AsyncHttpExecutor.createAsyncThreadPool(this);
+        }
+        oldPool.shutdown();
+    }
+
+    /**
+     * 是否自动重定向开关
+     *
+     * @return {@code true}: 打开, {@code false}: 禁止
+     */
+    public boolean isAutoRedirection() {
+        return autoRedirection;
+    }
+
+    /**
+     * /**
+     * 设置是否打开自动重定向
+     *
+     * @param autoRedirection {@code true}: 打开, {@code false}: 禁止
+     * @return {@link ForestRequest}类实例
+     */
+    public ForestConfiguration setAutoRedirection(boolean autoRedirection) {
+        this.autoRedirection = autoRedirection;
+        return this;
+    }
+
+    /**
+     * 获取全局的请求超时时间，单位为毫秒
+     *
+     * @return 请求超时时间，单位为毫秒
+     */
+    @Deprecated
+    public Integer getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * 设置全局的请求超时时间，单位为毫秒
+     *
+     * @param timeout 请求超时时间，单位为毫秒
+     * @return 当前ForestConfiguration实例
+     */
+    @Deprecated
+    public ForestConfiguration setTimeout(Integer timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
+    /**
+     * 获取全局的请求数据字符集
+     *
+     * @return 字符集名称
+     */
+    public String getCharset() {
+        return charset;
+    }
+
+    /**
+     * 设置全局的请求数据字符集
+     *
+     * @param charset 字符集名称
+     * @return 当前ForestConfiguration实例
+     */
+    public ForestConfiguration setCharset(String charset) {
+        this.charset = charset;
+        return this;
+    }
+
+    /**
+     * 获取全局的请求连接超时时间，单位为毫秒
+     *
+     * @return 连接超时时间，单位为毫秒
+     */
+    public Integer getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    /**
+     * 设置全局的请求连接超时时间，单位为毫秒
+     *
+     * @param connectTimeout 连接超时时间，单位为毫秒
+     * @return 当前ForestConfiguration实例
+     */
+    public ForestConfiguration setConnectTimeout(Integer connectTimeout) {
+        this.connectTimeout = connectTimeout;
+        return this;
+    }
+
+    /**
+     * 设置全局的请求连接超时时间
+     *
+     * @param connectTimeout 连接超时时间, 整数
+     * @param timeUnit 时间单位
+     * @return 当前ForestConfiguration实例
+     * @since 1.5.6
+     */
+    public ForestConfiguration setConnectTimeout(int connectTimeout, TimeUnit timeUnit) {
+        this.connectTimeout = TimeUtils.toMillis("global connect timeout", connectTimeout, timeUnit);
+        return this;
+    }
+
+    /**
+     * 设置全局的请求连接超时时间
+     *
+     * @param connectTimeout 连接超时时间, {@link Duration}对象
+     * @return 当前ForestConfiguration实例
+     * @since 1.5.6
+     */
+    public ForestConfiguration setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = TimeUtils.toMillis("global connect timeout", connectTimeout);
+        return this;
+    }
+
+
+    /**
+     * 获取全局的请求读取超时时间，单位为毫秒
+     *
+     * @return 读取超时时间
+     * @since 1.5.6
+     */
+    public Integer getReadTimeout() {
+        return readTimeout;
+    }
+
+    /**
+     * 设置全局的请求读取超时时间，单位为毫秒
+     *
+     * @param readTimeout 读取超时时间，单位为毫秒
+     * @return 当前ForestConfiguration实例
+     * @since 1.5.6
+     */
+    public ForestConfiguration setReadTimeout(Integer readTimeout) {
+        this.readTimeout = readTimeout;
+        return this;
+    }
+
+    /**
+     * 设置全局的请求读取超时时间
+     *
+     * @param readTimeout 读取超时时间
+     * @param timeUnit 时间单位
+     * @return 当前ForestConfiguration实例
+     * @since 1.5.6
+     */
+    public ForestConfiguration setReadTimeout(int readTimeout, TimeUnit timeUnit) {
+        this.readTimeout = TimeUtils.toMillis("global read timeout", readTimeout, timeUnit);
+        return this;
+    }
+
+    /**
+     * 设置全局的请求读取超时时间
+     *
+     * @param readTimeout 读取超时时间, {@link Duration}
+     * @return 当前ForestConfiguration实例
+     * @since 1.5.6
+     */
+    public ForestConfiguration setReadTimeout(Duration readTimeout) {
+        this.readTimeout = TimeUtils.toMillis("global read timeout", readTimeout);
+        return this;
+    }
+
+
+    /**
+     * 获取全局的请求失败重试策略类
+     *
+     * @return 重试策略类
+     */
+    public Class getRetryer() {
+        return retryer;
+    }
+
+    /**
+     * 设置全局的请求失败重试策略类
+     *
+     * @param retryer 重试策略类
+     * @return 当前ForestConfiguration实例
+     */
+    public ForestConfiguration setRetryer(Class retryer) {
+        this.retryer = retryer;
+        return this;
+    }
+
+    /**
+     * 获取全局的最大请求失败重试次数
+     *
+     * @return 重试次数
+     */
+    @Deprecated
+    public Integer getRetryCount() {
+        return maxRetryCount;
+    }
+
+    /**
+     * 设置全局的最大请求失败重试次数
+     *
+     * @param retryCount 重试次数
+     * @return 当前ForestConfiguration实例
+     */
+    @Deprecated
+    public ForestConfiguration setRetryCount(Integer retryCount) {
+        this.maxRetryCount = retryCount;
+        return this;
+    }
+
+    /**
+     * 获取全局的最大请求失败重试次数
+     *
+     * @return 重试次数
+     */
+    public Integer getMaxRetryCount() {
+        return maxRetryCount;
+    }
+
+
+    /**
+     * 设置全局的最大请求失败重试次数
+     *
+     * @param maxRetryCount 最大重试次数
+     * @return 当前ForestConfiguration实例
+     */
+    public ForestConfiguration setMaxRetryCount(Integer maxRetryCount) {
+        this.maxRetryCount = maxRetryCount;
+        return this;
+    }
+
+
+    /**
+     * 获取全局的最大请求重试之间的时间间隔，单位为毫秒
+     *
+     * @return 最大请求重试之间的时间间隔
+     */
+    public long getMaxRetryInterval() {
+        return maxRetryInterval;
+    }
+
+    /**
+     * 设置全局的最大请求重试之间的时间间隔，单位为毫秒
+     *
+     * @param maxRetryInterval 最大请求重试之间的时间间隔
+     * @return 当前ForestConfiguration实例
+     */
+    public ForestConfiguration setMaxRetryInterval(long maxRetryInterval) {
+        this.maxRetryInterval = maxRetryInterval;
+        return this;
+    }
+
+    /**
+     * 获取全局默认地址(主机名/域名/ip地址 + 端口号)
+     *
+     * @return 全局默认地址 {@link ForestAddress}对象
+     */
+    public ForestAddress getBaseAddress() {
+        return baseAddress;
+    }
+
+    /**
+     * 设置全局默认地址(主机名/域名/ip地址 + 端口号)
+     *
+     * @param baseAddress 全局默认地址 {@link ForestAddress}对象
+     * @return 当前ForestConfiguration实例
+     */
+    public ForestConfiguration setBaseAddress(ForestAddress baseAddress) {
+        this.baseAddress = baseAddress;
+        return this;
+    }
+
+    /**
+     * 设置全局地址的HTTP协议头
+     *
+     * @param scheme HTTP 协议头
+     * @return 当前ForestConfiguration实例
+     */
+    public ForestConfiguration setBaseAddressScheme(String scheme) {
+        if (baseAddress == null) {
+            baseAddress = new ForestAddress(scheme, null, null);
+        } else {
+            baseAddress = new ForestAddress(scheme, baseAddress.getHost(), baseAddress.getPort());
+        }
+        return this;
+    }
+
+
+    /**
+     * 设置全局地址的 host
+     *
+     * @param host 全局地址的主机名/ip地址
+     * @return 当前ForestConfiguration实例
+     */
+    public ForestConfiguration setBaseAddressHost(String host) {
+        if (baseAddress == null) {
             baseAddress = new ForestAddress(host, null);
         } else {
             baseAddress = new ForestAddress(baseAddress.getScheme(), host, baseAddress.getPort());
@@ -1115,6 +2211,30 @@ public class ForestConfiguration implements Serializable {
         return this;
     }
 
+    /**
+     * 是否将字符串模板编译后再渲染
+     *
+     * @return {@code true}: 启用, {@code false}: 不启用
+     * @since 1.5.19
+     */
+    public boolean isTemplateCompileEnabled() {
+        return templateCompileEnabled;
+    }
+
+    /**
+     * 设置是否将字符串模板编译后再渲染
+     * <p>启用后每个模板在首次渲染时被编译为一组渲染片段，之后直接按片段渲染到复用的缓冲区中，
+     * 渲染结果与不启用时相同；方法调用、过滤器等表达式仍由解释器求值
+     *
+     * @param templateCompileEnabled {@code true}: 启用, {@code false}: 不启用
+     * @return 当前ForestConfiguration实例
+     * @since 1.5.19
+     */
+    public ForestConfiguration setTemplateCompileEnabled(boolean templateCompileEnabled) {
+        this.templateCompileEnabled = templateCompileEnabled;
+        return this;
+    }
+
     /**
      * 获取全局默认请求参数列表
      *
@@ -0,0 +1,32 @@
+package com.dtflys.forest.exceptions;
+
+import com.dtflys.forest.http.ForestRequest;
+
+/**
+ * Forest请求取消异常
+ * <p>请求在执行过程中被取消时抛出
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class ForestCanceledException extends ForestRuntimeException {
+
+    /**
+     * 被取消的请求
+     */
+    private final ForestRequest request;
+
+    public ForestCanceledException(ForestRequest request) {
+        super("[Forest] request has been canceled");
+        this.request = request;
+    }
+
+    /**
+     * 获取被取消的请求
+     *
+     * @return Forest请求对象
+     */
+    public ForestRequest getRequest() {
+        return request;
+    }
+}
@@ -0,0 +1,47 @@
+package com.dtflys.forest.exceptions;
+
+import com.dtflys.forest.circuitbreaker.CircuitBreakerState;
+
+/**
+ * Forest熔断异常
+ * <p>当熔断器处于打开状态（或半开状态下探测许可已用完）时，请求不经过网络直接失败，并产生该异常
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class ForestCircuitBreakerOpenException extends ForestRuntimeException {
+
+    /**
+     * 熔断器名称
+     */
+    private final String circuitBreakerName;
+
+    /**
+     * 拒绝请求时熔断器的状态
+     */
+    private final CircuitBreakerState state;
+
+    public ForestCircuitBreakerOpenException(String circuitBreakerName, CircuitBreakerState state) {
+        super("[Forest] circuit breaker '" + circuitBreakerName + "' is " + state + " and does not permit further calls");
+        this.circuitBreakerName = circuitBreakerName;
+        this.state = state;
+    }
+
+    /**
+     * 获取熔断器名称
+     *
+     * @return 熔断器名称
+     */
+    public String getCircuitBreakerName() {
+        return circuitBreakerName;
+    }
+
+    /**
+     * 获取拒绝请求时熔断器的状态
+     *
+     * @return 熔断器状态
+     */
+    public CircuitBreakerState getState() {
+        return state;
+    }
+}
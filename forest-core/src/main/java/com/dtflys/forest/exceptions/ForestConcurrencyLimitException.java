@@ -0,0 +1,45 @@
+package com.dtflys.forest.exceptions;
+
+/**
+ * Forest并发限制异常
+ * <p>当请求在最大等待时间内没能获取到执行许可时抛出
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class ForestConcurrencyLimitException extends ForestRuntimeException {
+
+    /**
+     * 限流器的键
+     */
+    private final String limiterKey;
+
+    /**
+     * 拒绝时的并发限制数
+     */
+    private final int limit;
+
+    public ForestConcurrencyLimitException(String limiterKey, int limit) {
+        super("[Forest] concurrency limit exceeded for '" + limiterKey + "' (limit: " + limit + ")");
+        this.limiterKey = limiterKey;
+        this.limit = limit;
+    }
+
+    /**
+     * 获取限流器的键
+     *
+     * @return 限流器的键
+     */
+    public String getLimiterKey() {
+        return limiterKey;
+    }
+
+    /**
+     * 获取拒绝时的并发限制数
+     *
+     * @return 并发限制数
+     */
+    public int getLimit() {
+        return limit;
+    }
+}
@@ -0,0 +1,30 @@
+package com.dtflys.forest.exceptions;
+
+/**
+ * Forest限流异常
+ * <p>当请求在最大等待时间内无法获取到限流许可时抛出
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class ForestRateLimitException extends ForestRuntimeException {
+
+    /**
+     * 限流器的键
+     */
+    private final String limiterKey;
+
+    public ForestRateLimitException(String limiterKey) {
+        super("[Forest] rate limit exceeded for '" + limiterKey + "'");
+        this.limiterKey = limiterKey;
+    }
+
+    /**
+     * 获取限流器的键
+     *
+     * @return 限流器的键
+     */
+    public String getLimiterKey() {
+        return limiterKey;
+    }
+}
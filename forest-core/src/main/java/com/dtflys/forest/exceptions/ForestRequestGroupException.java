@@ -0,0 +1,32 @@
+package com.dtflys.forest.exceptions;
+
+import com.dtflys.forest.http.ForestGroupResult;
+
+/**
+ * Forest请求组执行异常
+ * <p>请求组在快速失败模式下有请求失败，或超过请求组的截止时间时抛出，可从中获取已完成部分的结果
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class ForestRequestGroupException extends ForestRuntimeException {
+
+    /**
+     * 请求组的部分结果
+     */
+    private final ForestGroupResult partialResult;
+
+    public ForestRequestGroupException(String message, ForestGroupResult partialResult, Throwable cause) {
+        super(message, cause);
+        this.partialResult = partialResult;
+    }
+
+    /**
+     * 获取请求组的部分结果
+     *
+     * @return 请求组的部分结果
+     */
+    public ForestGroupResult getPartialResult() {
+        return partialResult;
+    }
+}
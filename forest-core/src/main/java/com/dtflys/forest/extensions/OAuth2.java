@@ -84,14 +84,24 @@ public @interface OAuth2 {
     String scope() default "";
 
     /**
-     * 刷新前剩余秒数，即在 expires_in 剩余多少秒进行刷新。默认：600秒5分钟。
-     * 不会主动触发刷新，只有在Token有效期最后5分钟内有请求的时候才会触发刷新。
+     * 刷新前剩余秒数，即在 expires_in 剩余多少秒进行刷新。默认：600秒10分钟。
+     * 在Token有效期最后10分钟内有请求的时候会在后台刷新Token，请求不会等待刷新完成，继续使用旧的Token；
+     * 开启 {@link #autoRefresh()} 时，即使没有请求也会在到达该时间时主动刷新。
      * 假如刷新失败将一直使用旧的Token，直到最后旧的Token失效时才会重新获取Token
      *
      * @return 刷新前剩余秒数
      */
     int refreshAtExpiresBefore() default 600;
 
+    /**
+     * 是否在Token剩余有效期到达 {@link #refreshAtExpiresBefore()} 时主动在后台刷新Token。默认：不开启。
+     * 开启后即使一段时间内没有请求，之后的请求也总能直接使用有效的Token；刷新失败时每30秒重试一次
+     *
+     * @return {@code true}: 开启, {@code false}: 不开启
+     * @since 1.5.19
+     */
+    boolean autoRefresh() default false;
+
     /**
      * 用户名
      *
@@ -0,0 +1,175 @@
+package com.dtflys.forest.handler;
+
+import com.dtflys.forest.http.ForestCookies;
+import com.dtflys.forest.http.ForestRequest;
+import com.dtflys.forest.http.ForestResponse;
+import com.dtflys.forest.reflection.ForestMethod;
+import com.dtflys.forest.reflection.MethodLifeCycleHandler;
+import com.dtflys.forest.utils.ForestProgress;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 回调分发生命周期处理器
+ * <p>用于异步请求: 网络线程收到响应后只读取原始响应体，响应解析和回调函数都交给回调执行器执行，
+ * 避免耗时的回调或反序列化阻塞网络线程；处理完成后由回调执行器完成异步请求的Future
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class CallbackDispatchLifeCycleHandler implements LifeCycleHandler {
+
+    private final LifeCycleHandler delegate;
+
+    private final Executor callbackExecutor;
+
+    private volatile CompletableFuture<Object> future;
+
+    private volatile boolean dispatched = false;
+
+    public CallbackDispatchLifeCycleHandler(LifeCycleHandler delegate, Executor callbackExecutor) {
+        this.delegate = delegate;
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    /**
+     * 设置分发完成后需要完成的Future
+     *
+     * @param future 异步请求的Future
+     */
+    public void setFuture(CompletableFuture<Object> future) {
+        this.future = future;
+    }
+
+    /**
+     * 响应处理是否已分发到回调执行器
+     *
+     * @return {@code true}: 已分发，Future由回调执行器完成, {@code false}: 未分发
+     */
+    public boolean isDispatched() {
+        return dispatched;
+    }
+
+    public LifeCycleHandler getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public Object handleSync(ForestRequest request, ForestResponse response) {
+        return dispatch(request, response, null);
+    }
+
+    @Override
+    public Object handleSyncWithException(ForestRequest request, ForestResponse response, Throwable ex) {
+        return dispatch(request, response, ex);
+    }
+
+    private Object dispatch(ForestRequest request, ForestResponse response, Throwable ex) {
+        // 在网络线程中读取完原始响应体，之后的解析不再占用连接
+        if (response != null && response.isReceivedResponseData()) {
+            try {
+                response.getByteArray();
+            } catch (Throwable ignored) {
+            }
+        }
+        dispatched = true;
+        Runnable task = () -> {
+            CompletableFuture<Object> f = future;
+            try {
+                delegate.handleSyncWithException(request, response, ex);
+                if (f != null) {
+                    f.complete(delegate instanceof MethodLifeCycleHandler ?
+                            ((MethodLifeCycleHandler<?>) delegate).getResultData() : null);
+                }
+            } catch (Throwable th) {
+                if (f != null) {
+                    f.completeExceptionally(th);
+                }
+            }
+        };
+        try {
+            callbackExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.run();
+        }
+        return null;
+    }
+
+    @Override
+    public Object handleResultType(ForestRequest request, ForestResponse response) {
+        return delegate.handleResultType(request, response);
+    }
+
+    @Override
+    public Object handleResultType(ForestRequest request, ForestResponse response, Type resultType, Class resultClass) {
+        return delegate.handleResultType(request, response, resultType, resultClass);
+    }
+
+    @Override
+    public Object handleSuccess(Object resultData, ForestRequest request, ForestResponse response) {
+        return delegate.handleSuccess(resultData, request, response);
+    }
+
+    @Override
+    public void handleInvokeMethod(ForestRequest request, ForestMethod method, Object[] args) {
+        delegate.handleInvokeMethod(request, method, args);
+    }
+
+    @Override
+    public Object handleError(ForestRequest request, ForestResponse response) {
+        return delegate.handleError(request, response);
+    }
+
+    @Override
+    public Object handleError(ForestRequest request, ForestResponse response, Throwable ex) {
+        return delegate.handleError(request, response, ex);
+    }
+
+    @Override
+    public void handleCanceled(ForestRequest request, ForestResponse response) {
+        delegate.handleCanceled(request, response);
+    }
+
+    @Override
+    public void handleProgress(ForestRequest request, ForestProgress progress) {
+        try {
+            callbackExecutor.execute(() -> delegate.handleProgress(request, progress));
+        } catch (RejectedExecutionException e) {
+            delegate.handleProgress(request, progress);
+        }
+    }
+
+    @Override
+    public void handleLoadCookie(ForestRequest request, ForestCookies cookies) {
+        delegate.handleLoadCookie(request, cookies);
+    }
+
+    @Override
+    public void handleSaveCookie(ForestRequest request, ForestCookies cookies) {
+        delegate.handleSaveCookie(request, cookies);
+    }
+
+    @Override
+    public Object handleResult(Object resultData) {
+        return delegate.handleResult(resultData);
+    }
+
+    @Override
+    public Object handleFuture(Future resultData) {
+        return delegate.handleFuture(resultData);
+    }
+
+    @Override
+    public Type getOnSuccessClassGenericType() {
+        return delegate.getOnSuccessClassGenericType();
+    }
+
+    @Override
+    public Type getResultType() {
+        return delegate.getResultType();
+    }
+}
@@ -0,0 +1,166 @@
+package com.dtflys.forest.handler;
+
+import com.dtflys.forest.callback.OnCancel;
+import com.dtflys.forest.callback.OnLoadCookie;
+import com.dtflys.forest.callback.OnProgress;
+import com.dtflys.forest.callback.OnSaveCookie;
+import com.dtflys.forest.callback.OnSuccess;
+import com.dtflys.forest.exceptions.ForestNetworkException;
+import com.dtflys.forest.exceptions.ForestRuntimeException;
+import com.dtflys.forest.http.ForestCookies;
+import com.dtflys.forest.http.ForestRequest;
+import com.dtflys.forest.http.ForestResponse;
+import com.dtflys.forest.reflection.ForestMethod;
+import com.dtflys.forest.utils.ForestProgress;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.Future;
+
+/**
+ * 发后即忘请求的生命周期处理器
+ * <p>不解析响应内容，也不保存任何结果，处理完后直接丢弃响应体以释放连接；
+ * 成功时以 {@code null} 作为结果调用 {@code onSuccess}，失败时仍会调用拦截器和 {@code onError} 回调函数，
+ * 没有 {@code onError} 回调函数时只记录日志，不会抛出异常
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class FireAndForgetLifeCycleHandler implements LifeCycleHandler {
+
+    private final static Logger log = LoggerFactory.getLogger(FireAndForgetLifeCycleHandler.class);
+
+    @Override
+    public Object handleSync(ForestRequest request, ForestResponse response) {
+        return handleSyncWithException(request, response, null);
+    }
+
+    @Override
+    public Object handleSyncWithException(ForestRequest request, ForestResponse response, Throwable ex) {
+        try {
+            if (request.isCanceled()) {
+                handleCanceled(request, response);
+            } else if (response.isSuccess()) {
+                handleSuccess(null, request, response);
+            } else if (ex != null) {
+                handleError(request, response, ex);
+            } else {
+                handleError(request, response);
+            }
+            return null;
+        } finally {
+            try {
+                request.getInterceptorChain().afterExecute(request, response);
+            } finally {
+                response.discardContent();
+            }
+        }
+    }
+
+    @Override
+    public Object handleResultType(ForestRequest request, ForestResponse response) {
+        return null;
+    }
+
+    @Override
+    public Object handleResultType(ForestRequest request, ForestResponse response, Type resultType, Class resultClass) {
+        return null;
+    }
+
+    @Override
+    public Object handleSuccess(Object resultData, ForestRequest request, ForestResponse response) {
+        request.getInterceptorChain().onSuccess(null, request, response);
+        OnSuccess onSuccess = request.getOnSuccess();
+        if (onSuccess != null) {
+            onSuccess.onSuccess(null, request, response);
+        }
+        return null;
+    }
+
+    @Override
+    public void handleInvokeMethod(ForestRequest request, ForestMethod method, Object[] args) {
+        request.getInterceptorChain().onInvokeMethod(request, method, args);
+    }
+
+    @Override
+    public Object handleError(ForestRequest request, ForestResponse response) {
+        ForestNetworkException networkException = new ForestNetworkException(
+                "", response.getStatusCode(), response);
+        return handleError(request, response, networkException);
+    }
+
+    @Override
+    public Object handleError(ForestRequest request, ForestResponse response, Throwable ex) {
+        ForestRuntimeException e;
+        if (ex instanceof ForestRuntimeException) {
+            e = (ForestRuntimeException) ex;
+        } else {
+            e = new ForestRuntimeException(ex);
+        }
+        request.getInterceptorChain().onError(e, request, response);
+        if (request.getOnError() != null) {
+            request.getOnError().onError(e, request, response);
+        } else {
+            // 调用方不会等待结果，抛出异常也无人处理，因此只记录日志
+            log.warn("[Forest] fire-and-forget request failed: {}", request.getUrl(), e);
+        }
+        return null;
+    }
+
+    @Override
+    public void handleCanceled(ForestRequest request, ForestResponse response) {
+        request.getInterceptorChain().onCancel(request, response);
+        OnCancel onCancel = request.getOnCancel();
+        if (onCancel != null) {
+            onCancel.onCancel(request, response);
+        }
+    }
+
+    @Override
+    public void handleProgress(ForestRequest request, ForestProgress progress) {
+        request.getInterceptorChain().onProgress(progress);
+        OnProgress onProgress = request.getOnProgress();
+        if (onProgress != null) {
+            onProgress.onProgress(progress);
+        }
+    }
+
+    @Override
+    public void handleLoadCookie(ForestRequest request, ForestCookies cookies) {
+        request.getInterceptorChain().onLoadCookie(request, cookies);
+        OnLoadCookie onLoadCookie = request.getOnLoadCookie();
+        if (onLoadCookie != null) {
+            onLoadCookie.onLoadCookie(request, cookies);
+        }
+    }
+
+    @Override
+    public void handleSaveCookie(ForestRequest request, ForestCookies cookies) {
+        request.getInterceptorChain().onSaveCookie(request, cookies);
+        OnSaveCookie onSaveCookie = request.getOnSaveCookie();
+        if (onSaveCookie != null) {
+            onSaveCookie.onSaveCookie(request, cookies);
+        }
+    }
+
+    @Override
+    public Object handleResult(Object resultData) {
+        return null;
+    }
+
+    @Override
+    public Object handleFuture(Future resultData) {
+        return null;
+    }
+
+    @Override
+    public Type getOnSuccessClassGenericType() {
+        return null;
+    }
+
+    @Override
+    public Type getResultType() {
+        return Void.class;
+    }
+}
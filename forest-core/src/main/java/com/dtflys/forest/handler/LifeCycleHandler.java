@@ -35,6 +35,17 @@ public interface LifeCycleHandler {
 
     Object handleError(ForestRequest request, ForestResponse response, Throwable ex);
 
+    /**
+     * 处理请求被取消
+     * <p>默认为什么都不做，已有的实现类无需修改
+     *
+     * @param request Forest请求对象
+     * @param response Forest响应对象
+     * @since 1.5.19
+     */
+    default void handleCanceled(ForestRequest request, ForestResponse response) {
+    }
+
     void handleProgress(ForestRequest request, ForestProgress progress);
 
     void handleLoadCookie(ForestRequest request, ForestCookies cookies);
@@ -14,6 +14,7 @@ import java.io.InputStream;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.nio.charset.Charset;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Future;
 
 /**
@@ -64,11 +65,13 @@ public class ResultHandler {
                     }
                     return response;
                 }
-                if (Future.class.isAssignableFrom(resultClass)) {
+                if (Future.class.isAssignableFrom(resultClass)
+                        || CompletionStage.class.isAssignableFrom(resultClass)) {
                     if (resultType instanceof ParameterizedType) {
                         ParameterizedType parameterizedType = (ParameterizedType) resultType;
                         Class rowClass = (Class) parameterizedType.getRawType();
-                        if (Future.class.isAssignableFrom(rowClass)) {
+                        if (Future.class.isAssignableFrom(rowClass)
+                                || CompletionStage.class.isAssignableFrom(rowClass)) {
                             Type realType = parameterizedType.getActualTypeArguments()[0];
                             Class realClass = ReflectUtils.toClass(parameterizedType.getActualTypeArguments()[0]);
                             return getResult(request, response, realType, realClass);
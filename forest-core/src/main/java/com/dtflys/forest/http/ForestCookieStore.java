@@ -0,0 +1,467 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2016 Jun Gong
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.dtflys.forest.http;
+
+import com.dtflys.forest.exceptions.ForestRuntimeException;
+import com.dtflys.forest.utils.StringUtils;
+import okhttp3.internal.publicsuffix.PublicSuffixDatabase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static okhttp3.internal.Util.verifyAsIpAddress;
+
+/**
+ * Forest 内置的 Cookie 存储
+ * <p>线程安全，按可注册域名（如 {@code www.example.com} 和 {@code api.example.com} 都属于 {@code example.com}）
+ * 分段保存和加锁，每段内再按路径索引，因此查找某个请求的 Cookie 时只需检查同一可注册域名下的 Cookie，
+ * 不同域名的请求之间也不会互相阻塞
+ * <ul>
+ *     <li>相同名称、域名和路径的 Cookie 会被替换，已过期的 Cookie 表示删除</li>
+ *     <li>过期的 Cookie 在被查找到时才删除</li>
+ *     <li>指定了文件时，持久化 Cookie (带有 {@code Expires} 或 {@code Max-Age} 的 Cookie) 在变化后写入文件，
+ *     创建时从文件加载</li>
+ * </ul>
+ * 启用后 Cookie 由存储自动保存和携带，{@code OnLoadCookie} 回调函数和拦截器收到的 Cookie 集合中已包含存储中匹配的 Cookie
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class ForestCookieStore {
+
+    private final static Logger log = LoggerFactory.getLogger(ForestCookieStore.class);
+
+    /**
+     * 按可注册域名分段的 Cookie
+     */
+    private final Map<String, DomainCookies> domains = new ConcurrentHashMap<>();
+
+    /**
+     * 持久化文件，为空时只保存在内存中
+     */
+    private final File file;
+
+    private final Object fileLock = new Object();
+
+    public ForestCookieStore() {
+        this(null);
+    }
+
+    /**
+     * @param file 持久化文件，为 {@code null} 时只保存在内存中
+     */
+    public ForestCookieStore(File file) {
+        this.file = file;
+        if (file != null && file.exists()) {
+            loadFromFile();
+        }
+    }
+
+    /**
+     * 获取域名所属的可注册域名，IP地址和公共后缀返回域名本身
+     *
+     * @param domain 域名
+     * @return 可注册域名
+     */
+    static String registrableDomain(String domain) {
+        if (verifyAsIpAddress(domain)) {
+            return domain;
+        }
+        String registrable = PublicSuffixDatabase.get().getEffectiveTldPlusOne(domain);
+        return registrable != null ? registrable : domain;
+    }
+
+    private static String normalizeDomain(String domain) {
+        if (domain == null) {
+            return "";
+        }
+        String normalized = domain.toLowerCase(Locale.ROOT);
+        return normalized.startsWith(".") ? normalized.substring(1) : normalized;
+    }
+
+    /**
+     * 保存 Cookie，已过期的 Cookie 会删除名称、域名和路径都相同的 Cookie
+     *
+     * @param cookie Cookie 对象
+     */
+    public void saveCookie(ForestCookie cookie) {
+        if (saveCookie(cookie, System.currentTimeMillis())) {
+            persist();
+        }
+    }
+
+    /**
+     * 保存多个 Cookie
+     *
+     * @param cookies Cookie 集合
+     */
+    public void saveCookies(Iterable<ForestCookie> cookies) {
+        long now = System.currentTimeMillis();
+        boolean changed = false;
+        for (ForestCookie cookie : cookies) {
+            changed |= saveCookie(cookie, now);
+        }
+        if (changed) {
+            persist();
+        }
+    }
+
+    /**
+     * @return 持久化 Cookie 是否发生了变化
+     */
+    private boolean saveCookie(ForestCookie cookie, long now) {
+        String domain = normalizeDomain(cookie.getDomain());
+        if (domain.isEmpty()) {
+            return false;
+        }
+        DomainCookies bucket = domains.computeIfAbsent(registrableDomain(domain), key -> new DomainCookies());
+        return bucket.put(domain, cookie, cookie.getExpiresTime() <= now);
+    }
+
+    /**
+     * 获取可以携带到请求中的 Cookie
+     *
+     * @param host 请求的域名
+     * @param path 请求的完整路径
+     * @param secure 是否为 HTTPS 请求
+     * @return Cookie 列表
+     */
+    public List<ForestCookie> getCookies(String host, String path, boolean secure) {
+        if (StringUtils.isEmpty(host)) {
+            return Collections.emptyList();
+        }
+        String domain = normalizeDomain(host);
+        DomainCookies bucket = domains.get(registrableDomain(domain));
+        if (bucket == null) {
+            return Collections.emptyList();
+        }
+        return bucket.match(domain, StringUtils.isEmpty(path) ? "/" : path, secure, System.currentTimeMillis());
+    }
+
+    /**
+     * 将可以携带到请求中的 Cookie 加入 Cookie 集合
+     *
+     * @param host 请求的域名
+     * @param path 请求的完整路径
+     * @param secure 是否为 HTTPS 请求
+     * @param cookies Cookie 集合
+     */
+    public void loadCookies(String host, String path, boolean secure, ForestCookies cookies) {
+        List<ForestCookie> matched = getCookies(host, path, secure);
+        if (!matched.isEmpty()) {
+            cookies.addAllCookies(matched);
+        }
+    }
+
+    /**
+     * 删除 Cookie
+     *
+     * @param domain Cookie 域名
+     * @param path Cookie 路径
+     * @param name Cookie 名称
+     */
+    public void removeCookie(String domain, String path, String name) {
+        String normalized = normalizeDomain(domain);
+        DomainCookies bucket = domains.get(registrableDomain(normalized));
+        if (bucket != null && bucket.remove(normalized, path, name)) {
+            persist();
+        }
+    }
+
+    /**
+     * 获取全部未过期的 Cookie
+     *
+     * @return Cookie 列表
+     */
+    public List<ForestCookie> allCookies() {
+        long now = System.currentTimeMillis();
+        List<ForestCookie> result = new ArrayList<>();
+        for (DomainCookies bucket : domains.values()) {
+            bucket.collect(result, now, false);
+        }
+        return result;
+    }
+
+    /**
+     * 获取未过期的 Cookie 数量
+     *
+     * @return Cookie 数量
+     */
+    public int size() {
+        return allCookies().size();
+    }
+
+    /**
+     * 清空全部 Cookie
+     */
+    public void clear() {
+        domains.clear();
+        persist();
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    private void persist() {
+        if (file == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<ForestCookie> cookies = new ArrayList<>();
+        for (DomainCookies bucket : domains.values()) {
+            bucket.collect(cookies, now, true);
+        }
+        synchronized (fileLock) {
+            File parent = file.getAbsoluteFile().getParentFile();
+            if (parent != null && !parent.exists()) {
+                parent.mkdirs();
+            }
+            File temp = new File(file.getPath() + ".tmp");
+            try {
+                try (BufferedWriter writer = Files.newBufferedWriter(temp.toPath(), StandardCharsets.UTF_8)) {
+                    for (ForestCookie cookie : cookies) {
+                        writer.write(format(cookie));
+                        writer.newLine();
+                    }
+                }
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                throw new ForestRuntimeException(e);
+            }
+        }
+    }
+
+    private void loadFromFile() {
+        long now = System.currentTimeMillis();
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                ForestCookie cookie = parseLine(line, now);
+                if (cookie == null) {
+                    log.warn("[Forest] dropped invalid line in cookie file {}: {}", file, line);
+                } else if (cookie.getExpiresTime() > now) {
+                    saveCookie(cookie, now);
+                }
+            }
+        } catch (IOException e) {
+            throw new ForestRuntimeException(e);
+        }
+    }
+
+    /**
+     * 持久化格式，以制表符分隔: 域名、是否仅限主机、路径、是否仅限HTTPS、是否仅限HTTP、过期时间、名称、值
+     */
+    private static String format(ForestCookie cookie) {
+        return normalizeDomain(cookie.getDomain()) + '\t'
+                + cookie.isHostOnly() + '\t'
+                + cookie.getPath() + '\t'
+                + cookie.isSecure() + '\t'
+                + cookie.isHttpOnly() + '\t'
+                + cookie.getExpiresTime() + '\t'
+                + cookie.getName() + '\t'
+                + cookie.getValue();
+    }
+
+    private static ForestCookie parseLine(String line, long now) {
+        String[] fields = line.split("\t", 8);
+        if (fields.length != 8) {
+            return null;
+        }
+        long expiresAt;
+        try {
+            expiresAt = Long.parseLong(fields[5]);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return new ForestCookie(fields[6], fields[7], new Date(now), Duration.ofMillis(Math.max(0, expiresAt - now)),
+                fields[0], fields[2], Boolean.parseBoolean(fields[3]), Boolean.parseBoolean(fields[4]),
+                Boolean.parseBoolean(fields[1]), true);
+    }
+
+    /**
+     * 同一可注册域名下的 Cookie，按路径索引
+     */
+    private static final class DomainCookies {
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private final Map<String, List<ForestCookie>> paths = new LinkedHashMap<>();
+
+        /**
+         * @return 持久化 Cookie 是否发生了变化
+         */
+        boolean put(String domain, ForestCookie cookie, boolean expired) {
+            String path = StringUtils.isEmpty(cookie.getPath()) ? "/" : cookie.getPath();
+            lock.writeLock().lock();
+            try {
+                List<ForestCookie> list = paths.get(path);
+                boolean changed = false;
+                if (list != null) {
+                    for (Iterator<ForestCookie> iterator = list.iterator(); iterator.hasNext(); ) {
+                        ForestCookie old = iterator.next();
+                        if (old.getName().equals(cookie.getName()) && normalizeDomain(old.getDomain()).equals(domain)) {
+                            iterator.remove();
+                            changed = old.isPersistent();
+                            break;
+                        }
+                    }
+                }
+                if (expired) {
+                    if (list != null && list.isEmpty()) {
+                        paths.remove(path);
+                    }
+                    return changed;
+                }
+                if (list == null) {
+                    list = new ArrayList<>(4);
+                    paths.put(path, list);
+                }
+                list.add(cookie);
+                return changed || cookie.isPersistent();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        List<ForestCookie> match(String host, String urlPath, boolean secure, long now) {
+            List<ForestCookie> result = null;
+            boolean hasExpired = false;
+            lock.readLock().lock();
+            try {
+                for (Map.Entry<String, List<ForestCookie>> entry : paths.entrySet()) {
+                    if (!ForestCookie.matchPath(entry.getKey(), urlPath)) {
+                        continue;
+                    }
+                    for (ForestCookie cookie : entry.getValue()) {
+                        if (cookie.getExpiresTime() <= now) {
+                            hasExpired = true;
+                            continue;
+                        }
+                        if (cookie.isSecure() && !secure) {
+                            continue;
+                        }
+                        String domain = normalizeDomain(cookie.getDomain());
+                        boolean domainMatched = cookie.isHostOnly() ? host.equals(domain) : ForestCookie.matchDomain(host, domain);
+                        if (domainMatched) {
+                            if (result == null) {
+                                result = new ArrayList<>(4);
+                            }
+                            result.add(cookie);
+                        }
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            if (hasExpired) {
+                removeExpired(now);
+            }
+            if (result == null) {
+                return Collections.emptyList();
+            }
+            // 按 RFC 6265 路径较长的 Cookie 排在前面
+            if (result.size() > 1) {
+                result.sort((left, right) -> pathLength(right) - pathLength(left));
+            }
+            return result;
+        }
+
+        private static int pathLength(ForestCookie cookie) {
+            return cookie.getPath() == null ? 0 : cookie.getPath().length();
+        }
+
+        boolean remove(String domain, String path, String name) {
+            lock.writeLock().lock();
+            try {
+                List<ForestCookie> list = paths.get(StringUtils.isEmpty(path) ? "/" : path);
+                if (list == null) {
+                    return false;
+                }
+                for (Iterator<ForestCookie> iterator = list.iterator(); iterator.hasNext(); ) {
+                    ForestCookie cookie = iterator.next();
+                    if (cookie.getName().equals(name) && normalizeDomain(cookie.getDomain()).equals(domain)) {
+                        iterator.remove();
+                        return cookie.isPersistent();
+                    }
+                }
+                return false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void collect(List<ForestCookie> result, long now, boolean persistentOnly) {
+            lock.readLock().lock();
+            try {
+                for (List<ForestCookie> list : paths.values()) {
+                    for (ForestCookie cookie : list) {
+                        if (cookie.getExpiresTime() > now && (!persistentOnly || cookie.isPersistent())) {
+                            result.add(cookie);
+                        }
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void removeExpired(long now) {
+            lock.writeLock().lock();
+            try {
+                for (Iterator<List<ForestCookie>> lists = paths.values().iterator(); lists.hasNext(); ) {
+                    List<ForestCookie> list = lists.next();
+                    list.removeIf(cookie -> cookie.getExpiresTime() <= now);
+                    if (list.isEmpty()) {
+                        lists.remove();
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+}
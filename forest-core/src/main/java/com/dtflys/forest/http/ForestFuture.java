@@ -0,0 +1,38 @@
+package com.dtflys.forest.http;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Forest异步请求的Future
+ * <p>调用 {@link #cancel(boolean)} 取消Future时，会同时取消对应的Forest请求，中止正在进行的网络调用和重试等待
+ *
+ * @param <T> 请求结果类型
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class ForestFuture<T> extends CompletableFuture<T> {
+
+    private final ForestRequest request;
+
+    public ForestFuture(ForestRequest request) {
+        this.request = request;
+    }
+
+    /**
+     * 获取Future对应的Forest请求
+     *
+     * @return Forest请求对象
+     */
+    public ForestRequest getRequest() {
+        return request;
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean canceled = super.cancel(mayInterruptIfRunning);
+        if (canceled && request != null) {
+            request.cancel();
+        }
+        return canceled;
+    }
+}
@@ -0,0 +1,112 @@
+package com.dtflys.forest.http;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Forest请求组的执行结果
+ * <p>结果与错误都按请求加入请求组的顺序排列，某个请求失败时其结果为 {@code null}，错误为对应的异常
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class ForestGroupResult {
+
+    private final List<Object> results;
+
+    private final List<Throwable> errors;
+
+    public ForestGroupResult(Object[] results, Throwable[] errors) {
+        this.results = Collections.unmodifiableList(Arrays.asList(results));
+        this.errors = Collections.unmodifiableList(Arrays.asList(errors));
+    }
+
+    /**
+     * 获取请求数量
+     *
+     * @return 请求数量
+     */
+    public int size() {
+        return results.size();
+    }
+
+    /**
+     * 获取第 {@code index} 个请求的结果
+     *
+     * @param index 请求下标
+     * @param <R> 结果类型
+     * @return 请求结果，请求失败时返回 {@code null}
+     */
+    public <R> R get(int index) {
+        return (R) results.get(index);
+    }
+
+    /**
+     * 获取第 {@code index} 个请求的错误
+     *
+     * @param index 请求下标
+     * @return 请求产生的异常，请求成功时返回 {@code null}
+     */
+    public Throwable getError(int index) {
+        return errors.get(index);
+    }
+
+    /**
+     * 第 {@code index} 个请求是否成功
+     *
+     * @param index 请求下标
+     * @return {@code true}: 成功, {@code false}: 失败
+     */
+    public boolean isSuccess(int index) {
+        return errors.get(index) == null;
+    }
+
+    /**
+     * 是否所有请求都成功
+     *
+     * @return {@code true}: 都成功, {@code false}: 有请求失败
+     */
+    public boolean isAllSuccess() {
+        for (Throwable error : errors) {
+            if (error != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 获取所有请求的结果列表
+     *
+     * @return 按请求顺序排列的结果列表
+     */
+    public List<Object> getResults() {
+        return results;
+    }
+
+    /**
+     * 获取所有请求的错误列表
+     *
+     * @return 按请求顺序排列的错误列表，请求成功的位置为 {@code null}
+     */
+    public List<Throwable> getErrors() {
+        return errors;
+    }
+
+    /**
+     * 获取所有失败请求的下标
+     *
+     * @return 失败请求的下标列表
+     */
+    public List<Integer> getFailedIndexes() {
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < errors.size(); i++) {
+            if (errors.get(i) != null) {
+                indexes.add(i);
+            }
+        }
+        return indexes;
+    }
+}
@@ -0,0 +1,40 @@
+package com.dtflys.forest.http;
+
+import java.util.Date;
+
+/**
+ * 本地Forest响应对象
+ * <p>不经过网络、由Forest在本地直接构造的响应，如请求被熔断时交给 {@code onError} 回调的响应
+ *
+ * @param <T> 响应结果类型
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class ForestLocalResponse<T> extends ForestResponse<T> {
+
+    /**
+     * 内容字节数组
+     */
+    private final byte[] bytes;
+
+    public ForestLocalResponse(ForestRequest request, Throwable exception) {
+        this(request, null, null, exception);
+    }
+
+    public ForestLocalResponse(ForestRequest request, Integer statusCode, byte[] bytes, Throwable exception) {
+        super(request, new Date(), new Date());
+        this.statusCode = statusCode;
+        this.bytes = bytes;
+        this.exception = exception;
+    }
+
+    @Override
+    public boolean isReceivedResponseData() {
+        return bytes != null;
+    }
+
+    @Override
+    public byte[] getByteArray() throws Exception {
+        return bytes;
+    }
+}
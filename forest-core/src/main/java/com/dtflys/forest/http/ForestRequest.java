@@ -25,6 +25,9 @@
 package com.dtflys.forest.http;
 
 import com.dtflys.forest.backend.ContentType;
+import com.dtflys.forest.cache.ForestCacheOptions;
+import com.dtflys.forest.cache.ForestRedirectCache;
+import com.dtflys.forest.callback.OnCancel;
 import com.dtflys.forest.callback.OnLoadCookie;
 import com.dtflys.forest.callback.OnProgress;
 import com.dtflys.forest.callback.OnRedirection;
@@ -61,6 +64,7 @@ import com.dtflys.forest.config.ForestConfiguration;
 import com.dtflys.forest.exceptions.ForestRuntimeException;
 import com.dtflys.forest.backend.HttpBackend;
 import com.dtflys.forest.backend.HttpExecutor;
+import com.dtflys.forest.handler.FireAndForgetLifeCycleHandler;
 import com.dtflys.forest.handler.LifeCycleHandler;
 import com.dtflys.forest.interceptor.Interceptor;
 import com.dtflys.forest.interceptor.InterceptorChain;
@@ -88,6 +92,9 @@ import java.net.URL;
 import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import static com.dtflys.forest.mapping.MappingParameter.*;
@@ -174,6 +181,63 @@ public class ForestRequest<T> {
      */
     private boolean async;
 
+    /**
+     * 异步请求的延迟执行时间（毫秒）
+     * <p>异步请求会在延迟时间过后才提交到异步线程池执行，延迟等待期间不占用线程
+     */
+    private long asyncDelay = 0;
+
+    /**
+     * 请求优先级
+     * <p>值越大优先级越高，异步线程池繁忙时，优先级高的请求先执行
+     */
+    private int priority = 0;
+
+    /**
+     * 请求所属的租户
+     * <p>异步线程池繁忙时，不同租户的异步请求按权重公平地轮流执行
+     */
+    private String tenant;
+
+    /**
+     * 执行该异步请求的执行器
+     * <p>为空时使用配置中的异步执行器
+     */
+    private Executor asyncExecutor;
+
+    /**
+     * 执行该异步请求的响应解析和回调函数的执行器
+     * <p>为空时使用配置中的回调执行器
+     */
+    private Executor callbackExecutor;
+
+    /**
+     * 是否为发后即忘请求
+     * <p>发后即忘请求只提交到异步线程池执行，不解析响应内容
+     */
+    private boolean fireAndForget = false;
+
+    /**
+     * 响应缓存选项
+     * <p>为空时按全局配置决定是否使用响应缓存
+     */
+    private ForestCacheOptions cacheOptions;
+
+    /**
+     * 请求是否已被取消
+     */
+    private volatile boolean canceled = false;
+
+    /**
+     * 取消钩子: 请求被取消时用于中止正在进行的网络调用
+     */
+    private volatile Runnable cancelHook;
+
+    /**
+     * 取消信号，用于唤醒正在等待重试的线程
+     */
+    private volatile CountDownLatch cancelLatch;
+
     /**
      * 是否打开自动重定向
      */
@@ -277,6 +341,11 @@ public class ForestRequest<T> {
      */
     private OnRetry onRetry;
 
+    /**
+     * 回调函数：请求被取消时调用
+     */
+    private OnCancel onCancel;
+
     /**
      * 回调函数：请求重试触发条件
      */
@@ -299,6 +368,22 @@ public class ForestRequest<T> {
      */
     ForestResponse<?> prevResponse;
 
+    /**
+     * 发送前通过重定向缓存改写请求地址的记录
+     * <p>未命中重定向缓存时为 {@code null}
+     */
+    private ForestRedirectCache.Rewrite redirectCacheRewrite;
+
+    /**
+     * 通过重定向缓存改写前的请求URL
+     */
+    private ForestURL redirectCacheOriginUrl;
+
+    /**
+     * 通过重定向缓存改写前的Query参数
+     */
+    private ForestQueryMap redirectCacheOriginQuery;
+
     /**
      * 进度回调函数：上传/下载进度监听时调用
      * <p>每上传/下载传输 ${progressStep} 个比特数时，执行一次监听回调函数
@@ -1839,6 +1924,54 @@ public class ForestRequest<T> {
         return this.prevRequest != null && this.prevResponse != null;
     }
 
+    /**
+     * 获取发送前通过重定向缓存改写请求地址的记录
+     *
+     * @return 改写记录，{@link ForestRedirectCache.Rewrite}类实例，未命中重定向缓存时返回 {@code null}
+     * @since 1.5.19
+     */
+    public ForestRedirectCache.Rewrite getRedirectCacheRewrite() {
+        return redirectCacheRewrite;
+    }
+
+    /**
+     * 按重定向缓存改写请求地址
+     * <p>只对打开自动重定向的请求生效
+     */
+    private void rewriteByRedirectCache() {
+        if (!autoRedirection || redirectCacheRewrite != null) {
+            return;
+        }
+        ForestRedirectCache redirectCache = configuration.getRedirectCache();
+        if (redirectCache == null) {
+            return;
+        }
+        ForestURL originUrl = this.url;
+        ForestQueryMap originQuery = this.query.clone();
+        ForestRedirectCache.Rewrite rewrite = redirectCache.rewrite(this);
+        if (rewrite != null) {
+            this.redirectCacheRewrite = rewrite;
+            this.redirectCacheOriginUrl = originUrl;
+            this.redirectCacheOriginQuery = originQuery;
+        }
+    }
+
+    /**
+     * 改写后的请求失败时删除重定向缓存中对应的条目，并恢复原请求地址
+     * <p>之后的重试从原地址开始，重新跟随服务端返回的重定向
+     */
+    private void invalidateRedirectCache() {
+        ForestRedirectCache redirectCache = configuration.getRedirectCache();
+        if (redirectCache != null) {
+            redirectCache.invalidate(redirectCacheRewrite);
+        }
+        this.url = redirectCacheOriginUrl;
+        this.query = redirectCacheOriginQuery;
+        this.redirectCacheRewrite = null;
+        this.redirectCacheOriginUrl = null;
+        this.redirectCacheOriginQuery = null;
+    }
+
     /**
      * 设置是否打开自动重定向
      *
@@ -1883,6 +2016,321 @@ public class ForestRequest<T> {
         return setAsync(true);
     }
 
+    /**
+     * 获取异步请求的延迟执行时间
+     *
+     * @return 延迟执行时间（毫秒）
+     * @since 1.5.19
+     */
+    public long getAsyncDelay() {
+        return asyncDelay;
+    }
+
+    /**
+     * 设置异步请求的延迟执行时间
+     * <p>只对异步请求有效，异步请求会在延迟时间过后才提交到异步线程池执行，延迟等待期间不占用线程
+     *
+     * @param asyncDelay 延迟执行时间（毫秒）
+     * @return {@link ForestRequest}类实例
+     * @since 1.5.19
+     */
+    public ForestRequest<T> setAsyncDelay(long asyncDelay) {
+        this.asyncDelay = asyncDelay;
+        return this;
+    }
+
+    /**
+     * 设置异步请求的延迟执行时间
+     * <p>同 {@link ForestRequest#setAsyncDelay(long)}
+     *
+     * @param asyncDelay 延迟执行时间（毫秒）
+     * @return {@link ForestRequest}类实例
+     * @see ForestRequest#setAsyncDelay(long)
+     * @since 1.5.19
+     */
+    public ForestRequest<T> asyncDelay(long asyncDelay) {
+        return setAsyncDelay(asyncDelay);
+    }
+
+    /**
+     * 获取请求优先级
+     *
+     * @return 请求优先级，值越大优先级越高
+     * @since 1.5.19
+     */
+    public int getPriority() {
+        return priority;
+    }
+
+    /**
+     * 设置请求优先级
+     * <p>异步线程池繁忙时，异步请求按优先级从高到低执行，同一优先级按提交顺序执行；
+     * 低优先级的请求在队列中等待越久，其优先级会逐渐提升，不会一直被高优先级请求插队
+     *
+     * @param priority 请求优先级，值越大优先级越高，默认为 0
+     * @return {@link ForestRequest}类实例
+     * @since 1.5.19
+     */
+    public ForestRequest<T> setPriority(int priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * 设置请求优先级
+     * <p>同 {@link ForestRequest#setPriority(int)}
+     *
+     * @param priority 请求优先级，值越大优先级越高，默认为 0
+     * @return {@link ForestRequest}类实例
+     * @see ForestRequest#setPriority(int)
+     * @since 1.5.19
+     */
+    public ForestRequest<T> priority(int priority) {
+        return setPriority(priority);
+    }
+
+    /**
+     * 获取请求所属的租户
+     *
+     * @return 租户
+     * @since 1.5.19
+     */
+    public String getTenant() {
+        return tenant;
+    }
+
+    /**
+     * 设置请求所属的租户
+     * <p>异步线程池繁忙时，不同租户的异步请求按权重公平地轮流执行，一个租户的突发请求不会挤占其它租户的执行机会
+     *
+     * @param tenant 租户
+     * @return {@link ForestRequest}类实例
+     * @since 1.5.19
+     */
+    public ForestRequest<T> setTenant(String tenant) {
+        this.tenant = tenant;
+        return this;
+    }
+
+    /**
+     * 设置请求所属的租户
+     * <p>同 {@link ForestRequest#setTenant(String)}
+     *
+     * @param tenant 租户
+     * @return {@link ForestRequest}类实例
+     * @see ForestRequest#setTenant(String)
+     * @since 1.5.19
+     */
+    public ForestRequest<T> tenant(String tenant) {
+        return setTenant(tenant);
+    }
+
+    /**
+     * 获取执行该异步请求的执行器
+     *
+     * @return 执行器，为空时使用配置中的异步执行器
+     * @since 1.5.19
+     */
+    public Executor getAsyncExecutor() {
+        return asyncExecutor;
+    }
+
+    /**
+     * 设置执行该异步请求的执行器
+     * <p>可为不同的客户端或请求指定独立的执行器，使其与其它异步请求隔离
+     *
+     * @param asyncExecutor 执行器
+     * @return {@link ForestRequest}类实例
+     * @since 1.5.19
+     */
+    public ForestRequest<T> setAsyncExecutor(Executor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+        return this;
+    }
+
+    /**
+     * 设置执行该异步请求的执行器
+     * <p>同 {@link ForestRequest#setAsyncExecutor(Executor)}
+     *
+     * @param asyncExecutor 执行器
+     * @return {@link ForestRequest}类实例
+     * @see ForestRequest#setAsyncExecutor(Executor)
+     * @since 1.5.19
+     */
+    public ForestRequest<T> asyncExecutor(Executor asyncExecutor) {
+        return setAsyncExecutor(asyncExecutor);
+    }
+
+    /**
+     * 获取执行该异步请求的响应解析和回调函数的执行器
+     *
+     * @return 回调执行器，为空时使用配置中的回调执行器
+     * @since 1.5.19
+     */
+    public Executor getCallbackExecutor() {
+        return callbackExecutor;
+    }
+
+    /**
+     * 设置执行该异步请求的响应解析和回调函数的执行器
+     * <p>设置后，网络线程只读取原始响应体，耗时的反序列化和回调函数不会阻塞网络线程
+     *
+     * @param callbackExecutor 回调执行器
+     * @return {@link ForestRequest}类实例
+     * @since 1.5.19
+     */
+    public ForestRequest<T> setCallbackExecutor(Executor callbackExecutor) {
+        this.callbackExecutor = callbackExecutor;
+        return this;
+    }
+
+    /**
+     * 设置执行该异步请求的响应解析和回调函数的执行器
+     * <p>同 {@link ForestRequest#setCallbackExecutor(Executor)}
+     *
+     * @param callbackExecutor 回调执行器
+     * @return {@link ForestRequest}类实例
+     * @see ForestRequest#setCallbackExecutor(Executor)
+     * @since 1.5.19
+     */
+    public ForestRequest<T> callbackExecutor(Executor callbackExecutor) {
+        return setCallbackExecutor(callbackExecutor);
+    }
+
+    /**
+     * 是否为发后即忘请求
+     *
+     * @return {@code true}: 是, {@code false}: 否
+     * @since 1.5.19
+     */
+    public boolean isFireAndForget() {
+        return fireAndForget;
+    }
+
+    /**
+     * 设置是否为发后即忘请求
+     * <p>发后即忘请求不读取和解析响应内容，响应体会被直接丢弃以尽快释放连接；
+     * 请求失败时仍会调用 {@code onError} 回调函数和拦截器
+     *
+     * @param fireAndForget {@code true}: 是, {@code false}: 否
+     * @return {@link ForestRequest}类实例
+     * @since 1.5.19
+     */
+    public ForestRequest<T> setFireAndForget(boolean fireAndForget) {
+        this.fireAndForget = fireAndForget;
+        return this;
+    }
+
+    /**
+     * 获取响应缓存选项
+     *
+     * @return 响应缓存选项，未设置时返回 {@code null}
+     * @since 1.5.19
+     */
+    public ForestCacheOptions getCacheOptions() {
+        return cacheOptions;
+    }
+
+    /**
+     * 设置响应缓存选项
+     * <p>设置后以该选项决定此请求是否使用响应缓存，以及是否覆盖响应头中的缓存时间
+     *
+     * @param cacheOptions 响应缓存选项
+     * @return {@link ForestRequest}类实例
+     * @since 1.5.19
+     */
+    public ForestRequest<T> setCacheOptions(ForestCacheOptions cacheOptions) {
+        this.cacheOptions = cacheOptions;
+        return this;
+    }
+
+    /**
+     * 取消请求
+     * <p>请求被取消后，正在进行的网络调用会被中止，正在等待的重试会被立即唤醒并放弃重试，
+     * 并触发 {@code onCancel} 回调函数
+     *
+     * @return {@code true}: 本次调用取消了请求; {@code false}: 请求之前已被取消
+     * @since 1.5.19
+     */
+    public boolean cancel() {
+        if (canceled) {
+            return false;
+        }
+        synchronized (this) {
+            if (canceled) {
+                return false;
+            }
+            canceled = true;
+        }
+        CountDownLatch latch = cancelLatch;
+        if (latch != null) {
+            latch.countDown();
+        }
+        runCancelHook(cancelHook);
+        return true;
+    }
+
+    /**
+     * 请求是否已被取消
+     *
+     * @return {@code true}: 已取消; {@code false}: 未取消
+     * @since 1.5.19
+     */
+    public boolean isCanceled() {
+        return canceled;
+    }
+
+    /**
+     * 设置取消钩子
+     * <p>由后端执行器在发送请求前设置，请求被取消时调用该钩子中止正在进行的网络调用
+     * <p>若请求已被取消，则立即调用该钩子
+     *
+     * @param cancelHook 取消钩子
+     * @since 1.5.19
+     */
+    public void setCancelHook(Runnable cancelHook) {
+        this.cancelHook = cancelHook;
+        if (canceled) {
+            runCancelHook(cancelHook);
+        }
+    }
+
+    private void runCancelHook(Runnable hook) {
+        if (hook == null) {
+            return;
+        }
+        try {
+            hook.run();
+        } catch (Throwable th) {
+            // 中止网络调用失败不影响取消流程
+        }
+    }
+
+    /**
+     * 等待一段时间，若在等待期间请求被取消则立即返回
+     *
+     * @param millis 等待时间(毫秒)
+     * @return {@code true}: 等待期间请求被取消; {@code false}: 等待结束时请求未被取消
+     * @throws InterruptedException 等待线程被中断时抛出
+     * @since 1.5.19
+     */
+    public boolean awaitCancel(long millis) throws InterruptedException {
+        CountDownLatch latch = cancelLatch;
+        if (latch == null) {
+            synchronized (this) {
+                latch = cancelLatch;
+                if (latch == null) {
+                    latch = new CountDownLatch(1);
+                    cancelLatch = latch;
+                }
+            }
+        }
+        if (canceled) {
+            return true;
+        }
+        return latch.await(millis, TimeUnit.MILLISECONDS) || canceled;
+    }
+
 
 
     /**
@@ -3220,6 +3668,41 @@ public class ForestRequest<T> {
         return setOnRetry(onRetry);
     }
 
+    /**
+     * 获取OnCancel回调函数，该回调函数在请求被取消时被调用
+     *
+     * @return {@link OnCancel}接口实例
+     * @since 1.5.19
+     */
+    public OnCancel getOnCancel() {
+        return onCancel;
+    }
+
+    /**
+     * 设置OnCancel回调函数，该回调函数在请求被取消时被调用
+     *
+     * @param onCancel {@link OnCancel}接口实例
+     * @return {@link ForestRequest}类实例
+     * @since 1.5.19
+     */
+    public ForestRequest<T> setOnCancel(OnCancel onCancel) {
+        this.onCancel = onCancel;
+        return this;
+    }
+
+    /**
+     * 设置OnCancel回调函数，该回调函数在请求被取消时被调用
+     * <p>同 {@link ForestRequest#setOnCancel(OnCancel)}
+     *
+     * @param onCancel {@link OnCancel}接口实例
+     * @return {@link ForestRequest}类实例
+     * @see ForestRequest#setOnCancel(OnCancel)
+     * @since 1.5.19
+     */
+    public ForestRequest<T> onCancel(OnCancel onCancel) {
+        return setOnCancel(onCancel);
+    }
+
 
     /**
      * 获取RetryWhen回调函数, 回调函数为请求重试的触发条件
@@ -3891,8 +4374,7 @@ public class ForestRequest<T> {
     public Object getMethodReturnValue() {
         if (this.lifeCycleHandler != null) {
             if (this.lifeCycleHandler instanceof MethodLifeCycleHandler) {
-                Object resultData = ((MethodLifeCycleHandler) lifeCycleHandler).getResultData();
-                return resultData;
+                return ((MethodLifeCycleHandler) lifeCycleHandler).getReturnValue();
             }
         }
         return null;
@@ -3973,11 +4455,15 @@ public class ForestRequest<T> {
      * @throws Throwable 当重试条件不满足时所抛出的异常类型
      */
     public final ForestRetryException canRetry(ForestResponse<?> response, ForestRetryException ex) throws Throwable {
+        if (redirectCacheRewrite != null
+                && ((ex != null && ex.getCause() != null) || response == null || response.isError())) {
+            invalidateRedirectCache();
+        }
         if (ex == null) {
             ex = new ForestRetryException(this, maxRetryCount, getCurrentRetryCount());
         }
-        if (response == null || !retryEnabled) {
-            throw ex.getCause();
+        if (response == null || !retryEnabled || canceled) {
+            throw ex.getCause() == null ? ex : ex.getCause();
         }
         HttpExecutor executor = backend.createExecutor(this, lifeCycleHandler);
         if (executor != null) {
@@ -4033,6 +4519,12 @@ public class ForestRequest<T> {
         newRequest.proxy = this.proxy;
         newRequest.keyStore = this.keyStore;
         newRequest.async = this.async;
+        newRequest.priority = this.priority;
+        newRequest.tenant = this.tenant;
+        newRequest.asyncExecutor = this.asyncExecutor;
+        newRequest.callbackExecutor = this.callbackExecutor;
+        newRequest.fireAndForget = this.fireAndForget;
+        newRequest.cacheOptions = this.cacheOptions;
         newRequest.retryer = this.retryer;
         newRequest.maxRetryCount = this.maxRetryCount;
         newRequest.maxRetryInterval = this.maxRetryInterval;
@@ -4045,6 +4537,7 @@ public class ForestRequest<T> {
         newRequest.onProgress = this.onProgress;
         newRequest.progressStep = this.progressStep;
         newRequest.onRetry = this.onRetry;
+        newRequest.onCancel = this.onCancel;
         newRequest.retryWhen = this.retryWhen;
         newRequest.retryEnabled = this.retryEnabled;
         newRequest.type = this.type;
@@ -4067,6 +4560,8 @@ public class ForestRequest<T> {
     public Object execute(HttpBackend backend, LifeCycleHandler lifeCycleHandler) {
         setLifeCycleHandler(lifeCycleHandler);
         processRedirectionRequest();
+        // 跳过重定向缓存中已知的重定向
+        rewriteByRedirectCache();
         // 执行 beforeExecute
         if (interceptorChain.beforeExecute(this)) {
             // 从后端HTTP框架创建HTTP请求执行器
@@ -4223,4 +4718,90 @@ public class ForestRequest<T> {
         return execute(typeReference.getType());
     }
 
+    /**
+     * 以发后即忘的方式执行请求
+     * <p>请求被提交到异步线程池后立即返回，不读取和解析响应内容；
+     * 请求失败时仍会调用 {@code onError} 回调函数和拦截器
+     *
+     * @since 1.5.19
+     */
+    public void executeAndForget() {
+        setFireAndForget(true);
+        setAsync(true);
+        execute(getBackend(), new FireAndForgetLifeCycleHandler());
+    }
+
+    /**
+     * 异步执行请求发送过程
+     * <p>结果类型为当前生命周期处理器的结果类型，未指定时为字符串类型
+     *
+     * @return {@link ForestFuture}对象，可通过 {@link java.util.concurrent.CompletableFuture} 的组合方法编排多个请求，而无需阻塞等待
+     * @since 1.5.19
+     */
+    public ForestFuture<T> executeAsync() {
+        LifeCycleHandler lifeCycleHandler = getLifeCycleHandler();
+        Type type = lifeCycleHandler != null ? lifeCycleHandler.getResultType() : null;
+        if (type == null || Void.class.equals(type) || void.class.equals(type)) {
+            type = String.class;
+        }
+        return executeAsync(type);
+    }
+
+    /**
+     * 异步执行请求发送过程
+     *
+     * @param clazz 结果返回类型, {@link Class} 对象
+     * @param <R> 泛型参数: 结果返回类型
+     * @return {@link ForestFuture}对象，完成时的结果为 {@code Class<R>} 参数所指定的类型
+     * @since 1.5.19
+     */
+    public <R> ForestFuture<R> executeAsync(Class<R> clazz) {
+        return executeAsync((Type) clazz);
+    }
+
+    /**
+     * 异步执行请求发送过程
+     *
+     * @param typeReference 结果返回类型的引用, {@link TypeReference} 对象
+     * @param <R> 泛型参数: 结果返回类型
+     * @return {@link ForestFuture}对象，完成时的结果为 {@link TypeReference} 的泛型参数所指定的类型
+     * @since 1.5.19
+     */
+    public <R> ForestFuture<R> executeAsync(TypeReference<R> typeReference) {
+        return executeAsync(typeReference.getType());
+    }
+
+    /**
+     * 异步执行请求发送过程
+     * <p>请求在异步线程中发送，响应解析完成后直接完成返回的 {@link ForestFuture}；
+     * 请求被拦截器中止或在发送前失败时，返回已完成的 {@link ForestFuture}
+     *
+     * @param type 结果返回类型, {@link Type} 接口实例
+     * @param <R> 泛型参数: 结果返回类型
+     * @return {@link ForestFuture}对象，完成时的结果为 {@link Type} 参数所指定的类型
+     * @since 1.5.19
+     */
+    public <R> ForestFuture<R> executeAsync(Type type) {
+        LifeCycleHandler lifeCycleHandler = getLifeCycleHandler();
+        MethodLifeCycleHandler<R> methodLifeCycleHandler = new MethodLifeCycleHandler<>(
+                type,
+                lifeCycleHandler != null ? lifeCycleHandler.getOnSuccessClassGenericType() : null);
+        setAsync(true);
+        try {
+            execute(getBackend(), methodLifeCycleHandler);
+        } catch (Throwable th) {
+            ForestFuture<R> failed = new ForestFuture<>(this);
+            failed.completeExceptionally(th);
+            return failed;
+        }
+        Future<?> future = methodLifeCycleHandler.getFuture();
+        if (future instanceof ForestFuture) {
+            return (ForestFuture<R>) future;
+        }
+        // 请求未进入异步执行（如被拦截器中止），直接以当前结果完成
+        ForestFuture<R> completed = new ForestFuture<>(this);
+        completed.complete(methodLifeCycleHandler.getResultData());
+        return completed;
+    }
+
 }
@@ -0,0 +1,339 @@
+package com.dtflys.forest.http;
+
+import com.dtflys.forest.backend.AsyncHttpExecutor;
+import com.dtflys.forest.exceptions.ForestRequestGroupException;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Forest请求组
+ * <p>将多个请求（或返回 {@link CompletionStage} 的接口方法调用）作为一组异步并行执行，
+ * 同一时间最多执行 {@code maxConcurrency} 个请求，全部完成后按加入顺序返回结果:
+ * <pre>
+ *     ForestGroupResult result = Forest.all(request1, request2, request3)
+ *             .maxConcurrency(16)
+ *             .timeout(5, TimeUnit.SECONDS)
+ *             .execute()
+ *             .join();
+ * </pre>
+ * <p>默认收集每个请求的结果或错误；开启快速失败后，任一请求失败都会取消其余未完成的请求。
+ * 取消 {@link #execute()} 返回的Future会取消所有未完成的请求
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class ForestRequestGroup {
+
+    /**
+     * 默认最大并发数
+     */
+    public final static int DEFAULT_MAX_CONCURRENCY = 16;
+
+    private final List<Supplier<? extends CompletionStage<?>>> calls = new ArrayList<>();
+
+    private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+
+    /**
+     * 请求组截止时间（毫秒），为 0 时不限制
+     */
+    private long timeout = 0;
+
+    private boolean failFast = false;
+
+    /**
+     * 添加请求，请求结果类型为请求自身的结果类型
+     *
+     * @param request Forest请求对象
+     * @return 当前请求组
+     */
+    public ForestRequestGroup add(ForestRequest<?> request) {
+        calls.add(request::executeAsync);
+        return this;
+    }
+
+    /**
+     * 添加请求，并指定请求结果类型
+     *
+     * @param request Forest请求对象
+     * @param resultType 请求结果类型
+     * @return 当前请求组
+     */
+    public ForestRequestGroup add(ForestRequest<?> request, Type resultType) {
+        calls.add(() -> request.executeAsync(resultType));
+        return this;
+    }
+
+    /**
+     * 添加多个请求
+     *
+     * @param requests Forest请求对象列表
+     * @return 当前请求组
+     */
+    public ForestRequestGroup addAll(Iterable<? extends ForestRequest<?>> requests) {
+        for (ForestRequest<?> request : requests) {
+            add(request);
+        }
+        return this;
+    }
+
+    /**
+     * 添加异步调用，如返回 {@link CompletionStage} 的Forest接口方法调用
+     * <p>调用会延迟到轮到它执行时才发生，以保证并发数不超过限制
+     *
+     * @param call 异步调用
+     * @return 当前请求组
+     */
+    public ForestRequestGroup add(Supplier<? extends CompletionStage<?>> call) {
+        calls.add(call);
+        return this;
+    }
+
+    /**
+     * 设置最大并发数
+     *
+     * @param maxConcurrency 同一时间最多执行的请求数
+     * @return 当前请求组
+     */
+    public ForestRequestGroup maxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        return this;
+    }
+
+    /**
+     * 设置请求组的截止时间
+     * <p>超过截止时间后，未完成的请求会被取消，并以 {@link TimeoutException} 记录为失败
+     *
+     * @param timeout 截止时间
+     * @param unit 时间单位
+     * @return 当前请求组
+     */
+    public ForestRequestGroup timeout(long timeout, TimeUnit unit) {
+        this.timeout = unit.toMillis(timeout);
+        return this;
+    }
+
+    /**
+     * 设置是否快速失败
+     * <p>开启后，任一请求失败（包括超过截止时间）时取消其余请求，
+     * 并以 {@link ForestRequestGroupException} 结束，异常中带有已完成部分的结果
+     *
+     * @param failFast {@code true}: 快速失败, {@code false}: 收集所有结果和错误
+     * @return 当前请求组
+     */
+    public ForestRequestGroup failFast(boolean failFast) {
+        this.failFast = failFast;
+        return this;
+    }
+
+    /**
+     * 获取请求数量
+     *
+     * @return 请求数量
+     */
+    public int size() {
+        return calls.size();
+    }
+
+    /**
+     * 异步执行请求组
+     *
+     * @return 请求组结果的Future，取消该Future会取消所有未完成的请求
+     */
+    public CompletableFuture<ForestGroupResult> execute() {
+        GroupExecution execution = new GroupExecution(
+                new ArrayList<>(calls), maxConcurrency, timeout, failFast);
+        execution.start();
+        return execution.future;
+    }
+
+
+    private static class GroupFuture extends CompletableFuture<ForestGroupResult> {
+
+        private volatile GroupExecution execution;
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean canceled = super.cancel(mayInterruptIfRunning);
+            GroupExecution e = execution;
+            if (canceled && e != null) {
+                e.finish(new CancellationException("[Forest] request group has been canceled"), false);
+            }
+            return canceled;
+        }
+    }
+
+    private static class GroupExecution {
+
+        private final List<Supplier<? extends CompletionStage<?>>> calls;
+
+        private final int size;
+
+        private final int maxConcurrency;
+
+        private final long timeout;
+
+        private final boolean failFast;
+
+        private final Object[] results;
+
+        private final Throwable[] errors;
+
+        private final CompletableFuture<?>[] futures;
+
+        private final GroupFuture future = new GroupFuture();
+
+        private final AtomicInteger nextIndex = new AtomicInteger(0);
+
+        private final AtomicInteger inflight = new AtomicInteger(0);
+
+        private final AtomicInteger completed = new AtomicInteger(0);
+
+        private final AtomicInteger wip = new AtomicInteger(0);
+
+        private final AtomicBoolean finished = new AtomicBoolean(false);
+
+        private volatile ScheduledFuture<?> deadline;
+
+        GroupExecution(List<Supplier<? extends CompletionStage<?>>> calls,
+                       int maxConcurrency, long timeout, boolean failFast) {
+            this.calls = calls;
+            this.size = calls.size();
+            this.maxConcurrency = maxConcurrency;
+            this.timeout = timeout;
+            this.failFast = failFast;
+            this.results = new Object[size];
+            this.errors = new Throwable[size];
+            this.futures = new CompletableFuture<?>[size];
+            this.future.execution = this;
+        }
+
+        void start() {
+            if (size == 0) {
+                future.complete(new ForestGroupResult(results, errors));
+                return;
+            }
+            if (timeout > 0) {
+                deadline = AsyncHttpExecutor.getScheduler().schedule(() -> finish(
+                        new TimeoutException("[Forest] request group did not complete within " + timeout + "ms"), true),
+                        timeout, TimeUnit.MILLISECONDS);
+            }
+            launch();
+        }
+
+        /**
+         * 在并发数允许的范围内启动后续请求
+         * <p>请求可能同步完成并在完成回调中再次调用本方法，用 {@code wip} 计数将递归展开为循环
+         */
+        private void launch() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            for (;;) {
+                while (!finished.get() && inflight.get() < maxConcurrency) {
+                    int index = nextIndex.getAndIncrement();
+                    if (index >= size) {
+                        break;
+                    }
+                    inflight.incrementAndGet();
+                    launchOne(index);
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        private void launchOne(int index) {
+            CompletableFuture<?> f;
+            try {
+                CompletionStage<?> stage = calls.get(index).get();
+                if (stage == null) {
+                    f = CompletableFuture.completedFuture(null);
+                } else {
+                    f = stage.toCompletableFuture();
+                }
+            } catch (Throwable th) {
+                CompletableFuture<Object> failed = new CompletableFuture<>();
+                failed.completeExceptionally(th);
+                f = failed;
+            }
+            futures[index] = f;
+            f.whenComplete((result, ex) -> onComplete(index, result, ex));
+        }
+
+        private void onComplete(int index, Object result, Throwable ex) {
+            if (finished.get()) {
+                return;
+            }
+            if (ex != null) {
+                errors[index] = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            } else {
+                results[index] = result;
+            }
+            inflight.decrementAndGet();
+            if (ex != null && failFast) {
+                finish(errors[index], true);
+                return;
+            }
+            if (completed.incrementAndGet() == size) {
+                finish(null, true);
+                return;
+            }
+            launch();
+        }
+
+        /**
+         * 结束请求组
+         *
+         * @param cause 导致提前结束的原因，正常完成时为 {@code null}
+         * @param completeFuture 是否需要完成请求组的Future
+         */
+        void finish(Throwable cause, boolean completeFuture) {
+            if (!finished.compareAndSet(false, true)) {
+                return;
+            }
+            ScheduledFuture<?> d = deadline;
+            if (d != null) {
+                d.cancel(false);
+            }
+            if (cause != null) {
+                // 取消所有未完成的请求，未完成和未开始的请求都记录为失败
+                for (int i = 0; i < size; i++) {
+                    CompletableFuture<?> f = futures[i];
+                    if (f == null || !f.isDone()) {
+                        if (errors[i] == null) {
+                            errors[i] = cause;
+                        }
+                        if (f != null) {
+                            f.cancel(true);
+                        }
+                    }
+                }
+            }
+            if (!completeFuture) {
+                return;
+            }
+            ForestGroupResult groupResult = new ForestGroupResult(results.clone(), errors.clone());
+            if (cause != null && failFast) {
+                future.completeExceptionally(new ForestRequestGroupException(
+                        "[Forest] request group failed: " + cause.getMessage(), groupResult, cause));
+            } else {
+                future.complete(groupResult);
+            }
+        }
+    }
+}
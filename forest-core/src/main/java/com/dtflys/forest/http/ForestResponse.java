@@ -196,7 +196,7 @@ public abstract class ForestResponse<T> {
      * @return {@code true}: 是重定向, {@code false}: 不是重定向
      */
     public boolean isRedirection() {
-        return getStatusCode() > HttpStatus.MULTIPLE_CHOICES && getStatusCode() <= HttpStatus.TEMPORARY_REDIRECT;
+        return getStatusCode() > HttpStatus.MULTIPLE_CHOICES && getStatusCode() <= HttpStatus.PERMANENT_REDIRECT;
     }
 
     /**
@@ -578,6 +578,15 @@ public abstract class ForestResponse<T> {
         return new ByteArrayInputStream(getByteArray());
     }
 
+    /**
+     * 丢弃尚未读取的响应内容
+     * <p>用于不关心响应内容的请求，使底层连接尽快释放回连接池；丢弃后不能再读取响应内容
+     *
+     * @since 1.5.19
+     */
+    public void discardContent() {
+    }
+
     /**
      * 根据响应头名称获取单个请求响应头
      *
@@ -358,6 +358,20 @@ public class ForestURL {
      * @param url 被合并的一个URL
      * @return 合并完的新URL
      */
+    /**
+     * 复制URL对象
+     *
+     * @return 新的 {@link ForestURL} 对象实例
+     * @since 1.5.19
+     */
+    public ForestURL copy() {
+        ForestURL url = new ForestURL(scheme, userInfo, host, port, path);
+        url.basePath = basePath;
+        url.ref = ref;
+        url.originalUrl = originalUrl;
+        return url;
+    }
+
     public ForestURL mergeURLWith(ForestURL url) {
         String newSchema = this.scheme == null ? url.scheme : this.scheme;
         String newUserInfo = this.userInfo == null ? url.userInfo : this.userInfo;
@@ -70,6 +70,8 @@ public class HttpStatus {
 
     public static final int TEMPORARY_REDIRECT = 307;
 
+    public static final int PERMANENT_REDIRECT = 308;
+
     // --- 4xx Client Error ---
 
     public static final int BAD_REQUEST = 400;
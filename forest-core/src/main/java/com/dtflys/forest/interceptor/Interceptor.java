@@ -1,5 +1,6 @@
 package com.dtflys.forest.interceptor;
 
+import com.dtflys.forest.callback.OnCancel;
 import com.dtflys.forest.callback.OnError;
 import com.dtflys.forest.callback.OnLoadCookie;
 import com.dtflys.forest.callback.OnProgress;
@@ -8,6 +9,8 @@ import com.dtflys.forest.callback.OnRetry;
 import com.dtflys.forest.callback.OnSaveCookie;
 import com.dtflys.forest.callback.OnSuccess;
 import com.dtflys.forest.callback.RetryWhen;
+import com.dtflys.forest.circuitbreaker.CircuitBreakerState;
+import com.dtflys.forest.circuitbreaker.ForestCircuitBreaker;
 import com.dtflys.forest.exceptions.ForestRuntimeException;
 import com.dtflys.forest.http.ForestCookies;
 import com.dtflys.forest.http.ForestRequest;
@@ -44,7 +47,7 @@ import com.dtflys.forest.utils.ForestProgress;
  * @author gongjun[dt_flys@hotmail.com]
  * @since 2016-06-26
  */
-public interface Interceptor<T> extends OnSuccess<T>, OnError, OnProgress, OnLoadCookie, OnSaveCookie, OnRetry, OnRedirection {
+public interface Interceptor<T> extends OnSuccess<T>, OnError, OnProgress, OnLoadCookie, OnSaveCookie, OnRetry, OnRedirection, OnCancel {
 
 
     /**
@@ -70,6 +73,19 @@ public interface Interceptor<T> extends OnSuccess<T>, OnError, OnProgress, OnLoa
         return true;
     }
 
+    /**
+     * 默认回调函数: 请求执行前的调用链被中止时调用该方法
+     * <p>排在后面的拦截器在 {@code beforeExecute} 中返回 {@code false} 或抛出异常时，
+     * 只对已经执行过 {@code beforeExecute} 并返回 {@code true} 的拦截器调用，用于释放在 {@code beforeExecute} 中获取的资源；
+     * 存储转发请求在 {@code beforeExecute} 之后写入本地日志、不在本次调用中发送时，也会调用该方法
+     * <p>默认为什么都不做
+     *
+     * @param request Forest请求对象
+     * @since 1.5.19
+     */
+    default void onBeforeExecuteAborted(ForestRequest request) {
+    }
+
     /**
      * 默认回调函数: 请求完成后(成功/失败后) 调用该方法
      * <p>默认为什么都不做
@@ -116,6 +132,18 @@ public interface Interceptor<T> extends OnSuccess<T>, OnError, OnProgress, OnLoa
     default void onRetry(ForestRequest request, ForestResponse response) {
     }
 
+    /**
+     * 默认回调函数: 在请求被取消时执行
+     * <p>默认为什么都不做
+     *
+     * @param request Forest请求对象
+     * @param response Forest响应对象
+     * @since 1.5.19
+     */
+    @Override
+    default void onCancel(ForestRequest request, ForestResponse response) {
+    }
+
     /**
      * 默认文件上传或下载监听传输进度时调用该方法
      * <p>默认为什么都不做
@@ -160,6 +188,20 @@ public interface Interceptor<T> extends OnSuccess<T>, OnError, OnProgress, OnLoa
     default void onSaveCookie(ForestRequest request, ForestCookies cookies) {
     }
 
+    /**
+     * 默认回调函数: 在请求所使用的熔断器状态发生变化时调用该方法
+     * <p>默认为什么都不做
+     *
+     * @param request 触发状态变化的Forest请求对象
+     * @param circuitBreaker 熔断器
+     * @param from 变化前的状态
+     * @param to 变化后的状态
+     * @since 1.5.19
+     */
+    default void onCircuitBreakerStateTransition(ForestRequest request, ForestCircuitBreaker circuitBreaker,
+                                                 CircuitBreakerState from, CircuitBreakerState to) {
+    }
+
     /**
      * 获取请求在本拦截器中的 Attribute 属性
      *
@@ -181,6 +223,22 @@ public interface Interceptor<T> extends OnSuccess<T>, OnError, OnProgress, OnLoa
         request.addInterceptorAttribute(this.getClass(), name, value);
     }
 
+    /**
+     * 删除请求在本拦截器中的 Attribute 属性
+     *
+     * @param request Forest请求对象
+     * @param name 属性名称
+     * @return 被删除的属性值
+     * @since 1.5.19
+     */
+    default Object removeAttribute(ForestRequest request, String name) {
+        InterceptorAttributes attributes = getAttributes(request);
+        if (attributes == null) {
+            return null;
+        }
+        return attributes.removeAttribute(name);
+    }
+
     default Object getAttribute(ForestRequest request, String name) {
         return request.getInterceptorAttribute(this.getClass(), name);
     }
@@ -62,6 +62,10 @@ public class InterceptorAttributes {
         attributes.put(attributeName, attributeValue);
     }
 
+    public Object removeAttribute(String attributeName) {
+        return attributes.remove(attributeName);
+    }
+
     public Class getInterceptorClass() {
         return interceptorClass;
     }
@@ -1,6 +1,8 @@
 package com.dtflys.forest.interceptor;
 
 import com.dtflys.forest.callback.RetryWhen;
+import com.dtflys.forest.circuitbreaker.CircuitBreakerState;
+import com.dtflys.forest.circuitbreaker.ForestCircuitBreaker;
 import com.dtflys.forest.exceptions.ForestRuntimeException;
 import com.dtflys.forest.http.ForestCookies;
 import com.dtflys.forest.http.ForestRequest;
@@ -10,7 +12,8 @@ import com.dtflys.forest.utils.ForestProgress;
 
 import java.lang.reflect.Method;
 import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * 拦截器调用链
@@ -20,9 +23,13 @@ import java.util.LinkedList;
  */
 public class InterceptorChain implements Interceptor {
 
-    private LinkedList<Interceptor> interceptors = new LinkedList<>();
+    /**
+     * 拦截器列表
+     * <p>拦截器在请求初始化时添加，之后只会被遍历，使用写时复制列表使遍历无需加锁
+     */
+    private final List<Interceptor> interceptors = new CopyOnWriteArrayList<>();
 
-    public synchronized InterceptorChain addInterceptor(Interceptor interceptor) {
+    public InterceptorChain addInterceptor(Interceptor interceptor) {
         interceptors.add(interceptor);
         return this;
     }
@@ -44,16 +51,43 @@ public class InterceptorChain implements Interceptor {
     @Override
     public boolean beforeExecute(ForestRequest request) {
         Iterator<Interceptor> iter = interceptors.iterator();
-        for ( ; iter.hasNext(); ) {
-            Interceptor item = iter.next();
-            boolean result = item.beforeExecute(request);
-            if (!result) {
-                return false;
+        int passed = 0;
+        try {
+            for ( ; iter.hasNext(); ) {
+                Interceptor item = iter.next();
+                boolean result = item.beforeExecute(request);
+                if (!result) {
+                    onBeforeExecuteAborted(request, passed);
+                    return false;
+                }
+                passed++;
             }
+        } catch (RuntimeException e) {
+            onBeforeExecuteAborted(request, passed);
+            throw e;
         }
         return true;
     }
 
+    @Override
+    public void onBeforeExecuteAborted(ForestRequest request) {
+        onBeforeExecuteAborted(request, interceptors.size());
+    }
+
+    /**
+     * 通知前 {@code passed} 个已经执行过 beforeExecute 的拦截器，请求执行前的调用链已被中止
+     *
+     * @param request Forest请求对象
+     * @param passed 已经执行过 beforeExecute 并返回 {@code true} 的拦截器数量
+     */
+    private void onBeforeExecuteAborted(ForestRequest request, int passed) {
+        Iterator<Interceptor> iter = interceptors.iterator();
+        for (int i = 0; i < passed && iter.hasNext(); i++) {
+            Interceptor item = iter.next();
+            item.onBeforeExecuteAborted(request);
+        }
+    }
+
     @Override
     public void onSuccess(Object data, ForestRequest request, ForestResponse response) {
         Iterator<Interceptor> iter = interceptors.iterator();
@@ -120,6 +154,25 @@ public class InterceptorChain implements Interceptor {
         }
     }
 
+    @Override
+    public void onCancel(ForestRequest request, ForestResponse response) {
+        Iterator<Interceptor> iter = interceptors.iterator();
+        for (; iter.hasNext(); ) {
+            Interceptor item = iter.next();
+            item.onCancel(request, response);
+        }
+    }
+
+    @Override
+    public void onCircuitBreakerStateTransition(ForestRequest request, ForestCircuitBreaker circuitBreaker,
+                                                CircuitBreakerState from, CircuitBreakerState to) {
+        Iterator<Interceptor> iter = interceptors.iterator();
+        for (; iter.hasNext(); ) {
+            Interceptor item = iter.next();
+            item.onCircuitBreakerStateTransition(request, circuitBreaker, from, to);
+        }
+    }
+
     @Override
     public void afterExecute(ForestRequest request, ForestResponse response) {
         Iterator<Interceptor> iter = interceptors.iterator();
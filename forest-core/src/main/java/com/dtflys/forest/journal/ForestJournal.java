@@ -0,0 +1,484 @@
+package com.dtflys.forest.journal;
+
+import com.dtflys.forest.config.ForestConfiguration;
+import com.dtflys.forest.exceptions.ForestRuntimeException;
+import com.dtflys.forest.http.ForestRequest;
+import com.dtflys.forest.http.ForestResponse;
+import com.dtflys.forest.utils.TypeReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * 基于内存映射文件的存储转发日志
+ * <p>请求记录被追加写入本地磁盘上的内存映射段文件，写入只是一次内存拷贝，不会阻塞在网络上；
+ * 后台发送线程按批次读取记录并发送，失败时按指数退避重试，每批发送完成后将读取进度写入检查点文件，
+ * 进程重启后会从检查点继续发送，因此每条记录至少会被成功发送一次
+ * <p>目录结构:
+ * <ul>
+ *     <li>{@code segment-<序号>.log}: 固定大小的段文件，每条记录的格式为 [长度][CRC32][内容]</li>
+ *     <li>{@code checkpoint}: 已发送完成的位置</li>
+ * </ul>
+ * <p>记录写入的是操作系统的页缓存，进程崩溃不会丢失数据，但掉电时最近写入的记录可能丢失；
+ * 同一个日志目录同时只能被一个 {@link ForestJournal} 使用
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class ForestJournal implements Closeable {
+
+    private final static Logger log = LoggerFactory.getLogger(ForestJournal.class);
+
+    private final static int RECORD_HEADER_SIZE = 8;
+
+    /**
+     * 段结束标记，表示该段剩余空间不足，后续记录在下一个段中
+     */
+    private final static int SEGMENT_END = -1;
+
+    private final static String SEGMENT_PREFIX = "segment-";
+
+    private final static String SEGMENT_SUFFIX = ".log";
+
+    private final static String CHECKPOINT_FILE = "checkpoint";
+
+    private final static long IDLE_PARK_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final static TypeReference<ForestResponse<String>> RESPONSE_TYPE =
+            new TypeReference<ForestResponse<String>>() {};
+
+    private final ForestConfiguration configuration;
+
+    private final String name;
+
+    private final File directory;
+
+    private final int segmentSize;
+
+    private final int batchSize;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+
+    private final MappedByteBuffer checkpointBuffer;
+
+    /**
+     * 当前写入的段，由 {@code appendLock} 保护
+     */
+    private MappedByteBuffer writeBuffer;
+
+    private long writeSegment;
+
+    /**
+     * 已写入的位置（全局偏移量 = 段序号 * 段大小 + 段内偏移量），写入完成后才发布
+     */
+    private volatile long writePosition;
+
+    /**
+     * 已发送完成并写入检查点的位置
+     */
+    private volatile long readPosition;
+
+    private final Thread sender;
+
+    private volatile boolean closed = false;
+
+    private volatile long initialRetryInterval = 500;
+
+    private volatile long maxRetryInterval = 30000;
+
+    private final AtomicLong appendedCount = new AtomicLong();
+
+    private final AtomicLong deliveredCount = new AtomicLong();
+
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private final AtomicLong retriedCount = new AtomicLong();
+
+    public ForestJournal(ForestConfiguration configuration, String name) {
+        this(configuration, name, new File(configuration.getJournalDir(), name),
+                configuration.getJournalSegmentSize(), configuration.getJournalBatchSize());
+    }
+
+    public ForestJournal(ForestConfiguration configuration, String name, File directory, int segmentSize, int batchSize) {
+        if (segmentSize <= RECORD_HEADER_SIZE * 2) {
+            throw new ForestRuntimeException("[Forest] journal segment size is too small: " + segmentSize);
+        }
+        this.configuration = configuration;
+        this.name = name;
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.batchSize = Math.max(batchSize, 1);
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new ForestRuntimeException("[Forest] can not create journal directory: " + directory);
+        }
+        this.checkpointBuffer = map(new File(directory, CHECKPOINT_FILE), 8);
+        recover();
+        this.sender = new Thread(this::sendLoop, "forest-journal-" + name);
+        this.sender.setDaemon(true);
+        this.sender.start();
+    }
+
+    /**
+     * 根据检查点和段文件恢复读写位置
+     */
+    private void recover() {
+        long checkpoint = checkpointBuffer.getLong(0);
+        long firstSegment = -1;
+        long lastSegment = -1;
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                long index = parseSegmentIndex(file.getName());
+                if (index < 0) {
+                    continue;
+                }
+                firstSegment = firstSegment < 0 ? index : Math.min(firstSegment, index);
+                lastSegment = Math.max(lastSegment, index);
+            }
+        }
+        if (lastSegment < 0) {
+            lastSegment = checkpoint / segmentSize;
+            firstSegment = lastSegment;
+        }
+        writeSegment = lastSegment;
+        writeBuffer = map(segmentFile(writeSegment), segmentSize);
+        writePosition = writeSegment * segmentSize + scanSegmentEnd(writeBuffer);
+        // 检查点所在的段已不存在时，从最早的段开始发送
+        long minPosition = firstSegment * segmentSize;
+        readPosition = Math.min(Math.max(checkpoint, minPosition), writePosition);
+    }
+
+    /**
+     * 扫描段中最后一条完整记录的结束位置，未写完或校验失败的记录会被丢弃
+     */
+    private int scanSegmentEnd(ByteBuffer buffer) {
+        int offset = 0;
+        while (offset + RECORD_HEADER_SIZE <= segmentSize) {
+            int length = buffer.getInt(offset);
+            if (length == SEGMENT_END) {
+                return segmentSize;
+            }
+            if (length <= 0 || offset + RECORD_HEADER_SIZE + length > segmentSize) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            ByteBuffer dup = buffer.duplicate();
+            dup.position(offset + RECORD_HEADER_SIZE);
+            dup.get(payload);
+            if (crc(payload) != buffer.getInt(offset + 4)) {
+                break;
+            }
+            offset += RECORD_HEADER_SIZE + length;
+        }
+        return offset;
+    }
+
+    /**
+     * 追加一条请求记录
+     *
+     * @param record 请求记录
+     */
+    public void append(ForestJournalRecord record) {
+        append(record.toBytes());
+    }
+
+    /**
+     * 追加一条记录
+     * <p>只是一次内存映射文件的写入，写入完成后唤醒后台发送线程
+     *
+     * @param payload 记录内容
+     */
+    public void append(byte[] payload) {
+        int length = payload.length;
+        if (length == 0 || RECORD_HEADER_SIZE + length + 4 > segmentSize) {
+            throw new ForestRuntimeException("[Forest] journal record size " + length
+                    + " does not fit in segment size " + segmentSize);
+        }
+        int checksum = crc(payload);
+        appendLock.lock();
+        try {
+            if (closed) {
+                throw new ForestRuntimeException("[Forest] journal '" + name + "' is closed");
+            }
+            int offset = (int) (writePosition - writeSegment * segmentSize);
+            if (offset + RECORD_HEADER_SIZE + length + 4 > segmentSize) {
+                if (offset + 4 <= segmentSize) {
+                    writeBuffer.putInt(offset, SEGMENT_END);
+                }
+                writeSegment++;
+                writeBuffer = map(segmentFile(writeSegment), segmentSize);
+                offset = 0;
+            }
+            // 先写结束标记和内容，最后写长度，保证崩溃后不会读到写了一半的记录
+            writeBuffer.putInt(offset + RECORD_HEADER_SIZE + length, 0);
+            writeBuffer.putInt(offset + 4, checksum);
+            ByteBuffer dup = writeBuffer.duplicate();
+            dup.position(offset + RECORD_HEADER_SIZE);
+            dup.put(payload);
+            writeBuffer.putInt(offset, length);
+            writePosition = writeSegment * segmentSize + offset + RECORD_HEADER_SIZE + length;
+        } finally {
+            appendLock.unlock();
+        }
+        appendedCount.incrementAndGet();
+        LockSupport.unpark(sender);
+    }
+
+    private void sendLoop() {
+        MappedByteBuffer readBuffer = null;
+        long readSegment = -1;
+        while (!closed) {
+            try {
+                long position = readPosition;
+                List<ForestJournalRecord> batch = new ArrayList<>(batchSize);
+                while (batch.size() < batchSize && position < writePosition) {
+                    long segment = position / segmentSize;
+                    int offset = (int) (position - segment * segmentSize);
+                    if (segment != readSegment) {
+                        readBuffer = map(segmentFile(segment), segmentSize);
+                        readSegment = segment;
+                    }
+                    int length = offset + RECORD_HEADER_SIZE > segmentSize ? SEGMENT_END : readBuffer.getInt(offset);
+                    if (length == SEGMENT_END) {
+                        position = (segment + 1) * segmentSize;
+                        continue;
+                    }
+                    byte[] payload = new byte[length];
+                    ByteBuffer dup = readBuffer.duplicate();
+                    dup.position(offset + RECORD_HEADER_SIZE);
+                    dup.get(payload);
+                    position += RECORD_HEADER_SIZE + length;
+                    try {
+                        batch.add(ForestJournalRecord.fromBytes(payload));
+                    } catch (Throwable th) {
+                        droppedCount.incrementAndGet();
+                        log.warn("[Forest] dropped unreadable record in journal '{}'", name, th);
+                    }
+                }
+                if (position == readPosition) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                    continue;
+                }
+                if (!deliver(batch)) {
+                    break;
+                }
+                checkpoint(position);
+            } catch (Throwable th) {
+                log.error("[Forest] journal '{}' sender error", name, th);
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    /**
+     * 并发发送一批记录，失败的记录按指数退避重试，直到全部发送完成或日志被关闭
+     *
+     * @return {@code true}: 全部完成, {@code false}: 日志已关闭
+     */
+    private boolean deliver(List<ForestJournalRecord> batch) {
+        List<ForestJournalRecord> pending = batch;
+        long interval = initialRetryInterval;
+        while (!pending.isEmpty()) {
+            List<CompletableFuture<Boolean>> futures = new ArrayList<>(pending.size());
+            for (ForestJournalRecord record : pending) {
+                futures.add(send(record));
+            }
+            List<ForestJournalRecord> failed = new ArrayList<>();
+            for (int i = 0; i < pending.size(); i++) {
+                if (!futures.get(i).join()) {
+                    failed.add(pending.get(i));
+                }
+            }
+            if (failed.isEmpty()) {
+                return true;
+            }
+            if (closed) {
+                return false;
+            }
+            retriedCount.addAndGet(failed.size());
+            LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(interval));
+            if (closed) {
+                return false;
+            }
+            interval = Math.min(interval * 2, maxRetryInterval);
+            pending = failed;
+        }
+        return true;
+    }
+
+    /**
+     * 发送一条记录
+     *
+     * @return 完成结果 {@code true}: 已完成（成功或不可重试而被丢弃）, {@code false}: 需要重试
+     */
+    private CompletableFuture<Boolean> send(ForestJournalRecord record) {
+        ForestRequest<?> request;
+        try {
+            request = record.toRequest(configuration);
+        } catch (Throwable th) {
+            droppedCount.incrementAndGet();
+            log.warn("[Forest] dropped invalid record of '{}' in journal '{}'", record.getMethodId(), name, th);
+            return CompletableFuture.completedFuture(true);
+        }
+        return request.executeAsync(RESPONSE_TYPE).handle((response, ex) -> {
+            if (ex == null && response != null && response.isSuccess()) {
+                deliveredCount.incrementAndGet();
+                return true;
+            }
+            Integer status = response == null ? null : response.getStatusCode();
+            if (status != null && status >= 400 && status < 500 && status != 408 && status != 429) {
+                droppedCount.incrementAndGet();
+                log.warn("[Forest] dropped record of '{}' in journal '{}': {} {} responded {}",
+                        record.getMethodId(), name, record.getType(), record.getUrl(), status);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private void checkpoint(long position) {
+        long previousSegment = readPosition / segmentSize;
+        checkpointBuffer.putLong(0, position);
+        checkpointBuffer.force();
+        readPosition = position;
+        long currentSegment = position / segmentSize;
+        for (long segment = previousSegment; segment < currentSegment; segment++) {
+            File file = segmentFile(segment);
+            if (file.exists() && !file.delete()) {
+                log.warn("[Forest] can not delete journal segment: {}", file);
+            }
+        }
+    }
+
+    /**
+     * 关闭日志，停止后台发送线程
+     * <p>未发送完成的记录保留在磁盘上，下次打开同一个日志时会继续发送
+     */
+    @Override
+    public void close() {
+        appendLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            writeBuffer.force();
+        } finally {
+            appendLock.unlock();
+        }
+        LockSupport.unpark(sender);
+        try {
+            sender.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private File segmentFile(long index) {
+        return new File(directory, String.format("%s%020d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+    }
+
+    private static long parseSegmentIndex(String fileName) {
+        if (!fileName.startsWith(SEGMENT_PREFIX) || !fileName.endsWith(SEGMENT_SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(fileName.substring(SEGMENT_PREFIX.length(), fileName.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static MappedByteBuffer map(File file, int size) {
+        try (FileChannel channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } catch (IOException e) {
+            throw new ForestRuntimeException("[Forest] can not map journal file: " + file, e);
+        }
+    }
+
+    private static int crc(byte[] payload) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(payload, 0, payload.length);
+        return (int) crc32.getValue();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * 获取尚未发送完成的字节数
+     *
+     * @return 字节数
+     */
+    public long getPendingBytes() {
+        return writePosition - readPosition;
+    }
+
+    public long getAppendedCount() {
+        return appendedCount.get();
+    }
+
+    public long getDeliveredCount() {
+        return deliveredCount.get();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public long getRetriedCount() {
+        return retriedCount.get();
+    }
+
+    public long getInitialRetryInterval() {
+        return initialRetryInterval;
+    }
+
+    /**
+     * 设置发送失败后第一次重试的等待时间，之后每次重试等待时间翻倍
+     *
+     * @param initialRetryInterval 等待时间（毫秒）
+     * @return {@link ForestJournal}实例
+     */
+    public ForestJournal setInitialRetryInterval(long initialRetryInterval) {
+        this.initialRetryInterval = initialRetryInterval;
+        return this;
+    }
+
+    public long getMaxRetryInterval() {
+        return maxRetryInterval;
+    }
+
+    /**
+     * 设置重试的最长等待时间
+     *
+     * @param maxRetryInterval 最长等待时间（毫秒）
+     * @return {@link ForestJournal}实例
+     */
+    public ForestJournal setMaxRetryInterval(long maxRetryInterval) {
+        this.maxRetryInterval = maxRetryInterval;
+        return this;
+    }
+}
@@ -0,0 +1,545 @@
+package com.dtflys.forest.journal;
+
+import com.dtflys.forest.backend.ContentType;
+import com.dtflys.forest.backend.HttpBackend;
+import com.dtflys.forest.config.ForestConfiguration;
+import com.dtflys.forest.converter.ForestConverter;
+import com.dtflys.forest.converter.ForestEncoder;
+import com.dtflys.forest.converter.json.ForestJsonConverter;
+import com.dtflys.forest.exceptions.ForestRuntimeException;
+import com.dtflys.forest.http.ForestHeader;
+import com.dtflys.forest.http.ForestProxy;
+import com.dtflys.forest.http.ForestQueryParameter;
+import com.dtflys.forest.http.ForestRequest;
+import com.dtflys.forest.http.ForestRequestType;
+import com.dtflys.forest.mapping.MappingTemplate;
+import com.dtflys.forest.retryer.ForestRetryer;
+import com.dtflys.forest.ssl.SSLKeyStore;
+import com.dtflys.forest.utils.ForestDataType;
+import com.dtflys.forest.utils.RequestNameValue;
+import com.dtflys.forest.utils.StringUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 日志中的一条请求记录
+ * <p>记录的是已渲染好、并已执行过拦截器 beforeExecute 的请求: 请求方法、URL、Query参数、请求头（包括
+ * {@code @BasicAuth}、{@code @OAuth2} 等生命周期和拦截器添加的请求头）和编码后的请求体，
+ * 以及超时、重试、后端、SSL、代理和解码器等请求配置，重放时不再需要原来的方法参数，也不会再次执行方法上的拦截器
+ * <p>重试器和解码器按类名记录，SSL KeyStore按ID记录，重放时需要在当前配置中能找到对应的类和KeyStore
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class ForestJournalRecord {
+
+    private final static byte VERSION = 2;
+
+    /**
+     * 未记录请求配置的旧版本，重放时使用全局配置
+     */
+    private final static byte VERSION_WITHOUT_SETTINGS = 1;
+
+    /**
+     * 发起请求的接口方法标识
+     */
+    private final String methodId;
+
+    /**
+     * 写入日志的时间戳（毫秒）
+     */
+    private final long createTime;
+
+    private final String type;
+
+    private final String url;
+
+    private final String contentType;
+
+    private final String charset;
+
+    private final List<Query> queries;
+
+    private final List<String[]> headers;
+
+    private final byte[] body;
+
+    /**
+     * 请求配置，旧版本的记录中为 {@code null}
+     */
+    private final Settings settings;
+
+    private ForestJournalRecord(String methodId, long createTime, String type, String url,
+                                String contentType, String charset,
+                                List<Query> queries, List<String[]> headers, byte[] body, Settings settings) {
+        this.methodId = methodId;
+        this.createTime = createTime;
+        this.type = type;
+        this.url = url;
+        this.contentType = contentType;
+        this.charset = charset;
+        this.queries = queries;
+        this.headers = headers;
+        this.body = body;
+        this.settings = settings;
+    }
+
+    /**
+     * 将Forest请求渲染为日志记录
+     * <p>应在请求执行过拦截器的 beforeExecute 之后调用，拦截器对请求的修改才会被记录
+     *
+     * @param methodId 发起请求的接口方法标识
+     * @param request Forest请求对象
+     * @return 日志记录
+     */
+    public static ForestJournalRecord from(String methodId, ForestRequest<?> request) {
+        if (!request.getMultiparts().isEmpty()) {
+            throw new ForestRuntimeException("[Forest] multipart requests can not be stored in journal");
+        }
+        ForestJsonConverter jsonConverter = request.getConfiguration().getJsonConverter();
+        List<Query> queries = new ArrayList<>();
+        for (ForestQueryParameter parameter : request.getQueryValues()) {
+            queries.add(new Query(
+                    parameter.getName(),
+                    MappingTemplate.getParameterValue(jsonConverter, parameter.getValue()),
+                    parameter.isUrlencoded(),
+                    parameter.getCharset()));
+        }
+        List<String[]> headers = new ArrayList<>();
+        for (RequestNameValue nameValue : request.getHeaderNameValueList()) {
+            if (ForestHeader.CONTENT_TYPE.equalsIgnoreCase(nameValue.getName())) {
+                continue;
+            }
+            headers.add(new String[] {
+                    nameValue.getName(),
+                    MappingTemplate.getParameterValue(jsonConverter, nameValue.getValue())});
+        }
+        String contentType = request.getContentType();
+        Charset charset = resolveCharset(request, contentType);
+        ForestRequestType type = request.getType() == null ? ForestRequestType.GET : request.getType();
+        return new ForestJournalRecord(
+                methodId,
+                System.currentTimeMillis(),
+                type.getName(),
+                request.getUrl(),
+                contentType,
+                charset.name(),
+                queries,
+                headers,
+                encodeBody(request, type, contentType, charset),
+                Settings.from(request));
+    }
+
+    private static Charset resolveCharset(ForestRequest<?> request, String contentType) {
+        if (StringUtils.isNotEmpty(request.getCharset())) {
+            return Charset.forName(request.getCharset());
+        }
+        if (contentType != null) {
+            String[] typeGroup = contentType.split(";[ ]*charset=");
+            if (typeGroup.length > 1) {
+                return Charset.forName(typeGroup[1]);
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    /**
+     * 按与请求体构造器相同的规则编码请求体
+     */
+    private static byte[] encodeBody(ForestRequest<?> request, ForestRequestType type, String contentType, Charset charset) {
+        ForestEncoder encoder = request.getEncoder();
+        if (encoder != null) {
+            return encoder.encodeRequestBody(request, charset);
+        }
+        if (!type.isNeedBody() && request.getBody().isEmpty()) {
+            return null;
+        }
+        ForestDataType bodyType = request.bodyType();
+        if (bodyType == null || bodyType == ForestDataType.AUTO) {
+            String mimeType = contentType == null ? null : contentType.split(";[ ]*charset=")[0];
+            if (StringUtils.isEmpty(mimeType)) {
+                mimeType = ContentType.APPLICATION_X_WWW_FORM_URLENCODED;
+            }
+            bodyType = new ContentType(mimeType).bodyType();
+        }
+        ForestConfiguration configuration = request.getConfiguration();
+        ForestEncoder bodyEncoder = (ForestEncoder) configuration.getConverterMap().get(bodyType);
+        if (bodyEncoder == null) {
+            bodyEncoder = (ForestEncoder) configuration.getConverterMap().get(ForestDataType.TEXT);
+        }
+        return bodyEncoder.encodeRequestBody(request, charset);
+    }
+
+    /**
+     * 根据日志记录重新创建Forest请求
+     * <p>请求体以二进制形式原样发送
+     *
+     * @param configuration Forest配置对象
+     * @return Forest请求对象
+     */
+    public ForestRequest<?> toRequest(ForestConfiguration configuration) {
+        ForestRequest<?> request = configuration.request()
+                .setType(ForestRequestType.findType(type))
+                .setUrl(url)
+                .setCharset(charset);
+        for (Query query : queries) {
+            request.addQuery(query.name, query.value, query.urlencoded, query.charset);
+        }
+        for (String[] header : headers) {
+            request.addHeader(header[0], header[1]);
+        }
+        if (contentType != null) {
+            request.setContentType(contentType);
+        }
+        if (body != null) {
+            request.setBodyType(ForestDataType.BINARY);
+            request.addBody(body);
+        }
+        if (settings != null) {
+            settings.apply(configuration, request);
+        }
+        return request;
+    }
+
+    /**
+     * 序列化为字节数组
+     *
+     * @return 字节数组
+     */
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 + (body == null ? 0 : body.length));
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            writeString(out, methodId);
+            out.writeLong(createTime);
+            writeString(out, type);
+            writeString(out, url);
+            writeString(out, contentType);
+            writeString(out, charset);
+            out.writeInt(queries.size());
+            for (Query query : queries) {
+                writeString(out, query.name);
+                writeString(out, query.value);
+                out.writeBoolean(query.urlencoded);
+                writeString(out, query.charset);
+            }
+            out.writeInt(headers.size());
+            for (String[] header : headers) {
+                writeString(out, header[0]);
+                writeString(out, header[1]);
+            }
+            writeBytes(out, body);
+            settings.write(out);
+        } catch (IOException e) {
+            throw new ForestRuntimeException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * 从字节数组反序列化
+     *
+     * @param data 字节数组
+     * @return 日志记录
+     */
+    public static ForestJournalRecord fromBytes(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            byte version = in.readByte();
+            if (version != VERSION && version != VERSION_WITHOUT_SETTINGS) {
+                throw new ForestRuntimeException("[Forest] unsupported journal record version: " + version);
+            }
+            String methodId = readString(in);
+            long createTime = in.readLong();
+            String type = readString(in);
+            String url = readString(in);
+            String contentType = readString(in);
+            String charset = readString(in);
+            int queryCount = in.readInt();
+            List<Query> queries = new ArrayList<>(queryCount);
+            for (int i = 0; i < queryCount; i++) {
+                queries.add(new Query(readString(in), readString(in), in.readBoolean(), readString(in)));
+            }
+            int headerCount = in.readInt();
+            List<String[]> headers = new ArrayList<>(headerCount);
+            for (int i = 0; i < headerCount; i++) {
+                headers.add(new String[] {readString(in), readString(in)});
+            }
+            byte[] body = readBytes(in);
+            Settings settings = version == VERSION ? Settings.read(in) : null;
+            return new ForestJournalRecord(
+                    methodId, createTime, type, url, contentType, charset, queries, headers, body, settings);
+        } catch (IOException e) {
+            throw new ForestRuntimeException(e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        writeBytes(out, value == null ? null : value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(value.length);
+        out.write(value);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = readBytes(in);
+        return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    public String getMethodId() {
+        return methodId;
+    }
+
+    public long getCreateTime() {
+        return createTime;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * 请求配置
+     */
+    private static class Settings {
+
+        final int timeout;
+
+        /**
+         * 连接超时时间，未设置时为 -1
+         */
+        final int connectTimeout;
+
+        /**
+         * 读取超时时间，未设置时为 -1
+         */
+        final int readTimeout;
+
+        final boolean retryEnabled;
+
+        final int maxRetryCount;
+
+        final long maxRetryInterval;
+
+        final String retryerClass;
+
+        final String backend;
+
+        final String sslProtocol;
+
+        final String keyStoreId;
+
+        final String proxyHost;
+
+        final int proxyPort;
+
+        final String proxyUsername;
+
+        final String proxyPassword;
+
+        final List<String[]> proxyHeaders;
+
+        final String decoderClass;
+
+        Settings(int timeout, int connectTimeout, int readTimeout,
+                 boolean retryEnabled, int maxRetryCount, long maxRetryInterval, String retryerClass,
+                 String backend, String sslProtocol, String keyStoreId,
+                 String proxyHost, int proxyPort, String proxyUsername, String proxyPassword,
+                 List<String[]> proxyHeaders, String decoderClass) {
+            this.timeout = timeout;
+            this.connectTimeout = connectTimeout;
+            this.readTimeout = readTimeout;
+            this.retryEnabled = retryEnabled;
+            this.maxRetryCount = maxRetryCount;
+            this.maxRetryInterval = maxRetryInterval;
+            this.retryerClass = retryerClass;
+            this.backend = backend;
+            this.sslProtocol = sslProtocol;
+            this.keyStoreId = keyStoreId;
+            this.proxyHost = proxyHost;
+            this.proxyPort = proxyPort;
+            this.proxyUsername = proxyUsername;
+            this.proxyPassword = proxyPassword;
+            this.proxyHeaders = proxyHeaders;
+            this.decoderClass = decoderClass;
+        }
+
+        static Settings from(ForestRequest<?> request) {
+            ForestRetryer retryer = request.getRetryer();
+            HttpBackend backend = request.getBackend();
+            SSLKeyStore keyStore = request.getKeyStore();
+            ForestProxy proxy = request.getProxy();
+            List<String[]> proxyHeaders = new ArrayList<>();
+            if (proxy != null) {
+                for (Map.Entry<String, String> header : proxy.getHeaders().entrySet()) {
+                    proxyHeaders.add(new String[] {header.getKey(), header.getValue()});
+                }
+            }
+            ForestConverter decoder = request.getDecoder();
+            return new Settings(
+                    request.getTimeout(),
+                    request.getConnectTimeout() == null ? -1 : request.getConnectTimeout(),
+                    request.getReadTimeout() == null ? -1 : request.getReadTimeout(),
+                    request.isRetryEnabled(),
+                    request.getMaxRetryCount(),
+                    request.getMaxRetryInterval(),
+                    retryer == null ? null : retryer.getClass().getName(),
+                    backend == null ? null : backend.getName(),
+                    request.getSslProtocol(),
+                    keyStore == null ? null : keyStore.getId(),
+                    proxy == null ? null : proxy.getHost(),
+                    proxy == null ? -1 : proxy.getPort(),
+                    proxy == null ? null : proxy.getUsername(),
+                    proxy == null ? null : proxy.getPassword(),
+                    proxyHeaders,
+                    decoder == null ? null : decoder.getClass().getName());
+        }
+
+        @SuppressWarnings("unchecked")
+        void apply(ForestConfiguration configuration, ForestRequest<?> request) {
+            request.setTimeout(timeout);
+            if (connectTimeout >= 0) {
+                request.setConnectTimeout(connectTimeout);
+            }
+            if (readTimeout >= 0) {
+                request.setReadTimeout(readTimeout);
+            }
+            request.setRetryEnabled(retryEnabled);
+            request.setMaxRetryCount(maxRetryCount);
+            request.setMaxRetryInterval(maxRetryInterval);
+            if (retryerClass != null) {
+                request.setRetryer((Class<? extends ForestRetryer>) loadClass(retryerClass));
+            }
+            if (backend != null) {
+                request.setBackend(backend);
+            }
+            if (sslProtocol != null) {
+                request.setSslProtocol(sslProtocol);
+            }
+            if (keyStoreId != null) {
+                SSLKeyStore keyStore = configuration.getKeyStore(keyStoreId);
+                if (keyStore == null) {
+                    throw new ForestRuntimeException("[Forest] SSL key store '" + keyStoreId + "' is not found");
+                }
+                request.setKeyStore(keyStore);
+            }
+            if (proxyHost != null) {
+                ForestProxy proxy = new ForestProxy(proxyHost, proxyPort)
+                        .setUsername(proxyUsername)
+                        .setPassword(proxyPassword);
+                for (String[] header : proxyHeaders) {
+                    proxy.addHeader(header[0], header[1]);
+                }
+                request.setProxy(proxy);
+            }
+            if (decoderClass != null) {
+                request.setDecoder((ForestConverter) configuration.getForestObject(loadClass(decoderClass)));
+            }
+        }
+
+        private static Class<?> loadClass(String className) {
+            try {
+                return Class.forName(className, true, Thread.currentThread().getContextClassLoader());
+            } catch (ClassNotFoundException e) {
+                throw new ForestRuntimeException(e);
+            }
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeInt(timeout);
+            out.writeInt(connectTimeout);
+            out.writeInt(readTimeout);
+            out.writeBoolean(retryEnabled);
+            out.writeInt(maxRetryCount);
+            out.writeLong(maxRetryInterval);
+            writeString(out, retryerClass);
+            writeString(out, backend);
+            writeString(out, sslProtocol);
+            writeString(out, keyStoreId);
+            writeString(out, proxyHost);
+            out.writeInt(proxyPort);
+            writeString(out, proxyUsername);
+            writeString(out, proxyPassword);
+            out.writeInt(proxyHeaders.size());
+            for (String[] header : proxyHeaders) {
+                writeString(out, header[0]);
+                writeString(out, header[1]);
+            }
+            writeString(out, decoderClass);
+        }
+
+        static Settings read(DataInputStream in) throws IOException {
+            int timeout = in.readInt();
+            int connectTimeout = in.readInt();
+            int readTimeout = in.readInt();
+            boolean retryEnabled = in.readBoolean();
+            int maxRetryCount = in.readInt();
+            long maxRetryInterval = in.readLong();
+            String retryerClass = readString(in);
+            String backend = readString(in);
+            String sslProtocol = readString(in);
+            String keyStoreId = readString(in);
+            String proxyHost = readString(in);
+            int proxyPort = in.readInt();
+            String proxyUsername = readString(in);
+            String proxyPassword = readString(in);
+            int proxyHeaderCount = in.readInt();
+            List<String[]> proxyHeaders = new ArrayList<>(proxyHeaderCount);
+            for (int i = 0; i < proxyHeaderCount; i++) {
+                proxyHeaders.add(new String[] {readString(in), readString(in)});
+            }
+            String decoderClass = readString(in);
+            return new Settings(timeout, connectTimeout, readTimeout,
+                    retryEnabled, maxRetryCount, maxRetryInterval, retryerClass,
+                    backend, sslProtocol, keyStoreId,
+                    proxyHost, proxyPort, proxyUsername, proxyPassword,
+                    proxyHeaders, decoderClass);
+        }
+    }
+
+    private static class Query {
+
+        final String name;
+
+        final String value;
+
+        final boolean urlencoded;
+
+        final String charset;
+
+        Query(String name, String value, boolean urlencoded, String charset) {
+            this.name = name;
+            this.value = value;
+            this.urlencoded = urlencoded;
+            this.charset = charset;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.dtflys.forest.lifecycles.authorization;
+
+import com.dtflys.forest.exceptions.ForestRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 基于本地文件的 OAuth2 Token 存储
+ * <p>每个Token占一行，以制表符分隔: 缓存ID、客户端ID、访问Token、刷新Token、Token类型、过期时间戳（毫秒）；
+ * 每次保存时将全部Token写入临时文件后替换原文件，文件中包含Token明文，应限制其访问权限
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class OAuth2FileTokenStore implements OAuth2TokenStore {
+
+    private final static Logger log = LoggerFactory.getLogger(OAuth2FileTokenStore.class);
+
+    private final File file;
+
+    private final Map<String, OAuth2LifeCycle.TokenCache> tokens = new LinkedHashMap<>();
+
+    public OAuth2FileTokenStore(File file) {
+        this.file = file;
+        if (file.exists()) {
+            loadFromFile();
+        }
+    }
+
+    @Override
+    public synchronized OAuth2LifeCycle.TokenCache load(String cacheId) {
+        return tokens.get(cacheId);
+    }
+
+    @Override
+    public synchronized void save(String cacheId, OAuth2LifeCycle.TokenCache tokenCache) {
+        tokens.put(cacheId, tokenCache);
+        writeToFile();
+    }
+
+    @Override
+    public synchronized void remove(String cacheId) {
+        if (tokens.remove(cacheId) != null) {
+            writeToFile();
+        }
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    private void loadFromFile() {
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                String[] fields = line.split("\t", -1);
+                if (fields.length != 6) {
+                    log.warn("[Forest] dropped invalid line in OAuth2 token file {}", file);
+                    continue;
+                }
+                LocalDateTime expiresAt;
+                try {
+                    expiresAt = LocalDateTime.ofInstant(
+                            Instant.ofEpochMilli(Long.parseLong(fields[5])), ZoneId.systemDefault());
+                } catch (NumberFormatException e) {
+                    log.warn("[Forest] dropped invalid line in OAuth2 token file {}", file);
+                    continue;
+                }
+                OAuth2LifeCycle.TokenCache tokenCache = new OAuth2LifeCycle.TokenCache(
+                        emptyToNull(fields[1]), fields[2], emptyToNull(fields[3]), emptyToNull(fields[4]), expiresAt);
+                if (tokenCache.isNoExpires()) {
+                    tokens.put(fields[0], tokenCache);
+                }
+            }
+        } catch (IOException e) {
+            throw new ForestRuntimeException(e);
+        }
+    }
+
+    private void writeToFile() {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        File temp = new File(file.getPath() + ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(temp.toPath(), StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, OAuth2LifeCycle.TokenCache> entry : tokens.entrySet()) {
+                    OAuth2LifeCycle.TokenCache tokenCache = entry.getValue();
+                    long expiresAt = tokenCache.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                    writer.write(entry.getKey() + '\t'
+                            + nullToEmpty(tokenCache.getClientId()) + '\t'
+                            + nullToEmpty(tokenCache.getAccessToken()) + '\t'
+                            + nullToEmpty(tokenCache.getRefreshToken()) + '\t'
+                            + nullToEmpty(tokenCache.getTokenType()) + '\t'
+                            + expiresAt);
+                    writer.newLine();
+                }
+            }
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new ForestRuntimeException(e);
+        }
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+}
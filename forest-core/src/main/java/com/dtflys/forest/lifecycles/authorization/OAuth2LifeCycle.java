@@ -11,30 +11,58 @@ import com.dtflys.forest.reflection.ForestMethod;
 import com.dtflys.forest.utils.ForestDataType;
 import com.dtflys.forest.utils.StringUtils;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import javax.annotation.Nonnull;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * OAuth2 注解的生命周期.
+ * <p>每个缓存ID的Token独立加锁，同一缓存ID同时只有一个请求去获取Token，不同缓存ID之间互不阻塞；
+ * 存在未过期的Token时请求不会等待，Token即将过期时在后台刷新
  *
  * @author HouKunLin
  * @since 1.5.0-BETA9
  */
 public class OAuth2LifeCycle implements MethodAnnotationLifeCycle<OAuth2, Object> {
-    private final byte[] lock = new byte[0];
+
+    private final static Logger log = LoggerFactory.getLogger(OAuth2LifeCycle.class);
+
+    /**
+     * 后台刷新失败后，再次自动刷新前等待的秒数
+     */
+    private final static long RETRY_REFRESH_SECONDS = 30;
+
+    /**
+     * 自动刷新Token的定时器，只负责按时将刷新任务提交给异步请求执行器
+     */
+    private static volatile ScheduledExecutorService refreshScheduler;
+
     /**
      * Token 缓存
      */
-    private final Map<String, TokenCache> cache = new LinkedHashMap<>();
+    private final Map<String, TokenHolder> cache = new ConcurrentHashMap<>();
     private OAuth2Client oAuth2Client;
+    private ForestConfiguration configuration;
 
     @Override
     public void onMethodInitialized(ForestMethod method, OAuth2 annotation) {
-        oAuth2Client = method.getConfiguration().createInstance(OAuth2Client.class);
+        configuration = method.getConfiguration();
+        oAuth2Client = configuration.createInstance(OAuth2Client.class);
     }
 
     @Override
@@ -93,137 +121,235 @@ public class OAuth2LifeCycle implements MethodAnnotationLifeCycle<OAuth2, Object
      */
     private TokenCache getTokenCache(ForestRequest request) {
         String cacheId = getCacheId(request);
-        TokenCache tokenCache = this.cache.get(cacheId);
-        if (tokenCache == null) {
-            return obtainTokenCache(request, cacheId, null);
+        TokenHolder holder = this.cache.computeIfAbsent(cacheId, key -> new TokenHolder());
+        TokenCache tokenCache = holder.tokenCache;
+        if (tokenCache == null || tokenCache.getExpiresIn() <= 0) {
+            // 没有可用的Token时才需要等待获取Token
+            tokenCache = obtainTokenCache(request, cacheId, holder);
+        }
+        int refreshAtExpiresBefore = getAttributeAsInteger(request, "refreshAtExpiresBefore");
+        if (tokenCache.getExpiresIn() <= refreshAtExpiresBefore && !holder.refreshing.get()) {
+            // Token 即将过期，在后台刷新，当前请求继续使用还未过期的Token
+            refreshInBackground(cacheId, holder, new TokenRequest(request));
         }
-        // 缓存中存在 TokenCache ，需要判断该 TokenCache 是否处于过期状态，假如已经过期则重新请求 Token，否则返回原来的对象
-        tokenCache = obtainTokenCache(request, cacheId, tokenCache);
-        // 缓存中存在 TokenCache ，需要判断该 TokenCache 是否处于即将过期状态，假如在即将过期的时间内则刷新 Token，否则返回原来的对象
-        tokenCache = obtainRefreshTokenCache(request, cacheId, tokenCache);
         return tokenCache;
     }
 
     /**
      * 获得 Token 信息，假如 Token 失效将重新请求 Token。处理并发环境下请求Token操作
      *
-     * @param request    当前请求
-     * @param cacheId    缓存ID
-     * @param tokenCache 当前 Token
+     * @param request 当前请求
+     * @param cacheId 缓存ID
+     * @param holder  Token 持有者
      * @return Token 信息
      */
     @Nonnull
-    private TokenCache obtainTokenCache(ForestRequest request, String cacheId, TokenCache tokenCache) {
-        if (tokenCache != null && tokenCache.getExpiresIn() > 0) {
-            // Token还未过期，还能继续使用
-            return tokenCache;
-        }
-        // Token过期，防止并发场景重复获取Token
-        synchronized (lock) {
-            tokenCache = this.cache.get(cacheId);
+    private TokenCache obtainTokenCache(ForestRequest request, String cacheId, TokenHolder holder) {
+        // 防止并发场景重复获取Token，只锁住当前缓存ID
+        holder.lock.lock();
+        try {
+            TokenCache tokenCache = holder.tokenCache;
             if (tokenCache != null && tokenCache.getExpiresIn() > 0) {
                 // 可能在并发场景下已经获取过一次Token
                 return tokenCache;
             }
-            tokenCache = requestToken(request);
-            this.cache.put(cacheId, tokenCache);
+            TokenRequest tokenRequest = new TokenRequest(request);
+            if (tokenCache == null) {
+                // 第一次使用该缓存ID时，先从持久化存储中加载
+                tokenCache = loadFromStore(cacheId);
+                if (tokenCache != null && tokenCache.getExpiresIn() > 0) {
+                    updateTokenCache(cacheId, holder, tokenCache, tokenRequest, false);
+                    return tokenCache;
+                }
+            }
+            tokenCache = requestToken(tokenRequest);
+            updateTokenCache(cacheId, holder, tokenCache, tokenRequest, true);
             return tokenCache;
+        } finally {
+            holder.lock.unlock();
         }
     }
 
     /**
-     * 获得刷新 Token 信息，假如 Token 即将失效，将刷新 Token 或者重新请求 Token。处理并发环境下刷新Token操作
+     * 在后台刷新 Token，同一缓存ID同时只有一个刷新任务
      *
-     * @param request    当前请求
-     * @param cacheId    缓存ID
-     * @param tokenCache 当前 Token
-     * @return Token 信息
+     * @param cacheId      缓存ID
+     * @param holder       Token 持有者
+     * @param tokenRequest 请求 Token 所需的参数
      */
-    @Nonnull
-    private TokenCache obtainRefreshTokenCache(ForestRequest request, String cacheId, @Nonnull TokenCache tokenCache) {
-        int refreshAtExpiresBefore = getAttributeAsInteger(request, "refreshAtExpiresBefore");
-        if (tokenCache.getExpiresIn() > refreshAtExpiresBefore) {
-            // Token还未到刷新Token的时间，还能继续使用
-            return tokenCache;
+    private void refreshInBackground(String cacheId, TokenHolder holder, TokenRequest tokenRequest) {
+        if (!holder.refreshing.compareAndSet(false, true)) {
+            return;
         }
-        // Token 即将过期，防止并发场景重复刷新Token
-        synchronized (lock) {
-            tokenCache = this.cache.get(cacheId);
-            if (tokenCache.getExpiresIn() > refreshAtExpiresBefore) {
+        try {
+            getExecutor().execute(() -> {
+                try {
+                    refreshTokenCache(cacheId, holder, tokenRequest);
+                } catch (Throwable th) {
+                    // 刷新失败将一直使用旧的Token，直到旧的Token失效时才会重新获取Token
+                    log.warn("[Forest] failed to refresh OAuth2 token '{}'", cacheId, th);
+                    scheduleRefresh(cacheId, holder, tokenRequest, RETRY_REFRESH_SECONDS);
+                } finally {
+                    holder.refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            holder.refreshing.set(false);
+        }
+    }
+
+    /**
+     * 刷新 Token，假如 Token 已被其它线程刷新则什么都不做
+     *
+     * @param cacheId      缓存ID
+     * @param holder       Token 持有者
+     * @param tokenRequest 请求 Token 所需的参数
+     */
+    private void refreshTokenCache(String cacheId, TokenHolder holder, TokenRequest tokenRequest) {
+        holder.lock.lock();
+        try {
+            TokenCache tokenCache = holder.tokenCache;
+            if (tokenCache != null && tokenCache.getExpiresIn() > tokenRequest.refreshAtExpiresBefore) {
                 // 可能在并发场景下已经执行过一次刷新Token操作
-                return tokenCache;
+                return;
             }
-            if (StringUtils.isBlank(tokenCache.getRefreshToken())) {
+            if (tokenCache == null || StringUtils.isBlank(tokenCache.getRefreshToken())) {
                 // 不存在刷新Token令牌（未开启 refresh_token），因此不能直接刷新Token，需要重新获取Token
-                tokenCache = requestToken(request);
+                tokenCache = requestToken(tokenRequest);
             } else {
-                tokenCache = requestRefreshToken(request, tokenCache);
+                tokenCache = requestRefreshToken(tokenRequest, tokenCache);
             }
-            this.cache.put(cacheId, tokenCache);
-            return tokenCache;
+            updateTokenCache(cacheId, holder, tokenCache, tokenRequest, true);
+        } finally {
+            holder.lock.unlock();
         }
     }
 
+    /**
+     * 更新缓存的 Token，需在持有 Token 锁时调用
+     */
+    private void updateTokenCache(String cacheId, TokenHolder holder, TokenCache tokenCache,
+                                  TokenRequest tokenRequest, boolean save) {
+        holder.tokenCache = tokenCache;
+        if (save) {
+            OAuth2TokenStore store = configuration.getOauth2TokenStore();
+            if (store != null) {
+                try {
+                    store.save(cacheId, tokenCache);
+                } catch (Throwable th) {
+                    log.warn("[Forest] failed to save OAuth2 token '{}'", cacheId, th);
+                }
+            }
+        }
+        scheduleRefresh(cacheId, holder, tokenRequest,
+                tokenCache.getExpiresIn() - tokenRequest.refreshAtExpiresBefore);
+    }
+
+    private TokenCache loadFromStore(String cacheId) {
+        OAuth2TokenStore store = configuration.getOauth2TokenStore();
+        if (store == null) {
+            return null;
+        }
+        try {
+            return store.load(cacheId);
+        } catch (Throwable th) {
+            log.warn("[Forest] failed to load OAuth2 token '{}'", cacheId, th);
+            return null;
+        }
+    }
+
+    /**
+     * 开启自动刷新时，在指定秒数后于后台刷新 Token
+     */
+    private void scheduleRefresh(String cacheId, TokenHolder holder, TokenRequest tokenRequest, long delaySeconds) {
+        if (!tokenRequest.autoRefresh) {
+            return;
+        }
+        ScheduledFuture<?> scheduled = holder.scheduledRefresh;
+        if (scheduled != null) {
+            scheduled.cancel(false);
+        }
+        TokenCache tokenCache = holder.tokenCache;
+        if (tokenCache == null || delaySeconds <= 0 || delaySeconds >= tokenCache.getExpiresIn()) {
+            // 已进入刷新时间或旧Token在下次刷新前就会失效，由之后的请求触发刷新或重新获取
+            holder.scheduledRefresh = null;
+            return;
+        }
+        holder.scheduledRefresh = getRefreshScheduler().schedule(
+                () -> refreshInBackground(cacheId, holder, tokenRequest), delaySeconds, TimeUnit.SECONDS);
+    }
+
+    private Executor getExecutor() {
+        Executor executor = configuration.getAsyncExecutor();
+        return executor != null ? executor : configuration.getAsyncThreadPool(true);
+    }
+
+    private static ScheduledExecutorService getRefreshScheduler() {
+        ScheduledExecutorService scheduler = refreshScheduler;
+        if (scheduler == null) {
+            synchronized (OAuth2LifeCycle.class) {
+                scheduler = refreshScheduler;
+                if (scheduler == null) {
+                    scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                        Thread thread = new Thread(r, "forest-oauth2-refresh");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    refreshScheduler = scheduler;
+                }
+            }
+        }
+        return scheduler;
+    }
+
     /**
      * 从远程服务器请求 Token
      *
-     * @param request 当前请求对象
+     * @param tokenRequest 请求 Token 所需的参数
      * @return 返回新的 Token 信息
      */
     @Nonnull
-    private TokenCache requestToken(ForestRequest request) {
-        String clientId = getAttributeAsString(request, "clientId");
-        Map<String, Object> body = createRequestBody(clientId, request, true);
+    private TokenCache requestToken(TokenRequest tokenRequest) {
+        Map<String, Object> body = createRequestBody(tokenRequest, true);
 
-        return executeRequestToken(request, clientId, body);
+        return executeRequestToken(tokenRequest, body);
     }
 
     /**
      * 从远程服务器刷新 Token
      *
-     * @param request    当前请求对象
-     * @param tokenCache 缓存的 Token 信息
+     * @param tokenRequest 请求 Token 所需的参数
+     * @param tokenCache   缓存的 Token 信息
      * @return 返回新的 Token 信息
      */
-    private TokenCache requestRefreshToken(ForestRequest request, TokenCache tokenCache) {
-        String clientId = getAttributeAsString(request, "clientId");
-        Map<String, Object> body = createRequestBody(clientId, request, false);
+    private TokenCache requestRefreshToken(TokenRequest tokenRequest, TokenCache tokenCache) {
+        Map<String, Object> body = createRequestBody(tokenRequest, false);
 
         body.put("grant_type", "refresh_token");
         body.put("refresh_token", tokenCache.getRefreshToken());
 
-        return executeRequestToken(request, clientId, body);
+        return executeRequestToken(tokenRequest, body);
     }
 
     /**
      * 执行实际的网络请求
      *
-     * @param request  当前请求
-     * @param clientId 客户端ID
-     * @param body     请求内容
+     * @param tokenRequest 请求 Token 所需的参数
+     * @param body         请求内容
      * @return 返回新的 Token 信息
      */
-    private TokenCache executeRequestToken(ForestRequest request, String clientId, Map<String, Object> body) {
+    private TokenCache executeRequestToken(TokenRequest tokenRequest, Map<String, Object> body) {
         // 加入扩展参数
-        String[] bodyItems = (String[]) getAttribute(request, "body");
-        body.putAll(kv2map(bodyItems));
+        body.putAll(kv2map(tokenRequest.body));
 
-        Map<String, Object> queryItems = kv2map((String[]) getAttribute(request, "query"));
-        Class<? extends OAuth2DefinitionHandler> handlerClass = request.getMethod().getMethod().getAnnotation(OAuth2.class).OAuth2TokenHandler();
-        ForestResponse<String> response = oAuth2Client.token(getAttributeAsString(request, "tokenUri"), queryItems, body);
-        OAuth2Token token;
-        try {
-            OAuth2DefinitionHandler handler = handlerClass.newInstance();
-            ForestConfiguration configuration = request.getConfiguration();
-            Map map = (Map) configuration.getConverter(ForestDataType.AUTO).convertToJavaObject(response.getContent(), Map.class);
-            token = handler.getOAuth2Token(response, map);
-        } catch (InstantiationException | IllegalAccessException e) {
-            throw new ForestRuntimeException("OAuth2 request OAuth2DefinitionHandler error" + e.getMessage());
-        }
+        Map<String, Object> queryItems = kv2map(tokenRequest.query);
+        ForestResponse<String> response = oAuth2Client.token(tokenRequest.tokenUri, queryItems, body);
+        Map map = (Map) configuration.getConverter(ForestDataType.AUTO).convertToJavaObject(response.getContent(), Map.class);
+        OAuth2Token token = tokenRequest.handler.getOAuth2Token(response, map);
         if (token == null) {
             throw new ForestRuntimeException("OAuth2 request OAuth2Token is empty");
         }
-        return new TokenCache(clientId, token);
+        return new TokenCache(tokenRequest.clientId, token);
     }
 
     /**
@@ -244,28 +370,81 @@ public class OAuth2LifeCycle implements MethodAnnotationLifeCycle<OAuth2, Object
     /**
      * 创建请求默认参数
      *
-     * @param clientId    客户端ID
-     * @param request     请求对象
-     * @param fillAccount 是否填充帐号信息。该帐号信息在注解中设置
+     * @param tokenRequest 请求 Token 所需的参数
+     * @param fillAccount  是否填充帐号信息。该帐号信息在注解中设置
      * @return 返回请求参数
      */
-    private Map<String, Object> createRequestBody(String clientId, ForestRequest request, boolean fillAccount) {
+    private Map<String, Object> createRequestBody(TokenRequest tokenRequest, boolean fillAccount) {
         Map<String, Object> body = new LinkedHashMap<>();
-        body.put("client_id", clientId);
-        body.put("client_secret", getAttributeAsString(request, "clientSecret"));
-        body.put("scope", getAttributeAsString(request, "scope"));
+        body.put("client_id", tokenRequest.clientId);
+        body.put("client_secret", tokenRequest.clientSecret);
+        body.put("scope", tokenRequest.scope);
 
-        OAuth2.GrantType grantType = (OAuth2.GrantType) getAttribute(request, "grantType");
-        String grantTypeValue = grantType.getValue(getAttributeAsString(request, "grantTypeValue"));
+        OAuth2.GrantType grantType = tokenRequest.grantType;
+        String grantTypeValue = grantType.getValue(tokenRequest.grantTypeValue);
         body.put("grant_type", grantTypeValue);
 
         if (fillAccount && grantType == OAuth2.GrantType.PASSWORD) {
-            body.put("username", getAttributeAsString(request, "username"));
-            body.put("password", getAttributeAsString(request, "password"));
+            body.put("username", tokenRequest.username);
+            body.put("password", tokenRequest.password);
         }
         return body;
     }
 
+    /**
+     * 同一缓存ID的 Token 及其锁
+     */
+    private static class TokenHolder {
+        /**
+         * 获取和刷新Token的锁，使用显式锁避免在虚拟线程中请求Token时钉住载体线程
+         */
+        private final ReentrantLock lock = new ReentrantLock();
+        /**
+         * 是否正在后台刷新
+         */
+        private final AtomicBoolean refreshing = new AtomicBoolean(false);
+        private volatile TokenCache tokenCache;
+        private volatile ScheduledFuture<?> scheduledRefresh;
+    }
+
+    /**
+     * 请求 Token 所需的参数，在请求线程中从注解属性取出，后台刷新时不再依赖原请求
+     */
+    private class TokenRequest {
+        private final String tokenUri;
+        private final String clientId;
+        private final String clientSecret;
+        private final String scope;
+        private final OAuth2.GrantType grantType;
+        private final String grantTypeValue;
+        private final String username;
+        private final String password;
+        private final String[] query;
+        private final String[] body;
+        private final int refreshAtExpiresBefore;
+        private final boolean autoRefresh;
+        private final OAuth2DefinitionHandler handler;
+
+        private TokenRequest(ForestRequest request) {
+            this.tokenUri = getAttributeAsString(request, "tokenUri");
+            this.clientId = getAttributeAsString(request, "clientId");
+            this.clientSecret = getAttributeAsString(request, "clientSecret");
+            this.scope = getAttributeAsString(request, "scope");
+            this.grantType = (OAuth2.GrantType) getAttribute(request, "grantType");
+            this.grantTypeValue = getAttributeAsString(request, "grantTypeValue");
+            this.username = getAttributeAsString(request, "username");
+            this.password = getAttributeAsString(request, "password");
+            this.query = (String[]) getAttribute(request, "query");
+            this.body = (String[]) getAttribute(request, "body");
+            this.refreshAtExpiresBefore = getAttributeAsInteger(request, "refreshAtExpiresBefore");
+            this.autoRefresh = Boolean.TRUE.equals(getAttribute(request, "autoRefresh"));
+            // 处理器实例由Forest对象工厂创建并缓存，不必每次请求Token时都实例化
+            Class<? extends OAuth2DefinitionHandler> handlerClass = request.getMethod().getMethod()
+                    .getAnnotation(OAuth2.class).OAuth2TokenHandler();
+            this.handler = configuration.getForestObject(handlerClass);
+        }
+    }
+
     /**
      * 缓存 Token 信息的对象.
      */
@@ -305,6 +484,24 @@ public class OAuth2LifeCycle implements MethodAnnotationLifeCycle<OAuth2, Object
             this.expiresAt = LocalDateTime.now().plusSeconds(expires);
         }
 
+        /**
+         * 以已知的 Token 信息初始化一个 Token 缓存对象，用于从持久化存储中恢复.
+         *
+         * @param clientId     客户端ID
+         * @param accessToken  访问 Token
+         * @param refreshToken 刷新 Token
+         * @param tokenType    Token 类型
+         * @param expiresAt    过期时间点
+         * @since 1.5.19
+         */
+        public TokenCache(String clientId, String accessToken, String refreshToken, String tokenType, LocalDateTime expiresAt) {
+            this.clientId = clientId;
+            this.accessToken = accessToken;
+            this.refreshToken = refreshToken;
+            this.tokenType = tokenType;
+            this.expiresAt = expiresAt;
+        }
+
         /**
          * 判断Token是否有效
          *
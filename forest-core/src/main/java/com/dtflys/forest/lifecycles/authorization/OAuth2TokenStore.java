@@ -0,0 +1,35 @@
+package com.dtflys.forest.lifecycles.authorization;
+
+/**
+ * OAuth2 Token 的持久化存储
+ * <p>进程重启后可以继续使用未过期的Token，而不必重新向认证服务器请求
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ * @see OAuth2FileTokenStore
+ */
+public interface OAuth2TokenStore {
+
+    /**
+     * 加载 Token
+     *
+     * @param cacheId 缓存ID
+     * @return Token 信息，不存在时返回 {@code null}
+     */
+    OAuth2LifeCycle.TokenCache load(String cacheId);
+
+    /**
+     * 保存 Token
+     *
+     * @param cacheId 缓存ID
+     * @param tokenCache Token 信息
+     */
+    void save(String cacheId, OAuth2LifeCycle.TokenCache tokenCache);
+
+    /**
+     * 删除 Token
+     *
+     * @param cacheId 缓存ID
+     */
+    void remove(String cacheId);
+}
@@ -0,0 +1,33 @@
+package com.dtflys.forest.lifecycles.method;
+
+import com.dtflys.forest.annotation.Cacheable;
+import com.dtflys.forest.cache.ForestCacheOptions;
+import com.dtflys.forest.http.ForestRequest;
+import com.dtflys.forest.lifecycles.MethodAnnotationLifeCycle;
+import com.dtflys.forest.reflection.ForestMethod;
+
+/**
+ * HTTP响应缓存注解的生命周期类
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class CacheableLifeCycle implements MethodAnnotationLifeCycle<Cacheable, Object> {
+
+    public final static String PARAM_KEY_CACHE_OPTIONS = "__cacheOptions";
+
+    @Override
+    public void onMethodInitialized(ForestMethod method, Cacheable annotation) {
+        ForestCacheOptions options = new ForestCacheOptions()
+                .setEnabled(annotation.enabled())
+                .setMaxAge(annotation.maxAge())
+                .setStaleWhileRevalidate(annotation.staleWhileRevalidate())
+                .setStaleIfError(annotation.staleIfError());
+        method.setExtensionParameterValue(PARAM_KEY_CACHE_OPTIONS, options);
+    }
+
+    @Override
+    public void onInvokeMethod(ForestRequest request, ForestMethod method, Object[] args) {
+        request.setCacheOptions((ForestCacheOptions) method.getExtensionParameterValue(PARAM_KEY_CACHE_OPTIONS));
+    }
+}
@@ -0,0 +1,38 @@
+package com.dtflys.forest.lifecycles.method;
+
+import com.dtflys.forest.annotation.CallbackExecutor;
+import com.dtflys.forest.exceptions.ForestRuntimeException;
+import com.dtflys.forest.http.ForestRequest;
+import com.dtflys.forest.lifecycles.MethodAnnotationLifeCycle;
+import com.dtflys.forest.reflection.ForestMethod;
+
+import java.util.concurrent.Executor;
+
+/**
+ * 回调执行器注解的生命周期类
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class CallbackExecutorLifeCycle implements MethodAnnotationLifeCycle<CallbackExecutor, Object> {
+
+    private final static String PARAM_KEY_CALLBACK_EXECUTOR = "__callbackExecutor";
+
+    @Override
+    public void onMethodInitialized(ForestMethod method, CallbackExecutor annotation) {
+        method.setExtensionParameterValue(PARAM_KEY_CALLBACK_EXECUTOR, annotation.value());
+    }
+
+    @Override
+    public void onInvokeMethod(ForestRequest request, ForestMethod method, Object[] args) {
+        String name = (String) method.getExtensionParameterValue(PARAM_KEY_CALLBACK_EXECUTOR);
+        if (name == null) {
+            return;
+        }
+        Executor executor = request.getConfiguration().getCallbackExecutor(name);
+        if (executor == null) {
+            throw new ForestRuntimeException("[Forest] callback executor '" + name + "' is not registered");
+        }
+        request.setCallbackExecutor(executor);
+    }
+}
@@ -0,0 +1,147 @@
+package com.dtflys.forest.lifecycles.method;
+
+import com.dtflys.forest.annotation.CircuitBreaker;
+import com.dtflys.forest.circuitbreaker.CircuitBreakerListener;
+import com.dtflys.forest.circuitbreaker.ForestCircuitBreaker;
+import com.dtflys.forest.exceptions.ForestCircuitBreakerOpenException;
+import com.dtflys.forest.exceptions.ForestRuntimeException;
+import com.dtflys.forest.http.ForestLocalResponse;
+import com.dtflys.forest.http.ForestRequest;
+import com.dtflys.forest.http.ForestResponse;
+import com.dtflys.forest.lifecycles.MethodAnnotationLifeCycle;
+import com.dtflys.forest.reflection.ForestMethod;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 熔断器注解的生命周期类
+ * <p>请求执行前向熔断器申请调用许可，被拒绝时不发送请求，直接以 {@link ForestCircuitBreakerOpenException} 走失败流程；
+ * 每次请求（包括重试）的结果都会记录到熔断器，熔断器状态的变化通过拦截器的
+ * {@code onCircuitBreakerStateTransition} 方法通知
+ * <p>作用范围相同的请求共享同一个 {@link ForestCircuitBreaker}，其配置以最先初始化的注解为准
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class CircuitBreakerLifeCycle implements MethodAnnotationLifeCycle<CircuitBreaker, Object> {
+
+    private final static String PARAM_KEY_CIRCUIT_BREAKER = "__circuit_breaker";
+
+    private final static String ATTR_KEY_CIRCUIT_BREAKER = "__circuit_breaker_instance";
+
+    private final static String ATTR_KEY_LAST_RESPONSE = "__circuit_breaker_last_response";
+
+    private final Map<String, ForestCircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+
+    @Override
+    public void onMethodInitialized(ForestMethod method, CircuitBreaker annotation) {
+        if (annotation.windowSize() <= 0 || annotation.minimumCalls() <= 0 || annotation.permittedCallsInHalfOpenState() <= 0) {
+            throw new ForestRuntimeException("[Forest] the windowSize, minimumCalls and permittedCallsInHalfOpenState of @CircuitBreaker must be greater than 0");
+        }
+        method.setExtensionParameterValue(PARAM_KEY_CIRCUIT_BREAKER, annotation);
+    }
+
+    @Override
+    public boolean beforeExecute(ForestRequest request) {
+        // 重定向请求沿用原请求的调用许可
+        if (request.isRedirection() || getAttribute(request, ATTR_KEY_CIRCUIT_BREAKER) != null) {
+            return true;
+        }
+        CircuitBreaker annotation = (CircuitBreaker) request.getMethod()
+                .getExtensionParameterValue(PARAM_KEY_CIRCUIT_BREAKER);
+        String key = annotation.scope().keyOf(request);
+        ForestCircuitBreaker circuitBreaker = circuitBreakers.computeIfAbsent(key, k -> createCircuitBreaker(k, annotation));
+        if (!circuitBreaker.tryAcquirePermission(listener(request))) {
+            ForestCircuitBreakerOpenException ex = new ForestCircuitBreakerOpenException(
+                    circuitBreaker.getName(), circuitBreaker.getState());
+            ForestResponse response = new ForestLocalResponse(request, ex);
+            request.getLifeCycleHandler().handleSyncWithException(request, response, ex);
+            return false;
+        }
+        addAttribute(request, ATTR_KEY_CIRCUIT_BREAKER, circuitBreaker);
+        if (!(request.getRetryWhen() instanceof CircuitBreakerRetryWhen)) {
+            request.setRetryWhen(new CircuitBreakerRetryWhen(request.getRetryWhen(), circuitBreaker));
+        }
+        return true;
+    }
+
+    @Override
+    public void onRetry(ForestRequest request, ForestResponse response) {
+        recordResult(request, response);
+    }
+
+    @Override
+    public void afterExecute(ForestRequest request, ForestResponse response) {
+        if (response instanceof ForestLocalResponse) {
+            // 请求没有真正发送，不记录调用结果，只归还调用许可
+            releasePermission(request);
+        } else {
+            recordResult(request, response);
+        }
+        removeAttribute(request, ATTR_KEY_CIRCUIT_BREAKER);
+        removeAttribute(request, ATTR_KEY_LAST_RESPONSE);
+    }
+
+    @Override
+    public void onBeforeExecuteAborted(ForestRequest request) {
+        releasePermission(request);
+        removeAttribute(request, ATTR_KEY_CIRCUIT_BREAKER);
+    }
+
+    private void releasePermission(ForestRequest request) {
+        ForestCircuitBreaker circuitBreaker = (ForestCircuitBreaker) getAttribute(request, ATTR_KEY_CIRCUIT_BREAKER);
+        if (circuitBreaker != null) {
+            circuitBreaker.releasePermission();
+        }
+    }
+
+    /**
+     * 根据键获取熔断器
+     *
+     * @param key 熔断器的键
+     * @return {@link ForestCircuitBreaker}实例，不存在时返回 {@code null}
+     */
+    public ForestCircuitBreaker getCircuitBreaker(String key) {
+        return circuitBreakers.get(key);
+    }
+
+    private void recordResult(ForestRequest request, ForestResponse response) {
+        ForestCircuitBreaker circuitBreaker = (ForestCircuitBreaker) getAttribute(request, ATTR_KEY_CIRCUIT_BREAKER);
+        if (circuitBreaker == null) {
+            return;
+        }
+        // 注解同时修饰接口和方法时，同一个响应只记录一次
+        if (response != null) {
+            if (getAttribute(request, ATTR_KEY_LAST_RESPONSE) == response) {
+                return;
+            }
+            addAttribute(request, ATTR_KEY_LAST_RESPONSE, response);
+        }
+        long duration = 0;
+        boolean failure = true;
+        if (response != null) {
+            duration = TimeUnit.MILLISECONDS.toNanos(response.getTimeAsMillisecond());
+            failure = response.getException() != null || response.getStatusCode() >= 500;
+        }
+        circuitBreaker.onResult(duration, failure, listener(request));
+    }
+
+    private CircuitBreakerListener listener(ForestRequest request) {
+        return (circuitBreaker, from, to) ->
+                request.getInterceptorChain().onCircuitBreakerStateTransition(request, circuitBreaker, from, to);
+    }
+
+    private ForestCircuitBreaker createCircuitBreaker(String key, CircuitBreaker annotation) {
+        return new ForestCircuitBreaker(
+                key,
+                annotation.failureRateThreshold(),
+                annotation.slowCallRateThreshold(),
+                TimeUnit.MILLISECONDS.toNanos(annotation.slowCallDuration()),
+                annotation.windowSize(),
+                annotation.minimumCalls(),
+                TimeUnit.MILLISECONDS.toNanos(annotation.waitDurationInOpenState()),
+                annotation.permittedCallsInHalfOpenState());
+    }
+}
@@ -0,0 +1,41 @@
+package com.dtflys.forest.lifecycles.method;
+
+import com.dtflys.forest.callback.RetryWhen;
+import com.dtflys.forest.circuitbreaker.CircuitBreakerState;
+import com.dtflys.forest.circuitbreaker.ForestCircuitBreaker;
+import com.dtflys.forest.http.ForestRequest;
+import com.dtflys.forest.http.ForestResponse;
+
+/**
+ * 熔断器的请求重试条件
+ * <p>只在熔断器处于关闭状态时才允许重试，其余情况交由原有的重试条件判断
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+class CircuitBreakerRetryWhen implements RetryWhen {
+
+    private final RetryWhen delegate;
+
+    private final ForestCircuitBreaker circuitBreaker;
+
+    CircuitBreakerRetryWhen(RetryWhen delegate, ForestCircuitBreaker circuitBreaker) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public boolean retryWhen(ForestRequest req, ForestResponse res) {
+        if (circuitBreaker.getState() != CircuitBreakerState.CLOSED) {
+            return false;
+        }
+        if (delegate != null) {
+            return delegate.retryWhen(req, res);
+        }
+        RetryWhen globalRetryWhen = req.getConfiguration().getRetryWhen();
+        if (globalRetryWhen != null) {
+            return globalRetryWhen.retryWhen(req, res);
+        }
+        return res.isError();
+    }
+}
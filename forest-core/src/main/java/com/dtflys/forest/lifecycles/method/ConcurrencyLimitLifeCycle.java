@@ -0,0 +1,144 @@
+package com.dtflys.forest.lifecycles.method;
+
+import com.dtflys.forest.annotation.ConcurrencyLimit;
+import com.dtflys.forest.exceptions.ForestConcurrencyLimitException;
+import com.dtflys.forest.exceptions.ForestRuntimeException;
+import com.dtflys.forest.http.ForestLocalResponse;
+import com.dtflys.forest.http.ForestRequest;
+import com.dtflys.forest.http.ForestResponse;
+import com.dtflys.forest.lifecycles.MethodAnnotationLifeCycle;
+import com.dtflys.forest.limiter.AIMDLimitAlgorithm;
+import com.dtflys.forest.limiter.ConcurrencyLimiter;
+import com.dtflys.forest.limiter.FixedLimitAlgorithm;
+import com.dtflys.forest.limiter.GradientLimitAlgorithm;
+import com.dtflys.forest.limiter.LimitAlgorithm;
+import com.dtflys.forest.reflection.ForestMethod;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 并发限制注解的生命周期类
+ * <p>在请求执行前获取执行许可，请求失败或结束后释放许可，并将响应时间反馈给并发限制算法；
+ * 之后的拦截器中止请求时也会释放许可
+ * <p>等待 {@link ConcurrencyLimit#maxWait()} 后仍获取不到许可时不发送请求，直接以 {@link ForestConcurrencyLimitException}
+ * 走失败流程；获取许可的等待发生在发起请求的线程中，异步请求也会阻塞调用者
+ * <p>作用范围相同的请求共享同一个 {@link ConcurrencyLimiter}，其配置以最先初始化的注解为准
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class ConcurrencyLimitLifeCycle implements MethodAnnotationLifeCycle<ConcurrencyLimit, Object> {
+
+    private final static String PARAM_KEY_CONCURRENCY_LIMIT = "__concurrency_limit";
+
+    private final static String ATTR_KEY_PERMIT = "__concurrency_limit_permit";
+
+    private final Map<String, ConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    @Override
+    public void onMethodInitialized(ForestMethod method, ConcurrencyLimit annotation) {
+        if (annotation.value() <= 0) {
+            throw new ForestRuntimeException("[Forest] the value of @ConcurrencyLimit must be greater than 0");
+        }
+        if (annotation.minLimit() <= 0 || annotation.minLimit() > annotation.maxLimit()) {
+            throw new ForestRuntimeException("[Forest] the minLimit of @ConcurrencyLimit must be greater than 0 and not greater than maxLimit");
+        }
+        method.setExtensionParameterValue(PARAM_KEY_CONCURRENCY_LIMIT, annotation);
+    }
+
+    @Override
+    public boolean beforeExecute(ForestRequest request) {
+        // 重定向请求沿用原请求的执行许可
+        if (request.isRedirection()) {
+            return true;
+        }
+        ConcurrencyLimiter.Permit permit = (ConcurrencyLimiter.Permit) getAttribute(request, ATTR_KEY_PERMIT);
+        if (permit != null && !permit.isReleased()) {
+            return true;
+        }
+        ConcurrencyLimit annotation = (ConcurrencyLimit) request.getMethod()
+                .getExtensionParameterValue(PARAM_KEY_CONCURRENCY_LIMIT);
+        String key = annotation.scope().keyOf(request);
+        ConcurrencyLimiter limiter = limiters.computeIfAbsent(key, k -> new ConcurrencyLimiter(createAlgorithm(annotation)));
+        try {
+            permit = limiter.tryAcquire(annotation.maxWait(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ForestRuntimeException(e);
+        }
+        if (permit == null) {
+            // 与熔断、限流一样不发送请求，直接走失败流程，使 onError 回调和之前的生命周期都能正常处理
+            ForestConcurrencyLimitException ex = new ForestConcurrencyLimitException(key, limiter.getLimit());
+            ForestResponse response = new ForestLocalResponse(request, ex);
+            request.getLifeCycleHandler().handleSyncWithException(request, response, ex);
+            return false;
+        }
+        addAttribute(request, ATTR_KEY_PERMIT, permit);
+        return true;
+    }
+
+    @Override
+    public void onError(ForestRuntimeException ex, ForestRequest request, ForestResponse response) {
+        releasePermit(request, response);
+    }
+
+    @Override
+    public void afterExecute(ForestRequest request, ForestResponse response) {
+        releasePermit(request, response);
+    }
+
+    @Override
+    public void onBeforeExecuteAborted(ForestRequest request) {
+        ConcurrencyLimiter.Permit permit = (ConcurrencyLimiter.Permit) removeAttribute(request, ATTR_KEY_PERMIT);
+        if (permit != null) {
+            permit.cancel();
+        }
+    }
+
+    /**
+     * 释放请求持有的执行许可
+     * <p>本地构造的响应表示请求没有真正发送，释放许可时不反馈给并发限制算法
+     *
+     * @param request Forest请求对象
+     * @param response Forest响应对象
+     */
+    private void releasePermit(ForestRequest request, ForestResponse response) {
+        ConcurrencyLimiter.Permit permit = (ConcurrencyLimiter.Permit) removeAttribute(request, ATTR_KEY_PERMIT);
+        if (permit == null) {
+            return;
+        }
+        if (response instanceof ForestLocalResponse) {
+            permit.cancel();
+            return;
+        }
+        boolean dropped = response == null || response.isTimeout()
+                || (response.getException() != null && !response.isReceivedResponseData());
+        permit.release(dropped);
+    }
+
+    /**
+     * 根据键获取限流器
+     *
+     * @param key 限流器的键
+     * @return {@link ConcurrencyLimiter}实例，不存在时返回 {@code null}
+     */
+    public ConcurrencyLimiter getLimiter(String key) {
+        return limiters.get(key);
+    }
+
+    private LimitAlgorithm createAlgorithm(ConcurrencyLimit annotation) {
+        switch (annotation.strategy()) {
+            case AIMD:
+                return new AIMDLimitAlgorithm(
+                        annotation.value(), annotation.minLimit(), annotation.maxLimit(),
+                        AIMDLimitAlgorithm.DEFAULT_BACKOFF_RATIO,
+                        TimeUnit.MILLISECONDS.toNanos(annotation.latencyThreshold()));
+            case GRADIENT:
+                return new GradientLimitAlgorithm(annotation.value(), annotation.minLimit(), annotation.maxLimit());
+            default:
+                return new FixedLimitAlgorithm(annotation.value());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.dtflys.forest.lifecycles.method;
+
+import com.dtflys.forest.annotation.FireAndForget;
+import com.dtflys.forest.exceptions.ForestRuntimeException;
+import com.dtflys.forest.http.ForestRequest;
+import com.dtflys.forest.lifecycles.MethodAnnotationLifeCycle;
+import com.dtflys.forest.reflection.ForestMethod;
+
+/**
+ * 发后即忘注解的生命周期类
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class FireAndForgetLifeCycle implements MethodAnnotationLifeCycle<FireAndForget, Object> {
+
+    public final static String PARAM_KEY_FIRE_AND_FORGET = "__fireAndForget";
+
+    @Override
+    public void onMethodInitialized(ForestMethod method, FireAndForget annotation) {
+        Class<?> returnClass = method.getMethod().getReturnType();
+        if (!void.class.equals(returnClass) && !Void.class.equals(returnClass)) {
+            throw new ForestRuntimeException("[Forest] method '" + method.getMethod().getName()
+                    + "' annotated with @FireAndForget must return void, but was " + returnClass.getName());
+        }
+        method.setExtensionParameterValue(PARAM_KEY_FIRE_AND_FORGET, true);
+    }
+
+    @Override
+    public void onInvokeMethod(ForestRequest request, ForestMethod method, Object[] args) {
+        request.setFireAndForget(true);
+        request.setAsync(true);
+    }
+}
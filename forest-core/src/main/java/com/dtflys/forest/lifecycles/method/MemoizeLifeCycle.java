@@ -0,0 +1,57 @@
+package com.dtflys.forest.lifecycles.method;
+
+import com.dtflys.forest.annotation.Memoize;
+import com.dtflys.forest.exceptions.ForestRuntimeException;
+import com.dtflys.forest.http.ForestRequest;
+import com.dtflys.forest.lifecycles.MethodAnnotationLifeCycle;
+import com.dtflys.forest.memoize.ForestMemoizeCache;
+import com.dtflys.forest.memoize.ForestMemoizer;
+import com.dtflys.forest.reactive.ReactiveTypes;
+import com.dtflys.forest.reflection.ForestMethod;
+import com.dtflys.forest.utils.StringUtils;
+
+import java.lang.reflect.Method;
+import java.util.Iterator;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Future;
+import java.util.stream.BaseStream;
+
+/**
+ * 方法结果缓存注解的生命周期类
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class MemoizeLifeCycle implements MethodAnnotationLifeCycle<Memoize, Object> {
+
+    public final static String PARAM_KEY_MEMOIZER = "__memoizer";
+
+    @Override
+    public void onMethodInitialized(ForestMethod method, Memoize annotation) {
+        Method javaMethod = method.getMethod();
+        Class<?> returnClass = javaMethod.getReturnType();
+        if (void.class.equals(returnClass) || Void.class.equals(returnClass)
+                || ForestRequest.class.isAssignableFrom(returnClass)
+                || Future.class.isAssignableFrom(returnClass)
+                || CompletionStage.class.isAssignableFrom(returnClass)
+                || Iterator.class.isAssignableFrom(returnClass)
+                || BaseStream.class.isAssignableFrom(returnClass)
+                || ReactiveTypes.isReactiveType(returnClass)) {
+            throw new ForestRuntimeException("[Forest] method '" + javaMethod.getName()
+                    + "' annotated with @Memoize can not return " + returnClass.getName());
+        }
+        if (annotation.ttl() <= 0 || annotation.maxSize() <= 0) {
+            throw new ForestRuntimeException("[Forest] the ttl and maxSize of @Memoize must be greater than 0");
+        }
+        String name = annotation.name();
+        if (StringUtils.isEmpty(name)) {
+            name = javaMethod.getDeclaringClass().getName() + "#" + javaMethod.getName();
+        }
+        ForestMemoizeCache cache = method.getConfiguration().getMemoizeCache(name, annotation.maxSize());
+        method.setExtensionParameterValue(PARAM_KEY_MEMOIZER, new ForestMemoizer(method, cache, annotation));
+    }
+
+    @Override
+    public void onInvokeMethod(ForestRequest request, ForestMethod method, Object[] args) {
+    }
+}
@@ -0,0 +1,34 @@
+package com.dtflys.forest.lifecycles.method;
+
+import com.dtflys.forest.annotation.Paginated;
+import com.dtflys.forest.exceptions.ForestRuntimeException;
+import com.dtflys.forest.http.ForestRequest;
+import com.dtflys.forest.lifecycles.MethodAnnotationLifeCycle;
+import com.dtflys.forest.pagination.ForestPagination;
+import com.dtflys.forest.reflection.ForestMethod;
+
+/**
+ * 分页请求注解的生命周期类
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class PaginatedLifeCycle implements MethodAnnotationLifeCycle<Paginated, Object> {
+
+    public final static String PARAM_KEY_PAGINATION = "__pagination";
+
+    @Override
+    public void onMethodInitialized(ForestMethod method, Paginated annotation) {
+        Class<?> returnClass = method.getMethod().getReturnType();
+        if (!ForestPagination.isSupportedType(returnClass)) {
+            throw new ForestRuntimeException("[Forest] method '" + method.getMethod().getName()
+                    + "' annotated with @Paginated must return Iterator, Iterable or Stream, but was "
+                    + returnClass.getName());
+        }
+        method.setExtensionParameterValue(PARAM_KEY_PAGINATION, new ForestPagination(annotation));
+    }
+
+    @Override
+    public void onInvokeMethod(ForestRequest request, ForestMethod method, Object[] args) {
+    }
+}
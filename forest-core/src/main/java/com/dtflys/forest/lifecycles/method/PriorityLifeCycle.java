@@ -0,0 +1,30 @@
+package com.dtflys.forest.lifecycles.method;
+
+import com.dtflys.forest.annotation.Priority;
+import com.dtflys.forest.http.ForestRequest;
+import com.dtflys.forest.lifecycles.MethodAnnotationLifeCycle;
+import com.dtflys.forest.reflection.ForestMethod;
+
+/**
+ * 请求优先级注解的生命周期类
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class PriorityLifeCycle implements MethodAnnotationLifeCycle<Priority, Object> {
+
+    private final static String PARAM_KEY_PRIORITY = "__priority";
+
+    @Override
+    public void onMethodInitialized(ForestMethod method, Priority annotation) {
+        method.setExtensionParameterValue(PARAM_KEY_PRIORITY, annotation.value());
+    }
+
+    @Override
+    public void onInvokeMethod(ForestRequest request, ForestMethod method, Object[] args) {
+        Integer priority = (Integer) method.getExtensionParameterValue(PARAM_KEY_PRIORITY);
+        if (priority != null) {
+            request.setPriority(priority);
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.dtflys.forest.lifecycles.method;
+
+import com.dtflys.forest.annotation.RateLimit;
+import com.dtflys.forest.exceptions.ForestRateLimitException;
+import com.dtflys.forest.exceptions.ForestRuntimeException;
+import com.dtflys.forest.http.ForestLocalResponse;
+import com.dtflys.forest.http.ForestRequest;
+import com.dtflys.forest.http.ForestResponse;
+import com.dtflys.forest.lifecycles.MethodAnnotationLifeCycle;
+import com.dtflys.forest.limiter.TokenBucketRateLimiter;
+import com.dtflys.forest.mapping.MappingTemplate;
+import com.dtflys.forest.reflection.ForestMethod;
+import com.dtflys.forest.utils.StringUtils;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 请求限流注解的生命周期类
+ * <p>请求执行前从令牌桶预订许可：同步请求在当前线程等待，异步请求通过 {@link ForestRequest#setAsyncDelay(long)} 延迟提交；
+ * 等待时间超过上限时不发送请求，直接以 {@link ForestRateLimitException} 走失败流程；
+ * 每次重试前同样要预订许可，并在执行重试的线程（异步请求为工作线程，与重试器的等待间隔相同）上等待，
+ * 等待时间超过上限时抛出 {@link ForestRateLimitException} 终止重试；
+ * 请求结束后根据 {@code Retry-After}、{@code X-RateLimit-*} 响应头暂停发放许可
+ * <p>键相同的请求共享同一个 {@link TokenBucketRateLimiter}，其配置以最先初始化的注解为准
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class RateLimitLifeCycle implements MethodAnnotationLifeCycle<RateLimit, Object> {
+
+    private final static String PARAM_KEY_RATE_LIMIT = "__rate_limit";
+
+    private final static String ATTR_KEY_LIMITER_KEY = "__rate_limit_key";
+
+    private final static String ATTR_KEY_LIMITER = "__rate_limit_limiter";
+
+    private final static String HEADER_RETRY_AFTER = "Retry-After";
+
+    private final static String HEADER_RATE_LIMIT_REMAINING = "X-RateLimit-Remaining";
+
+    private final static String HEADER_RATE_LIMIT_RESET = "X-RateLimit-Reset";
+
+    private final Map<String, TokenBucketRateLimiter> limiters = new ConcurrentHashMap<>();
+
+    @Override
+    public void onMethodInitialized(ForestMethod method, RateLimit annotation) {
+        if (annotation.permits() <= 0 || annotation.period() <= 0) {
+            throw new ForestRuntimeException("[Forest] the permits and period of @RateLimit must be greater than 0");
+        }
+        method.setExtensionParameterValue(PARAM_KEY_RATE_LIMIT, annotation);
+    }
+
+    @Override
+    public void onInvokeMethod(ForestRequest request, ForestMethod method, Object[] args) {
+        RateLimit annotation = (RateLimit) method.getExtensionParameterValue(PARAM_KEY_RATE_LIMIT);
+        if (StringUtils.isNotBlank(annotation.key())) {
+            MappingTemplate keyTemplate = method.makeTemplate(RateLimit.class, "key", annotation.key());
+            addAttribute(request, ATTR_KEY_LIMITER_KEY, "key:" + keyTemplate.render(args));
+        }
+    }
+
+    @Override
+    public boolean beforeExecute(ForestRequest request) {
+        // 重定向请求不再重复获取许可
+        if (request.isRedirection() || getAttribute(request, ATTR_KEY_LIMITER) != null) {
+            return true;
+        }
+        RateLimit annotation = (RateLimit) request.getMethod().getExtensionParameterValue(PARAM_KEY_RATE_LIMIT);
+        String key = keyOf(request, annotation);
+        TokenBucketRateLimiter limiter = limiters.computeIfAbsent(key, k -> new TokenBucketRateLimiter(
+                annotation.permits(), TimeUnit.MILLISECONDS.toNanos(annotation.period())));
+        long wait = limiter.reserve(TimeUnit.MILLISECONDS.toNanos(annotation.maxWait()));
+        if (wait < 0) {
+            // 与熔断一样不发送请求，直接走失败流程，使 onError 回调和之前的生命周期都能正常处理
+            ForestRateLimitException ex = new ForestRateLimitException(key);
+            ForestResponse response = new ForestLocalResponse(request, ex);
+            request.getLifeCycleHandler().handleSyncWithException(request, response, ex);
+            return false;
+        }
+        addAttribute(request, ATTR_KEY_LIMITER, limiter);
+        if (wait > 0) {
+            if (request.isAsync()) {
+                long delay = TimeUnit.NANOSECONDS.toMillis(wait + TimeUnit.MILLISECONDS.toNanos(1) - 1);
+                request.setAsyncDelay(Math.max(request.getAsyncDelay(), delay));
+            } else {
+                sleep(wait);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void onRetry(ForestRequest request, ForestResponse response) {
+        // 先根据响应头暂停发放许可，使重试也遵守服务端要求的等待时间
+        adapt(request, response);
+        TokenBucketRateLimiter limiter = (TokenBucketRateLimiter) getAttribute(request, ATTR_KEY_LIMITER);
+        if (limiter == null) {
+            return;
+        }
+        RateLimit annotation = (RateLimit) request.getMethod().getExtensionParameterValue(PARAM_KEY_RATE_LIMIT);
+        long wait = limiter.reserve(TimeUnit.MILLISECONDS.toNanos(annotation.maxWait()));
+        if (wait < 0) {
+            throw new ForestRateLimitException(keyOf(request, annotation));
+        }
+        if (wait > 0) {
+            sleep(wait);
+        }
+    }
+
+    @Override
+    public void afterExecute(ForestRequest request, ForestResponse response) {
+        adapt(request, response);
+        removeAttribute(request, ATTR_KEY_LIMITER);
+    }
+
+    /**
+     * 根据键获取限流器
+     *
+     * @param key 限流器的键
+     * @return {@link TokenBucketRateLimiter}实例，不存在时返回 {@code null}
+     */
+    public TokenBucketRateLimiter getLimiter(String key) {
+        return limiters.get(key);
+    }
+
+    /**
+     * 获取请求所使用的限流器的键
+     *
+     * @param request Forest请求对象
+     * @param annotation 限流注解
+     * @return 限流器的键
+     */
+    private String keyOf(ForestRequest request, RateLimit annotation) {
+        String key = getAttributeAsString(request, ATTR_KEY_LIMITER_KEY);
+        return key != null ? key : annotation.scope().keyOf(request);
+    }
+
+    /**
+     * 在当前线程等待许可
+     *
+     * @param nanos 等待的纳秒数
+     */
+    private static void sleep(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ForestRuntimeException(e);
+        }
+    }
+
+    /**
+     * 根据限流响应头暂停发放许可
+     *
+     * @param request Forest请求对象
+     * @param response Forest响应对象
+     */
+    private void adapt(ForestRequest request, ForestResponse response) {
+        TokenBucketRateLimiter limiter = (TokenBucketRateLimiter) getAttribute(request, ATTR_KEY_LIMITER);
+        if (limiter == null || response == null) {
+            return;
+        }
+        RateLimit annotation = (RateLimit) request.getMethod().getExtensionParameterValue(PARAM_KEY_RATE_LIMIT);
+        if (!annotation.adaptive()) {
+            return;
+        }
+        long pauseMillis = -1;
+        int status = response.getStatusCode();
+        if (status == 429 || status == 503) {
+            pauseMillis = parseRetryAfter(response.getHeaderValue(HEADER_RETRY_AFTER));
+        }
+        String remaining = response.getHeaderValue(HEADER_RATE_LIMIT_REMAINING);
+        if (pauseMillis < 0 && remaining != null && "0".equals(remaining.trim())) {
+            pauseMillis = parseRateLimitReset(response.getHeaderValue(HEADER_RATE_LIMIT_RESET));
+        }
+        if (pauseMillis > 0) {
+            limiter.pauseUntil(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(pauseMillis));
+        }
+    }
+
+    /**
+     * 解析 {@code Retry-After} 响应头，其值可以是秒数或 HTTP 日期
+     *
+     * @param value 响应头的值
+     * @return 需要暂停的毫秒数，无法解析时返回 {@code -1}
+     */
+    private static long parseRetryAfter(String value) {
+        if (StringUtils.isBlank(value)) {
+            return -1;
+        }
+        value = value.trim();
+        try {
+            return TimeUnit.SECONDS.toMillis(Long.parseLong(value));
+        } catch (NumberFormatException ignored) {
+        }
+        try {
+            ZonedDateTime date = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+            return date.toInstant().toEpochMilli() - System.currentTimeMillis();
+        } catch (Exception ignored) {
+            return -1;
+        }
+    }
+
+    /**
+     * 解析 {@code X-RateLimit-Reset} 响应头，其值可以是剩余秒数、Unix 时间戳（秒）或 Unix 时间戳（毫秒）
+     *
+     * @param value 响应头的值
+     * @return 需要暂停的毫秒数，无法解析时返回 {@code -1}
+     */
+    private static long parseRateLimitReset(String value) {
+        if (StringUtils.isBlank(value)) {
+            return -1;
+        }
+        long reset;
+        try {
+            reset = (long) Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+        if (reset > 100_000_000_000L) {
+            return reset - System.currentTimeMillis();
+        }
+        if (reset > 1_000_000_000L) {
+            return TimeUnit.SECONDS.toMillis(reset) - System.currentTimeMillis();
+        }
+        return TimeUnit.SECONDS.toMillis(reset);
+    }
+}
@@ -0,0 +1,32 @@
+package com.dtflys.forest.lifecycles.method;
+
+import com.dtflys.forest.annotation.StoreAndForward;
+import com.dtflys.forest.exceptions.ForestRuntimeException;
+import com.dtflys.forest.http.ForestRequest;
+import com.dtflys.forest.lifecycles.MethodAnnotationLifeCycle;
+import com.dtflys.forest.reflection.ForestMethod;
+
+/**
+ * 存储转发注解的生命周期类
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class StoreAndForwardLifeCycle implements MethodAnnotationLifeCycle<StoreAndForward, Object> {
+
+    public final static String PARAM_KEY_JOURNAL = "__journal";
+
+    @Override
+    public void onMethodInitialized(ForestMethod method, StoreAndForward annotation) {
+        Class<?> returnClass = method.getMethod().getReturnType();
+        if (!void.class.equals(returnClass) && !Void.class.equals(returnClass)) {
+            throw new ForestRuntimeException("[Forest] method '" + method.getMethod().getName()
+                    + "' annotated with @StoreAndForward must return void, but was " + returnClass.getName());
+        }
+        method.setExtensionParameterValue(PARAM_KEY_JOURNAL, annotation.value());
+    }
+
+    @Override
+    public void onInvokeMethod(ForestRequest request, ForestMethod method, Object[] args) {
+    }
+}
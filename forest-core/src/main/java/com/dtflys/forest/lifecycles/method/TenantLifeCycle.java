@@ -0,0 +1,33 @@
+package com.dtflys.forest.lifecycles.method;
+
+import com.dtflys.forest.annotation.Tenant;
+import com.dtflys.forest.http.ForestRequest;
+import com.dtflys.forest.lifecycles.MethodAnnotationLifeCycle;
+import com.dtflys.forest.mapping.MappingTemplate;
+import com.dtflys.forest.reflection.ForestMethod;
+import com.dtflys.forest.utils.StringUtils;
+
+/**
+ * 请求租户注解的生命周期类
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class TenantLifeCycle implements MethodAnnotationLifeCycle<Tenant, Object> {
+
+    private final static String PARAM_KEY_TENANT = "__tenant";
+
+    @Override
+    public void onMethodInitialized(ForestMethod method, Tenant annotation) {
+        method.setExtensionParameterValue(PARAM_KEY_TENANT, annotation.value());
+    }
+
+    @Override
+    public void onInvokeMethod(ForestRequest request, ForestMethod method, Object[] args) {
+        String tenant = (String) method.getExtensionParameterValue(PARAM_KEY_TENANT);
+        if (StringUtils.isNotBlank(tenant)) {
+            MappingTemplate template = method.makeTemplate(Tenant.class, "value", tenant);
+            request.setTenant(template.render(args));
+        }
+    }
+}
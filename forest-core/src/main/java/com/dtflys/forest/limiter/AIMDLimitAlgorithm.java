@@ -0,0 +1,63 @@
+package com.dtflys.forest.limiter;
+
+/**
+ * AIMD（加性增、乘性减）并发限制算法
+ * <p>请求正常完成且并发数接近上限时，限制数加一；
+ * <p>请求被丢弃或响应时间超过阈值时，限制数按比例缩减
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class AIMDLimitAlgorithm implements LimitAlgorithm {
+
+    /**
+     * 默认缩减比例
+     */
+    public final static double DEFAULT_BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double backoffRatio;
+
+    private final long timeoutNanos;
+
+    private volatile int limit;
+
+    /**
+     * 创建AIMD并发限制算法
+     *
+     * @param initialLimit 初始并发限制数
+     * @param minLimit 最小并发限制数
+     * @param maxLimit 最大并发限制数
+     * @param backoffRatio 缩减比例，取值范围 (0, 1)
+     * @param timeoutNanos 响应时间阈值（纳秒），超过该值视为丢弃，小于等于0时不做判断
+     */
+    public AIMDLimitAlgorithm(int initialLimit, int minLimit, int maxLimit, double backoffRatio, long timeoutNanos) {
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Backoff ratio must be in range (0.0, 1.0)");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.timeoutNanos = timeoutNanos;
+        this.limit = initialLimit;
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public synchronized void onSample(long rttNanos, int inflight, boolean dropped) {
+        int current = limit;
+        if (dropped || (timeoutNanos > 0 && rttNanos > timeoutNanos)) {
+            current = (int) (current * backoffRatio);
+        } else if (inflight * 2 >= current) {
+            current = current + 1;
+        }
+        limit = Math.min(maxLimit, Math.max(minLimit, current));
+    }
+}
@@ -0,0 +1,155 @@
+package com.dtflys.forest.limiter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 并发限制器（舱壁）
+ * <p>限制同一作用范围内同时执行的请求数，并发数上限由 {@link LimitAlgorithm} 决定
+ * <p>超出上限的请求可以在超时时间内排队等待，也可以立即失败
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class ConcurrencyLimiter {
+
+    private final LimitAlgorithm algorithm;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition available = lock.newCondition();
+
+    private int inflight = 0;
+
+    private final AtomicLong rejectedCount = new AtomicLong(0);
+
+    public ConcurrencyLimiter(LimitAlgorithm algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    /**
+     * 尝试获取执行许可
+     *
+     * @param timeout 最大等待时间，小于等于0时不等待
+     * @param unit 时间单位
+     * @return 执行许可，获取失败时返回 {@code null}
+     * @throws InterruptedException 等待过程中线程被中断
+     */
+    public Permit tryAcquire(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (inflight >= algorithm.getLimit()) {
+                if (nanos <= 0) {
+                    rejectedCount.incrementAndGet();
+                    return null;
+                }
+                nanos = available.awaitNanos(nanos);
+            }
+            inflight++;
+            return new Permit(inflight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(Permit permit, boolean dropped, boolean sample) {
+        if (sample) {
+            final long rtt = System.nanoTime() - permit.startTime;
+            algorithm.onSample(rtt, permit.inflight, dropped);
+        }
+        lock.lock();
+        try {
+            inflight--;
+            if (algorithm.getLimit() - inflight > 1) {
+                available.signalAll();
+            } else {
+                available.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 获取当前并发限制数
+     *
+     * @return 并发限制数
+     */
+    public int getLimit() {
+        return algorithm.getLimit();
+    }
+
+    /**
+     * 获取正在执行中的请求数
+     *
+     * @return 正在执行中的请求数
+     */
+    public int getInflight() {
+        lock.lock();
+        try {
+            return inflight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 获取因超出并发限制而被拒绝的请求数
+     *
+     * @return 被拒绝的请求数
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * 执行许可
+     * <p>每个许可只能被释放一次，重复释放会被忽略
+     */
+    public class Permit {
+
+        private final long startTime = System.nanoTime();
+
+        private final int inflight;
+
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        private Permit(int inflight) {
+            this.inflight = inflight;
+        }
+
+        /**
+         * 释放许可，并将本次请求的响应时间反馈给并发限制算法
+         *
+         * @param dropped 请求是否被丢弃（如超时、网络异常）
+         */
+        public void release(boolean dropped) {
+            if (released.compareAndSet(false, true)) {
+                ConcurrencyLimiter.this.release(this, dropped, true);
+            }
+        }
+
+        /**
+         * 释放许可，但不向并发限制算法反馈响应时间
+         * <p>用于请求最终没有发送（如被熔断、被限流、被取消）的情况
+         */
+        public void cancel() {
+            if (released.compareAndSet(false, true)) {
+                ConcurrencyLimiter.this.release(this, false, false);
+            }
+        }
+
+        /**
+         * 许可是否已被释放
+         *
+         * @return {@code true}: 已释放, {@code false}: 未释放
+         */
+        public boolean isReleased() {
+            return released.get();
+        }
+    }
+}
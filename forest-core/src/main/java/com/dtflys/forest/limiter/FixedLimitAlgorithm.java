@@ -0,0 +1,26 @@
+package com.dtflys.forest.limiter;
+
+/**
+ * 固定并发限制算法
+ * <p>并发数始终保持为设定值，不随响应时间变化
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class FixedLimitAlgorithm implements LimitAlgorithm {
+
+    private final int limit;
+
+    public FixedLimitAlgorithm(int limit) {
+        this.limit = limit;
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public void onSample(long rttNanos, int inflight, boolean dropped) {
+    }
+}
@@ -0,0 +1,72 @@
+package com.dtflys.forest.limiter;
+
+/**
+ * 梯度（Vegas风格）并发限制算法
+ * <p>以长期平均响应时间与本次响应时间的比值作为梯度：
+ * 响应时间变长说明下游开始排队，限制数随梯度下降；响应时间稳定时限制数按队列余量缓慢增长
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class GradientLimitAlgorithm implements LimitAlgorithm {
+
+    /**
+     * 长期响应时间指数平均的窗口大小
+     */
+    private final static int LONG_WINDOW = 600;
+
+    /**
+     * 限制数变化的平滑系数
+     */
+    private final static double SMOOTHING = 0.2;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private volatile double limit;
+
+    private double longRtt = -1;
+
+    /**
+     * 创建梯度并发限制算法
+     *
+     * @param initialLimit 初始并发限制数
+     * @param minLimit 最小并发限制数
+     * @param maxLimit 最大并发限制数
+     */
+    public GradientLimitAlgorithm(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+    }
+
+    @Override
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    @Override
+    public synchronized void onSample(long rttNanos, int inflight, boolean dropped) {
+        final double current = limit;
+        if (dropped) {
+            limit = Math.max(minLimit, current / 2);
+            return;
+        }
+        final double shortRtt = Math.max(1, rttNanos);
+        if (longRtt < 0) {
+            longRtt = shortRtt;
+        } else {
+            longRtt = longRtt + (shortRtt - longRtt) * 2 / (LONG_WINDOW + 1);
+        }
+        // 下游处于空闲状态且响应时间没有变长时，保持当前限制数，避免无意义地增长
+        if (inflight < current / 2 && shortRtt <= longRtt) {
+            return;
+        }
+        final double gradient = Math.max(0.5, Math.min(1.0, longRtt / shortRtt));
+        final double queueSize = Math.sqrt(current);
+        double newLimit = current * gradient + queueSize;
+        newLimit = current * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        limit = Math.min(maxLimit, Math.max(minLimit, newLimit));
+    }
+}
@@ -0,0 +1,27 @@
+package com.dtflys.forest.limiter;
+
+/**
+ * 并发限制算法接口
+ * <p>根据每次请求的响应时间和是否被丢弃（超时、网络异常等）动态计算当前允许的最大并发数
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public interface LimitAlgorithm {
+
+    /**
+     * 获取当前的并发限制数
+     *
+     * @return 并发限制数
+     */
+    int getLimit();
+
+    /**
+     * 记录一次请求的采样结果
+     *
+     * @param rttNanos 请求往返时间（纳秒）
+     * @param inflight 请求开始时正在执行中的请求数
+     * @param dropped 请求是否被丢弃（如超时、网络异常）
+     */
+    void onSample(long rttNanos, int inflight, boolean dropped);
+}
@@ -0,0 +1,48 @@
+package com.dtflys.forest.limiter;
+
+import com.dtflys.forest.http.ForestRequest;
+import com.dtflys.forest.reflection.ForestMethod;
+
+/**
+ * 限流器的作用范围
+ * <p>作用范围相同的请求共享同一个限流器
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public enum LimitScope {
+
+    /**
+     * 每个接口方法一个限流器
+     */
+    METHOD,
+
+    /**
+     * 每个接口一个限流器，接口中所有方法共享
+     */
+    INTERFACE,
+
+    /**
+     * 每个请求路由（协议+主机+端口）一个限流器
+     */
+    ROUTE;
+
+    /**
+     * 获取请求在该作用范围下的键
+     * <p>键相同的请求共享同一个限流器
+     *
+     * @param request Forest请求对象
+     * @return 作用范围的键
+     */
+    public String keyOf(ForestRequest request) {
+        ForestMethod method = request.getMethod();
+        switch (this) {
+            case METHOD:
+                return "method:" + method.getMethod().toGenericString();
+            case ROUTE:
+                return "route:" + request.getScheme() + "://" + request.getHost() + ":" + request.getPort();
+            default:
+                return "interface:" + method.getInterfaceProxyHandler().getInterfaceClass().getName();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.dtflys.forest.limiter;
+
+/**
+ * 并发限制策略
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public enum LimitStrategy {
+
+    /**
+     * 固定并发数
+     */
+    FIXED,
+
+    /**
+     * AIMD（加性增、乘性减）自适应并发数
+     */
+    AIMD,
+
+    /**
+     * 根据响应时间梯度（Vegas风格）自适应并发数
+     */
+    GRADIENT
+}
@@ -0,0 +1,102 @@
+package com.dtflys.forest.limiter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 无锁令牌桶限流器
+ * <p>采用 GCRA（通用信元速率算法）实现：只用一个原子变量记录下一个许可的理论到达时间，
+ * 预订许可时通过 CAS 推进该时间，不需要加锁，也不需要后台线程补充令牌
+ * <p>每个周期 {@code period} 内最多发放 {@code permits} 个许可，并允许最多 {@code permits} 个许可的突发
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class TokenBucketRateLimiter {
+
+    /**
+     * 发放两个许可之间的时间间隔（纳秒）
+     */
+    private final long intervalNanos;
+
+    /**
+     * 允许突发的时间容差（纳秒）
+     */
+    private final long toleranceNanos;
+
+    /**
+     * 下一个许可的理论到达时间（纳秒）
+     */
+    private final AtomicLong theoreticalArrivalTime;
+
+    private final AtomicLong rejectedCount = new AtomicLong(0);
+
+    /**
+     * 创建无锁令牌桶限流器
+     *
+     * @param permits 每个周期内的许可数
+     * @param periodNanos 周期（纳秒）
+     */
+    public TokenBucketRateLimiter(int permits, long periodNanos) {
+        if (permits <= 0 || periodNanos <= 0) {
+            throw new IllegalArgumentException("Permits and period must be greater than 0");
+        }
+        this.intervalNanos = Math.max(1, periodNanos / permits);
+        this.toleranceNanos = periodNanos - intervalNanos;
+        this.theoreticalArrivalTime = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * 预订一个许可
+     * <p>预订成功后，调用方需要等待返回的时间后才能发送请求；
+     * 需要等待的时间超过 {@code maxWaitNanos} 时预订失败，且不占用任何许可
+     *
+     * @param maxWaitNanos 最大等待时间（纳秒）
+     * @return 需要等待的时间（纳秒），预订失败时返回 {@code -1}
+     */
+    public long reserve(long maxWaitNanos) {
+        for (;;) {
+            long now = System.nanoTime();
+            long tat = theoreticalArrivalTime.get();
+            long base = tat - now > 0 ? tat : now;
+            long wait = base - now - toleranceNanos;
+            if (wait < 0) {
+                wait = 0;
+            }
+            if (wait > maxWaitNanos) {
+                rejectedCount.incrementAndGet();
+                return -1;
+            }
+            if (theoreticalArrivalTime.compareAndSet(tat, base + intervalNanos)) {
+                return wait;
+            }
+        }
+    }
+
+    /**
+     * 暂停发放许可直到指定时间
+     * <p>一般在服务端返回 {@code Retry-After} 等限流响应头时调用，暂停结束后按正常速率恢复，不会产生突发
+     *
+     * @param untilNanoTime 暂停结束的时间（{@link System#nanoTime()}时间）
+     */
+    public void pauseUntil(long untilNanoTime) {
+        long target = untilNanoTime + toleranceNanos;
+        for (;;) {
+            long tat = theoreticalArrivalTime.get();
+            if (tat - target >= 0) {
+                return;
+            }
+            if (theoreticalArrivalTime.compareAndSet(tat, target)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 获取因等待时间过长而被拒绝的请求数
+     *
+     * @return 被拒绝的请求数
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+}
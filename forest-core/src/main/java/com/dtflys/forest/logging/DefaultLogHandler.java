@@ -1,6 +1,7 @@
 package com.dtflys.forest.logging;
 
 import com.dtflys.forest.backend.HttpBackend;
+import com.dtflys.forest.cache.ForestRedirectCache;
 import com.dtflys.forest.http.ForestRequest;
 import com.dtflys.forest.http.ForestResponse;
 import com.dtflys.forest.utils.StringUtils;
@@ -106,6 +107,14 @@ public class DefaultLogHandler implements ForestLogHandler {
      */
     protected String redirection(RequestLogMessage requestLogMessage) {
         ForestRequest request = requestLogMessage.getRequest();
+        ForestRedirectCache.Rewrite rewrite = request.getRedirectCacheRewrite();
+        if (rewrite != null) {
+            return "[Redirect Cache]: From " +
+                    rewrite.getOriginKey() +
+                    " -> " +
+                    rewrite.getStatusCode() +
+                    "\n\t";
+        }
         if (request.isRedirection()) {
             ForestRequest prevRequest = request.getPrevRequest();
             ForestResponse prevResponse = request.getPrevResponse();
@@ -0,0 +1,335 @@
+package com.dtflys.forest.mapping;
+
+import com.dtflys.forest.config.VariableScope;
+import com.dtflys.forest.exceptions.ForestRuntimeException;
+import com.dtflys.forest.exceptions.ForestVariableUndefinedException;
+import com.dtflys.forest.reflection.ForestAccessors;
+import com.dtflys.forest.reflection.ForestPropertyAccessor;
+import com.dtflys.forest.utils.URLUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 编译后的字符串模板
+ * <p>将 {@link MappingTemplate} 解析出的表达式列表编译为一组渲染片段，与表达式一一对应，
+ * 渲染时依次将各片段的值追加到当前线程复用的缓冲区中，不再对每个表达式逐个判断类型、逐层求值:
+ * <ul>
+ *     <li>字符串片段直接追加</li>
+ *     <li>参数序号片段 ({@code ${0}}) 直接读取方法参数</li>
+ *     <li>变量引用及其属性链片段 ({@code {user.name}}) 将变量绑定到对应的参数位置，属性访问使用单态内联缓存</li>
+ *     <li>其它表达式（方法调用、过滤器、字面量等）仍由解释器求值</li>
+ * </ul>
+ * 只有在值确实需要转换为JSON时才获取JSON转换器
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+final class CompiledMappingTemplate {
+
+    /**
+     * 复用缓冲区的最大容量，渲染结果超过该大小后缓冲区不再复用，避免长期占用内存
+     */
+    private final static int MAX_BUFFER_CAPACITY = 4096;
+
+    /**
+     * 当前线程复用的缓冲区，使用期间从中取出，嵌套渲染时会另外创建缓冲区
+     */
+    private final static ThreadLocal<StringBuilder[]> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder[1]);
+
+    private final Segment[] segments;
+
+    private CompiledMappingTemplate(Segment[] segments) {
+        this.segments = segments;
+    }
+
+    /**
+     * 编译模板
+     *
+     * @param exprList 模板解析出的表达式列表
+     * @return 编译后的模板
+     */
+    static CompiledMappingTemplate compile(List<MappingExpr> exprList) {
+        Segment[] segments = new Segment[exprList.size()];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = compileExpression(exprList.get(i));
+        }
+        return new CompiledMappingTemplate(segments);
+    }
+
+    private static Segment compileExpression(MappingExpr expr) {
+        if (expr instanceof MappingString) {
+            return new TextSegment(((MappingString) expr).getText());
+        }
+        if (expr instanceof MappingIndex) {
+            return new IndexSegment(((MappingIndex) expr).getIndex());
+        }
+        boolean stringify = false;
+        MappingExpr target = expr;
+        if (expr instanceof MappingUrlEncodedExpr) {
+            stringify = true;
+            target = ((MappingUrlEncodedExpr) expr).getExpr();
+        }
+        List<String> properties = new ArrayList<>();
+        while (target.getClass() == MappingDot.class) {
+            MappingDot dot = (MappingDot) target;
+            properties.add(0, dot.right.getName());
+            target = dot.left;
+        }
+        if (target instanceof MappingReference) {
+            return new ReferenceSegment(
+                    ((MappingReference) target).getName(), properties.toArray(new String[0]), stringify);
+        }
+        return new ExpressionSegment(expr);
+    }
+
+    /**
+     * 渲染模板
+     *
+     * @param template 模板
+     * @param args 方法参数
+     * @return 渲染结果
+     */
+    String render(MappingTemplate template, Object[] args) {
+        StringBuilder[] holder = BUFFER.get();
+        StringBuilder builder = holder[0];
+        holder[0] = null;
+        if (builder == null) {
+            builder = new StringBuilder(64);
+        }
+        try {
+            for (Segment segment : segments) {
+                String val = segment.render(template, args);
+                if (val != null) {
+                    builder.append(val);
+                }
+            }
+            return builder.toString();
+        } finally {
+            if (builder.capacity() <= MAX_BUFFER_CAPACITY) {
+                builder.setLength(0);
+                holder[0] = builder;
+            }
+        }
+    }
+
+    /**
+     * 渲染单个表达式，结果与 {@link MappingTemplate#renderExpression} 相同
+     *
+     * @param index 表达式在表达式列表中的位置
+     * @param template 模板
+     * @param args 方法参数
+     * @return 表达式的值，没有值时返回 {@code null}
+     */
+    String renderSegment(int index, MappingTemplate template, Object[] args) {
+        return segments[index].render(template, args);
+    }
+
+    private static String stringValue(MappingTemplate template, Object val) {
+        if (val instanceof String) {
+            return (String) val;
+        }
+        if (val instanceof Map || val instanceof Collection) {
+            return template.variableScope.getConfiguration().getJsonConverter().encodeToString(val);
+        }
+        return MappingTemplate.getParameterValue(null, val);
+    }
+
+    /**
+     * 渲染片段
+     */
+    private abstract static class Segment {
+
+        abstract String render(MappingTemplate template, Object[] args);
+    }
+
+    private final static class TextSegment extends Segment {
+
+        private final String text;
+
+        TextSegment(String text) {
+            this.text = text;
+        }
+
+        @Override
+        String render(MappingTemplate template, Object[] args) {
+            return text;
+        }
+    }
+
+    private final static class IndexSegment extends Segment {
+
+        private final int index;
+
+        IndexSegment(int index) {
+            this.index = index;
+        }
+
+        @Override
+        String render(MappingTemplate template, Object[] args) {
+            MappingParameter[] parameters = template.parameters;
+            if (index < 0 || parameters == null || index >= parameters.length
+                    || args == null || index >= args.length) {
+                return null;
+            }
+            Object val = args[index];
+            if (val == null) {
+                return null;
+            }
+            String str = stringValue(template, val);
+            MappingParameter param = parameters[index];
+            if (param != null && param.isUrlEncode()) {
+                str = URLUtils.queryValueEncode(str, param.getCharset());
+            }
+            return str;
+        }
+    }
+
+    /**
+     * 变量引用及其属性链，如 {@code {user.name}}
+     */
+    private final static class ReferenceSegment extends Segment {
+
+        private final String name;
+
+        private final PropertyStep[] steps;
+
+        /**
+         * 是否按 {@link MappingUrlEncodedExpr} 先将值转换为字符串
+         */
+        private final boolean stringify;
+
+        /**
+         * 变量在上一次渲染时所在作用域中对应的参数位置
+         */
+        private volatile Binding binding;
+
+        ReferenceSegment(String name, String[] properties, boolean stringify) {
+            this.name = name;
+            this.stringify = stringify;
+            this.steps = new PropertyStep[properties.length];
+            for (int i = 0; i < properties.length; i++) {
+                steps[i] = new PropertyStep(properties[i]);
+            }
+        }
+
+        private Object resolve(MappingTemplate template, Object[] args) {
+            VariableScope scope = template.variableScope;
+            Binding b = binding;
+            if (b != null && b.scope == scope) {
+                return args[b.index];
+            }
+            MappingVariable variable = scope.getVariable(name);
+            if (variable != null) {
+                binding = new Binding(scope, variable.getIndex());
+                return args[variable.getIndex()];
+            }
+            // 全局变量的值可能随时变化，每次都重新获取
+            if (!scope.isVariableDefined(name)) {
+                throw new ForestVariableUndefinedException(name);
+            }
+            return scope.getVariableValue(name, template.forestMethod);
+        }
+
+        @Override
+        String render(MappingTemplate template, Object[] args) {
+            Object val = resolve(template, args);
+            for (PropertyStep step : steps) {
+                val = step.get(val);
+            }
+            if (val == null) {
+                return null;
+            }
+            return stringify ? String.valueOf(val) : stringValue(template, val);
+        }
+    }
+
+    private final static class Binding {
+
+        final VariableScope scope;
+
+        final int index;
+
+        Binding(VariableScope scope, int index) {
+            this.scope = scope;
+            this.index = index;
+        }
+    }
+
+    /**
+     * 属性链中的一步，行为与 {@link MappingDot#render} 相同
+     */
+    private final static class PropertyStep {
+
+        private final String name;
+
+        /**
+         * 单态内联缓存: 上一次求值时对象的类型和对应的属性访问器
+         */
+        private volatile AccessorCache cache;
+
+        PropertyStep(String name) {
+            this.name = name;
+        }
+
+        Object get(Object obj) {
+            if (obj == null) {
+                throw new ForestRuntimeException(new NullPointerException());
+            }
+            if (obj instanceof Map) {
+                return ((Map) obj).get(name);
+            }
+            Class<?> type = obj.getClass();
+            AccessorCache c = cache;
+            ForestPropertyAccessor accessor;
+            if (c != null && c.type == type) {
+                accessor = c.accessor;
+            } else {
+                accessor = ForestAccessors.getPropertyAccessor(type, name);
+                cache = new AccessorCache(type, accessor);
+            }
+            try {
+                return accessor.get(obj);
+            } catch (ForestRuntimeException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                throw new ForestRuntimeException(e);
+            }
+        }
+    }
+
+    private final static class AccessorCache {
+
+        final Class<?> type;
+
+        final ForestPropertyAccessor accessor;
+
+        AccessorCache(Class<?> type, ForestPropertyAccessor accessor) {
+            this.type = type;
+            this.accessor = accessor;
+        }
+    }
+
+    /**
+     * 由解释器求值的表达式
+     */
+    private final static class ExpressionSegment extends Segment {
+
+        private final MappingExpr expr;
+
+        ExpressionSegment(MappingExpr expr) {
+            this.expr = expr;
+        }
+
+        @Override
+        String render(MappingTemplate template, Object[] args) {
+            Object val = expr.render(args);
+            if (val == null) {
+                return null;
+            }
+            return stringValue(template, val);
+        }
+    }
+}
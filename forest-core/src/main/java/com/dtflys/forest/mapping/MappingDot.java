@@ -2,10 +2,11 @@ package com.dtflys.forest.mapping;
 
 import com.dtflys.forest.config.VariableScope;
 import com.dtflys.forest.exceptions.ForestRuntimeException;
+import com.dtflys.forest.reflection.ForestAccessors;
 import com.dtflys.forest.reflection.ForestMethod;
+import com.dtflys.forest.reflection.ForestPropertyAccessor;
 import com.dtflys.forest.utils.StringUtils;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Map;
 
@@ -18,6 +19,12 @@ public class MappingDot extends MappingExpr {
     protected final MappingExpr left;
     protected final MappingIdentity right;
 
+    /**
+     * 单态内联缓存: 上一次求值时对象的类型和对应的属性访问器
+     * <p>同一位置的表达式绝大多数时候求值的都是同一类型的对象，命中时不需要再查找访问器
+     */
+    private volatile AccessorCache accessorCache;
+
     public MappingDot(ForestMethod forestMethod, VariableScope variableScope, MappingExpr left, MappingIdentity right) {
         this(forestMethod, Token.DOT, variableScope, left, right);
     }
@@ -30,29 +37,30 @@ public class MappingDot extends MappingExpr {
     }
 
     public Method getPropMethodFromClass(Class clazz, MappingIdentity right) {
-        Method method = null;
-        String getterName = StringUtils.toGetterName(right.getName());
-        Throwable th = null;
-        try {
-            method = clazz.getDeclaredMethod(getterName);
-        } catch (NoSuchMethodException e) {
-            try {
-                method = clazz.getDeclaredMethod(right.getName());
-            } catch (NoSuchMethodException e1) {
-                th = e1;
-            }
-        }
+        Method method = ForestAccessors.findPropertyMethod(clazz, right.getName());
         if (method == null) {
-            if (!Object.class.equals(clazz)) {
-                return getPropMethodFromClass(clazz.getSuperclass(), right);
-            }
-            if (th != null) {
-                throw new ForestRuntimeException(th);
-            }
+            throw new ForestRuntimeException(new NoSuchMethodException(StringUtils.toGetterName(right.getName())));
         }
         return method;
     }
 
+    /**
+     * 获取对象类型对应的属性访问器
+     *
+     * @param clazz 对象类型
+     * @return 属性访问器
+     * @since 1.5.19
+     */
+    protected ForestPropertyAccessor getPropertyAccessor(Class<?> clazz) {
+        AccessorCache cache = accessorCache;
+        if (cache != null && cache.type == clazz) {
+            return cache.accessor;
+        }
+        ForestPropertyAccessor accessor = ForestAccessors.getPropertyAccessor(clazz, right.getName());
+        accessorCache = new AccessorCache(clazz, accessor);
+        return accessor;
+    }
+
     @Override
     public void setVariableScope(VariableScope variableScope) {
         super.setVariableScope(variableScope);
@@ -85,21 +93,28 @@ public class MappingDot extends MappingExpr {
         if (obj instanceof Map) {
             return ((Map) obj).get(right.getName());
         }
-        String getterName = StringUtils.toGetterName(right.getName());
-        Method method = getPropMethodFromClass(obj.getClass(), right);
-        if (method == null) {
-            throw new ForestRuntimeException(new NoSuchMethodException(getterName));
-        }
+        ForestPropertyAccessor accessor = getPropertyAccessor(obj.getClass());
         try {
-            Object result = method.invoke(obj);
-            return result;
-        } catch (InvocationTargetException e) {
-            throw new ForestRuntimeException(e);
-        } catch (IllegalAccessException e) {
+            return accessor.get(obj);
+        } catch (ForestRuntimeException e) {
+            throw e;
+        } catch (RuntimeException e) {
             throw new ForestRuntimeException(e);
         }
     }
 
+    private static class AccessorCache {
+
+        final Class<?> type;
+
+        final ForestPropertyAccessor accessor;
+
+        AccessorCache(Class<?> type, ForestPropertyAccessor accessor) {
+            this.type = type;
+            this.accessor = accessor;
+        }
+    }
+
 
 
     @Override
@@ -2,10 +2,10 @@ package com.dtflys.forest.mapping;
 
 import com.dtflys.forest.config.VariableScope;
 import com.dtflys.forest.exceptions.ForestRuntimeException;
+import com.dtflys.forest.reflection.ForestAccessors;
 import com.dtflys.forest.reflection.ForestMethod;
+import com.dtflys.forest.reflection.ForestMethodInvoker;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.List;
 
 /**
@@ -16,6 +16,11 @@ public class MappingInvoke extends MappingDot {
 
     private List<MappingExpr> argList;
 
+    /**
+     * 单态内联缓存: 上一次求值时对象的类型和对应的方法调用器
+     */
+    private volatile InvokerCache invokerCache;
+
     public MappingInvoke(ForestMethod<?> forestMethod, VariableScope variableScope, MappingExpr left, MappingIdentity name, List<MappingExpr> argList) {
         this(forestMethod, Token.INVOKE, variableScope, left, name, argList);
     }
@@ -42,30 +47,40 @@ public class MappingInvoke extends MappingDot {
     @Override
     public Object render(Object[] args) {
         Object obj = left.render(args);
-        String methodName = right.getName();
+        int argCount = argList == null ? 0 : argList.size();
+        Object[] renderArgs = new Object[argCount];
+        for (int i = 0; i < argCount; i++) {
+            MappingExpr expr = argList.get(i);
+            renderArgs[i] = expr.render(args);
+        }
+        Class<?> clazz = obj.getClass();
+        InvokerCache cache = invokerCache;
+        ForestMethodInvoker invoker;
+        if (cache != null && cache.type == clazz) {
+            invoker = cache.invoker;
+        } else {
+            invoker = ForestAccessors.getMethodInvoker(clazz, right.getName(), argCount);
+            invokerCache = new InvokerCache(clazz, invoker);
+        }
         try {
-            Method method = obj.getClass().getDeclaredMethod(methodName);
-            Object result = null;
-            if (argList == null || argList.isEmpty()) {
-                result = method.invoke(obj);
-            }
-            else {
-                Object[] renderArgs = new Object[argList.size()];
-                for (int i = 0, len = argList.size(); i < len; i++) {
-                    MappingExpr expr = argList.get(i);
-                    renderArgs[i] = expr.render(args);
-                }
-                result = method.invoke(obj, renderArgs);
-            }
-            return result;
-        } catch (NoSuchMethodException e) {
-            throw new ForestRuntimeException(e);
-        } catch (InvocationTargetException e) {
-            throw new ForestRuntimeException(e);
-        } catch (IllegalAccessException e) {
+            return invoker.invoke(obj, renderArgs);
+        } catch (ForestRuntimeException e) {
+            throw e;
+        } catch (RuntimeException e) {
             throw new ForestRuntimeException(e);
         }
+    }
+
+    private static class InvokerCache {
 
+        final Class<?> type;
+
+        final ForestMethodInvoker invoker;
+
+        InvokerCache(Class<?> type, ForestMethodInvoker invoker) {
+            this.type = type;
+            this.invoker = invoker;
+        }
     }
 
     @Override
@@ -27,6 +27,14 @@ public class MappingTemplate {
     protected   String template;
     protected List<MappingExpr> exprList;
     protected VariableScope variableScope;
+    /**
+     * 不含任何表达式的模板在编译时即确定的字符串值，含有表达式时为 {@code null}
+     */
+    protected String constantValue;
+    /**
+     * 编译后的模板，首次以编译方式渲染时生成
+     */
+    private volatile CompiledMappingTemplate compiledTemplate;
     int readIndex = -1;
 
     private boolean isEnd(int index) {
@@ -108,6 +116,24 @@ public class MappingTemplate {
         compile();
     }
 
+    /**
+     * 复制模板，与原模板共享已编译的表达式列表，不再重新编译
+     *
+     * @param source 原模板
+     */
+    protected MappingTemplate(MappingTemplate source) {
+        this.annotationType = source.annotationType;
+        this.attributeName = source.attributeName;
+        this.forestMethod = source.forestMethod;
+        this.template = source.template;
+        this.variableScope = source.variableScope;
+        this.properties = source.properties;
+        this.parameters = source.parameters;
+        this.exprList = source.exprList;
+        this.constantValue = source.constantValue;
+        this.compiledTemplate = source.compiledTemplate;
+    }
+
     public void compile() {
         readIndex = -1;
         exprList = new ArrayList<>();
@@ -189,6 +215,46 @@ public class MappingTemplate {
             MappingString str = new MappingString(buffer.toString());
             exprList.add(str);
         }
+        constantValue = foldConstant(exprList);
+        compiledTemplate = null;
+    }
+
+    /**
+     * 将只由字符串片段组成的表达式列表折叠为字符串
+     *
+     * @param exprList 表达式列表
+     * @return 折叠后的字符串，含有非字符串表达式时返回 {@code null}
+     */
+    private static String foldConstant(List<MappingExpr> exprList) {
+        StringBuilder builder = new StringBuilder();
+        for (MappingExpr expr : exprList) {
+            if (!(expr instanceof MappingString)) {
+                return null;
+            }
+            builder.append(((MappingString) expr).getText());
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 是否为常量模板，即不含任何变量、参数或属性引用的模板
+     * <p>常量模板的渲染结果在编译时就已确定，渲染时直接返回
+     *
+     * @return {@code true}: 常量模板, {@code false}: 非常量模板
+     * @since 1.5.19
+     */
+    public boolean isConstant() {
+        return constantValue != null;
+    }
+
+    /**
+     * 获取常量模板的值
+     *
+     * @return 常量模板的值，非常量模板时返回 {@code null}
+     * @since 1.5.19
+     */
+    public String getConstantValue() {
+        return constantValue;
     }
 
     public boolean hasIterateVariable() {
@@ -483,7 +549,14 @@ public class MappingTemplate {
 
 
     public String render(Object[] args) {
+        if (constantValue != null) {
+            return constantValue;
+        }
         try {
+            CompiledMappingTemplate compiled = getCompiledTemplate();
+            if (compiled != null) {
+                return compiled.render(this, args);
+            }
             ForestJsonConverter jsonConverter = variableScope.getConfiguration().getJsonConverter();
             int len = exprList.size();
             StringBuilder builder = new StringBuilder();
@@ -500,6 +573,25 @@ public class MappingTemplate {
         }
     }
 
+    /**
+     * 获取编译后的模板，首次调用时编译
+     * <p>未启用模板编译时返回 {@code null}，由解释器逐个表达式求值渲染
+     *
+     * @return 编译后的模板
+     * @since 1.5.19
+     */
+    CompiledMappingTemplate getCompiledTemplate() {
+        if (!variableScope.getConfiguration().isTemplateCompileEnabled()) {
+            return null;
+        }
+        CompiledMappingTemplate compiled = compiledTemplate;
+        if (compiled == null) {
+            compiled = CompiledMappingTemplate.compile(exprList);
+            compiledTemplate = compiled;
+        }
+        return compiled;
+    }
+
     public static String getParameterValue(ForestJsonConverter jsonConverter, Object obj) {
         if (obj == null) {
             return null;
@@ -570,9 +662,7 @@ public class MappingTemplate {
 
     @Override
     public MappingTemplate clone() {
-        MappingTemplate template = new MappingTemplate(annotationType, attributeName, forestMethod, this.template, this.variableScope, this.properties, this.parameters);
-        template.exprList = this.exprList;
-        return template;
+        return new MappingTemplate(this);
     }
 
 
@@ -18,6 +18,15 @@ import java.util.Arrays;
 
 public class MappingURLTemplate extends MappingTemplate {
 
+    /**
+     * 常量URL模板预先解析出的URL
+     */
+    private volatile ForestURL constantURL;
+
+    /**
+     * 常量URL模板预先解析出的Query参数
+     */
+    private volatile ForestQueryParameter[] constantQueries;
 
     public MappingURLTemplate(Class<? extends Annotation> annotationType, String attributeName, ForestMethod<?> forestMethod, String template, VariableScope variableScope, ForestProperties properties, MappingParameter[] parameters) {
         super(annotationType, attributeName, forestMethod, template, variableScope, properties, parameters);
@@ -29,6 +38,26 @@ public class MappingURLTemplate extends MappingTemplate {
     }
 
     public ForestURL render(Object[] args, ForestQueryMap queries) {
+        if (constantValue == null) {
+            return renderURL(args, queries);
+        }
+        ForestURL url = constantURL;
+        ForestQueryParameter[] urlQueries = constantQueries;
+        if (url == null) {
+            // 常量URL只解析一次，之后每次渲染只复制解析结果
+            ForestQueryMap parsedQueries = new ForestQueryMap();
+            url = renderURL(args, parsedQueries);
+            urlQueries = parsedQueries.queryValues().toArray(new ForestQueryParameter[0]);
+            constantQueries = urlQueries;
+            constantURL = url;
+        }
+        for (ForestQueryParameter query : urlQueries) {
+            queries.addQuery(new ForestQueryParameter(query.getName(), query.getValue()));
+        }
+        return url.copy();
+    }
+
+    private ForestURL renderURL(Object[] args, ForestQueryMap queries) {
         String schema = null;
         String userInfo = null;
         String host = null;
@@ -40,13 +69,16 @@ public class MappingURLTemplate extends MappingTemplate {
         boolean nextIsPort = false;
         boolean renderedPath = false;
         try {
-            ForestJsonConverter jsonConverter = variableScope.getConfiguration().getJsonConverter();
+            CompiledMappingTemplate compiled = getCompiledTemplate();
+            ForestJsonConverter jsonConverter = compiled == null ? variableScope.getConfiguration().getJsonConverter() : null;
             int len = exprList.size();
             StringBuilder builder = new StringBuilder();
             ForestQueryParameter lastQuery  = null;
             for (int i = 0; i < len; i++) {
                 MappingExpr expr = exprList.get(i);
-                String exprVal = renderExpression(jsonConverter, expr, args);
+                String exprVal = compiled != null ?
+                        compiled.renderSegment(i, this, args) :
+                        renderExpression(jsonConverter, expr, args);
                 if (exprVal != null) {
                     builder.append(exprVal);
                 }
@@ -0,0 +1,269 @@
+package com.dtflys.forest.memoize;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 方法结果缓存
+ * <p>保存 {@link com.dtflys.forest.annotation.Memoize} 修饰的方法返回的Java对象，每个条目有各自的过期时间，
+ * 条目数量超过最大值时淘汰最久未访问的条目 (LRU)，过期的条目在被访问时删除
+ * <p>缓存键为渲染后的缓存键模板字符串，未设置模板时为方法的全部参数值，可通过 {@link #invalidateArgs(Object...)} 按参数值失效
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class ForestMemoizeCache {
+
+    private final String name;
+
+    private final int maxSize;
+
+    private final LinkedHashMap<Object, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final AtomicLong hitCount = new AtomicLong(0);
+
+    private final AtomicLong missCount = new AtomicLong(0);
+
+    private final AtomicLong refreshCount = new AtomicLong(0);
+
+    private long evictionCount = 0;
+
+    /**
+     * @param name 缓存名称
+     * @param maxSize 最大条目数量
+     */
+    public ForestMemoizeCache(String name, int maxSize) {
+        this.name = name;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * 由方法参数值生成缓存键
+     *
+     * @param args 方法参数值
+     * @return 缓存键
+     */
+    public static Object keyOf(Object... args) {
+        return new ArgumentsKey(args == null ? new Object[0] : args);
+    }
+
+    /**
+     * 查找未过期的条目并记录命中或未命中
+     */
+    Entry getEntry(Object key, long now) {
+        Entry entry;
+        lock.lock();
+        try {
+            entry = entries.get(key);
+            if (entry != null && entry.expireAt <= now) {
+                entries.remove(key);
+                entry = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (entry != null) {
+            hitCount.incrementAndGet();
+        } else {
+            missCount.incrementAndGet();
+        }
+        return entry;
+    }
+
+    /**
+     * 获取缓存的对象
+     *
+     * @param key 缓存键
+     * @return 缓存的对象，不存在或已过期时返回 {@code null}
+     */
+    public Object get(Object key) {
+        long now = System.currentTimeMillis();
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            return entry != null && entry.expireAt > now ? entry.value : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 保存对象
+     *
+     * @param key 缓存键
+     * @param value 对象，为 {@code null} 时删除该缓存键
+     * @param ttl 存活时间（毫秒）
+     */
+    public void put(Object key, Object value, long ttl) {
+        if (value == null || ttl <= 0) {
+            invalidate(key);
+            return;
+        }
+        Entry entry = new Entry(value, System.currentTimeMillis() + ttl);
+        lock.lock();
+        try {
+            entries.put(key, entry);
+            Iterator<Map.Entry<Object, Entry>> iterator = entries.entrySet().iterator();
+            while (entries.size() > maxSize && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+                evictionCount++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 使缓存键对应的条目失效
+     *
+     * @param key 缓存键，设置了缓存键模板时为渲染后的字符串
+     */
+    public void invalidate(Object key) {
+        lock.lock();
+        try {
+            entries.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 使参数值对应的条目失效，仅适用于未设置缓存键模板的缓存
+     *
+     * @param args 方法参数值
+     */
+    public void invalidateArgs(Object... args) {
+        invalidate(keyOf(args));
+    }
+
+    /**
+     * 使全部条目失效
+     */
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void recordRefresh() {
+        refreshCount.incrementAndGet();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * 获取当前的条目数量（包括已过期但还未删除的条目）
+     *
+     * @return 条目数量
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * 获取命中率
+     *
+     * @return 命中率，没有任何查找时返回 {@code 0}
+     */
+    public double getHitRate() {
+        long hits = hitCount.get();
+        long total = hits + missCount.get();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * 获取在后台提前刷新的次数
+     *
+     * @return 刷新次数
+     */
+    public long getRefreshCount() {
+        return refreshCount.get();
+    }
+
+    public long getEvictionCount() {
+        lock.lock();
+        try {
+            return evictionCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    static final class Entry {
+
+        final Object value;
+
+        final long expireAt;
+
+        Entry(Object value, long expireAt) {
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+    }
+
+    /**
+     * 以全部参数值作为缓存键，数组参数按内容比较
+     */
+    private static final class ArgumentsKey {
+
+        private final Object[] args;
+
+        private final int hashCode;
+
+        ArgumentsKey(Object[] args) {
+            this.args = args;
+            this.hashCode = Arrays.deepHashCode(args);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ArgumentsKey)) {
+                return false;
+            }
+            ArgumentsKey that = (ArgumentsKey) o;
+            return hashCode == that.hashCode && Arrays.deepEquals(args, that.args);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public String toString() {
+            return Arrays.deepToString(args);
+        }
+    }
+}
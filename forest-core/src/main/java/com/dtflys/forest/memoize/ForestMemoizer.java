@@ -0,0 +1,143 @@
+package com.dtflys.forest.memoize;
+
+import com.dtflys.forest.annotation.Memoize;
+import com.dtflys.forest.config.ForestConfiguration;
+import com.dtflys.forest.http.ForestResponse;
+import com.dtflys.forest.mapping.MappingTemplate;
+import com.dtflys.forest.reflection.ForestMethod;
+import com.dtflys.forest.utils.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+/**
+ * 方法结果缓存的调用器
+ * <p>在 {@link ForestMethod} 构建请求之前按缓存键查找 {@link ForestMemoizeCache}，命中时直接返回缓存的对象；
+ * 需要提前刷新的条目交给异步请求执行器重新调用方法，同一缓存键同时只有一个刷新任务
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class ForestMemoizer {
+
+    private final static Logger log = LoggerFactory.getLogger(ForestMemoizer.class);
+
+    private final ForestMethod method;
+
+    private final ForestMemoizeCache cache;
+
+    private final String keyTemplateText;
+
+    private final long ttl;
+
+    private final long refreshAhead;
+
+    /**
+     * 缓存键模板，第一次调用时创建，此时方法参数已处理完毕
+     */
+    private volatile MappingTemplate keyTemplate;
+
+    private final Set<Object> refreshingKeys = ConcurrentHashMap.newKeySet();
+
+    public ForestMemoizer(ForestMethod method, ForestMemoizeCache cache, Memoize annotation) {
+        this.method = method;
+        this.cache = cache;
+        this.keyTemplateText = annotation.key();
+        this.ttl = annotation.ttl();
+        this.refreshAhead = annotation.refreshAhead();
+    }
+
+    public ForestMemoizeCache getCache() {
+        return cache;
+    }
+
+    /**
+     * 调用方法，命中缓存时不调用 {@code loader}
+     *
+     * @param args 方法参数值
+     * @param loader 实际调用方法的函数
+     * @return 方法返回值
+     */
+    public Object invoke(Object[] args, Function<Object[], Object> loader) {
+        Object key = keyOf(args);
+        long now = System.currentTimeMillis();
+        ForestMemoizeCache.Entry entry = cache.getEntry(key, now);
+        if (entry != null) {
+            if (refreshAhead > 0 && entry.expireAt - now <= refreshAhead) {
+                refreshInBackground(key, args, loader);
+            }
+            return entry.value;
+        }
+        Object value = loader.apply(args);
+        if (!isErrorResult(value)) {
+            cache.put(key, value, ttl);
+        }
+        return value;
+    }
+
+    /**
+     * 返回值是否为失败的响应
+     * <p>返回类型为 {@link ForestResponse} 时，HTTP错误或网络错误不会抛出异常，这样的结果不能被缓存
+     *
+     * @param value 方法返回值
+     * @return {@code true}: 失败的响应, {@code false}: 其它返回值
+     */
+    private static boolean isErrorResult(Object value) {
+        if (value instanceof ForestResponse) {
+            ForestResponse response = (ForestResponse) value;
+            return response.isError() || response.getException() != null;
+        }
+        return false;
+    }
+
+    private Object keyOf(Object[] args) {
+        if (StringUtils.isEmpty(keyTemplateText)) {
+            return ForestMemoizeCache.keyOf(args.clone());
+        }
+        MappingTemplate template = keyTemplate;
+        if (template == null) {
+            template = method.makeTemplate(Memoize.class, "key", keyTemplateText);
+            keyTemplate = template;
+        }
+        return template.render(args);
+    }
+
+    private void refreshInBackground(Object key, Object[] args, Function<Object[], Object> loader) {
+        if (!refreshingKeys.add(key)) {
+            return;
+        }
+        Object[] refreshArgs = args.clone();
+        try {
+            getExecutor().execute(() -> {
+                try {
+                    Object value = loader.apply(refreshArgs);
+                    if (isErrorResult(value)) {
+                        // 刷新得到失败的响应时同样保留原条目
+                        log.warn("[Forest] failed to refresh memoized result of '{}': {}", cache.getName(), key);
+                        return;
+                    }
+                    cache.put(key, value, ttl);
+                    cache.recordRefresh();
+                } catch (Throwable th) {
+                    // 刷新失败时保留原条目，直到其过期
+                    log.warn("[Forest] failed to refresh memoized result of '{}': {}", cache.getName(), key, th);
+                } finally {
+                    refreshingKeys.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshingKeys.remove(key);
+        }
+    }
+
+    private Executor getExecutor() {
+        ForestConfiguration configuration = method.getConfiguration();
+        Executor executor = configuration.getAsyncExecutor();
+        return executor != null ? executor : configuration.getAsyncThreadPool(true);
+    }
+}
@@ -0,0 +1,311 @@
+package com.dtflys.forest.pagination;
+
+import com.dtflys.forest.converter.json.ForestJsonConverter;
+import com.dtflys.forest.exceptions.ForestRuntimeException;
+import com.dtflys.forest.http.ForestFuture;
+import com.dtflys.forest.http.ForestRequest;
+import com.dtflys.forest.utils.StringUtils;
+
+import java.io.Closeable;
+import java.lang.reflect.Array;
+import java.lang.reflect.Type;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * 按需请求下一页的分页迭代器
+ * <p>当前页的数据遍历完后才会请求下一页；设置了预取页数时，在遍历当前页的同时异步请求之后的页，
+ * 内存中最多同时保留 {@code prefetch + 1} 页数据
+ * <p>每页请求都是原请求的克隆，原请求本身不会被发送，因此同一个 {@link Iterable} 可以被多次遍历
+ * <p>本迭代器不是线程安全的，应在同一个线程中遍历
+ *
+ * @param <T> 元素类型
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class ForestPageIterator<T> implements Iterator<T>, Closeable {
+
+    private final ForestPagination pagination;
+
+    private final ForestRequest<?> request;
+
+    private final Type elementType;
+
+    private final ForestJsonConverter jsonConverter;
+
+    /**
+     * 已预取（或正在预取）的页，按页的先后顺序排列
+     */
+    private final ArrayDeque<CompletableFuture<Page>> prefetched = new ArrayDeque<>();
+
+    private Iterator<?> items = Collections.emptyIterator();
+
+    /**
+     * 当前页，还未请求第一页时为 {@code null}
+     */
+    private Page current;
+
+    private boolean finished = false;
+
+    private volatile boolean closed = false;
+
+    /**
+     * 正在进行中的预取请求
+     */
+    private volatile ForestFuture<?> inflight;
+
+    public ForestPageIterator(ForestPagination pagination, ForestRequest<?> request, Type elementType) {
+        this.pagination = pagination;
+        this.request = request;
+        this.elementType = elementType;
+        this.jsonConverter = request.getConfiguration().getJsonConverter();
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!items.hasNext()) {
+            if (!nextPage()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return convertItem(items.next());
+    }
+
+    /**
+     * 获取已遍历到的页数
+     *
+     * @return 已遍历到的页数
+     */
+    public int getPageCount() {
+        return current == null ? 0 : current.index + 1;
+    }
+
+    /**
+     * 关闭迭代器，取消所有预取中的请求
+     */
+    @Override
+    public void close() {
+        closed = true;
+        finished = true;
+        items = Collections.emptyIterator();
+        ForestFuture<?> future = inflight;
+        if (future != null) {
+            future.cancel(true);
+        }
+        for (CompletableFuture<Page> page : prefetched) {
+            page.cancel(true);
+        }
+        prefetched.clear();
+    }
+
+    private boolean nextPage() {
+        if (finished || closed) {
+            return false;
+        }
+        CompletableFuture<Page> future = prefetched.poll();
+        Page page = future != null ? await(future) : fetch(current);
+        if (page == null) {
+            finished = true;
+            prefetched.clear();
+            return false;
+        }
+        current = page;
+        items = page.items.iterator();
+        schedulePrefetch();
+        return true;
+    }
+
+    private void schedulePrefetch() {
+        if (current.next == null) {
+            return;
+        }
+        while (prefetched.size() < pagination.getPrefetch()) {
+            CompletableFuture<Page> last = prefetched.peekLast();
+            CompletableFuture<Page> base = last != null ? last : CompletableFuture.completedFuture(current);
+            prefetched.add(base.thenCompose(this::fetchAsync));
+        }
+    }
+
+    private Page await(CompletableFuture<Page> future) {
+        try {
+            return future.join();
+        } catch (CompletionException | CancellationException e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            close();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new ForestRuntimeException(cause);
+        }
+    }
+
+    /**
+     * 同步请求上一页的下一页
+     *
+     * @param previous 上一页，为 {@code null} 时请求第一页
+     * @return 下一页，没有下一页时返回 {@code null}
+     */
+    private Page fetch(Page previous) {
+        if (previous != null && previous.next == null) {
+            return null;
+        }
+        int index = previous == null ? 0 : previous.index + 1;
+        ForestRequest<?> pageRequest = createPageRequest(previous);
+        Object param = pageRequest.getQuery(pagination.getParam());
+        String text;
+        try {
+            text = pageRequest.execute(String.class);
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+        return decodePage(index, param, text);
+    }
+
+    /**
+     * 异步请求上一页的下一页
+     *
+     * @param previous 上一页
+     * @return 下一页的 {@link CompletableFuture}，没有下一页时完成结果为 {@code null}
+     */
+    private CompletableFuture<Page> fetchAsync(Page previous) {
+        if (closed || previous == null || previous.next == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        int index = previous.index + 1;
+        ForestRequest<?> pageRequest = createPageRequest(previous);
+        Object param = pageRequest.getQuery(pagination.getParam());
+        ForestFuture<String> future = pageRequest.executeAsync(String.class);
+        inflight = future;
+        if (closed) {
+            future.cancel(true);
+        }
+        return future.thenApply(text -> decodePage(index, param, text));
+    }
+
+    private ForestRequest<?> createPageRequest(Page previous) {
+        ForestRequest<?> pageRequest = request.clone();
+        String param = pagination.getParam();
+        if (previous != null) {
+            pageRequest.replaceOrAddQuery(param, String.valueOf(previous.next));
+        } else if (!pagination.isCursorMode() && pageRequest.getQuery(param) == null) {
+            pageRequest.replaceOrAddQuery(param, String.valueOf(pagination.getStart()));
+        }
+        return pageRequest;
+    }
+
+    private Page decodePage(int index, Object param, String text) {
+        Object data = StringUtils.isBlank(text) ? null : jsonConverter.convertToJavaObject(text, Object.class);
+        String itemsPath = pagination.getItemsPath();
+        Object itemsData = StringUtils.isEmpty(itemsPath) ? data : JsonPaths.read(data, itemsPath);
+        List<?> pageItems = toList(itemsData);
+        Object next;
+        if (pagination.isCursorMode()) {
+            Object cursor = JsonPaths.read(data, pagination.getCursorPath());
+            next = cursor == null || StringUtils.isEmpty(String.valueOf(cursor)) ? null : cursor;
+        } else {
+            next = pageItems.isEmpty() && StringUtils.isEmpty(pagination.getHasMorePath())
+                    ? null : nextPageNumber(param);
+        }
+        if (next != null && StringUtils.isNotEmpty(pagination.getHasMorePath())
+                && !isTrue(JsonPaths.read(data, pagination.getHasMorePath()))) {
+            next = null;
+        }
+        if (pagination.getMaxPages() > 0 && index + 1 >= pagination.getMaxPages()) {
+            next = null;
+        }
+        return new Page(index, pageItems, next);
+    }
+
+    private Object nextPageNumber(Object param) {
+        if (param == null) {
+            return pagination.getStart() + 1;
+        }
+        try {
+            return Long.parseLong(String.valueOf(param).trim()) + 1;
+        } catch (NumberFormatException e) {
+            throw new ForestRuntimeException("[Forest] page parameter '" + pagination.getParam()
+                    + "' is not a number: " + param, e);
+        }
+    }
+
+    private List<?> toList(Object itemsData) {
+        if (itemsData == null) {
+            return Collections.emptyList();
+        }
+        if (itemsData instanceof List) {
+            return (List<?>) itemsData;
+        }
+        if (itemsData instanceof Collection) {
+            return new ArrayList<>((Collection<?>) itemsData);
+        }
+        if (itemsData.getClass().isArray()) {
+            int length = Array.getLength(itemsData);
+            List<Object> list = new ArrayList<>(length);
+            for (int i = 0; i < length; i++) {
+                list.add(Array.get(itemsData, i));
+            }
+            return list;
+        }
+        throw new ForestRuntimeException("[Forest] page items"
+                + (StringUtils.isEmpty(pagination.getItemsPath()) ? "" : " at '" + pagination.getItemsPath() + "'")
+                + " is not a list: " + itemsData.getClass().getName());
+    }
+
+    private static boolean isTrue(Object value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        if (value instanceof Number) {
+            return ((Number) value).intValue() != 0;
+        }
+        return value != null && Boolean.parseBoolean(String.valueOf(value));
+    }
+
+    private T convertItem(Object item) {
+        if (item == null) {
+            return null;
+        }
+        if (elementType instanceof Class && ((Class<?>) elementType).isInstance(item)) {
+            return (T) item;
+        }
+        return jsonConverter.convertToJavaObject(jsonConverter.encodeToString(item), elementType);
+    }
+
+    /**
+     * 已解析的一页数据
+     */
+    private static class Page {
+
+        final int index;
+
+        final List<?> items;
+
+        /**
+         * 下一页的页码或游标，没有下一页时为 {@code null}
+         */
+        final Object next;
+
+        Page(int index, List<?> items, Object next) {
+            this.index = index;
+            this.items = items;
+            this.next = next;
+        }
+    }
+}
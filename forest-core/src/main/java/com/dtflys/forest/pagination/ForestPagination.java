@@ -0,0 +1,133 @@
+package com.dtflys.forest.pagination;
+
+import com.dtflys.forest.annotation.Paginated;
+import com.dtflys.forest.http.ForestRequest;
+import com.dtflys.forest.utils.StringUtils;
+
+import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 分页请求配置
+ * <p>根据 {@link Paginated} 注解创建，用于生成按需请求下一页的 {@link Iterator}、{@link Iterable} 或 {@link Stream}
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ * @see Paginated
+ * @see ForestPageIterator
+ */
+public class ForestPagination {
+
+    /**
+     * 页码或游标的Query参数名
+     */
+    private final String param;
+
+    /**
+     * 起始页码
+     */
+    private final int start;
+
+    /**
+     * 数据列表的JSON路径
+     */
+    private final String itemsPath;
+
+    /**
+     * 下一页游标的JSON路径
+     */
+    private final String cursorPath;
+
+    /**
+     * 是否还有下一页标志的JSON路径
+     */
+    private final String hasMorePath;
+
+    /**
+     * 预取页数
+     */
+    private final int prefetch;
+
+    /**
+     * 最多请求的页数
+     */
+    private final int maxPages;
+
+    public ForestPagination(Paginated annotation) {
+        this.param = annotation.param();
+        this.start = annotation.start();
+        this.itemsPath = annotation.items();
+        this.cursorPath = annotation.cursor();
+        this.hasMorePath = annotation.hasMore();
+        this.prefetch = Math.max(annotation.prefetch(), 0);
+        this.maxPages = Math.max(annotation.maxPages(), 0);
+    }
+
+    /**
+     * 判断是否为分页请求支持的方法返回类型
+     *
+     * @param type 方法返回类型
+     * @return {@code true}: 为 {@link Iterator}、{@link Iterable} 或 {@link Stream}, {@code false}: 不支持
+     */
+    public static boolean isSupportedType(Class<?> type) {
+        return Iterator.class.equals(type) || Iterable.class.equals(type) || Stream.class.equals(type);
+    }
+
+    /**
+     * 创建分页请求的方法返回值
+     * <p>此时还未发送任何请求，第一页在开始遍历时才会请求
+     *
+     * @param request 作为每页请求原型的Forest请求对象
+     * @param returnClass 方法返回类型
+     * @param elementType 元素类型
+     * @return {@link Iterator}、{@link Iterable} 或 {@link Stream} 对象
+     */
+    public Object createResult(ForestRequest<?> request, Class<?> returnClass, Type elementType) {
+        if (Iterable.class.equals(returnClass)) {
+            return (Iterable<Object>) () -> new ForestPageIterator<>(this, request, elementType);
+        }
+        ForestPageIterator<Object> iterator = new ForestPageIterator<>(this, request, elementType);
+        if (Stream.class.equals(returnClass)) {
+            return StreamSupport.stream(
+                    Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+                    .onClose(iterator::close);
+        }
+        return iterator;
+    }
+
+    public boolean isCursorMode() {
+        return StringUtils.isNotEmpty(cursorPath);
+    }
+
+    public String getParam() {
+        return param;
+    }
+
+    public int getStart() {
+        return start;
+    }
+
+    public String getItemsPath() {
+        return itemsPath;
+    }
+
+    public String getCursorPath() {
+        return cursorPath;
+    }
+
+    public String getHasMorePath() {
+        return hasMorePath;
+    }
+
+    public int getPrefetch() {
+        return prefetch;
+    }
+
+    public int getMaxPages() {
+        return maxPages;
+    }
+}
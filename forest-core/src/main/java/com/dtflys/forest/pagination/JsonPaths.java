@@ -0,0 +1,88 @@
+package com.dtflys.forest.pagination;
+
+import com.dtflys.forest.exceptions.ForestRuntimeException;
+
+import java.lang.reflect.Array;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 简单的JSON路径读取工具
+ * <p>支持 {@code $.a.b}、{@code a.b[0]}、{@code a["b.c"]} 形式的路径，路径上的对象须为已解析的 {@link Map}、{@link List} 或数组
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+final class JsonPaths {
+
+    private JsonPaths() {
+    }
+
+    /**
+     * 按JSON路径读取数据
+     *
+     * @param data 已解析的JSON数据
+     * @param path JSON路径
+     * @return 路径所指向的数据，路径不存在时返回 {@code null}
+     */
+    static Object read(Object data, String path) {
+        String p = path.trim();
+        if (p.startsWith("$")) {
+            p = p.substring(1);
+        }
+        Object current = data;
+        int len = p.length();
+        int i = 0;
+        while (i < len && current != null) {
+            char ch = p.charAt(i);
+            if (ch == '.') {
+                i++;
+            } else if (ch == '[') {
+                int end = p.indexOf(']', i);
+                if (end < 0) {
+                    throw new ForestRuntimeException("[Forest] invalid JSON path: " + path);
+                }
+                String token = p.substring(i + 1, end).trim();
+                if (token.length() >= 2 && (token.charAt(0) == '\'' || token.charAt(0) == '"')) {
+                    current = getProperty(current, token.substring(1, token.length() - 1));
+                } else {
+                    try {
+                        current = getElement(current, Integer.parseInt(token));
+                    } catch (NumberFormatException e) {
+                        throw new ForestRuntimeException("[Forest] invalid JSON path: " + path, e);
+                    }
+                }
+                i = end + 1;
+            } else {
+                int end = i;
+                while (end < len && p.charAt(end) != '.' && p.charAt(end) != '[') {
+                    end++;
+                }
+                current = getProperty(current, p.substring(i, end));
+                i = end;
+            }
+        }
+        return current;
+    }
+
+    private static Object getProperty(Object obj, String name) {
+        if (obj instanceof Map) {
+            return ((Map<?, ?>) obj).get(name);
+        }
+        return null;
+    }
+
+    private static Object getElement(Object obj, int index) {
+        if (obj instanceof List) {
+            List<?> list = (List<?>) obj;
+            int i = index < 0 ? list.size() + index : index;
+            return i >= 0 && i < list.size() ? list.get(i) : null;
+        }
+        if (obj != null && obj.getClass().isArray()) {
+            int length = Array.getLength(obj);
+            int i = index < 0 ? length + index : index;
+            return i >= 0 && i < length ? Array.get(obj, i) : null;
+        }
+        return null;
+    }
+}
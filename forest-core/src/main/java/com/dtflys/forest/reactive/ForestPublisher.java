@@ -0,0 +1,115 @@
+package com.dtflys.forest.reactive;
+
+import com.dtflys.forest.http.ForestFuture;
+import com.dtflys.forest.http.ForestRequest;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 发出单个请求结果的响应式发布者
+ * <p>请求在订阅者第一次请求数据时才会发送，订阅被取消时会取消正在进行的请求；
+ * 同一个发布者被多次订阅时，每次订阅都会发送一个新的请求
+ *
+ * @param <T> 结果类型
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class ForestPublisher<T> implements Publisher<T> {
+
+    private final ForestRequest<?> request;
+
+    private final Type resultType;
+
+    private final AtomicBoolean subscribed = new AtomicBoolean(false);
+
+    public ForestPublisher(ForestRequest<?> request, Type resultType) {
+        this.request = request;
+        this.resultType = resultType;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("subscriber must not be null");
+        }
+        // 第一次订阅使用原请求，之后的订阅使用克隆的请求
+        ForestRequest<?> req = subscribed.compareAndSet(false, true) ? request : request.clone();
+        subscriber.onSubscribe(new SingleSubscription<>(req, resultType, subscriber));
+    }
+
+    static Throwable unwrap(Throwable th) {
+        if (th instanceof CompletionException && th.getCause() != null) {
+            return th.getCause();
+        }
+        return th;
+    }
+
+    private static class SingleSubscription<T> implements Subscription {
+
+        private final ForestRequest<?> request;
+
+        private final Type resultType;
+
+        private final Subscriber<? super T> subscriber;
+
+        private final AtomicBoolean started = new AtomicBoolean(false);
+
+        private volatile boolean canceled = false;
+
+        private volatile ForestFuture<T> future;
+
+        SingleSubscription(ForestRequest<?> request, Type resultType, Subscriber<? super T> subscriber) {
+            this.request = request;
+            this.resultType = resultType;
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                if (started.compareAndSet(false, true)) {
+                    canceled = true;
+                    subscriber.onError(new IllegalArgumentException(
+                            "[Forest] requested amount must be positive, but was " + n));
+                }
+                return;
+            }
+            if (!started.compareAndSet(false, true)) {
+                return;
+            }
+            ForestFuture<T> f = request.executeAsync(resultType);
+            future = f;
+            if (canceled) {
+                f.cancel(true);
+                return;
+            }
+            f.whenComplete((result, ex) -> {
+                if (canceled) {
+                    return;
+                }
+                if (ex != null) {
+                    subscriber.onError(unwrap(ex));
+                    return;
+                }
+                if (result != null) {
+                    subscriber.onNext(result);
+                }
+                subscriber.onComplete();
+            });
+        }
+
+        @Override
+        public void cancel() {
+            canceled = true;
+            ForestFuture<T> f = future;
+            if (f != null) {
+                f.cancel(true);
+            }
+        }
+    }
+}
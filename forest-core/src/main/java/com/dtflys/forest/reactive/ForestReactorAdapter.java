@@ -0,0 +1,26 @@
+package com.dtflys.forest.reactive;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactor 适配器
+ * <p>仅在引入 reactor-core 依赖时才会被加载
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+final class ForestReactorAdapter {
+
+    private ForestReactorAdapter() {
+    }
+
+    static <T> Mono<T> toMono(Publisher<T> publisher) {
+        return Mono.fromDirect(publisher);
+    }
+
+    static <T> Flux<T> toFlux(Publisher<T> publisher) {
+        return Flux.from(publisher);
+    }
+}
@@ -0,0 +1,231 @@
+package com.dtflys.forest.reactive;
+
+import com.dtflys.forest.converter.json.ForestJsonConverter;
+import com.dtflys.forest.exceptions.ForestNetworkException;
+import com.dtflys.forest.http.ForestFuture;
+import com.dtflys.forest.http.ForestRequest;
+import com.dtflys.forest.http.ForestResponse;
+import com.dtflys.forest.utils.TypeReference;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 逐个发出响应体中 JSON 元素的响应式发布者
+ * <p>响应体为 JSON 数组或 NDJSON 时，按订阅者的请求量逐个切分并反序列化元素，
+ * 订阅者未请求的元素不会被解析；订阅被取消时会取消正在进行的请求
+ *
+ * @param <T> 元素类型
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class ForestStreamPublisher<T> implements Publisher<T> {
+
+    private final ForestRequest<?> request;
+
+    private final Type elementType;
+
+    private final AtomicBoolean subscribed = new AtomicBoolean(false);
+
+    public ForestStreamPublisher(ForestRequest<?> request, Type elementType) {
+        this.request = request;
+        this.elementType = elementType;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("subscriber must not be null");
+        }
+        ForestRequest<?> req = subscribed.compareAndSet(false, true) ? request : request.clone();
+        subscriber.onSubscribe(new StreamSubscription<>(req, elementType, subscriber));
+    }
+
+    private static class StreamSubscription<T> implements Subscription {
+
+        private final ForestRequest<?> request;
+
+        private final Type elementType;
+
+        private final Subscriber<? super T> subscriber;
+
+        private final AtomicBoolean started = new AtomicBoolean(false);
+
+        private final AtomicLong requested = new AtomicLong(0);
+
+        private final AtomicInteger wip = new AtomicInteger(0);
+
+        private volatile boolean canceled = false;
+
+        private volatile boolean done = false;
+
+        private volatile JsonElementReader reader;
+
+        private volatile Throwable error;
+
+        private volatile ForestFuture<ForestResponse<byte[]>> future;
+
+        StreamSubscription(ForestRequest<?> request, Type elementType, Subscriber<? super T> subscriber) {
+            this.request = request;
+            this.elementType = elementType;
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("[Forest] requested amount must be positive, but was " + n);
+                drain();
+                return;
+            }
+            addRequested(n);
+            if (started.compareAndSet(false, true)) {
+                start();
+            }
+            drain();
+        }
+
+        private void addRequested(long n) {
+            for (;;) {
+                long current = requested.get();
+                if (current == Long.MAX_VALUE) {
+                    return;
+                }
+                long next = current + n;
+                if (next < 0) {
+                    next = Long.MAX_VALUE;
+                }
+                if (requested.compareAndSet(current, next)) {
+                    return;
+                }
+            }
+        }
+
+        private void start() {
+            ForestFuture<ForestResponse<byte[]>> f =
+                    request.executeAsync(new TypeReference<ForestResponse<byte[]>>() {});
+            future = f;
+            if (canceled) {
+                f.cancel(true);
+                return;
+            }
+            f.whenComplete((response, ex) -> {
+                if (ex != null) {
+                    error = ForestPublisher.unwrap(ex);
+                } else {
+                    try {
+                        reader = new JsonElementReader(readBody(response));
+                    } catch (Throwable th) {
+                        error = th;
+                    }
+                }
+                drain();
+            });
+        }
+
+        private String readBody(ForestResponse<byte[]> response) throws Exception {
+            if (response == null) {
+                return "";
+            }
+            if (response.getException() != null) {
+                throw (Exception) (response.getException() instanceof Exception ?
+                        response.getException() : new Exception(response.getException()));
+            }
+            if (response.isError()) {
+                throw new ForestNetworkException(
+                        response.getReasonPhrase(), response.getStatusCode(), response);
+            }
+            byte[] bytes = response.getByteArray();
+            if (bytes == null) {
+                return "";
+            }
+            String charsetName = response.getCharset();
+            Charset charset = charsetName != null ? Charset.forName(charsetName) : StandardCharsets.UTF_8;
+            return new String(bytes, charset);
+        }
+
+        private T decode(String text) {
+            if (String.class.equals(elementType) && !text.startsWith("\"")) {
+                return (T) text;
+            }
+            ForestJsonConverter converter = request.getConfiguration().getJsonConverter();
+            return converter.convertToJavaObject(text, elementType);
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            for (;;) {
+                if (canceled || done) {
+                    return;
+                }
+                Throwable ex = error;
+                if (ex != null) {
+                    done = true;
+                    subscriber.onError(ex);
+                    return;
+                }
+                JsonElementReader r = reader;
+                if (r != null) {
+                    long req = requested.get();
+                    long emitted = 0;
+                    while (emitted != req) {
+                        if (canceled) {
+                            return;
+                        }
+                        String text;
+                        T element;
+                        try {
+                            text = r.next();
+                            element = text != null ? decode(text) : null;
+                        } catch (Throwable th) {
+                            done = true;
+                            subscriber.onError(th);
+                            return;
+                        }
+                        if (text == null) {
+                            done = true;
+                            subscriber.onComplete();
+                            return;
+                        }
+                        if (element != null) {
+                            subscriber.onNext(element);
+                            emitted++;
+                        }
+                    }
+                    if (emitted != 0 && req != Long.MAX_VALUE) {
+                        requested.addAndGet(-emitted);
+                    }
+                    if (!r.hasNext()) {
+                        // 没有更多元素时无需等待下一次请求即可结束
+                        done = true;
+                        subscriber.onComplete();
+                        return;
+                    }
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public void cancel() {
+            canceled = true;
+            ForestFuture<ForestResponse<byte[]>> f = future;
+            if (f != null) {
+                f.cancel(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.dtflys.forest.reactive;
+
+/**
+ * JSON 元素读取器
+ * <p>从 JSON 数组或 NDJSON（每行一个 JSON 值）文本中逐个切分出顶层元素，
+ * 每次调用 {@link #next()} 只扫描到下一个元素为止，元素的反序列化由调用方按需进行
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class JsonElementReader {
+
+    private final String text;
+
+    private final boolean array;
+
+    private int pos;
+
+    private boolean finished = false;
+
+    public JsonElementReader(String text) {
+        this.text = text != null ? text : "";
+        int start = skipWhitespace(0);
+        if (start < this.text.length() && this.text.charAt(start) == '\uFEFF') {
+            start = skipWhitespace(start + 1);
+        }
+        this.array = start < this.text.length() && this.text.charAt(start) == '[';
+        this.pos = array ? start + 1 : start;
+    }
+
+    /**
+     * 响应体是否为 JSON 数组
+     *
+     * @return {@code true}: JSON 数组, {@code false}: NDJSON
+     */
+    public boolean isArray() {
+        return array;
+    }
+
+    /**
+     * 是否还有下一个元素
+     * <p>只向前查看，不会消费元素
+     *
+     * @return {@code true}: 还有, {@code false}: 没有
+     */
+    public boolean hasNext() {
+        if (finished) {
+            return false;
+        }
+        int i = skipWhitespace(pos);
+        if (array) {
+            if (i < text.length() && text.charAt(i) == ',') {
+                i = skipWhitespace(i + 1);
+            }
+            return i < text.length() && text.charAt(i) != ']';
+        }
+        return i < text.length();
+    }
+
+    /**
+     * 读取下一个元素的文本
+     *
+     * @return 元素文本，没有更多元素时返回 {@code null}
+     */
+    public String next() {
+        if (finished) {
+            return null;
+        }
+        String element = array ? nextArrayElement() : nextLine();
+        if (element == null) {
+            finished = true;
+        }
+        return element;
+    }
+
+    private String nextLine() {
+        int len = text.length();
+        while (pos < len) {
+            int end = text.indexOf('\n', pos);
+            if (end < 0) {
+                end = len;
+            }
+            String line = text.substring(pos, end).trim();
+            pos = end + 1;
+            if (!line.isEmpty()) {
+                return line;
+            }
+        }
+        return null;
+    }
+
+    private String nextArrayElement() {
+        int len = text.length();
+        pos = skipWhitespace(pos);
+        if (pos < len && text.charAt(pos) == ',') {
+            pos = skipWhitespace(pos + 1);
+        }
+        if (pos >= len) {
+            throw new IllegalStateException("[Forest] unterminated JSON array");
+        }
+        if (text.charAt(pos) == ']') {
+            return null;
+        }
+        int start = pos;
+        int depth = 0;
+        boolean inString = false;
+        for (; pos < len; pos++) {
+            char ch = text.charAt(pos);
+            if (inString) {
+                if (ch == '\\') {
+                    pos++;
+                } else if (ch == '"') {
+                    inString = false;
+                }
+                continue;
+            }
+            if (ch == '"') {
+                inString = true;
+            } else if (ch == '{' || ch == '[') {
+                depth++;
+            } else if (ch == '}' || ch == ']') {
+                if (depth == 0) {
+                    break;
+                }
+                depth--;
+            } else if (ch == ',' && depth == 0) {
+                break;
+            }
+        }
+        if (pos >= len) {
+            throw new IllegalStateException("[Forest] unterminated JSON array");
+        }
+        return text.substring(start, pos).trim();
+    }
+
+    private int skipWhitespace(int i) {
+        int len = text.length();
+        while (i < len && Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+}
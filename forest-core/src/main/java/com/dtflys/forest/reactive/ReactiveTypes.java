@@ -0,0 +1,89 @@
+package com.dtflys.forest.reactive;
+
+import com.dtflys.forest.http.ForestRequest;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+
+/**
+ * 响应式返回类型工具类
+ * <p>Reactive Streams 和 Reactor 均为可选依赖，本类不直接引用它们的类型，
+ * 以保证在未引入这些依赖时加载 Forest 接口方法不会出错
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public final class ReactiveTypes {
+
+    private final static Class<?> PUBLISHER_CLASS = loadClass("org.reactivestreams.Publisher");
+
+    private final static Class<?> MONO_CLASS = loadClass("reactor.core.publisher.Mono");
+
+    private final static Class<?> FLUX_CLASS = loadClass("reactor.core.publisher.Flux");
+
+    private ReactiveTypes() {
+    }
+
+    private static Class<?> loadClass(String className) {
+        try {
+            return Class.forName(className, false, ReactiveTypes.class.getClassLoader());
+        } catch (Throwable th) {
+            return null;
+        }
+    }
+
+    /**
+     * 判断是否为响应式返回类型
+     *
+     * @param type 方法返回类型
+     * @return {@code true}: 是 {@code Publisher}、{@code Mono} 或 {@code Flux} 类型, {@code false}: 不是
+     */
+    public static boolean isReactiveType(Class<?> type) {
+        return PUBLISHER_CLASS != null && type != null && PUBLISHER_CLASS.isAssignableFrom(type);
+    }
+
+    /**
+     * 获取响应式返回类型中元素的类型
+     *
+     * @param returnType 方法返回类型
+     * @return 元素类型，未声明泛型参数时为字符串类型
+     */
+    public static Type getElementType(Type returnType) {
+        if (returnType instanceof ParameterizedType) {
+            Type[] args = ((ParameterizedType) returnType).getActualTypeArguments();
+            if (args.length > 0) {
+                Type elementType = args[0];
+                if (elementType instanceof WildcardType) {
+                    Type[] bounds = ((WildcardType) elementType).getUpperBounds();
+                    return bounds.length > 0 ? bounds[0] : String.class;
+                }
+                return elementType;
+            }
+        }
+        return String.class;
+    }
+
+    /**
+     * 根据方法返回类型创建延迟执行的响应式发布者
+     * <ul>
+     *     <li>{@code Flux}: 将 JSON 数组或 NDJSON 响应体中的元素逐个按需发出</li>
+     *     <li>{@code Mono}: 发出解析后的响应结果</li>
+     *     <li>{@code Publisher}: 发出解析后的响应结果</li>
+     * </ul>
+     *
+     * @param request Forest请求对象
+     * @param returnClass 方法返回类型
+     * @param elementType 元素类型
+     * @return 响应式发布者
+     */
+    public static Object createPublisher(ForestRequest<?> request, Class<?> returnClass, Type elementType) {
+        if (FLUX_CLASS != null && FLUX_CLASS.isAssignableFrom(returnClass)) {
+            return ForestReactorAdapter.toFlux(new ForestStreamPublisher<>(request, elementType));
+        }
+        if (MONO_CLASS != null && MONO_CLASS.isAssignableFrom(returnClass)) {
+            return ForestReactorAdapter.toMono(new ForestPublisher<>(request, elementType));
+        }
+        return new ForestPublisher<>(request, elementType);
+    }
+}
@@ -0,0 +1,270 @@
+package com.dtflys.forest.reflection;
+
+import com.dtflys.forest.exceptions.ForestRuntimeException;
+import com.dtflys.forest.utils.StringUtils;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 模板表达式使用的属性访问器和方法调用器缓存
+ * <p>按 (类, 属性名) 和 (类, 方法名, 参数个数) 缓存，每个组合只查找一次方法:
+ * <ul>
+ *     <li>可以直接链接的公开方法通过 {@link LambdaMetafactory} 生成访问器，调用开销与直接调用Getter方法相同</li>
+ *     <li>其它方法使用 {@link MethodHandle}，无法获取 {@link MethodHandle} 时才使用反射调用</li>
+ *     <li>找不到的方法同样会被缓存，调用时抛出异常，不会重复查找</li>
+ * </ul>
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public final class ForestAccessors {
+
+    private final static MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private final static MethodType ACCESSOR_FACTORY_TYPE = MethodType.methodType(ForestPropertyAccessor.class);
+
+    private final static MethodType ACCESSOR_METHOD_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private final static MethodType INVOKER_METHOD_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    private final static ClassValue<ConcurrentHashMap<String, ForestPropertyAccessor>> PROPERTY_ACCESSORS =
+            new ClassValue<ConcurrentHashMap<String, ForestPropertyAccessor>>() {
+                @Override
+                protected ConcurrentHashMap<String, ForestPropertyAccessor> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
+    private final static ClassValue<ConcurrentHashMap<String, ForestMethodInvoker>> METHOD_INVOKERS =
+            new ClassValue<ConcurrentHashMap<String, ForestMethodInvoker>>() {
+                @Override
+                protected ConcurrentHashMap<String, ForestMethodInvoker> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
+    private ForestAccessors() {
+    }
+
+    /**
+     * 获取属性访问器
+     * <p>从该类开始逐级向父类查找，每个类中先查找 {@code getXxx()} 方法，再查找与属性同名的无参方法
+     *
+     * @param clazz 对象类型
+     * @param name 属性名
+     * @return 属性访问器，找不到方法时返回的访问器在调用时抛出 {@link ForestRuntimeException}
+     */
+    public static ForestPropertyAccessor getPropertyAccessor(Class<?> clazz, String name) {
+        ConcurrentHashMap<String, ForestPropertyAccessor> accessors = PROPERTY_ACCESSORS.get(clazz);
+        ForestPropertyAccessor accessor = accessors.get(name);
+        if (accessor == null) {
+            accessor = accessors.computeIfAbsent(name, key -> createPropertyAccessor(clazz, key));
+        }
+        return accessor;
+    }
+
+    /**
+     * 获取方法调用器
+     * <p>从该类开始逐级向父类查找名称和参数个数都相同的方法
+     *
+     * @param clazz 对象类型
+     * @param name 方法名
+     * @param argCount 参数个数
+     * @return 方法调用器，找不到方法时返回的调用器在调用时抛出 {@link ForestRuntimeException}
+     */
+    public static ForestMethodInvoker getMethodInvoker(Class<?> clazz, String name, int argCount) {
+        ConcurrentHashMap<String, ForestMethodInvoker> invokers = METHOD_INVOKERS.get(clazz);
+        String key = argCount == 0 ? name : name + '/' + argCount;
+        ForestMethodInvoker invoker = invokers.get(key);
+        if (invoker == null) {
+            invoker = invokers.computeIfAbsent(key, k -> createMethodInvoker(clazz, name, argCount));
+        }
+        return invoker;
+    }
+
+    /**
+     * 查找属性对应的方法
+     *
+     * @param clazz 对象类型
+     * @param name 属性名
+     * @return 方法，找不到时返回 {@code null}
+     */
+    public static Method findPropertyMethod(Class<?> clazz, String name) {
+        String getterName = StringUtils.toGetterName(name);
+        for (Class<?> c = clazz; c != null; c = c.getSuperclass()) {
+            Method method = findDeclaredMethod(c, getterName, 0);
+            if (method == null) {
+                method = findDeclaredMethod(c, name, 0);
+            }
+            if (method != null) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    private static Method findMethod(Class<?> clazz, String name, int argCount) {
+        for (Class<?> c = clazz; c != null; c = c.getSuperclass()) {
+            Method method = findDeclaredMethod(c, name, argCount);
+            if (method != null) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 在类中声明的方法里查找，桥接方法优先级最低
+     */
+    private static Method findDeclaredMethod(Class<?> clazz, String name, int argCount) {
+        Method found = null;
+        for (Method method : clazz.getDeclaredMethods()) {
+            if (method.getParameterCount() == argCount && method.getName().equals(name)
+                    && !Modifier.isStatic(method.getModifiers())) {
+                if (!method.isBridge()) {
+                    return method;
+                }
+                found = method;
+            }
+        }
+        return found;
+    }
+
+    private static ForestPropertyAccessor createPropertyAccessor(Class<?> clazz, String name) {
+        Method method = findPropertyMethod(clazz, name);
+        if (method == null) {
+            String getterName = StringUtils.toGetterName(name);
+            return target -> {
+                throw new ForestRuntimeException(new NoSuchMethodException(clazz.getName() + "." + getterName + "()"));
+            };
+        }
+        MethodHandle handle = unreflect(method);
+        if (handle == null) {
+            return target -> invokeReflectively(method, target);
+        }
+        ForestPropertyAccessor accessor = generateAccessor(method, handle);
+        if (accessor != null) {
+            return accessor;
+        }
+        MethodHandle generic = handle.asType(ACCESSOR_METHOD_TYPE);
+        return target -> {
+            try {
+                return (Object) generic.invokeExact(target);
+            } catch (Throwable th) {
+                throw wrap(th);
+            }
+        };
+    }
+
+    private static ForestMethodInvoker createMethodInvoker(Class<?> clazz, String name, int argCount) {
+        Method method = findMethod(clazz, name, argCount);
+        if (method == null) {
+            return (target, args) -> {
+                throw new ForestRuntimeException(new NoSuchMethodException(clazz.getName() + "." + name + "()"));
+            };
+        }
+        MethodHandle handle = unreflect(method);
+        if (handle == null) {
+            return (target, args) -> invokeReflectively(method, target, args);
+        }
+        if (argCount == 0) {
+            ForestPropertyAccessor accessor = generateAccessor(method, handle);
+            if (accessor != null) {
+                return (target, args) -> accessor.get(target);
+            }
+        }
+        MethodHandle generic = handle
+                .asType(MethodType.genericMethodType(argCount + 1))
+                .asSpreader(Object[].class, argCount)
+                .asType(INVOKER_METHOD_TYPE);
+        return (target, args) -> {
+            try {
+                return (Object) generic.invokeExact(target, args);
+            } catch (Throwable th) {
+                throw wrap(th);
+            }
+        };
+    }
+
+    private static MethodHandle unreflect(Method method) {
+        try {
+            if (!Modifier.isPublic(method.getModifiers())
+                    || !Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+                method.setAccessible(true);
+            }
+            return LOOKUP.unreflect(method);
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 通过 {@link LambdaMetafactory} 生成直接调用Getter方法的访问器
+     * <p>只有公开类中的公开方法、并且方法的类型能从Forest的类加载器中直接链接时才能生成
+     *
+     * @return 属性访问器，不能生成时返回 {@code null}
+     */
+    private static ForestPropertyAccessor generateAccessor(Method method, MethodHandle handle) {
+        Class<?> declaringClass = method.getDeclaringClass();
+        if (!Modifier.isPublic(method.getModifiers())
+                || !Modifier.isPublic(declaringClass.getModifiers())
+                || !isLinkable(declaringClass)
+                || !isLinkable(method.getReturnType())) {
+            return null;
+        }
+        try {
+            CallSite site = LambdaMetafactory.metafactory(
+                    LOOKUP, "get", ACCESSOR_FACTORY_TYPE, ACCESSOR_METHOD_TYPE, handle, handle.type());
+            return (ForestPropertyAccessor) site.getTarget().invoke();
+        } catch (Throwable th) {
+            return null;
+        }
+    }
+
+    /**
+     * 类型能否从Forest的类加载器中按名称解析为同一个类
+     * <p>生成的访问器由Forest的类加载器链接，解析出的类不同时会在调用时出错
+     */
+    private static boolean isLinkable(Class<?> type) {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        if (type.isPrimitive()) {
+            return true;
+        }
+        ClassLoader loader = ForestAccessors.class.getClassLoader();
+        if (type.getClassLoader() == loader || type.getClassLoader() == null) {
+            return true;
+        }
+        try {
+            return Class.forName(type.getName(), false, loader) == type;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    private static Object invokeReflectively(Method method, Object target, Object... args) {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw new ForestRuntimeException(e);
+        } catch (IllegalAccessException e) {
+            throw new ForestRuntimeException(e);
+        }
+    }
+
+    private static ForestRuntimeException wrap(Throwable th) {
+        if (th instanceof ForestRuntimeException) {
+            return (ForestRuntimeException) th;
+        }
+        return new ForestRuntimeException(th);
+    }
+}
@@ -7,6 +7,7 @@ import com.dtflys.forest.annotation.ParamLifeCycle;
 import com.dtflys.forest.annotation.RequestAttributes;
 import com.dtflys.forest.backend.ContentType;
 import com.dtflys.forest.callback.AddressSource;
+import com.dtflys.forest.callback.OnCancel;
 import com.dtflys.forest.callback.OnError;
 import com.dtflys.forest.callback.OnLoadCookie;
 import com.dtflys.forest.callback.OnProgress;
@@ -21,9 +22,15 @@ import com.dtflys.forest.converter.json.ForestJsonConverter;
 import com.dtflys.forest.exceptions.ForestInterceptorDefineException;
 import com.dtflys.forest.exceptions.ForestRuntimeException;
 import com.dtflys.forest.filter.Filter;
+import com.dtflys.forest.handler.FireAndForgetLifeCycleHandler;
+import com.dtflys.forest.handler.LifeCycleHandler;
 import com.dtflys.forest.http.ForestAddress;
 import com.dtflys.forest.http.ForestQueryMap;
 import com.dtflys.forest.http.ForestQueryParameter;
+import com.dtflys.forest.http.ForestFuture;
+import com.dtflys.forest.journal.ForestJournalRecord;
+import com.dtflys.forest.pagination.ForestPagination;
+import com.dtflys.forest.reactive.ReactiveTypes;
 import com.dtflys.forest.http.ForestRequest;
 import com.dtflys.forest.http.ForestRequestBody;
 import com.dtflys.forest.http.ForestRequestType;
@@ -32,12 +39,17 @@ import com.dtflys.forest.http.ForestURL;
 import com.dtflys.forest.http.body.RequestBodyBuilder;
 import com.dtflys.forest.http.body.StringRequestBody;
 import com.dtflys.forest.interceptor.Interceptor;
+import com.dtflys.forest.interceptor.InterceptorChain;
 import com.dtflys.forest.interceptor.InterceptorAttributes;
 import com.dtflys.forest.interceptor.InterceptorFactory;
 import com.dtflys.forest.lifecycles.BaseAnnotationLifeCycle;
 import com.dtflys.forest.lifecycles.MethodAnnotationLifeCycle;
 import com.dtflys.forest.lifecycles.ParameterAnnotationLifeCycle;
+import com.dtflys.forest.lifecycles.method.FireAndForgetLifeCycle;
+import com.dtflys.forest.lifecycles.method.MemoizeLifeCycle;
+import com.dtflys.forest.lifecycles.method.PaginatedLifeCycle;
 import com.dtflys.forest.lifecycles.method.RequestLifeCycle;
+import com.dtflys.forest.lifecycles.method.StoreAndForwardLifeCycle;
 import com.dtflys.forest.logging.DefaultLogHandler;
 import com.dtflys.forest.logging.LogConfiguration;
 import com.dtflys.forest.logging.ForestLogHandler;
@@ -46,6 +58,7 @@ import com.dtflys.forest.mapping.MappingTemplate;
 import com.dtflys.forest.mapping.MappingURLTemplate;
 import com.dtflys.forest.mapping.MappingVariable;
 import com.dtflys.forest.mapping.SubVariableScope;
+import com.dtflys.forest.memoize.ForestMemoizer;
 import com.dtflys.forest.multipart.ForestMultipart;
 import com.dtflys.forest.multipart.ForestMultipartFactory;
 import com.dtflys.forest.proxy.InterfaceProxyHandler;
@@ -59,9 +72,8 @@ import com.dtflys.forest.utils.StringUtils;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.*;
-import java.net.MalformedURLException;
-import java.net.URL;
 import java.util.*;
+import java.util.concurrent.CompletionStage;
 
 import static com.dtflys.forest.mapping.MappingParameter.*;
 
@@ -116,6 +128,19 @@ public class ForestMethod<T> implements VariableScope {
     private MappingTemplate sslKeyStoreId;
     private MappingTemplate[] dataTemplateArray;
     private MappingTemplate[] headerTemplateArray;
+    /**
+     * 预先拆分好的常量请求头名称和值，与 headerTemplateArray 一一对应，非常量模板对应的元素为 {@code null}
+     */
+    private String[][] headerConstants;
+    private MappingTemplate[] baseHeaderTemplateArray;
+    /**
+     * 预先拆分好的常量接口级请求头名称和值，与 baseHeaderTemplateArray 一一对应
+     */
+    private String[][] baseHeaderConstants;
+    /**
+     * 参数名称模板，与 namedParameters 一一对应
+     */
+    private MappingTemplate[] namedParameterTemplates;
     private MappingParameter[] parameterTemplateArray;
     private MappingParameter[] forestParameters;
     private List<MappingParameter> namedParameters = new ArrayList<>();
@@ -127,6 +152,7 @@ public class ForestMethod<T> implements VariableScope {
     private MappingParameter onProgressParameter = null;
     private MappingParameter onLoadCookieParameter = null;
     private MappingParameter onSaveCookieParameter = null;
+    private MappingParameter onCancelParameter = null;
     private List<Interceptor> globalInterceptorList;
     private List<Interceptor> baseInterceptorList;
     private List<Interceptor> interceptorList;
@@ -154,6 +180,7 @@ public class ForestMethod<T> implements VariableScope {
         this.forestParameters = new MappingParameter[method.getParameterCount()];
         processBaseProperties();
         processMethodAnnotations();
+        processNamedParameterTemplates();
     }
 
     @Override
@@ -236,6 +263,15 @@ public class ForestMethod<T> implements VariableScope {
             baseSslProtocolTemplate = makeTemplate(BaseRequest.class, "sslProtocol", baseSslProtocol);
         }
 
+        String[] baseHeaders = baseMetaRequest.getHeaders();
+        if (baseHeaders != null && baseHeaders.length > 0) {
+            baseHeaderTemplateArray = new MappingTemplate[baseHeaders.length];
+            for (int j = 0; j < baseHeaders.length; j++) {
+                baseHeaderTemplateArray[j] = makeTemplate(BaseRequest.class, "headers", baseHeaders[j]);
+            }
+            baseHeaderConstants = splitConstantHeaders(baseHeaderTemplateArray);
+        }
+
         baseLogConfiguration = interfaceProxyHandler.getBaseLogConfiguration();
 
         baseTimeout = baseMetaRequest.getTimeout();
@@ -436,6 +472,15 @@ public class ForestMethod<T> implements VariableScope {
         return method;
     }
 
+    /**
+     * 获取Forest方法所属的接口代理处理器
+     * @return 接口代理处理器，{@link InterfaceProxyHandler}类实例
+     * @since 1.5.19
+     */
+    public InterfaceProxyHandler getInterfaceProxyHandler() {
+        return interfaceProxyHandler;
+    }
+
     /**
      * 获取方法名
      * @return 方法名字符串
@@ -522,11 +567,10 @@ public class ForestMethod<T> implements VariableScope {
         addMetaRequestAnnotations(methodAnns);
 
         // 处理请求元信息
+        returnClass = method.getReturnType();
         if (this.metaRequest != null) {
             processMetaRequest(this.metaRequest);
         }
-
-        returnClass = method.getReturnType();
     }
 
     private void processMetaRequest(MetaRequest metaRequest) {
@@ -557,7 +601,8 @@ public class ForestMethod<T> implements VariableScope {
         }
         sslProtocolTemplate = makeTemplate(reqAnnType, "sslProtocol", metaRequest.getSslProtocol());
         progressStep = metaRequest.getProgressStep();
-        async = metaRequest.isAsync();
+        // 返回类型为 CompletionStage 的方法只能异步执行
+        async = metaRequest.isAsync() || CompletionStage.class.isAssignableFrom(returnClass);
         retryerClass = metaRequest.getRetryer();
         Class<? extends ForestEncoder> encoderClass = metaRequest.getEncoder();
         Class<? extends ForestConverter> decoderClass = metaRequest.getDecoder();
@@ -630,6 +675,7 @@ public class ForestMethod<T> implements VariableScope {
             MappingTemplate headerTemplate = makeTemplate(reqAnnType, "header", header);
             headerTemplateArray[j] = headerTemplate;
         }
+        headerConstants = splitConstantHeaders(headerTemplateArray);
 
         Class[] interceptorClasses = metaRequest.getInterceptor();
         if (interceptorClasses != null && interceptorClasses.length > 0) {
@@ -679,6 +725,8 @@ public class ForestMethod<T> implements VariableScope {
                 onSaveCookieParameter = parameter;
             } else if (OnLoadCookie.class.isAssignableFrom(paramType)) {
                 onLoadCookieParameter = parameter;
+            } else if (OnCancel.class.isAssignableFrom(paramType)) {
+                onCancelParameter = parameter;
             }
             processParameterAnnotation(parameter, anns);
         }
@@ -850,17 +898,6 @@ public class ForestMethod<T> implements VariableScope {
             renderedUserAgent = userAgentTemplate.render(args).trim();
         }
         List<RequestNameValue> nameValueList = new ArrayList<>();
-        String [] headerArray = baseMetaRequest.getHeaders();
-        MappingTemplate[] baseHeaders = null;
-        if (headerArray != null && headerArray.length > 0) {
-            baseHeaders = new MappingTemplate[headerArray.length];
-            for (int j = 0; j < baseHeaders.length; j++) {
-                MappingTemplate header = new MappingTemplate(
-                        BaseRequest.class, "headers",
-                        this, headerArray[j], this, configuration.getProperties(), forestParameters);
-                baseHeaders[j] = header;
-            }
-        }
 
         AddressSource addressSource = configuration.getBaseAddressSource();
         ForestAddress address = configuration.getBaseAddress();
@@ -868,17 +905,12 @@ public class ForestMethod<T> implements VariableScope {
             // 默认根地址
             address = DEFAULT_ADDRESS;
         }
-        ForestURL addressURL = null;
         if (baseURL != null) {
             renderedURL.setBaseURL(baseURL);
         }
-        try {
-            addressURL = new ForestURL(new URL("http://localhost"));
-            addressURL.setBaseAddress(address);
-            renderedURL = renderedURL.mergeURLWith(addressURL);
-        } catch (MalformedURLException e) {
-            throw new ForestRuntimeException(e);
-        }
+        ForestURL addressURL = new ForestURL("http", null, "localhost", -1, "");
+        addressURL.setBaseAddress(address);
+        renderedURL = renderedURL.mergeURLWith(addressURL);
 
         boolean autoRedirection = configuration.isAutoRedirection();
 
@@ -1063,14 +1095,21 @@ public class ForestMethod<T> implements VariableScope {
                         } else if (MappingParameter.isQuery(target)) {
                             if (!parameter.isJsonParam() && obj instanceof Iterable) {
                                 int index = 0;
-                                MappingTemplate template = makeTemplate(parameter);
+                                MappingTemplate template = namedParameterTemplate(i, parameter);
+                                if (!template.isConstant()) {
+                                    // 每个元素都要设置不同的变量作用域，不能共用预先编译的模板
+                                    template = makeTemplate(parameter);
+                                }
                                 VariableScope parentScope = template.getVariableScope();
                                 for (Object subItem : (Iterable) obj) {
-                                    SubVariableScope scope = new SubVariableScope(parentScope);
-                                    scope.addVariableValue("_it", subItem);
-                                    scope.addVariableValue("_index", index++);
-                                    template.setVariableScope(scope);
-                                    String name = template.render(args);
+                                    String name = template.getConstantValue();
+                                    if (name == null) {
+                                        SubVariableScope scope = new SubVariableScope(parentScope);
+                                        scope.addVariableValue("_it", subItem);
+                                        scope.addVariableValue("_index", index++);
+                                        template.setVariableScope(scope);
+                                        name = template.render(args);
+                                    }
                                     request.addQuery(
                                             name, subItem,
                                             parameter.isUrlEncode(), parameter.getCharset());
@@ -1083,8 +1122,10 @@ public class ForestMethod<T> implements VariableScope {
                                         parameter.isUrlEncode(), parameter.getCharset());
                             }
                         } else {
-                            MappingTemplate template = makeTemplate(parameter);
+                            MappingTemplate template = namedParameterTemplate(i, parameter);
                             if (obj instanceof Iterable && template.hasIterateVariable()) {
+                                // 每个元素都要设置不同的变量作用域，不能共用预先编译的模板
+                                template = makeTemplate(parameter);
                                 int index = 0;
                                 VariableScope parentScope = template.getVariableScope();
                                 for (Object subItem : (Iterable) obj) {
@@ -1168,15 +1209,15 @@ public class ForestMethod<T> implements VariableScope {
         if (configuration.getDefaultParameters() != null) {
             request.addNameValue(configuration.getDefaultParameters());
         }
-        if (baseHeaders != null && baseHeaders.length > 0) {
-            for (MappingTemplate baseHeader : baseHeaders) {
-                String headerText = baseHeader.render(args);
-                String[] headerNameValue = headerText.split(":", 2);
-                if (headerNameValue.length > 1) {
-                    String name = headerNameValue[0].trim();
-                    if (request.getHeader(name) == null) {
-                        request.addHeader(name, headerNameValue[1].trim());
-                    }
+        if (baseHeaderTemplateArray != null) {
+            for (int i = 0; i < baseHeaderTemplateArray.length; i++) {
+                String[] headerNameValue = baseHeaderConstants[i];
+                if (headerNameValue == null) {
+                    headerNameValue = splitHeader(baseHeaderTemplateArray[i].render(args));
+                }
+                String name = headerNameValue[0];
+                if (headerNameValue[1] != null && request.getHeader(name) == null) {
+                    request.addHeader(name, headerNameValue[1]);
                 }
             }
         }
@@ -1215,17 +1256,15 @@ public class ForestMethod<T> implements VariableScope {
         request.addNameValue(nameValueList);
 
         for (int i = 0; i < headerTemplateArray.length; i++) {
-            MappingTemplate headerTemplate = headerTemplateArray[i];
-            String header = headerTemplate.render(args);
-            String[] headNameValue = header.split(":", 2);
-            if (headNameValue.length > 0) {
-                String name = headNameValue[0].trim();
-                RequestNameValue nameValue = new RequestNameValue(name, TARGET_HEADER);
-                if (headNameValue.length == 2) {
-                    nameValue.setValue(headNameValue[1].trim());
-                }
-                request.addHeader(nameValue);
+            String[] headerNameValue = headerConstants[i];
+            if (headerNameValue == null) {
+                headerNameValue = splitHeader(headerTemplateArray[i].render(args));
+            }
+            RequestNameValue nameValue = new RequestNameValue(headerNameValue[0], TARGET_HEADER);
+            if (headerNameValue[1] != null) {
+                nameValue.setValue(headerNameValue[1]);
             }
+            request.addHeader(nameValue);
         }
 
         if (timeout != null) {
@@ -1305,6 +1344,11 @@ public class ForestMethod<T> implements VariableScope {
             request.setOnLoadCookie(onLoadCookieCallback);
         }
 
+        if (onCancelParameter != null) {
+            OnCancel onCancelCallback = (OnCancel) args[onCancelParameter.getIndex()];
+            request.setOnCancel(onCancelCallback);
+        }
+
         String dataType = dataTypeTemplate.render(args);
         if (StringUtils.isEmpty(dataType)) {
             request.setDataType(ForestDataType.TEXT);
@@ -1342,6 +1386,57 @@ public class ForestMethod<T> implements VariableScope {
         return request;
     }
 
+    /**
+     * 预先拆分常量请求头模板的名称和值
+     *
+     * @param templates 请求头模板数组，模板格式为 {@code 名称: 值}
+     * @return 与模板数组一一对应的 [名称, 值] 数组，非常量模板对应的元素为 {@code null}，没有值时值为 {@code null}
+     */
+    private static String[][] splitConstantHeaders(MappingTemplate[] templates) {
+        String[][] constants = new String[templates.length][];
+        for (int i = 0; i < templates.length; i++) {
+            MappingTemplate template = templates[i];
+            if (template.isConstant()) {
+                constants[i] = splitHeader(template.getConstantValue());
+            }
+        }
+        return constants;
+    }
+
+    private static String[] splitHeader(String header) {
+        String[] headerNameValue = header.split(":", 2);
+        String name = headerNameValue[0].trim();
+        String value = headerNameValue.length > 1 ? headerNameValue[1].trim() : null;
+        return new String[] {name, value};
+    }
+
+    /**
+     * 预先编译所有参数的名称模板，请求时不再重复解析
+     */
+    private void processNamedParameterTemplates() {
+        namedParameterTemplates = new MappingTemplate[namedParameters.size()];
+        for (int i = 0; i < namedParameterTemplates.length; i++) {
+            MappingParameter parameter = namedParameters.get(i);
+            if (parameter.getIndex() != null && !parameter.isObjectProperties()) {
+                namedParameterTemplates[i] = makeTemplate(parameter);
+            }
+        }
+    }
+
+    /**
+     * 获取预先编译的参数名称模板
+     *
+     * @param i 参数在 namedParameters 中的位置
+     * @param parameter 参数
+     * @return 参数名称模板
+     */
+    private MappingTemplate namedParameterTemplate(int i, MappingParameter parameter) {
+        if (i < namedParameterTemplates.length && namedParameterTemplates[i] != null) {
+            return namedParameterTemplates[i];
+        }
+        return makeTemplate(parameter);
+    }
+
 
     private List<RequestNameValue> getNameValueListFromObjectWithJSON(MappingParameter parameter, ForestConfiguration configuration, Object obj, ForestRequestType type) {
         Map<String, Object> propMap = ReflectUtils.convertObjectToMap(obj, configuration);
@@ -1365,6 +1460,20 @@ public class ForestMethod<T> implements VariableScope {
      * @return 调用本对象对应方法结束后返回的值，任意类型的对象实例
      */
     public Object invoke(Object[] args) {
+        // 如果启用了方法结果缓存，命中时不构建请求，直接返回缓存的对象
+        Object memoizer = getExtensionParameterValue(MemoizeLifeCycle.PARAM_KEY_MEMOIZER);
+        if (memoizer instanceof ForestMemoizer) {
+            return ((ForestMemoizer) memoizer).invoke(args, this::invokeRequest);
+        }
+        return invokeRequest(args);
+    }
+
+    /**
+     * 构建并执行请求
+     * @param args 调用本对象对应方法时传入的参数数组
+     * @return 调用本对象对应方法结束后返回的值
+     */
+    private Object invokeRequest(Object[] args) {
         Type rType = this.getReturnType();
         ForestRequest request = makeRequest(args);
         MethodLifeCycleHandler<T> lifeCycleHandler = null;
@@ -1407,13 +1516,88 @@ public class ForestMethod<T> implements VariableScope {
             lifeCycleHandler.handleInvokeMethod(request, this, args);
             return request;
         }
+        // 如果为存储转发请求，只将渲染好的请求写入本地日志，由后台线程发送
+        Object journalName = getExtensionParameterValue(StoreAndForwardLifeCycle.PARAM_KEY_JOURNAL);
+        if (journalName != null) {
+            lifeCycleHandler = new MethodLifeCycleHandler<>(
+                    rType, onSuccessClassGenericType);
+            request.setLifeCycleHandler(lifeCycleHandler);
+            lifeCycleHandler.handleInvokeMethod(request, this, args);
+            // 先执行拦截器的 beforeExecute，认证等拦截器对请求的修改才会被写入日志
+            InterceptorChain interceptorChain = request.getInterceptorChain();
+            if (!interceptorChain.beforeExecute(request)) {
+                return null;
+            }
+            try {
+                String methodId = method.getDeclaringClass().getName() + "#" + method.getName();
+                configuration.getJournal((String) journalName).append(ForestJournalRecord.from(methodId, request));
+            } finally {
+                // 请求由日志的发送线程重新创建并发送，本次调用不会再执行该请求
+                interceptorChain.onBeforeExecuteAborted(request);
+            }
+            return null;
+        }
+        // 如果为发后即忘请求，只将请求提交到异步线程池，不解析响应内容
+        if (Boolean.TRUE.equals(getExtensionParameterValue(FireAndForgetLifeCycle.PARAM_KEY_FIRE_AND_FORGET))) {
+            LifeCycleHandler fireAndForgetHandler = new FireAndForgetLifeCycleHandler();
+            request.setLifeCycleHandler(fireAndForgetHandler);
+            fireAndForgetHandler.handleInvokeMethod(request, this, args);
+            request.execute();
+            return null;
+        }
+        // 如果为分页请求，返回遍历到下一页时才发送请求的迭代器或流
+        Object pagination = getExtensionParameterValue(PaginatedLifeCycle.PARAM_KEY_PAGINATION);
+        if (pagination instanceof ForestPagination) {
+            Type elementType = ReactiveTypes.getElementType(getReturnType());
+            lifeCycleHandler = new MethodLifeCycleHandler<>(
+                    elementType, onSuccessClassGenericType);
+            request.setLifeCycleHandler(lifeCycleHandler);
+            lifeCycleHandler.handleInvokeMethod(request, this, args);
+            return ((ForestPagination) pagination).createResult(request, returnClass, elementType);
+        }
+        // 如果返回类型为响应式类型，返回延迟到订阅时才发送请求的发布者
+        if (ReactiveTypes.isReactiveType(returnClass)) {
+            Type elementType = ReactiveTypes.getElementType(getReturnType());
+            lifeCycleHandler = new MethodLifeCycleHandler<>(
+                    elementType, onSuccessClassGenericType);
+            request.setLifeCycleHandler(lifeCycleHandler);
+            lifeCycleHandler.handleInvokeMethod(request, this, args);
+            return ReactiveTypes.createPublisher(request, returnClass, elementType);
+        }
         lifeCycleHandler = new MethodLifeCycleHandler<>(
                 rType, onSuccessClassGenericType);
         request.setLifeCycleHandler(lifeCycleHandler);
         lifeCycleHandler.handleInvokeMethod(request, this, args);
+        if (CompletionStage.class.isAssignableFrom(returnClass)) {
+            return executeAsCompletionStage(request);
+        }
         return request.execute();
     }
 
+    /**
+     * 执行返回类型为 {@link CompletionStage} 的请求
+     * <p>请求在发送前失败或被拦截器中止时，也返回已完成的 {@link ForestFuture}，而不是抛出异常或返回空值
+     *
+     * @param request Forest请求对象
+     * @return {@link ForestFuture}对象
+     */
+    private Object executeAsCompletionStage(ForestRequest request) {
+        Object ret;
+        try {
+            ret = request.execute();
+        } catch (Throwable th) {
+            ForestFuture<Object> failed = new ForestFuture<>(request);
+            failed.completeExceptionally(th);
+            return failed;
+        }
+        if (ret instanceof CompletionStage) {
+            return ret;
+        }
+        ForestFuture<Object> completed = new ForestFuture<>(request);
+        completed.complete(ret);
+        return completed;
+    }
+
 
     /**
      * 获取泛型类型
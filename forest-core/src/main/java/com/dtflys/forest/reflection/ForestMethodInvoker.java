@@ -0,0 +1,21 @@
+package com.dtflys.forest.reflection;
+
+/**
+ * 方法调用器，用于在模板表达式中调用对象的方法
+ * <p>由 {@link ForestAccessors} 按类、方法名和参数个数生成并缓存
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+@FunctionalInterface
+public interface ForestMethodInvoker {
+
+    /**
+     * 调用方法
+     *
+     * @param target 目标对象
+     * @param args 调用参数
+     * @return 方法返回值
+     */
+    Object invoke(Object target, Object[] args);
+}
@@ -0,0 +1,20 @@
+package com.dtflys.forest.reflection;
+
+/**
+ * 属性访问器，用于在模板表达式中读取对象的属性
+ * <p>由 {@link ForestAccessors} 按类和属性名生成并缓存
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+@FunctionalInterface
+public interface ForestPropertyAccessor {
+
+    /**
+     * 读取属性值
+     *
+     * @param target 目标对象
+     * @return 属性值
+     */
+    Object get(Object target);
+}
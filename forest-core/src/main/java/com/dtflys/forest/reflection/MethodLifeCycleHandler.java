@@ -1,9 +1,11 @@
 package com.dtflys.forest.reflection;
 
+import com.dtflys.forest.callback.OnCancel;
 import com.dtflys.forest.callback.OnLoadCookie;
 import com.dtflys.forest.callback.OnProgress;
 import com.dtflys.forest.callback.OnSaveCookie;
 import com.dtflys.forest.callback.OnSuccess;
+import com.dtflys.forest.exceptions.ForestCanceledException;
 import com.dtflys.forest.exceptions.ForestNetworkException;
 import com.dtflys.forest.exceptions.ForestRetryException;
 import com.dtflys.forest.exceptions.ForestRuntimeException;
@@ -17,7 +19,9 @@ import com.dtflys.forest.utils.ForestProgress;
 import com.dtflys.forest.utils.ReflectUtils;
 
 import java.lang.reflect.Type;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * 请求方法生命周期处理器
@@ -38,6 +42,14 @@ public class MethodLifeCycleHandler<T> implements LifeCycleHandler {
 
     private volatile T resultData;
 
+    private final ReentrantLock resultLock = new ReentrantLock();
+
+    /**
+     * 异步请求的Future对象
+     * <p>与解析后的结果 {@code resultData} 分开保存，避免异步线程写入结果时覆盖返回给调用方的Future
+     */
+    private volatile Future future;
+
 
     public MethodLifeCycleHandler(Type resultType, Type onSuccessClassGenericType) {
         this.onSuccessClassGenericType = onSuccessClassGenericType;
@@ -56,6 +68,11 @@ public class MethodLifeCycleHandler<T> implements LifeCycleHandler {
         this.response = response;
         try {
             Object resultData = null;
+            if (request.isCanceled()) {
+                // 请求已被取消，不再处理响应结果
+                handleCanceled(request, response);
+                throw new ForestCanceledException(request);
+            }
             if (response.isSuccess()) {
                 resultData = handleResultType(request, response, resultType, resultRawClass);
                 resultData = handleSuccess(resultData, request, response);
@@ -101,14 +118,20 @@ public class MethodLifeCycleHandler<T> implements LifeCycleHandler {
 
 
     @Override
-    public synchronized Object handleResultType(ForestRequest request, ForestResponse response, Type resultType, Class resultClass) {
-        this.response = response;
-        Object resultData = RESULT_HANDLER.getResult(request, response, resultType, resultClass);
-        if (!(resultData instanceof ForestResponse)) {
-            response.setResult(resultData);
+    public Object handleResultType(ForestRequest request, ForestResponse response, Type resultType, Class resultClass) {
+        // 使用显式锁代替 synchronized，避免在虚拟线程中解析响应时钉住载体线程
+        resultLock.lock();
+        try {
+            this.response = response;
+            Object resultData = RESULT_HANDLER.getResult(request, response, resultType, resultClass);
+            if (!(resultData instanceof ForestResponse)) {
+                response.setResult(resultData);
+            }
+            this.resultData = (T) resultData;
+            return resultData;
+        } finally {
+            resultLock.unlock();
         }
-        this.resultData = (T) resultData;
-        return resultData;
     }
 
 
@@ -159,6 +182,16 @@ public class MethodLifeCycleHandler<T> implements LifeCycleHandler {
         }
     }
 
+    @Override
+    public void handleCanceled(ForestRequest request, ForestResponse response) {
+        this.response = response;
+        request.getInterceptorChain().onCancel(request, response);
+        OnCancel onCancel = request.getOnCancel();
+        if (onCancel != null) {
+            onCancel.onCancel(request, response);
+        }
+    }
+
     @Override
     public void handleProgress(ForestRequest request, ForestProgress progress) {
         request.getInterceptorChain().onProgress(progress);
@@ -194,13 +227,49 @@ public class MethodLifeCycleHandler<T> implements LifeCycleHandler {
 
     @Override
     public Object handleFuture(Future resultData) {
-        if (Future.class.isAssignableFrom(resultRawClass)) {
-            this.resultData = (T) resultData;
+        this.future = resultData;
+        if (isFutureResultType()) {
             return resultData;
         }
         return null;
     }
 
+    /**
+     * 方法返回类型是否为 {@link Future} 或 {@link CompletionStage}
+     *
+     * @return {@code true}: 是, {@code false}: 否
+     * @since 1.5.19
+     */
+    public boolean isFutureResultType() {
+        return Future.class.isAssignableFrom(resultRawClass)
+                || CompletionStage.class.isAssignableFrom(resultRawClass);
+    }
+
+    /**
+     * 获取异步请求的Future对象
+     *
+     * @return {@link Future}对象，同步请求时返回 {@code null}
+     * @since 1.5.19
+     */
+    public Future getFuture() {
+        return future;
+    }
+
+    /**
+     * 获取方法返回值
+     * <p>方法返回类型为 {@link Future} 或 {@link CompletionStage} 的异步请求返回Future对象，其余返回解析后的结果
+     *
+     * @return 方法返回值
+     * @since 1.5.19
+     */
+    public Object getReturnValue() {
+        Future f = future;
+        if (f != null && isFutureResultType()) {
+            return f;
+        }
+        return resultData;
+    }
+
     public ForestResponse<T> getResponse() {
         return response;
     }
@@ -56,6 +56,11 @@ public class NoneLifeCycleHandler implements LifeCycleHandler {
         return null;
     }
 
+    @Override
+    public void handleCanceled(ForestRequest request, ForestResponse response) {
+
+    }
+
     @Override
     public void handleProgress(ForestRequest request, ForestProgress progress) {
 
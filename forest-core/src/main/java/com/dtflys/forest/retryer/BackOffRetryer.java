@@ -36,7 +36,10 @@ public class BackOffRetryer extends ForestRetryer {
         }
         if (interval > 0) {
             try {
-                Thread.sleep(interval);
+                // 等待期间请求被取消时立即放弃重试
+                if (request.awaitCancel(interval)) {
+                    throw ex;
+                }
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
                 throw ex;
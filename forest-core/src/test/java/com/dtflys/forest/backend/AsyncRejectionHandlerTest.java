@@ -0,0 +1,108 @@
+package com.dtflys.forest.backend;
+
+import com.dtflys.forest.config.ForestConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link AsyncRejectionPolicy#BLOCK} 拒绝策略测试，使用默认的 {@link AsyncTaskFairQueue} 作为等待队列
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class AsyncRejectionHandlerTest {
+
+    private ThreadPoolExecutor pool;
+
+    private AsyncRejectionHandler handler;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Before
+    public void setUp() throws InterruptedException {
+        ForestConfiguration configuration = ForestConfiguration.createConfiguration()
+                .setMaxAsyncThreadSize(1)
+                .setMaxAsyncQueueSize(1)
+                .setAsyncRejectionPolicy(AsyncRejectionPolicy.BLOCK)
+                .setAsyncBlockTimeout(300L);
+        pool = AsyncHttpExecutor.createAsyncThreadPool(configuration);
+        handler = (AsyncRejectionHandler) pool.getRejectedExecutionHandler();
+        assertThat(pool.getQueue()).isInstanceOf(AsyncTaskFairQueue.class);
+        // 占满唯一的线程和等待队列
+        CountDownLatch started = new CountDownLatch(1);
+        pool.execute(() -> {
+            started.countDown();
+            awaitRelease();
+        });
+        started.await();
+        pool.execute(() -> { });
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        pool.shutdownNow();
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    public void testBlockUntilQueueFreed() throws InterruptedException {
+        AsyncHttpExecutor.getScheduler().schedule(release::countDown, 100, TimeUnit.MILLISECONDS);
+        CountDownLatch done = new CountDownLatch(1);
+        long begin = System.nanoTime();
+        pool.execute(done::countDown);
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+        assertThat(elapsed).isGreaterThanOrEqualTo(50L);
+        assertThat(done.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(handler.getBlockedCount()).isEqualTo(1);
+        assertThat(handler.getRejectedCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void testBlockTimeout() {
+        long begin = System.nanoTime();
+        try {
+            pool.execute(() -> { });
+            fail("expected RejectedExecutionException");
+        } catch (RejectedExecutionException e) {
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+            assertThat(elapsed).isGreaterThanOrEqualTo(250L);
+        }
+        assertThat(handler.getBlockedCount()).isEqualTo(0);
+        assertThat(handler.getRejectedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testNotBlockSchedulerThread() throws Exception {
+        long begin = System.nanoTime();
+        Future<?> future = AsyncHttpExecutor.getScheduler().submit(() -> pool.execute(() -> { }));
+        try {
+            future.get(1, TimeUnit.SECONDS);
+            fail("expected DeferredRejectionException");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause()).isInstanceOf(AsyncRejectionHandler.DeferredRejectionException.class);
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+        assertThat(elapsed).isLessThan(250L);
+        assertThat(handler.getBlockedCount()).isEqualTo(0);
+        assertThat(handler.getRejectedCount()).isEqualTo(0);
+    }
+}
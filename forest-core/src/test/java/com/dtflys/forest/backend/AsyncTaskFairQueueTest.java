@@ -0,0 +1,133 @@
+package com.dtflys.forest.backend;
+
+import com.dtflys.forest.config.ForestConfiguration;
+import com.dtflys.forest.handler.LifeCycleHandler;
+import com.dtflys.forest.http.ForestRequest;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 多租户公平等待队列测试
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class AsyncTaskFairQueueTest {
+
+    private final ForestConfiguration configuration = ForestConfiguration.createConfiguration();
+
+    private AsyncHttpExecutor.AsyncTask task(String tenant) {
+        ForestRequest<?> request = configuration.request().setTenant(tenant);
+        HttpExecutor executor = new HttpExecutor() {
+            @Override
+            public ForestRequest getRequest() {
+                return request;
+            }
+
+            @Override
+            public void execute(LifeCycleHandler lifeCycleHandler) {
+            }
+
+            @Override
+            public ResponseHandler getResponseHandler() {
+                return null;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        AsyncHttpExecutor.AsyncTask task = new AsyncHttpExecutor.AsyncTask(new CompletableFuture<>(), executor, null);
+        task.markEnqueued();
+        return task;
+    }
+
+    private static Map<String, AsyncTaskFairQueue.TenantStats> stats(AsyncTaskFairQueue queue) {
+        Map<String, AsyncTaskFairQueue.TenantStats> map = new HashMap<>();
+        for (AsyncTaskFairQueue.TenantStats stats : queue.getTenantStats()) {
+            map.put(stats.getTenant(), stats);
+        }
+        return map;
+    }
+
+    @Test
+    public void testBurstDoesNotLockOutOtherTenants() {
+        AsyncTaskFairQueue queue = new AsyncTaskFairQueue(4, 0);
+        AsyncHttpExecutor.AsyncTask[] burst = new AsyncHttpExecutor.AsyncTask[4];
+        for (int i = 0; i < burst.length; i++) {
+            burst[i] = task("a");
+            assertThat(queue.offer(burst[i])).isTrue();
+        }
+        // 积压最多的租户继续入队时被拒绝
+        assertThat(queue.offer(task("a"))).isFalse();
+        // 其它租户入队时挤出积压最多的租户中排序最靠后的任务
+        assertThat(queue.offer(task("b"))).isTrue();
+        assertThat(queue.size()).isEqualTo(4);
+        assertThat(burst[3].getFuture().isCompletedExceptionally()).isTrue();
+        assertThat(burst[0].getFuture().isDone()).isFalse();
+        try {
+            burst[3].getFuture().join();
+        } catch (Exception e) {
+            assertThat(e.getCause()).isInstanceOf(RejectedExecutionException.class);
+        }
+        assertThat(queue.offer(task("b"))).isTrue();
+        // 两个租户积压相同时不再挤占
+        assertThat(queue.offer(task("b"))).isFalse();
+        assertThat(queue.getRejectedCount()).isEqualTo(4);
+
+        Map<String, AsyncTaskFairQueue.TenantStats> stats = stats(queue);
+        assertThat(stats.get("a").getAcceptedCount()).isEqualTo(4);
+        assertThat(stats.get("a").getRejectedCount()).isEqualTo(3);
+        assertThat(stats.get("a").getQueueSize()).isEqualTo(2);
+        assertThat(stats.get("b").getAcceptedCount()).isEqualTo(2);
+        assertThat(stats.get("b").getRejectedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testWeightedAdmission() {
+        AsyncTaskFairQueue queue = new AsyncTaskFairQueue(4, 0);
+        queue.setTenantWeight("a", 3);
+        for (int i = 0; i < 3; i++) {
+            assertThat(queue.offer(task("a"))).isTrue();
+        }
+        assertThat(queue.offer(task("b"))).isTrue();
+        // 按权重折算，租户 a 的积压 (3/3) 不多于租户 b 入队后的积压 (2/1)
+        assertThat(queue.offer(task("b"))).isFalse();
+        assertThat(queue.size()).isEqualTo(4);
+    }
+
+    @Test
+    public void testStatsKeptAfterDrain() {
+        AsyncTaskFairQueue queue = new AsyncTaskFairQueue(2, 1);
+        assertThat(queue.offer(task("a"))).isTrue();
+        assertThat(queue.offer(task("a"))).isFalse();
+        assertThat(queue.offer(task("b"))).isTrue();
+        // 队列已满时被拒绝的新租户也计入拒绝次数
+        assertThat(queue.offer(task("c"))).isFalse();
+        while (queue.poll() != null) {
+            // 取空队列
+        }
+        Map<String, AsyncTaskFairQueue.TenantStats> stats = stats(queue);
+        assertThat(stats.get("a").getAcceptedCount()).isEqualTo(1);
+        assertThat(stats.get("a").getRejectedCount()).isEqualTo(1);
+        assertThat(stats.get("a").getQueueSize()).isEqualTo(0);
+        assertThat(stats.get("b").getAcceptedCount()).isEqualTo(1);
+        assertThat(stats.get("c").getAcceptedCount()).isEqualTo(0);
+        assertThat(stats.get("c").getRejectedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testResetTenantCapacity() {
+        AsyncTaskFairQueue queue = new AsyncTaskFairQueue(4, 1);
+        assertThat(queue.offer(task("a"))).isTrue();
+        assertThat(queue.offer(task("a"))).isFalse();
+        queue.setTenantCapacity(0);
+        assertThat(queue.offer(task("a"))).isTrue();
+    }
+}
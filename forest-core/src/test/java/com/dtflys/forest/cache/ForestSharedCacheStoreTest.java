@@ -0,0 +1,125 @@
+package com.dtflys.forest.cache;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 多进程共享缓存测试
+ * <p>通过 {@link ProcessBuilder} 启动另一个JVM，两个进程映射同一个缓存文件并互相读取对方写入的条目
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class ForestSharedCacheStoreTest {
+
+    private final static long FILE_SIZE = 8 * 1024 * 1024;
+
+    private final static int SLOT_SIZE = 1024;
+
+    private final static int KEY_COUNT = 100;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * 子进程入口
+     *
+     * @param args [write|read] 缓存文件 缓存键前缀
+     */
+    public static void main(String[] args) {
+        File file = new File(args[1]);
+        String prefix = args[2];
+        List<String> missing = new ArrayList<>();
+        try (ForestSharedCacheStore store = new ForestSharedCacheStore(file, FILE_SIZE, SLOT_SIZE)) {
+            if ("write".equals(args[0])) {
+                write(store, prefix);
+            } else {
+                missing = missing(store, prefix);
+            }
+        }
+        if (!missing.isEmpty()) {
+            System.err.println("missing: " + missing);
+        }
+        System.exit(missing.isEmpty() ? 0 : 1);
+    }
+
+    private static ForestCacheEntry entry(String value) {
+        long now = System.currentTimeMillis();
+        return new ForestCacheEntry(200, "OK", new String[] {"Content-Type", "text/plain"},
+                value.getBytes(StandardCharsets.UTF_8), now, now, new String[0],
+                TimeUnit.MINUTES.toMillis(10), 0, 0, 0, false, false);
+    }
+
+    private static void write(ForestSharedCacheStore store, String prefix) {
+        for (int i = 0; i < KEY_COUNT; i++) {
+            String key = prefix + "-" + i;
+            store.put(key, entry(key));
+        }
+    }
+
+    private static List<String> missing(ForestSharedCacheStore store, String prefix) {
+        List<String> missing = new ArrayList<>();
+        for (int i = 0; i < KEY_COUNT; i++) {
+            String key = prefix + "-" + i;
+            ForestCacheEntry entry = store.get(key);
+            if (entry == null || !key.equals(new String(entry.getBody(), StandardCharsets.UTF_8))) {
+                missing.add(key);
+            }
+        }
+        return missing;
+    }
+
+    private static Process fork(String mode, File file, String prefix) throws Exception {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        return new ProcessBuilder(java,
+                "-cp", System.getProperty("java.class.path"),
+                ForestSharedCacheStoreTest.class.getName(),
+                mode, file.getAbsolutePath(), prefix)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.INHERIT)
+                .start();
+    }
+
+    private static int waitFor(Process process) throws InterruptedException {
+        if (!process.waitFor(60, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+            throw new AssertionError("child process timed out");
+        }
+        return process.exitValue();
+    }
+
+    @Test
+    public void testReadAcrossProcesses() throws Exception {
+        File file = new File(folder.getRoot(), "shared.cache");
+        try (ForestSharedCacheStore store = new ForestSharedCacheStore(file, FILE_SIZE, SLOT_SIZE)) {
+            write(store, "parent");
+            // 子进程读取本进程写入的条目
+            assertThat(waitFor(fork("read", file, "parent"))).isEqualTo(0);
+            // 本进程读取子进程写入的条目
+            assertThat(waitFor(fork("write", file, "child"))).isEqualTo(0);
+            assertThat(missing(store, "child")).isEmpty();
+        }
+    }
+
+    @Test
+    public void testConcurrentWritesAcrossProcesses() throws Exception {
+        File file = new File(folder.getRoot(), "shared.cache");
+        try (ForestSharedCacheStore store = new ForestSharedCacheStore(file, FILE_SIZE, SLOT_SIZE)) {
+            Process child = fork("write", file, "child");
+            write(store, "parent");
+            assertThat(waitFor(child)).isEqualTo(0);
+            assertThat(missing(store, "parent")).isEmpty();
+            assertThat(missing(store, "child")).isEmpty();
+            assertThat(waitFor(fork("read", file, "parent"))).isEqualTo(0);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.dtflys.forest.journal;
+
+import com.dtflys.forest.annotation.Body;
+import com.dtflys.forest.annotation.Post;
+import com.dtflys.forest.annotation.StoreAndForward;
+import com.dtflys.forest.config.ForestConfiguration;
+import com.dtflys.forest.extensions.BasicAuth;
+import com.dtflys.forest.http.ForestRequest;
+import com.dtflys.forest.utils.Base64Utils;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 存储转发日志测试
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class ForestJournalTest {
+
+    public interface JournalClient {
+
+        @StoreAndForward("basic-auth")
+        @BasicAuth(username = "foo", password = "bar")
+        @Post(url = "${0}/events", connectTimeout = 1500, readTimeout = 2500)
+        void send(String baseUrl, @Body("name") String name);
+    }
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final MockWebServer server = new MockWebServer();
+
+    private ForestConfiguration configuration;
+
+    @Before
+    public void setUp() throws Exception {
+        server.start();
+        configuration = ForestConfiguration.createConfiguration()
+                .setJournalDir(folder.getRoot().getAbsolutePath());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        configuration.getJournal("basic-auth").close();
+        server.shutdown();
+    }
+
+    @Test
+    public void testReplayBasicAuth() throws InterruptedException {
+        server.enqueue(new MockResponse().setBody("ok"));
+        JournalClient client = configuration.client(JournalClient.class);
+        client.send("http://localhost:" + server.getPort(), "forest");
+        RecordedRequest recorded = server.takeRequest(5, TimeUnit.SECONDS);
+        assertThat(recorded).isNotNull();
+        assertThat(recorded.getPath()).isEqualTo("/events");
+        assertThat(recorded.getHeader("Authorization"))
+                .isEqualTo("Basic " + Base64Utils.encode("foo:bar"));
+        assertThat(recorded.getBody().readUtf8()).contains("forest");
+    }
+
+    @Test
+    public void testRecordKeepsRequestSettings() {
+        ForestRequest<?> request = configuration.request()
+                .setUrl("http://localhost:" + server.getPort() + "/events")
+                .setConnectTimeout(1500)
+                .setReadTimeout(2500)
+                .setMaxRetryCount(3)
+                .setMaxRetryInterval(200)
+                .setSslProtocol("TLSv1.2")
+                .addHeader("Authorization", "Bearer token");
+        ForestJournalRecord record = ForestJournalRecord.fromBytes(
+                ForestJournalRecord.from("test#send", request).toBytes());
+        ForestRequest<?> replay = record.toRequest(configuration);
+        assertThat(replay.getConnectTimeout()).isEqualTo(1500);
+        assertThat(replay.getReadTimeout()).isEqualTo(2500);
+        assertThat(replay.getMaxRetryCount()).isEqualTo(3);
+        assertThat(replay.getMaxRetryInterval()).isEqualTo(200);
+        assertThat(replay.getSslProtocol()).isEqualTo("TLSv1.2");
+        assertThat(replay.getHeaderValue("Authorization")).isEqualTo("Bearer token");
+        assertThat(replay.getBackend().getName()).isEqualTo(request.getBackend().getName());
+    }
+}
@@ -0,0 +1,86 @@
+package com.dtflys.forest.lifecycles.method;
+
+import com.dtflys.forest.annotation.ConcurrencyLimit;
+import com.dtflys.forest.annotation.Get;
+import com.dtflys.forest.annotation.Var;
+import com.dtflys.forest.callback.OnError;
+import com.dtflys.forest.config.ForestConfiguration;
+import com.dtflys.forest.exceptions.ForestConcurrencyLimitException;
+import com.dtflys.forest.exceptions.ForestRuntimeException;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * 并发限制注解的生命周期测试
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class ConcurrencyLimitLifeCycleTest {
+
+    @ConcurrencyLimit(1)
+    public interface LimitedClient {
+
+        @Get("http://localhost:${port}/slow")
+        String slow(@Var("port") int port);
+
+        @Get("http://localhost:${port}/fast")
+        String fast(@Var("port") int port, OnError onError);
+
+        @Get("http://localhost:${port}/fast")
+        CompletableFuture<String> fastAsync(@Var("port") int port);
+    }
+
+    private final MockWebServer server = new MockWebServer();
+
+    private LimitedClient client;
+
+    private CompletableFuture<String> slowCall;
+
+    @Before
+    public void setUp() throws Exception {
+        server.start();
+        client = ForestConfiguration.createConfiguration().client(LimitedClient.class);
+        // 占住唯一的执行许可
+        server.enqueue(new MockResponse().setBody("slow").setHeadersDelay(1, TimeUnit.SECONDS));
+        slowCall = CompletableFuture.supplyAsync(() -> client.slow(server.getPort()));
+        assertThat(server.takeRequest(5, TimeUnit.SECONDS)).isNotNull();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        assertThat(slowCall.get(5, TimeUnit.SECONDS)).isEqualTo("slow");
+        server.shutdown();
+    }
+
+    @Test
+    public void testRejectionGoesThroughOnError() {
+        AtomicReference<ForestRuntimeException> error = new AtomicReference<>();
+        client.fast(server.getPort(), (ex, req, res) -> error.set(ex));
+        assertThat(error.get()).isInstanceOf(ForestConcurrencyLimitException.class);
+        assertThat(server.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testRejectionCompletesFuture() throws Exception {
+        CompletableFuture<String> future = client.fastAsync(server.getPort());
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("expected ForestConcurrencyLimitException");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause()).isInstanceOf(ForestConcurrencyLimitException.class);
+        }
+        assertThat(server.getRequestCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,73 @@
+package com.dtflys.forest.lifecycles.method;
+
+import com.dtflys.forest.annotation.Get;
+import com.dtflys.forest.annotation.RateLimit;
+import com.dtflys.forest.annotation.Retry;
+import com.dtflys.forest.annotation.Var;
+import com.dtflys.forest.config.ForestConfiguration;
+import com.dtflys.forest.exceptions.ForestRateLimitException;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 请求限流注解的生命周期测试
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class RateLimitLifeCycleTest {
+
+    @Retry(maxRetryCount = "1", maxRetryInterval = "0")
+    public interface RetryClient {
+
+        @RateLimit(permits = 1, period = 500, adaptive = false)
+        @Get("http://localhost:${port}/wait")
+        String waitForPermit(@Var("port") int port);
+
+        @RateLimit(permits = 1, period = 5000, maxWait = 100, adaptive = false)
+        @Get("http://localhost:${port}/reject")
+        String rejectRetry(@Var("port") int port);
+    }
+
+    private final MockWebServer server = new MockWebServer();
+
+    private RetryClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        server.start();
+        client = ForestConfiguration.createConfiguration().client(RetryClient.class);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void testRetryWaitsForPermit() {
+        server.enqueue(new MockResponse().setResponseCode(500));
+        server.enqueue(new MockResponse().setBody("ok"));
+        long begin = System.nanoTime();
+        assertThat(client.waitForPermit(server.getPort())).isEqualTo("ok");
+        long elapsedMillis = (System.nanoTime() - begin) / 1_000_000;
+        assertThat(server.getRequestCount()).isEqualTo(2);
+        // 重试消耗第二个许可，需要等待下一个周期
+        assertThat(elapsedMillis).isGreaterThanOrEqualTo(400);
+    }
+
+    @Test
+    public void testRetryRejectedWhenWaitExceedsMaxWait() {
+        server.enqueue(new MockResponse().setResponseCode(500));
+        server.enqueue(new MockResponse().setBody("ok"));
+        assertThatThrownBy(() -> client.rejectRetry(server.getPort()))
+                .isInstanceOf(ForestRateLimitException.class);
+        assertThat(server.getRequestCount()).isEqualTo(1);
+    }
+}
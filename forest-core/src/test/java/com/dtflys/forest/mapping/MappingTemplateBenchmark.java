@@ -0,0 +1,151 @@
+package com.dtflys.forest.mapping;
+
+import com.dtflys.forest.annotation.Get;
+import com.dtflys.forest.annotation.Query;
+import com.dtflys.forest.annotation.Var;
+import com.dtflys.forest.config.ForestConfiguration;
+import com.dtflys.forest.config.VariableScope;
+import com.dtflys.forest.http.ForestRequest;
+import com.dtflys.forest.reflection.ForestMethod;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 字符串模板渲染的基准测试，对比解释执行和编译后的渲染耗时
+ * <p>分别测量单个URL模板的渲染耗时，以及通过接口方法创建请求对象（不发送请求）的耗时，
+ * 每项先预热再取多轮测量的中位数。不随单元测试运行，需在测试类路径下手动执行 {@link #main(String[])}
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class MappingTemplateBenchmark {
+
+    private final static String URL_TEMPLATE = "/users/{user.name}/orders/${1}?age={user.age}&host={host}";
+
+    private final static int WARMUP_ROUNDS = 5;
+
+    private final static int MEASURE_ROUNDS = 10;
+
+    private final static int RENDER_OPS = 1_000_000;
+
+    private final static int REQUEST_OPS = 100_000;
+
+    private static long sink;
+
+    public static class User {
+
+        public String getName() {
+            return "bob smith";
+        }
+
+        public int getAge() {
+            return 42;
+        }
+    }
+
+    public interface BenchmarkClient {
+
+        @Get(url = "http://{host}:8080" + URL_TEMPLATE, headers = "X-User: {user.name}")
+        ForestRequest<String> orders(@Var("user") User user, @Var("orderId") Integer orderId, @Query("z") String z);
+    }
+
+    /**
+     * 只包含方法参数变量 {@code user} 和全局变量的变量作用域
+     */
+    private static class BenchmarkScope implements VariableScope {
+
+        private final ForestConfiguration configuration;
+
+        private final Map<String, MappingVariable> variables = new HashMap<>();
+
+        BenchmarkScope(ForestConfiguration configuration) {
+            this.configuration = configuration;
+            MappingVariable user = new MappingVariable("user", User.class);
+            user.setIndex(0);
+            variables.put("user", user);
+        }
+
+        @Override
+        public boolean isVariableDefined(String name) {
+            return variables.containsKey(name) || configuration.isVariableDefined(name);
+        }
+
+        @Override
+        public Object getVariableValue(String name) {
+            return configuration.getVariableValue(name);
+        }
+
+        @Override
+        public Object getVariableValue(String name, ForestMethod method) {
+            return configuration.getVariableValue(name, method);
+        }
+
+        @Override
+        public MappingVariable getVariable(String name) {
+            return variables.get(name);
+        }
+
+        @Override
+        public ForestConfiguration getConfiguration() {
+            return configuration;
+        }
+    }
+
+    private static long renderRound(MappingTemplate template, Object[] args) {
+        long begin = System.nanoTime();
+        for (int i = 0; i < RENDER_OPS; i++) {
+            sink += template.render(args).length();
+        }
+        return (System.nanoTime() - begin) / RENDER_OPS;
+    }
+
+    private static long requestRound(BenchmarkClient client, User user) {
+        long begin = System.nanoTime();
+        for (int i = 0; i < REQUEST_OPS; i++) {
+            sink += client.orders(user, i, "z").getUrl().length();
+        }
+        return (System.nanoTime() - begin) / REQUEST_OPS;
+    }
+
+    private static long median(long[] samples) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static void run(boolean compile) {
+        ForestConfiguration configuration = ForestConfiguration.createConfiguration()
+                .setVariableValue("host", "localhost")
+                .setTemplateCompileEnabled(compile);
+        MappingParameter[] parameters = new MappingParameter[2];
+        for (int i = 0; i < parameters.length; i++) {
+            parameters[i] = new MappingParameter(Object.class);
+            parameters[i].setIndex(i);
+        }
+        MappingTemplate template = new MappingTemplate(Get.class, "url", null, URL_TEMPLATE,
+                new BenchmarkScope(configuration), configuration.getProperties(), parameters);
+        BenchmarkClient client = configuration.client(BenchmarkClient.class);
+        User user = new User();
+        Object[] args = {user, 1024};
+        long[] render = new long[MEASURE_ROUNDS];
+        long[] request = new long[MEASURE_ROUNDS];
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            renderRound(template, args);
+            requestRound(client, user);
+        }
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            render[i] = renderRound(template, args);
+            request[i] = requestRound(client, user);
+        }
+        System.out.printf("%-12s render: %6d ns/op    request build: %6d ns/op%n",
+                compile ? "compiled" : "interpreted", median(render), median(request));
+    }
+
+    public static void main(String[] args) {
+        run(false);
+        run(true);
+        System.out.println("(sink " + sink + ")");
+    }
+}
@@ -0,0 +1,59 @@
+package com.dtflys.forest.memoize;
+
+import com.dtflys.forest.annotation.Get;
+import com.dtflys.forest.annotation.Memoize;
+import com.dtflys.forest.annotation.Var;
+import com.dtflys.forest.config.ForestConfiguration;
+import com.dtflys.forest.http.ForestResponse;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 方法结果缓存测试
+ *
+ * @author gongjun [dt_flys@hotmail.com]
+ * @since 1.5.19
+ */
+public class ForestMemoizerTest {
+
+    public interface MemoizeClient {
+
+        @Memoize(ttl = 60000)
+        @Get("http://localhost:${port}/data")
+        ForestResponse<String> data(@Var("port") int port);
+    }
+
+    private final MockWebServer server = new MockWebServer();
+
+    private MemoizeClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        server.start();
+        client = ForestConfiguration.createConfiguration().client(MemoizeClient.class);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void testErrorResponseNotMemoized() {
+        server.enqueue(new MockResponse().setResponseCode(500).setBody("error"));
+        server.enqueue(new MockResponse().setBody("ok"));
+        ForestResponse<String> first = client.data(server.getPort());
+        assertThat(first.isError()).isTrue();
+        ForestResponse<String> second = client.data(server.getPort());
+        assertThat(second.isSuccess()).isTrue();
+        assertThat(second.getResult()).isEqualTo("ok");
+        // 成功的响应被缓存，不再发送请求
+        assertThat(client.data(server.getPort()).getResult()).isEqualTo("ok");
+        assertThat(server.getRequestCount()).isEqualTo(2);
+    }
+}
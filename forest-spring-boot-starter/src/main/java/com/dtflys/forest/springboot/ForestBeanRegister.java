@@ -81,6 +81,30 @@ public class ForestBeanRegister implements ResourceLoaderAware, BeanPostProcesso
 
         beanDefinitionBuilder
                 .addPropertyValue("maxAsyncThreadSize", forestConfigurationProperties.getMaxAsyncThreadSize())
+                .addPropertyValue("maxAsyncQueueSize", forestConfigurationProperties.getMaxAsyncQueueSize())
+                .addPropertyValue("maxAsyncQueueSizePerTenant", forestConfigurationProperties.getMaxAsyncQueueSizePerTenant())
+                .addPropertyValue("asyncTenantWeights", forestConfigurationProperties.getAsyncTenantWeights())
+                .addPropertyValue("asyncMode", forestConfigurationProperties.getAsyncMode())
+                .addPropertyValue("asyncRejectionPolicy", forestConfigurationProperties.getAsyncRejectionPolicy())
+                .addPropertyValue("asyncBlockTimeout", forestConfigurationProperties.getAsyncBlockTimeout())
+                .addPropertyValue("journalDir", forestConfigurationProperties.getJournalDir())
+                .addPropertyValue("journalSegmentSize", forestConfigurationProperties.getJournalSegmentSize())
+                .addPropertyValue("journalBatchSize", forestConfigurationProperties.getJournalBatchSize())
+                .addPropertyValue("responseCacheEnabled", forestConfigurationProperties.isResponseCacheEnabled())
+                .addPropertyValue("responseCacheMaxSize", forestConfigurationProperties.getResponseCacheMaxSize())
+                .addPropertyValue("responseCacheDir", forestConfigurationProperties.getResponseCacheDir())
+                .addPropertyValue("responseCacheDiskMaxSize", forestConfigurationProperties.getResponseCacheDiskMaxSize())
+                .addPropertyValue("responseCacheSegmentSize", forestConfigurationProperties.getResponseCacheSegmentSize())
+                .addPropertyValue("responseCacheSharedFile", forestConfigurationProperties.getResponseCacheSharedFile())
+                .addPropertyValue("responseCacheSharedSize", forestConfigurationProperties.getResponseCacheSharedSize())
+                .addPropertyValue("responseCacheSharedSlotSize", forestConfigurationProperties.getResponseCacheSharedSlotSize())
+                .addPropertyValue("cookieStoreEnabled", forestConfigurationProperties.isCookieStoreEnabled())
+                .addPropertyValue("cookieStoreFile", forestConfigurationProperties.getCookieStoreFile())
+                .addPropertyValue("redirectCacheEnabled", forestConfigurationProperties.isRedirectCacheEnabled())
+                .addPropertyValue("redirectCacheMaxSize", forestConfigurationProperties.getRedirectCacheMaxSize())
+                .addPropertyValue("redirectCacheTemporaryTtl", forestConfigurationProperties.getRedirectCacheTemporaryTtl())
+                .addPropertyValue("templateCompileEnabled", forestConfigurationProperties.isTemplateCompileEnabled())
+                .addPropertyValue("oauth2TokenStoreFile", forestConfigurationProperties.getOauth2TokenStoreFile())
                 .addPropertyValue("maxConnections", forestConfigurationProperties.getMaxConnections())
                 .addPropertyValue("maxRouteConnections", forestConfigurationProperties.getMaxRouteConnections())
                 .addPropertyValue("timeout", forestConfigurationProperties.getTimeout())
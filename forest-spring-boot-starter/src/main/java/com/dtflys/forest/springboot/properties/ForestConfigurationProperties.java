@@ -1,5 +1,7 @@
 package com.dtflys.forest.springboot.properties;
 
+import com.dtflys.forest.backend.AsyncMode;
+import com.dtflys.forest.backend.AsyncRejectionPolicy;
 import com.dtflys.forest.callback.AddressSource;
 import com.dtflys.forest.callback.RetryWhen;
 import com.dtflys.forest.callback.SuccessWhen;
@@ -45,6 +47,126 @@ public class ForestConfigurationProperties {
      */
     private int maxAsyncThreadSize = 100;
 
+    /**
+     * maximum number of async requests waiting in the queue
+     */
+    private int maxAsyncQueueSize = 100;
+
+    /**
+     * maximum number of async requests waiting in the queue per tenant
+     */
+    private Integer maxAsyncQueueSizePerTenant;
+
+    /**
+     * weights of tenants sharing the async request threads
+     */
+    private Map<String, Integer> asyncTenantWeights = new HashMap<>();
+
+    /**
+     * async execution mode: PLATFORM or VIRTUAL (requires JDK 21+)
+     */
+    private AsyncMode asyncMode = AsyncMode.PLATFORM;
+
+    /**
+     * rejection policy when the async request threads and queue are full
+     */
+    private AsyncRejectionPolicy asyncRejectionPolicy = AsyncRejectionPolicy.ABORT;
+
+    /**
+     * max time in milliseconds to wait for a queue slot when the rejection policy is BLOCK
+     */
+    private long asyncBlockTimeout = 3000;
+
+    /**
+     * root directory of the store-and-forward journals
+     */
+    private String journalDir = "forest-journal";
+
+    /**
+     * size in bytes of each store-and-forward journal segment file
+     */
+    private int journalSegmentSize = 16 * 1024 * 1024;
+
+    /**
+     * number of journal records sent per batch
+     */
+    private int journalBatchSize = 32;
+
+    /**
+     * enable the HTTP response cache for GET requests
+     */
+    private boolean responseCacheEnabled = false;
+
+    /**
+     * maximum size in bytes of the in-memory response cache
+     */
+    private long responseCacheMaxSize = 10 * 1024 * 1024;
+
+    /**
+     * directory of the memory-mapped disk response cache tier, disabled when empty
+     */
+    private String responseCacheDir;
+
+    /**
+     * maximum size in bytes of the disk response cache
+     */
+    private long responseCacheDiskMaxSize = 1024L * 1024 * 1024;
+
+    /**
+     * size in bytes of each disk response cache segment file
+     */
+    private int responseCacheSegmentSize = 64 * 1024 * 1024;
+
+    /**
+     * memory-mapped response cache file shared by processes on the same host, disabled when empty
+     */
+    private String responseCacheSharedFile;
+
+    /**
+     * size in bytes of the shared response cache file
+     */
+    private long responseCacheSharedSize = 256 * 1024 * 1024;
+
+    /**
+     * size in bytes of each shared response cache slot
+     */
+    private int responseCacheSharedSlotSize = 64 * 1024;
+
+    /**
+     * enable the built-in cookie store
+     */
+    private boolean cookieStoreEnabled = false;
+
+    /**
+     * file to persist the cookies of the built-in cookie store, cookies are kept in memory only when empty
+     */
+    private String cookieStoreFile;
+
+    /**
+     * enable caching of permanent redirects, later requests are rewritten to the redirect target before sending
+     */
+    private boolean redirectCacheEnabled = false;
+
+    /**
+     * max number of redirects kept in the redirect cache
+     */
+    private int redirectCacheMaxSize = 1000;
+
+    /**
+     * milliseconds to cache temporary redirects (302, 307), only permanent redirects (301, 308) are cached when 0
+     */
+    private long redirectCacheTemporaryTtl = 0;
+
+    /**
+     * compile string templates into render segments on first use instead of interpreting them on every render
+     */
+    private boolean templateCompileEnabled = false;
+
+    /**
+     * file to persist OAuth2 tokens across restarts, tokens are kept in memory only when empty
+     */
+    private String oauth2TokenStoreFile;
+
     /**
      * Timeout in milliseconds
      */
@@ -221,6 +343,198 @@ public class ForestConfigurationProperties {
         this.maxAsyncThreadSize = maxAsyncThreadSize;
     }
 
+    public int getMaxAsyncQueueSize() {
+        return maxAsyncQueueSize;
+    }
+
+    public void setMaxAsyncQueueSize(int maxAsyncQueueSize) {
+        this.maxAsyncQueueSize = maxAsyncQueueSize;
+    }
+
+    public Integer getMaxAsyncQueueSizePerTenant() {
+        return maxAsyncQueueSizePerTenant;
+    }
+
+    public void setMaxAsyncQueueSizePerTenant(Integer maxAsyncQueueSizePerTenant) {
+        this.maxAsyncQueueSizePerTenant = maxAsyncQueueSizePerTenant;
+    }
+
+    public Map<String, Integer> getAsyncTenantWeights() {
+        return asyncTenantWeights;
+    }
+
+    public void setAsyncTenantWeights(Map<String, Integer> asyncTenantWeights) {
+        this.asyncTenantWeights = asyncTenantWeights;
+    }
+
+    public AsyncMode getAsyncMode() {
+        return asyncMode;
+    }
+
+    public void setAsyncMode(AsyncMode asyncMode) {
+        this.asyncMode = asyncMode;
+    }
+
+    public AsyncRejectionPolicy getAsyncRejectionPolicy() {
+        return asyncRejectionPolicy;
+    }
+
+    public void setAsyncRejectionPolicy(AsyncRejectionPolicy asyncRejectionPolicy) {
+        this.asyncRejectionPolicy = asyncRejectionPolicy;
+    }
+
+    public long getAsyncBlockTimeout() {
+        return asyncBlockTimeout;
+    }
+
+    public void setAsyncBlockTimeout(long asyncBlockTimeout) {
+        this.asyncBlockTimeout = asyncBlockTimeout;
+    }
+
+    public String getJournalDir() {
+        return journalDir;
+    }
+
+    public void setJournalDir(String journalDir) {
+        this.journalDir = journalDir;
+    }
+
+    public int getJournalSegmentSize() {
+        return journalSegmentSize;
+    }
+
+    public void setJournalSegmentSize(int journalSegmentSize) {
+        this.journalSegmentSize = journalSegmentSize;
+    }
+
+    public int getJournalBatchSize() {
+        return journalBatchSize;
+    }
+
+    public void setJournalBatchSize(int journalBatchSize) {
+        this.journalBatchSize = journalBatchSize;
+    }
+
+    public boolean isResponseCacheEnabled() {
+        return responseCacheEnabled;
+    }
+
+    public void setResponseCacheEnabled(boolean responseCacheEnabled) {
+        this.responseCacheEnabled = responseCacheEnabled;
+    }
+
+    public long getResponseCacheMaxSize() {
+        return responseCacheMaxSize;
+    }
+
+    public void setResponseCacheMaxSize(long responseCacheMaxSize) {
+        this.responseCacheMaxSize = responseCacheMaxSize;
+    }
+
+    public String getResponseCacheDir() {
+        return responseCacheDir;
+    }
+
+    public void setResponseCacheDir(String responseCacheDir) {
+        this.responseCacheDir = responseCacheDir;
+    }
+
+    public long getResponseCacheDiskMaxSize() {
+        return responseCacheDiskMaxSize;
+    }
+
+    public void setResponseCacheDiskMaxSize(long responseCacheDiskMaxSize) {
+        this.responseCacheDiskMaxSize = responseCacheDiskMaxSize;
+    }
+
+    public int getResponseCacheSegmentSize() {
+        return responseCacheSegmentSize;
+    }
+
+    public void setResponseCacheSegmentSize(int responseCacheSegmentSize) {
+        this.responseCacheSegmentSize = responseCacheSegmentSize;
+    }
+
+    public String getResponseCacheSharedFile() {
+        return responseCacheSharedFile;
+    }
+
+    public void setResponseCacheSharedFile(String responseCacheSharedFile) {
+        this.responseCacheSharedFile = responseCacheSharedFile;
+    }
+
+    public long getResponseCacheSharedSize() {
+        return responseCacheSharedSize;
+    }
+
+    public void setResponseCacheSharedSize(long responseCacheSharedSize) {
+        this.responseCacheSharedSize = responseCacheSharedSize;
+    }
+
+    public int getResponseCacheSharedSlotSize() {
+        return responseCacheSharedSlotSize;
+    }
+
+    public void setResponseCacheSharedSlotSize(int responseCacheSharedSlotSize) {
+        this.responseCacheSharedSlotSize = responseCacheSharedSlotSize;
+    }
+
+    public boolean isCookieStoreEnabled() {
+        return cookieStoreEnabled;
+    }
+
+    public void setCookieStoreEnabled(boolean cookieStoreEnabled) {
+        this.cookieStoreEnabled = cookieStoreEnabled;
+    }
+
+    public String getCookieStoreFile() {
+        return cookieStoreFile;
+    }
+
+    public void setCookieStoreFile(String cookieStoreFile) {
+        this.cookieStoreFile = cookieStoreFile;
+    }
+
+    public boolean isRedirectCacheEnabled() {
+        return redirectCacheEnabled;
+    }
+
+    public void setRedirectCacheEnabled(boolean redirectCacheEnabled) {
+        this.redirectCacheEnabled = redirectCacheEnabled;
+    }
+
+    public int getRedirectCacheMaxSize() {
+        return redirectCacheMaxSize;
+    }
+
+    public void setRedirectCacheMaxSize(int redirectCacheMaxSize) {
+        this.redirectCacheMaxSize = redirectCacheMaxSize;
+    }
+
+    public long getRedirectCacheTemporaryTtl() {
+        return redirectCacheTemporaryTtl;
+    }
+
+    public void setRedirectCacheTemporaryTtl(long redirectCacheTemporaryTtl) {
+        this.redirectCacheTemporaryTtl = redirectCacheTemporaryTtl;
+    }
+
+    public boolean isTemplateCompileEnabled() {
+        return templateCompileEnabled;
+    }
+
+    public void setTemplateCompileEnabled(boolean templateCompileEnabled) {
+        this.templateCompileEnabled = templateCompileEnabled;
+    }
+
+    public String getOauth2TokenStoreFile() {
+        return oauth2TokenStoreFile;
+    }
+
+    public void setOauth2TokenStoreFile(String oauth2TokenStoreFile) {
+        this.oauth2TokenStoreFile = oauth2TokenStoreFile;
+    }
+
     public int getTimeout() {
         return timeout;
     }